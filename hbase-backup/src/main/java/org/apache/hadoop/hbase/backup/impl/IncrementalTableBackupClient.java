@@ -422,6 +422,21 @@ public class IncrementalTableBackupClient extends TableBackupClient {
   }
 
   protected void walToHFiles(List<String> dirPaths, List<String> tableList) throws IOException {
+    if (
+      conf.getBoolean(WALToHFilesConverter.CONVERTER_ENABLED_KEY,
+        WALToHFilesConverter.DEFAULT_CONVERTER_ENABLED)
+    ) {
+      List<TableName> tableNames = new ArrayList<>();
+      for (String table : tableList) {
+        tableNames.add(TableName.valueOf(table));
+      }
+      List<Path> walPaths = new ArrayList<>();
+      for (String dirPath : dirPaths) {
+        walPaths.add(new Path(dirPath));
+      }
+      new WALToHFilesConverter(conf, conn, tableNames, getBulkOutputDir()).convert(walPaths);
+      return;
+    }
     Tool player = new WALPlayer();
 
     // Player reads all files in arbitrary directory structure and creates
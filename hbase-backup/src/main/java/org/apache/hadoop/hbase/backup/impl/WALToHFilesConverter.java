@@ -0,0 +1,513 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hbase.backup.impl;
+
+import static org.apache.hadoop.hbase.regionserver.HStoreFile.BULKLOAD_TASK_KEY;
+import static org.apache.hadoop.hbase.regionserver.HStoreFile.BULKLOAD_TIME_KEY;
+import static org.apache.hadoop.hbase.regionserver.HStoreFile.EXCLUDE_FROM_MINOR_COMPACTION_KEY;
+import static org.apache.hadoop.hbase.regionserver.HStoreFile.MAJOR_COMPACTION_KEY;
+
+import java.io.EOFException;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hbase.CellComparator;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.ExtendedCell;
+import org.apache.hadoop.hbase.PrivateCellUtil;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.ColumnFamilyDescriptor;
+import org.apache.hadoop.hbase.client.ColumnFamilyDescriptorBuilder;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.RegionLocator;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.client.TableDescriptor;
+import org.apache.hadoop.hbase.io.hfile.CacheConfig;
+import org.apache.hadoop.hbase.io.hfile.HFile;
+import org.apache.hadoop.hbase.io.hfile.HFileContext;
+import org.apache.hadoop.hbase.io.hfile.HFileContextBuilder;
+import org.apache.hadoop.hbase.io.hfile.HFileScanner;
+import org.apache.hadoop.hbase.regionserver.BloomType;
+import org.apache.hadoop.hbase.regionserver.StoreFileWriter;
+import org.apache.hadoop.hbase.regionserver.StoreUtils;
+import org.apache.hadoop.hbase.snapshot.SnapshotRegionLocator;
+import org.apache.hadoop.hbase.util.BloomFilterUtil;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.util.EnvironmentEdgeManager;
+import org.apache.hadoop.hbase.util.Pair;
+import org.apache.hadoop.hbase.wal.AbstractFSWALProvider;
+import org.apache.hadoop.hbase.wal.WAL;
+import org.apache.hadoop.hbase.wal.WALEdit;
+import org.apache.hadoop.hbase.wal.WALEditInternalHelper;
+import org.apache.hadoop.hbase.wal.WALFactory;
+import org.apache.hadoop.hbase.wal.WALStreamReader;
+import org.apache.yetus.audience.InterfaceAudience;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.hbase.thirdparty.com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Converts WAL files to HFiles ready to be bulk loaded, in the backup client process, as an
+ * alternative to running {@link org.apache.hadoop.hbase.mapreduce.WALPlayer} as a MapReduce job.
+ * <p>
+ * The WAL files are read in parallel, keeping the cells of the given tables in memory. Once the
+ * buffered cells exceed {@value #CONVERTER_BUFFER_SIZE_KEY}, the cells of the table with the most
+ * buffered data are sorted and spilled to a temporary HFile per family. At the end, the spilled
+ * files and the cells left in memory are merged family by family, in parallel, and written out as
+ * one HFile per region and family, in the {@code <namespace>/<table>/<family>} layout of the
+ * {@code WALPlayer} bulk output. As with {@code WALPlayer}, the cells keep the sequence id of their
+ * WAL entry, so cells with the same key are ordered the way they were written.
+ */
+@InterfaceAudience.Private
+public class WALToHFilesConverter {
+
+  private static final Logger LOG = LoggerFactory.getLogger(WALToHFilesConverter.class);
+
+  /** Whether incremental backups convert their WAL files in process instead of with WALPlayer */
+  public static final String CONVERTER_ENABLED_KEY = "hbase.backup.wal.converter.enabled";
+  public static final boolean DEFAULT_CONVERTER_ENABLED = false;
+
+  /** The number of threads reading WAL files and writing HFiles */
+  public static final String CONVERTER_THREADS_KEY = "hbase.backup.wal.converter.threads";
+  public static final int DEFAULT_CONVERTER_THREADS = 8;
+
+  /** The heap size of the cells buffered in memory before spilling them to disk */
+  public static final String CONVERTER_BUFFER_SIZE_KEY = "hbase.backup.wal.converter.buffer.size";
+  public static final long DEFAULT_CONVERTER_BUFFER_SIZE = 256L * 1024 * 1024;
+
+  private static final String SPILL_DIR = ".spill";
+
+  /**
+   * The cells of a table, either buffered in memory or spilled to disk.
+   */
+  private static final class TableBuffer {
+    private final TableName tableName;
+    private List<ExtendedCell> cells = new ArrayList<>();
+    private long size;
+    // spilled files, by family
+    private final Map<byte[], List<Path>> spills = new TreeMap<>(Bytes.BYTES_COMPARATOR);
+
+    TableBuffer(TableName tableName) {
+      this.tableName = tableName;
+    }
+
+    synchronized void add(List<ExtendedCell> newCells, long newSize) {
+      cells.addAll(newCells);
+      size += newSize;
+    }
+
+    synchronized long getSize() {
+      return size;
+    }
+
+    /** Returns the buffered cells and their size, and empties the buffer */
+    synchronized Pair<List<ExtendedCell>, Long> drain() {
+      Pair<List<ExtendedCell>, Long> drained = new Pair<>(cells, size);
+      cells = new ArrayList<>();
+      size = 0;
+      return drained;
+    }
+
+    synchronized void addSpill(byte[] family, Path path) {
+      spills.computeIfAbsent(family, k -> new ArrayList<>()).add(path);
+    }
+  }
+
+  /**
+   * A sorted run of cells, either cells sorted in memory or a spilled file.
+   */
+  private static final class SortedRun {
+    private final Iterator<ExtendedCell> iter;
+    private final HFile.Reader reader;
+    private final HFileScanner scanner;
+    private boolean seeked;
+    private ExtendedCell current;
+
+    SortedRun(List<ExtendedCell> cells) {
+      this.iter = cells.iterator();
+      this.reader = null;
+      this.scanner = null;
+    }
+
+    SortedRun(HFile.Reader reader, Configuration conf) {
+      this.iter = null;
+      this.reader = reader;
+      this.scanner = reader.getScanner(conf, false, false);
+    }
+
+    boolean next() throws IOException {
+      if (iter != null) {
+        current = iter.hasNext() ? iter.next() : null;
+      } else if (seeked ? scanner.next() : scanner.seekTo()) {
+        current = scanner.getCell();
+      } else {
+        current = null;
+      }
+      seeked = true;
+      return current != null;
+    }
+
+    void close() throws IOException {
+      if (scanner != null) {
+        scanner.close();
+        reader.close();
+      }
+    }
+  }
+
+  private final Configuration conf;
+  private final Connection conn;
+  private final Path outputDir;
+  private final FileSystem outputFs;
+  private final Path spillDir;
+  private final Map<TableName, TableBuffer> tables = new HashMap<>();
+  private final int threads;
+  private final long bufferSize;
+  private final AtomicLong bufferedSize = new AtomicLong();
+  private final AtomicInteger spillCount = new AtomicInteger();
+  private final Object spillLock = new Object();
+
+  public WALToHFilesConverter(Configuration conf, Connection conn, Collection<TableName> tableNames,
+    Path outputDir) throws IOException {
+    this.conf = conf;
+    this.conn = conn;
+    this.outputDir = outputDir;
+    this.outputFs = outputDir.getFileSystem(conf);
+    this.spillDir = new Path(outputDir, SPILL_DIR);
+    for (TableName tableName : tableNames) {
+      tables.put(tableName, new TableBuffer(tableName));
+    }
+    this.threads = Math.max(1, conf.getInt(CONVERTER_THREADS_KEY, DEFAULT_CONVERTER_THREADS));
+    this.bufferSize = conf.getLong(CONVERTER_BUFFER_SIZE_KEY, DEFAULT_CONVERTER_BUFFER_SIZE);
+  }
+
+  /**
+   * Converts the edits of the given WAL files, or directories of WAL files, to HFiles.
+   */
+  public void convert(List<Path> walPaths) throws IOException {
+    List<Path> walFiles = new ArrayList<>();
+    for (Path walPath : walPaths) {
+      addWALFiles(walPath, walFiles);
+    }
+    LOG.info("Converting {} WAL files to HFiles in {} with {} threads", walFiles.size(), outputDir,
+      threads);
+    ExecutorService pool = Executors.newFixedThreadPool(threads,
+      new ThreadFactoryBuilder().setNameFormat("WALToHFilesConverter-%d").setDaemon(true).build());
+    try {
+      List<Callable<Void>> reads = new ArrayList<>();
+      for (Path walFile : walFiles) {
+        reads.add(() -> {
+          readWAL(walFile);
+          return null;
+        });
+      }
+      runAll(pool, reads);
+
+      List<Callable<Void>> writes = new ArrayList<>();
+      for (TableBuffer table : tables.values()) {
+        Map<byte[], List<ExtendedCell>> cellsByFamily = splitByFamily(table.drain().getFirst());
+        for (byte[] family : table.spills.keySet()) {
+          cellsByFamily.computeIfAbsent(family, k -> new ArrayList<>());
+        }
+        if (cellsByFamily.isEmpty()) {
+          continue;
+        }
+        TableDescriptor htd;
+        try (Table t = conn.getTable(table.tableName)) {
+          htd = t.getDescriptor();
+        }
+        byte[][] startKeys;
+        try (RegionLocator locator = getRegionLocator(table.tableName)) {
+          startKeys = locator.getStartKeys();
+        }
+        for (Map.Entry<byte[], List<ExtendedCell>> e : cellsByFamily.entrySet()) {
+          writes.add(() -> {
+            writeFamily(table, htd, startKeys, e.getKey(), e.getValue());
+            return null;
+          });
+        }
+      }
+      runAll(pool, writes);
+    } finally {
+      pool.shutdownNow();
+      outputFs.delete(spillDir, true);
+    }
+  }
+
+  private void addWALFiles(Path path, List<Path> walFiles) throws IOException {
+    FileSystem fs = path.getFileSystem(conf);
+    FileStatus status;
+    try {
+      status = fs.getFileStatus(path);
+    } catch (FileNotFoundException e) {
+      Path archivedLog = AbstractFSWALProvider.findArchivedLog(path, conf);
+      if (archivedLog == null) {
+        throw e;
+      }
+      status = fs.getFileStatus(archivedLog);
+    }
+    if (!status.isDirectory()) {
+      walFiles.add(status.getPath());
+      return;
+    }
+    for (FileStatus child : fs.listStatus(status.getPath())) {
+      addWALFiles(child.getPath(), walFiles);
+    }
+  }
+
+  private static void runAll(ExecutorService pool, List<Callable<Void>> tasks) throws IOException {
+    List<Future<Void>> futures = new ArrayList<>(tasks.size());
+    for (Callable<Void> task : tasks) {
+      futures.add(pool.submit(task));
+    }
+    try {
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      throw (InterruptedIOException) new InterruptedIOException().initCause(e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    } finally {
+      for (Future<Void> future : futures) {
+        future.cancel(true);
+      }
+    }
+  }
+
+  private void readWAL(Path path) throws IOException {
+    LOG.debug("Reading {}", path);
+    try (WALStreamReader reader =
+      WALFactory.createStreamReader(path.getFileSystem(conf), path, conf)) {
+      for (;;) {
+        WAL.Entry entry;
+        try {
+          entry = reader.next();
+        } catch (EOFException e) {
+          LOG.warn("Corrupted entry detected in {}. Ignoring the rest of the file."
+            + " (This is normal when a RegionServer crashed.)", path);
+          return;
+        }
+        if (entry == null) {
+          return;
+        }
+        TableBuffer table = tables.get(entry.getKey().getTableName());
+        if (table == null) {
+          continue;
+        }
+        List<ExtendedCell> cells = new ArrayList<>();
+        long size = 0;
+        for (ExtendedCell cell : WALEditInternalHelper.getExtendedCells(entry.getEdit())) {
+          if (WALEdit.isMetaEditFamily(cell)) {
+            continue;
+          }
+          // the sequence id is not written with the cells, see HBASE-27649
+          PrivateCellUtil.setSequenceId(cell, entry.getKey().getSequenceId());
+          cells.add(cell);
+          size += cell.heapSize();
+        }
+        table.add(cells, size);
+        if (bufferedSize.addAndGet(size) > bufferSize) {
+          spill();
+        }
+      }
+    }
+  }
+
+  /**
+   * Spills the cells of the table with the most buffered data. The readers block while a spill is
+   * in progress, which bounds the memory used.
+   */
+  private void spill() throws IOException {
+    synchronized (spillLock) {
+      if (bufferedSize.get() <= bufferSize) {
+        return;
+      }
+      TableBuffer largest = null;
+      for (TableBuffer table : tables.values()) {
+        if (largest == null || table.getSize() > largest.getSize()) {
+          largest = table;
+        }
+      }
+      // the readers may add to the buffer in the meantime, so take the size along with the cells
+      Pair<List<ExtendedCell>, Long> drained = largest.drain();
+      List<ExtendedCell> cells = drained.getFirst();
+      long size = drained.getSecond();
+      for (Map.Entry<byte[], List<ExtendedCell>> e : splitByFamily(cells).entrySet()) {
+        Path path = new Path(spillDir, Integer.toString(spillCount.incrementAndGet()));
+        HFileContext context = new HFileContextBuilder().withIncludesMvcc(true)
+          .withIncludesTags(true).withColumnFamily(e.getKey())
+          .withTableName(largest.tableName.getName()).build();
+        HFile.Writer writer = HFile.getWriterFactory(conf, CacheConfig.DISABLED)
+          .withPath(outputFs, path).withFileContext(context).create();
+        try {
+          for (ExtendedCell cell : e.getValue()) {
+            writer.append(cell);
+          }
+        } finally {
+          writer.close();
+        }
+        largest.addSpill(e.getKey(), path);
+      }
+      bufferedSize.addAndGet(-size);
+      LOG.debug("Spilled {} cells of {}, {} bytes", cells.size(), largest.tableName, size);
+    }
+  }
+
+  /** Returns the given cells grouped by family, each group sorted */
+  private static Map<byte[], List<ExtendedCell>> splitByFamily(List<ExtendedCell> cells) {
+    Map<byte[], List<ExtendedCell>> cellsByFamily = new TreeMap<>(Bytes.BYTES_COMPARATOR);
+    byte[] family = null;
+    List<ExtendedCell> familyCells = null;
+    for (ExtendedCell cell : cells) {
+      if (family == null || !CellUtil.matchingFamily(cell, family)) {
+        family = CellUtil.cloneFamily(cell);
+        familyCells = cellsByFamily.computeIfAbsent(family, k -> new ArrayList<>());
+      }
+      familyCells.add(cell);
+    }
+    for (List<ExtendedCell> sorted : cellsByFamily.values()) {
+      sorted.sort(CellComparator.getInstance());
+    }
+    return cellsByFamily;
+  }
+
+  /**
+   * Merges the spilled files of a family with its cells left in memory, and writes them to one
+   * HFile per region.
+   */
+  private void writeFamily(TableBuffer table, TableDescriptor htd, byte[][] startKeys,
+    byte[] family, List<ExtendedCell> cells) throws IOException {
+    CellComparator comparator = CellComparator.getInstance();
+    PriorityQueue<SortedRun> runs =
+      new PriorityQueue<>((a, b) -> comparator.compare(a.current, b.current));
+    List<SortedRun> opened = new ArrayList<>();
+    StoreFileWriter writer = null;
+    try {
+      opened.add(new SortedRun(cells));
+      for (Path spill : table.spills.getOrDefault(family, new ArrayList<>())) {
+        HFile.Reader reader = HFile.createReader(outputFs, spill, CacheConfig.DISABLED, true, conf);
+        opened.add(new SortedRun(reader, conf));
+      }
+      for (SortedRun run : opened) {
+        if (run.next()) {
+          runs.add(run);
+        }
+      }
+      ColumnFamilyDescriptor cfd = htd.getColumnFamily(family);
+      if (cfd == null) {
+        cfd = ColumnFamilyDescriptorBuilder.of(family);
+      }
+      Path familyDir = new Path(outputDir, new Path(table.tableName.getNamespaceAsString(),
+        new Path(table.tableName.getQualifierAsString(), Bytes.toString(family))));
+      int region = 0;
+      ExtendedCell last = null;
+      while (!runs.isEmpty()) {
+        SortedRun run = runs.poll();
+        ExtendedCell cell = run.current;
+        // drop the cells seen in more than one WAL file, as the WALPlayer reducer does
+        if (last == null || comparator.compare(last, cell) != 0) {
+          int cellRegion = region;
+          while (
+            cellRegion + 1 < startKeys.length
+              && comparator.compareRows(cell, startKeys[cellRegion + 1], 0,
+                startKeys[cellRegion + 1].length) >= 0
+          ) {
+            cellRegion++;
+          }
+          if (writer == null || cellRegion != region) {
+            close(writer);
+            writer = createWriter(table.tableName, cfd, familyDir);
+            region = cellRegion;
+          }
+          writer.append(cell);
+          last = cell;
+        }
+        if (run.next()) {
+          runs.add(run);
+        }
+      }
+    } finally {
+      close(writer);
+      for (SortedRun run : opened) {
+        run.close();
+      }
+    }
+  }
+
+  private StoreFileWriter createWriter(TableName tableName, ColumnFamilyDescriptor cfd,
+    Path familyDir) throws IOException {
+    Configuration writerConf = conf;
+    if (cfd.getBloomFilterType() == BloomType.ROWPREFIX_FIXED_LENGTH) {
+      writerConf = new Configuration(conf);
+      writerConf.set(BloomFilterUtil.PREFIX_LENGTH_KEY,
+        cfd.getConfigurationValue(BloomFilterUtil.PREFIX_LENGTH_KEY));
+    }
+    HFileContext context = new HFileContextBuilder().withCompression(cfd.getCompressionType())
+      .withDataBlockEncoding(cfd.getDataBlockEncoding())
+      .withChecksumType(StoreUtils.getChecksumType(conf))
+      .withBytesPerCheckSum(StoreUtils.getBytesPerChecksum(conf)).withBlockSize(cfd.getBlocksize())
+      .withColumnFamily(cfd.getName()).withTableName(tableName.getName())
+      .withCreateTime(EnvironmentEdgeManager.currentTime())
+      .withIncludesTags(HFile.getFormatVersion(conf) >= HFile.MIN_FORMAT_VERSION_WITH_TAGS).build();
+    return new StoreFileWriter.Builder(writerConf, CacheConfig.DISABLED, outputFs)
+      .withOutputDir(familyDir).withBloomType(cfd.getBloomFilterType()).withFileContext(context)
+      .build();
+  }
+
+  private void close(StoreFileWriter writer) throws IOException {
+    if (writer != null) {
+      writer.appendFileInfo(BULKLOAD_TIME_KEY, Bytes.toBytes(EnvironmentEdgeManager.currentTime()));
+      writer.appendFileInfo(BULKLOAD_TASK_KEY, Bytes.toBytes(getClass().getSimpleName()));
+      writer.appendFileInfo(MAJOR_COMPACTION_KEY, Bytes.toBytes(true));
+      writer.appendFileInfo(EXCLUDE_FROM_MINOR_COMPACTION_KEY, Bytes.toBytes(false));
+      writer.appendTrackedTimestampsToMetadata();
+      writer.close();
+    }
+  }
+
+  private RegionLocator getRegionLocator(TableName tableName) throws IOException {
+    if (SnapshotRegionLocator.shouldUseSnapshotRegionLocator(conf, tableName)) {
+      return SnapshotRegionLocator.create(conf, tableName);
+    }
+    return conn.getRegionLocator(tableName);
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hbase.backup;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import org.apache.hadoop.hbase.HBaseClassTestRule;
+import org.apache.hadoop.hbase.HBaseTestingUtil;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.backup.impl.BackupAdminImpl;
+import org.apache.hadoop.hbase.backup.impl.WALToHFilesConverter;
+import org.apache.hadoop.hbase.backup.util.BackupUtils;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.ConnectionFactory;
+import org.apache.hadoop.hbase.client.Delete;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.testclassification.LargeTests;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.hbase.thirdparty.com.google.common.collect.Lists;
+
+/**
+ * Runs incremental backups converting the WAL files in process, with {@link WALToHFilesConverter}.
+ */
+@Category(LargeTests.class)
+public class TestIncrementalBackupWithWALConverter extends TestBackupBase {
+
+  @ClassRule
+  public static final HBaseClassTestRule CLASS_RULE =
+    HBaseClassTestRule.forClass(TestIncrementalBackupWithWALConverter.class);
+
+  @BeforeClass
+  public static void setUp() throws Exception {
+    TEST_UTIL = new HBaseTestingUtil();
+    conf1 = TEST_UTIL.getConfiguration();
+    conf1.setBoolean(WALToHFilesConverter.CONVERTER_ENABLED_KEY, true);
+    // spill the buffered cells after every WAL entry
+    conf1.setLong(WALToHFilesConverter.CONVERTER_BUFFER_SIZE_KEY, 1);
+    conf1.setInt(WALToHFilesConverter.CONVERTER_THREADS_KEY, 2);
+    setUpHelper();
+  }
+
+  @Test
+  public void testIncrementalBackupRestore() throws Exception {
+    TableName tableName = TableName.valueOf("walConverter");
+    TableName restoreName = TableName.valueOf("walConverterRestore");
+    byte[][] splitKeys = new byte[][] { Bytes.toBytes("row5") };
+    try (Connection conn = ConnectionFactory.createConnection(conf1);
+      Table table = TEST_UTIL.createTable(tableName, famName, splitKeys)) {
+      for (int i = 0; i < 10; i++) {
+        table.put(new Put(Bytes.toBytes("row" + i)).addColumn(famName, qualName,
+          Bytes.toBytes("val" + i)));
+      }
+      BackupAdminImpl client = new BackupAdminImpl(conn);
+      List<TableName> tables = Lists.newArrayList(tableName);
+      String fullBackupId =
+        client.backupTables(createBackupRequest(BackupType.FULL, tables, BACKUP_ROOT_DIR));
+      assertTrue(checkSucceeded(fullBackupId));
+
+      // new rows in both regions, overwritten and deleted rows
+      for (int i = 10; i < 90; i++) {
+        table.put(new Put(Bytes.toBytes("row" + i)).addColumn(famName, qualName,
+          Bytes.toBytes("val" + i)));
+      }
+      table.put(
+        new Put(Bytes.toBytes("row1")).addColumn(famName, qualName, Bytes.toBytes("updated")));
+      table.delete(new Delete(Bytes.toBytes("row2")));
+      table.delete(new Delete(Bytes.toBytes("row7")));
+      String incrementalBackupId =
+        client.backupTables(createBackupRequest(BackupType.INCREMENTAL, tables, BACKUP_ROOT_DIR));
+      assertTrue(checkSucceeded(incrementalBackupId));
+
+      client.restore(BackupUtils.createRestoreRequest(BACKUP_ROOT_DIR, incrementalBackupId, false,
+        new TableName[] { tableName }, new TableName[] { restoreName }, true));
+      try (Table restored = conn.getTable(restoreName)) {
+        assertEquals(88, TEST_UTIL.countRows(restored));
+        assertArrayEquals(Bytes.toBytes("updated"),
+          restored.get(new Get(Bytes.toBytes("row1"))).getValue(famName, qualName));
+        assertFalse(restored.exists(new Get(Bytes.toBytes("row2"))));
+        assertFalse(restored.exists(new Get(Bytes.toBytes("row7"))));
+        assertArrayEquals(Bytes.toBytes("val89"),
+          restored.get(new Get(Bytes.toBytes("row89"))).getValue(famName, qualName));
+      }
+    }
+  }
+}
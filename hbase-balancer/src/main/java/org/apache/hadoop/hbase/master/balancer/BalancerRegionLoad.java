@@ -36,6 +36,7 @@ class BalancerRegionLoad {
   private final int storefileSizeMB;
   private final int regionSizeMB;
   private final float currentRegionPrefetchRatio;
+  private final long readLatencyP99;
 
   BalancerRegionLoad(RegionMetrics regionMetrics) {
     readRequestsCount = regionMetrics.getReadRequestCount();
@@ -45,6 +46,7 @@ class BalancerRegionLoad {
     storefileSizeMB = (int) regionMetrics.getStoreFileSize().get(Size.Unit.MEGABYTE);
     regionSizeMB = (int) regionMetrics.getRegionSizeMB().get(Size.Unit.MEGABYTE);
     currentRegionPrefetchRatio = regionMetrics.getCurrentRegionCachedRatio();
+    readLatencyP99 = regionMetrics.getReadLatencyP99();
   }
 
   public long getReadRequestsCount() {
@@ -74,4 +76,8 @@ class BalancerRegionLoad {
   public float getCurrentRegionCacheRatio() {
     return currentRegionPrefetchRatio;
   }
+
+  public long getReadLatencyP99() {
+    return readLatencyP99;
+  }
 }
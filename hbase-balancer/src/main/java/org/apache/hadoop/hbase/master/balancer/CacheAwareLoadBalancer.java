@@ -466,10 +466,10 @@ public class CacheAwareLoadBalancer extends StochasticLoadBalancer {
 
     @Override
     protected void regionMoved(int region, int oldServer, int newServer) {
-      cost.applyCostsChange(costs -> {
-        costs[oldServer] = cluster.regionsPerServer[oldServer].length;
-        costs[newServer] = cluster.regionsPerServer[newServer].length;
-      });
+      if (oldServer >= 0) {
+        cost.setCost(oldServer, cluster.regionsPerServer[oldServer].length);
+      }
+      cost.setCost(newServer, cluster.regionsPerServer[newServer].length);
     }
 
     @Override
@@ -29,40 +29,53 @@ abstract class CostFromRegionLoadFunction extends CostFunction {
 
   private final DoubleArrayCost cost = new DoubleArrayCost();
 
-  private double computeCostForRegionServer(int regionServerIndex) {
-    // Cost this server has from RegionLoad
-    double cost = 0;
-
-    // for every region on this server get the rl
-    for (int regionIndex : cluster.regionsPerServer[regionServerIndex]) {
-      Collection<BalancerRegionLoad> regionLoadList = cluster.regionLoads[regionIndex];
+  // The cost of every region, which does not change during a balancer run. Caching it lets us
+  // update the cost of the two servers involved in a move without going over all their regions.
+  private double[] regionCosts;
 
-      // Now if we found a region load get the type of cost that was requested.
-      if (regionLoadList != null) {
-        cost += getRegionLoadCost(regionLoadList);
-      }
-    }
-    return cost;
+  private double computeCostForRegion(int regionIndex) {
+    Collection<BalancerRegionLoad> regionLoadList = cluster.regionLoads[regionIndex];
+    // Now if we found a region load get the type of cost that was requested.
+    return regionLoadList != null ? getRegionLoadCost(regionLoadList) : 0;
   }
 
   @Override
   void prepare(BalancerClusterState cluster) {
     super.prepare(cluster);
+    if (regionCosts == null || regionCosts.length != cluster.numRegions) {
+      regionCosts = new double[cluster.numRegions];
+    }
+    for (int i = 0; i < cluster.numRegions; i++) {
+      regionCosts[i] = computeCostForRegion(i);
+    }
     cost.prepare(cluster.numServers);
     cost.applyCostsChange(costs -> {
       for (int i = 0; i < costs.length; i++) {
-        costs[i] = computeCostForRegionServer(i);
+        // Cost this server has from RegionLoad
+        double serverCost = 0;
+        for (int regionIndex : cluster.regionsPerServer[i]) {
+          serverCost += regionCosts[regionIndex];
+        }
+        costs[i] = serverCost * getServerCostFactor(i);
       }
     });
   }
 
   @Override
   protected void regionMoved(int region, int oldServer, int newServer) {
-    // recompute the stat for the given two region servers
-    cost.applyCostsChange(costs -> {
-      costs[oldServer] = computeCostForRegionServer(oldServer);
-      costs[newServer] = computeCostForRegionServer(newServer);
-    });
+    double regionCost = regionCosts[region];
+    if (oldServer >= 0) {
+      cost.addCost(oldServer, -regionCost * getServerCostFactor(oldServer));
+    }
+    cost.addCost(newServer, regionCost * getServerCostFactor(newServer));
+  }
+
+  /**
+   * The factor to multiply the cost of the regions on the given server with. Override it for
+   * costs where the same load is more expensive on some servers than on others.
+   */
+  protected double getServerCostFactor(int server) {
+    return 1;
   }
 
   @Override
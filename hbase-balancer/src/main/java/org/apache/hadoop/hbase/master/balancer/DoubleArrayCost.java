@@ -37,10 +37,23 @@ final class DoubleArrayCost {
 
   private double cost;
 
+  // The sum and the sum of squares of the costs, which is all we need to compute the cost. They
+  // are kept up to date by setCost and addCost, so the cost of a balancer step does not depend on
+  // the number of region servers. Only applyCostsChange makes us go over all the costs again.
+  private double sum;
+
+  private double sumOfSquares;
+
+  private boolean sumsStale = true;
+
+  // the running sums pick up rounding errors, so we recompute them after this many updates
+  private int updatesSinceSumsComputed;
+
   void prepare(int length) {
     if (costs == null || costs.length != length) {
       costs = new double[length];
     }
+    sumsStale = true;
   }
 
   /**
@@ -55,43 +68,70 @@ final class DoubleArrayCost {
   void applyCostsChange(Consumer<double[]> consumer) {
     consumer.accept(costs);
     costsChanged = true;
+    sumsStale = true;
+  }
+
+  /**
+   * Set the cost of one element. Prefer this to {@link #applyCostsChange(Consumer)} when only a few
+   * elements change, e.g, in regionMoved, as computing the cost afterwards is O(1).
+   */
+  void setCost(int index, double value) {
+    addCost(index, value - costs[index]);
+  }
+
+  /**
+   * Add the given delta to the cost of one element, see {@link #setCost(int, double)}.
+   */
+  void addCost(int index, double delta) {
+    double oldValue = costs[index];
+    double newValue = oldValue + delta;
+    costs[index] = newValue;
+    costsChanged = true;
+    if (!sumsStale) {
+      sum += delta;
+      sumOfSquares += newValue * newValue - oldValue * oldValue;
+      // recomputing the sums once every costs.length updates keeps an update O(1) amortized
+      if (++updatesSinceSumsComputed >= costs.length) {
+        sumsStale = true;
+      }
+    }
   }
 
   double cost() {
     if (costsChanged) {
-      cost = computeCost(costs);
+      if (sumsStale) {
+        computeSums();
+      }
+      cost = computeCost(sum, sumOfSquares, costs.length);
       costsChanged = false;
     }
     return cost;
   }
 
-  private static double computeCost(double[] stats) {
-    if (stats == null || stats.length == 0) {
-      return 0;
+  private void computeSums() {
+    sum = 0;
+    sumOfSquares = 0;
+    for (double c : costs) {
+      sum += c;
+      sumOfSquares += c * c;
     }
-    double totalCost = 0;
-    double total = getSum(stats);
-
-    double count = stats.length;
-    double mean = total / count;
-    for (int i = 0; i < stats.length; i++) {
-      double n = stats[i];
-      double diff = (mean - n) * (mean - n);
-      totalCost += diff;
+    sumsStale = false;
+    updatesSinceSumsComputed = 0;
+  }
+
+  private static double computeCost(double total, double totalOfSquares, int length) {
+    if (length == 0) {
+      return 0;
     }
+    double count = length;
+    // the sum of the squared differences to the mean, which can be a bit below zero due to rounding
+    // errors when all the costs are about the same
+    double totalCost = Math.max(0, totalOfSquares - total * total / count);
     // No need to compute standard deviation with division by cluster size when scaling.
     totalCost = Math.sqrt(totalCost);
     return CostFunction.scale(getMinSkew(total, count), getMaxSkew(total, count), totalCost);
   }
 
-  private static double getSum(double[] stats) {
-    double total = 0;
-    for (double s : stats) {
-      total += s;
-    }
-    return total;
-  }
-
   /**
    * Return the min skew of distribution
    * @param total is total number of regions
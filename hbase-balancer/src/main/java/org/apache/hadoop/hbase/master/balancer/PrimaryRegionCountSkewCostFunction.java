@@ -65,14 +65,12 @@ class PrimaryRegionCountSkewCostFunction extends CostFunction {
 
   @Override
   protected void regionMoved(int region, int oldServer, int newServer) {
-    cost.applyCostsChange(costs -> {
-      if (region == cluster.regionIndexToPrimaryIndex[region]) {
-        if (oldServer >= 0) {
-          costs[oldServer]--;
-        }
-        costs[newServer]++;
+    if (region == cluster.regionIndexToPrimaryIndex[region]) {
+      if (oldServer >= 0) {
+        cost.addCost(oldServer, -1);
       }
-    });
+      cost.addCost(newServer, 1);
+    }
   }
 
   @Override
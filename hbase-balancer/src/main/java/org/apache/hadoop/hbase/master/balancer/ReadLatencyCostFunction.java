@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hbase.master.balancer;
+
+import java.util.Deque;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.yetus.audience.InterfaceAudience;
+
+/**
+ * Compute the cost of the read requests on every region server, weighted by how slow the server
+ * has been serving reads recently. The region servers report the 99th percentile of the read
+ * latency of every region, we use the average over the regions on a server, weighted by their
+ * read request rate, to find the servers which are slower than the rest of the cluster, e.g,
+ * because of a bad disk or long GC pauses. The read load on such a server costs more, so the
+ * balancer moves the hot regions away from it.
+ * <p/>
+ * Disabled by default, set {@value #READ_LATENCY_COST_KEY} to a positive weight to enable it.
+ */
+@InterfaceAudience.Private
+class ReadLatencyCostFunction extends CostFromRegionLoadAsRateFunction {
+
+  static final String READ_LATENCY_COST_KEY = "hbase.master.balancer.stochastic.readLatencyCost";
+  static final float DEFAULT_READ_LATENCY_COST = 0;
+
+  private double[] serverCostFactors;
+
+  private boolean hasReadLatency;
+
+  ReadLatencyCostFunction(Configuration conf) {
+    this.setMultiplier(conf.getFloat(READ_LATENCY_COST_KEY, DEFAULT_READ_LATENCY_COST));
+  }
+
+  @Override
+  boolean isNeeded() {
+    // older region servers do not report the latency at all
+    return hasReadLatency;
+  }
+
+  @Override
+  void prepare(BalancerClusterState cluster) {
+    // the factors are needed by super.prepare to compute the cost of every server
+    computeServerCostFactors(cluster);
+    super.prepare(cluster);
+  }
+
+  private void computeServerCostFactors(BalancerClusterState cluster) {
+    if (serverCostFactors == null || serverCostFactors.length != cluster.numServers) {
+      serverCostFactors = new double[cluster.numServers];
+    }
+    double[] serverLatencySums = new double[cluster.numServers];
+    double[] serverWeights = new double[cluster.numServers];
+    double latencySum = 0;
+    double weightSum = 0;
+    for (int server = 0; server < cluster.numServers; server++) {
+      for (int region : cluster.regionsPerServer[server]) {
+        Deque<BalancerRegionLoad> regionLoads = cluster.regionLoads[region];
+        if (regionLoads == null || regionLoads.isEmpty()) {
+          continue;
+        }
+        // only the last load, the older ones could have been reported by another server
+        long latency = regionLoads.getLast().getReadLatencyP99();
+        if (latency <= 0) {
+          continue;
+        }
+        // the regions without reads in between the loads still count a bit, their latency tells
+        // us something about the server too
+        double weight = getRegionLoadCost(regionLoads) + 1;
+        serverLatencySums[server] += latency * weight;
+        serverWeights[server] += weight;
+      }
+      latencySum += serverLatencySums[server];
+      weightSum += serverWeights[server];
+    }
+    hasReadLatency = weightSum > 0;
+    double clusterLatency = hasReadLatency ? latencySum / weightSum : 0;
+    for (int server = 0; server < cluster.numServers; server++) {
+      // a server we know nothing about is as fast as the rest of the cluster
+      serverCostFactors[server] = serverWeights[server] > 0
+        ? serverLatencySums[server] / serverWeights[server] / clusterLatency
+        : 1;
+    }
+  }
+
+  @Override
+  protected double getServerCostFactor(int server) {
+    return serverCostFactors[server];
+  }
+
+  @Override
+  protected double getCostFromRl(BalancerRegionLoad rl) {
+    return rl.getReadRequestsCount();
+  }
+}
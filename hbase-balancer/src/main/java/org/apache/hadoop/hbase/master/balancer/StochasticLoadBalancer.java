@@ -259,6 +259,7 @@ public class StochasticLoadBalancer extends BaseLoadBalancer {
     addCostFunction(costFunctions, regionReplicaHostCostFunction);
     addCostFunction(costFunctions, regionReplicaRackCostFunction);
     addCostFunction(costFunctions, new ReadRequestCostFunction(conf));
+    addCostFunction(costFunctions, new ReadLatencyCostFunction(conf));
     addCostFunction(costFunctions, new CPRequestCostFunction(conf));
     addCostFunction(costFunctions, new WriteRequestCostFunction(conf));
     addCostFunction(costFunctions, new MemStoreSizeCostFunction(conf));
@@ -19,6 +19,7 @@ package org.apache.hadoop.hbase.master.balancer;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.Random;
 import org.apache.hadoop.hbase.HBaseClassTestRule;
 import org.apache.hadoop.hbase.testclassification.MasterTests;
 import org.apache.hadoop.hbase.testclassification.SmallTests;
@@ -64,4 +65,34 @@ public class TestDoubleArrayCost {
     });
     assertEquals(0.0708, cost.cost(), 0.01);
   }
+
+  @Test
+  public void testIncrementalUpdates() {
+    Random rand = new Random(12345);
+    double[] expected = new double[50];
+    DoubleArrayCost cost = new DoubleArrayCost();
+    cost.prepare(expected.length);
+    cost.applyCostsChange(costs -> {
+      for (int i = 0; i < costs.length; i++) {
+        costs[i] = expected[i] = rand.nextInt(1000);
+      }
+    });
+    cost.cost();
+    for (int i = 0; i < 1000; i++) {
+      int index = rand.nextInt(expected.length);
+      if (rand.nextBoolean()) {
+        double value = rand.nextDouble() * 1000;
+        cost.setCost(index, value);
+        expected[index] = value;
+      } else {
+        double delta = rand.nextDouble() * 100 - 50;
+        cost.addCost(index, delta);
+        expected[index] += delta;
+      }
+      DoubleArrayCost fullCost = new DoubleArrayCost();
+      fullCost.prepare(expected.length);
+      fullCost.applyCostsChange(costs -> System.arraycopy(expected, 0, costs, 0, costs.length));
+      assertEquals(fullCost.cost(), cost.cost(), 1e-6);
+    }
+  }
 }
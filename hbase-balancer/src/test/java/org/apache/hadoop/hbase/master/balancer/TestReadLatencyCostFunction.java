@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hbase.master.balancer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.HBaseClassTestRule;
+import org.apache.hadoop.hbase.ServerName;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.RegionInfo;
+import org.apache.hadoop.hbase.client.RegionInfoBuilder;
+import org.apache.hadoop.hbase.testclassification.MasterTests;
+import org.apache.hadoop.hbase.testclassification.SmallTests;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category({ MasterTests.class, SmallTests.class })
+public class TestReadLatencyCostFunction {
+
+  @ClassRule
+  public static final HBaseClassTestRule CLASS_RULE =
+    HBaseClassTestRule.forClass(TestReadLatencyCostFunction.class);
+
+  private static final TableName TABLE = TableName.valueOf("testTable");
+
+  private final Map<ServerName, List<RegionInfo>> clusterState = new HashMap<>();
+
+  private final Map<String, Deque<BalancerRegionLoad>> loads = new HashMap<>();
+
+  private int regionId;
+
+  private void addServer(String host, int regions, long readLatencyP99) {
+    ServerName server = ServerName.valueOf(host, 16020, 1L);
+    List<RegionInfo> regionInfos = new ArrayList<>();
+    for (int i = 0; i < regions; i++) {
+      RegionInfo region = RegionInfoBuilder.newBuilder(TABLE)
+        .setStartKey(Bytes.toBytes(regionId)).setEndKey(Bytes.toBytes(regionId + 1)).build();
+      regionId++;
+      // 100 reads in between the two loads
+      Deque<BalancerRegionLoad> regionLoads = new ArrayDeque<>();
+      regionLoads.add(mockRegionLoad(1000, readLatencyP99));
+      regionLoads.add(mockRegionLoad(1100, readLatencyP99));
+      loads.put(region.getRegionNameAsString(), regionLoads);
+      regionInfos.add(region);
+    }
+    clusterState.put(server, regionInfos);
+  }
+
+  private static BalancerRegionLoad mockRegionLoad(long readRequests, long readLatencyP99) {
+    BalancerRegionLoad load = mock(BalancerRegionLoad.class);
+    when(load.getReadRequestsCount()).thenReturn(readRequests);
+    when(load.getReadLatencyP99()).thenReturn(readLatencyP99);
+    return load;
+  }
+
+  private ReadLatencyCostFunction prepare(BalancerClusterState cluster) {
+    ReadLatencyCostFunction costFunction = new ReadLatencyCostFunction(new Configuration());
+    costFunction.prepare(cluster);
+    return costFunction;
+  }
+
+  @Test
+  public void testNoLatency() {
+    addServer("server1", 2, 0);
+    addServer("server2", 2, 0);
+    ReadLatencyCostFunction costFunction =
+      prepare(new BalancerClusterState(clusterState, loads, null, null));
+    assertFalse(costFunction.isNeeded());
+  }
+
+  @Test
+  public void testSameLatency() {
+    addServer("server1", 2, 20);
+    addServer("server2", 2, 20);
+    ReadLatencyCostFunction costFunction =
+      prepare(new BalancerClusterState(clusterState, loads, null, null));
+    assertTrue(costFunction.isNeeded());
+    assertEquals(0, costFunction.cost(), 0.001);
+  }
+
+  @Test
+  public void testMoveAwayFromSlowServer() {
+    addServer("server1", 2, 10);
+    addServer("server2", 2, 10);
+    addServer("server3", 2, 100);
+    BalancerClusterState cluster = new BalancerClusterState(clusterState, loads, null, null);
+    ReadLatencyCostFunction costFunction = prepare(cluster);
+    assertTrue(costFunction.isNeeded());
+    double cost = costFunction.cost();
+    assertTrue(cost > 0);
+
+    int slowServer =
+      cluster.serversToIndex.get(ServerName.valueOf("server3", 16020, 1L).getAddress());
+    int fastServer = (slowServer + 1) % cluster.numServers;
+    BalanceAction action =
+      new MoveRegionAction(cluster.regionsPerServer[slowServer][0], slowServer, fastServer);
+    cluster.doAction(action);
+    costFunction.postAction(action);
+    assertTrue(costFunction.cost() < cost);
+  }
+}
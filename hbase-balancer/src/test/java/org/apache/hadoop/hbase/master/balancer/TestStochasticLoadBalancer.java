@@ -605,6 +605,19 @@ public class TestStochasticLoadBalancer extends StochasticBalancerTestBase {
       .contains(DummyCostFunction.class.getSimpleName()));
   }
 
+  @Test
+  public void testReadLatencyCostFunctionOptIn() {
+    conf.setFloat(ReadLatencyCostFunction.READ_LATENCY_COST_KEY, 5);
+    try {
+      loadBalancer.onConfigurationChange(conf);
+      assertTrue(Arrays.asList(loadBalancer.getCostFunctionNames())
+        .contains(ReadLatencyCostFunction.class.getSimpleName()));
+    } finally {
+      conf.unset(ReadLatencyCostFunction.READ_LATENCY_COST_KEY);
+      loadBalancer.onConfigurationChange(conf);
+    }
+  }
+
   @Test
   public void testDefaultCostFunctionList() {
     List<String> expected = Arrays.asList(RegionCountSkewCostFunction.class.getSimpleName(),
@@ -144,4 +144,21 @@ public interface RegionMetrics {
 
   /** Returns current prefetch ratio of this region on this server */
   float getCurrentRegionCachedRatio();
+
+  /**
+   * Returns the 99th percentile of the read latency of this region on this server in the last
+   * reporting window, in milliseconds, or 0 if there were no reads or the server does not report it
+   */
+  default long getReadLatencyP99() {
+    return 0;
+  }
+
+  /**
+   * Returns the 99th percentile of the write latency of this region on this server in the last
+   * reporting window, in milliseconds, or 0 if there were no writes or the server does not report
+   * it
+   */
+  default long getWriteLatencyP99() {
+    return 0;
+  }
 }
@@ -81,7 +81,9 @@ public final class RegionMetricsBuilder {
       .setUncompressedStoreFileSize(
         new Size(regionLoadPB.getStoreUncompressedSizeMB(), Size.Unit.MEGABYTE))
       .setRegionSizeMB(new Size(regionLoadPB.getRegionSizeMB(), Size.Unit.MEGABYTE))
-      .setCurrentRegionCachedRatio(regionLoadPB.getCurrentRegionCachedRatio()).build();
+      .setCurrentRegionCachedRatio(regionLoadPB.getCurrentRegionCachedRatio())
+      .setReadLatencyP99(regionLoadPB.getReadLatencyP99Ms())
+      .setWriteLatencyP99(regionLoadPB.getWriteLatencyP99Ms()).build();
   }
 
   private static List<ClusterStatusProtos.StoreSequenceId>
@@ -122,7 +124,9 @@ public final class RegionMetricsBuilder {
       .setStoreUncompressedSizeMB(
         (int) regionMetrics.getUncompressedStoreFileSize().get(Size.Unit.MEGABYTE))
       .setRegionSizeMB((int) regionMetrics.getRegionSizeMB().get(Size.Unit.MEGABYTE))
-      .setCurrentRegionCachedRatio(regionMetrics.getCurrentRegionCachedRatio()).build();
+      .setCurrentRegionCachedRatio(regionMetrics.getCurrentRegionCachedRatio())
+      .setReadLatencyP99Ms(regionMetrics.getReadLatencyP99())
+      .setWriteLatencyP99Ms(regionMetrics.getWriteLatencyP99()).build();
   }
 
   public static RegionMetricsBuilder newBuilder(byte[] name) {
@@ -158,6 +162,8 @@ public final class RegionMetricsBuilder {
   private CompactionState compactionState;
   private Size regionSizeMB = Size.ZERO;
   private float currentRegionCachedRatio;
+  private long readLatencyP99;
+  private long writeLatencyP99;
 
   private RegionMetricsBuilder(byte[] name) {
     this.name = name;
@@ -303,6 +309,16 @@ public final class RegionMetricsBuilder {
     return this;
   }
 
+  public RegionMetricsBuilder setReadLatencyP99(long value) {
+    this.readLatencyP99 = value;
+    return this;
+  }
+
+  public RegionMetricsBuilder setWriteLatencyP99(long value) {
+    this.writeLatencyP99 = value;
+    return this;
+  }
+
   public RegionMetrics build() {
     return new RegionMetricsImpl(name, storeCount, storeFileCount, storeRefCount,
       maxCompactedStoreFileRefCount, compactingCellCount, compactedCellCount, storeFileSize,
@@ -310,7 +326,8 @@ public final class RegionMetricsBuilder {
       uncompressedStoreFileSize, writeRequestCount, readRequestCount, cpRequestCount,
       filteredReadRequestCount, completedSequenceId, storeSequenceIds, dataLocality,
       lastMajorCompactionTimestamp, dataLocalityForSsd, blocksLocalWeight, blocksLocalWithSsdWeight,
-      blocksTotalWeight, compactionState, regionSizeMB, currentRegionCachedRatio);
+      blocksTotalWeight, compactionState, regionSizeMB, currentRegionCachedRatio, readLatencyP99,
+      writeLatencyP99);
   }
 
   private static class RegionMetricsImpl implements RegionMetrics {
@@ -343,6 +360,8 @@ public final class RegionMetricsBuilder {
     private final CompactionState compactionState;
     private final Size regionSizeMB;
     private final float currentRegionCachedRatio;
+    private final long readLatencyP99;
+    private final long writeLatencyP99;
 
     RegionMetricsImpl(byte[] name, int storeCount, int storeFileCount, int storeRefCount,
       int maxCompactedStoreFileRefCount, final long compactingCellCount, long compactedCellCount,
@@ -352,7 +371,8 @@ public final class RegionMetricsBuilder {
       long filteredReadRequestCount, long completedSequenceId, Map<byte[], Long> storeSequenceIds,
       float dataLocality, long lastMajorCompactionTimestamp, float dataLocalityForSsd,
       long blocksLocalWeight, long blocksLocalWithSsdWeight, long blocksTotalWeight,
-      CompactionState compactionState, Size regionSizeMB, float currentRegionCachedRatio) {
+      CompactionState compactionState, Size regionSizeMB, float currentRegionCachedRatio,
+      long readLatencyP99, long writeLatencyP99) {
       this.name = Preconditions.checkNotNull(name);
       this.storeCount = storeCount;
       this.storeFileCount = storeFileCount;
@@ -382,6 +402,8 @@ public final class RegionMetricsBuilder {
       this.compactionState = compactionState;
       this.regionSizeMB = regionSizeMB;
       this.currentRegionCachedRatio = currentRegionCachedRatio;
+      this.readLatencyP99 = readLatencyP99;
+      this.writeLatencyP99 = writeLatencyP99;
     }
 
     @Override
@@ -529,6 +551,16 @@ public final class RegionMetricsBuilder {
       return currentRegionCachedRatio;
     }
 
+    @Override
+    public long getReadLatencyP99() {
+      return readLatencyP99;
+    }
+
+    @Override
+    public long getWriteLatencyP99() {
+      return writeLatencyP99;
+    }
+
     @Override
     public String toString() {
       StringBuilder sb =
@@ -571,6 +603,8 @@ public final class RegionMetricsBuilder {
       Strings.appendKeyValue(sb, "compactionState", compactionState);
       Strings.appendKeyValue(sb, "regionSizeMB", regionSizeMB);
       Strings.appendKeyValue(sb, "currentRegionCachedRatio", currentRegionCachedRatio);
+      Strings.appendKeyValue(sb, "readLatencyP99", readLatencyP99);
+      Strings.appendKeyValue(sb, "writeLatencyP99", writeLatencyP99);
       return sb.toString();
     }
   }
@@ -195,6 +195,44 @@ public class Delete extends Mutation {
     return this;
   }
 
+  /**
+   * Delete all versions of all columns of the specified family in all rows from the row of this
+   * Delete, inclusive, up to the specified stop row, exclusive.
+   * <p>
+   * The range is stored as a single range tombstone instead of a delete marker per row. It must
+   * not cross the end key of the region holding the row of this Delete, callers deleting a larger
+   * range have to split it at the region boundaries. Range deletes do not honor visibility labels.
+   * They are rejected unless enabled on the region servers with
+   * hbase.regionserver.range.delete.enabled, and on the families replicated to other clusters.
+   * @param family  family name
+   * @param stopRow the row to stop deleting at, exclusive
+   * @return this for invocation chaining
+   */
+  public Delete addFamilyRange(final byte[] family, final byte[] stopRow) {
+    return addFamilyRange(family, stopRow, this.ts);
+  }
+
+  /**
+   * Delete all columns of the specified family with a timestamp less than or equal to the specified
+   * timestamp, in all rows from the row of this Delete, inclusive, up to the specified stop row,
+   * exclusive.
+   * @param family    family name
+   * @param stopRow   the row to stop deleting at, exclusive
+   * @param timestamp maximum version timestamp
+   * @return this for invocation chaining
+   * @see #addFamilyRange(byte[], byte[])
+   */
+  public Delete addFamilyRange(final byte[] family, final byte[] stopRow, final long timestamp) {
+    checkTimestamp(timestamp);
+    if (stopRow == null || Bytes.compareTo(stopRow, row) <= 0) {
+      throw new IllegalArgumentException("Stop row of a range delete must be after the row "
+        + Bytes.toStringBinary(row) + ", got " + Bytes.toStringBinary(stopRow));
+    }
+    List<ExtendedCell> list = getCellList(family);
+    list.add(new KeyValue(row, family, null, timestamp, KeyValue.Type.DeleteRange, stopRow));
+    return this;
+  }
+
   /**
    * Delete all versions of the specified column.
    * @param family    family name
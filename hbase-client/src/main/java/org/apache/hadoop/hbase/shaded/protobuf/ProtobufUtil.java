@@ -841,6 +841,8 @@ public final class ProtobufUtil {
             delete.addColumns(family, qualifier, ts);
           } else if (deleteType == DeleteType.DELETE_FAMILY_VERSION) {
             delete.addFamilyVersion(family, ts);
+          } else if (deleteType == DeleteType.DELETE_RANGE) {
+            delete.addFamilyRange(family, qv.getValue().toByteArray(), ts);
           } else {
             delete.addFamily(family, ts);
           }
@@ -1680,6 +1682,8 @@ public final class ProtobufUtil {
         return DeleteType.DELETE_FAMILY;
       case DeleteFamilyVersion:
         return DeleteType.DELETE_FAMILY_VERSION;
+      case DeleteRange:
+        return DeleteType.DELETE_RANGE;
       default:
         throw new IOException("Unknown delete type: " + type);
     }
@@ -1700,6 +1704,8 @@ public final class ProtobufUtil {
         return KeyValue.Type.DeleteFamily;
       case DELETE_FAMILY_VERSION:
         return KeyValue.Type.DeleteFamilyVersion;
+      case DELETE_RANGE:
+        return KeyValue.Type.DeleteRange;
       default:
         throw new IOException("Unknown delete type: " + type);
     }
@@ -1338,7 +1338,20 @@ public final class RequestConverter {
    */
   public static RegionOpenInfo buildRegionOpenInfo(RegionInfo region, List<ServerName> favoredNodes,
     long openProcId) {
+    return buildRegionOpenInfo(region, favoredNodes, openProcId, -1);
+  }
+
+  /**
+   * Create a RegionOpenInfo based on given region info, with a hint for ordering the opens
+   * @param readRequestCount the read requests the region served on its previous server, or a
+   *                         negative value if unknown
+   */
+  public static RegionOpenInfo buildRegionOpenInfo(RegionInfo region, List<ServerName> favoredNodes,
+    long openProcId, long readRequestCount) {
     RegionOpenInfo.Builder builder = RegionOpenInfo.newBuilder();
+    if (readRequestCount >= 0) {
+      builder.setReadRequestCount(readRequestCount);
+    }
     builder.setRegion(ProtobufUtil.toRegionInfo(region));
     if (favoredNodes != null) {
       for (ServerName server : favoredNodes) {
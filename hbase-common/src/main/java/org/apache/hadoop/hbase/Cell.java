@@ -152,7 +152,9 @@ public interface Cell extends HeapSize {
 
     DeleteColumn((byte) 12),
 
-    DeleteFamily((byte) 14);
+    DeleteFamily((byte) 14),
+
+    DeleteRange((byte) 16);
 
     private final byte code;
 
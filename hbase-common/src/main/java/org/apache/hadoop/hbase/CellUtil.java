@@ -568,7 +568,7 @@ public final class CellUtil {
 
   /**
    * Return true if a delete type, a {@link KeyValue.Type#Delete} or a {KeyValue.Type#DeleteFamily}
-   * or a {@link KeyValue.Type#DeleteColumn} KeyValue type.
+   * or a {@link KeyValue.Type#DeleteColumn} or a {@link KeyValue.Type#DeleteRange} KeyValue type.
    */
   public static boolean isDelete(final Cell cell) {
     return PrivateCellUtil.isDelete(PrivateCellUtil.getTypeByte(cell));
@@ -196,6 +196,8 @@ public class KeyValue implements ExtendedCell, Cloneable {
     DeleteFamilyVersion((byte) 10),
     DeleteColumn((byte) 12),
     DeleteFamily((byte) 14),
+    // Deletes the family in all rows from the row of the cell up to the row held in its value.
+    DeleteRange((byte) 16),
 
     // Maximum is used when searching; you look from maximum on down.
     Maximum((byte) 255);
@@ -839,10 +839,10 @@ public final class PrivateCellUtil {
 
   /**
    * Return true if a delete type, a {@link KeyValue.Type#Delete} or a {KeyValue.Type#DeleteFamily}
-   * or a {@link KeyValue.Type#DeleteColumn} KeyValue type.
+   * or a {@link KeyValue.Type#DeleteColumn} or a {@link KeyValue.Type#DeleteRange} KeyValue type.
    */
   public static boolean isDelete(final byte type) {
-    return KeyValue.Type.Delete.getCode() <= type && type <= KeyValue.Type.DeleteFamily.getCode();
+    return KeyValue.Type.Delete.getCode() <= type && type <= KeyValue.Type.DeleteRange.getCode();
   }
 
   /** Returns True if this cell is a {@link KeyValue.Type#Delete} type. */
@@ -858,6 +858,11 @@ public final class PrivateCellUtil {
     return cell.getTypeByte() == KeyValue.Type.DeleteFamilyVersion.getCode();
   }
 
+  /** Returns True if this cell is a {@link KeyValue.Type#DeleteRange} type. */
+  public static boolean isDeleteRange(final ExtendedCell cell) {
+    return cell.getTypeByte() == KeyValue.Type.DeleteRange.getCode();
+  }
+
   public static boolean isDeleteColumns(final ExtendedCell cell) {
     return cell.getTypeByte() == KeyValue.Type.DeleteColumn.getCode();
   }
@@ -1308,6 +1313,8 @@ public final class PrivateCellUtil {
         return Cell.Type.DeleteFamily;
       case DeleteFamilyVersion:
         return Cell.Type.DeleteFamilyVersion;
+      case DeleteRange:
+        return Cell.Type.DeleteRange;
       default:
         throw new UnsupportedOperationException("Invalid type of cell " + type);
     }
@@ -1325,6 +1332,8 @@ public final class PrivateCellUtil {
         return KeyValue.Type.DeleteFamilyVersion;
       case DeleteFamily:
         return KeyValue.Type.DeleteFamily;
+      case DeleteRange:
+        return KeyValue.Type.DeleteRange;
       default:
         throw new UnsupportedOperationException("Unsupported data type:" + type);
     }
@@ -190,6 +190,9 @@ public class PerformanceEvaluation extends Configured implements Tool {
     addCommandDescriptor(SequentialWriteTest.class, "sequentialWrite", "Run sequential write test");
     addCommandDescriptor(SequentialDeleteTest.class, "sequentialDelete",
       "Run sequential delete test");
+    addCommandDescriptor(SequentialDeleteFamilyVersionTest.class, "sequentialDeleteFamilyVersion",
+      "Run sequential delete test writing --columns family version deletes per row "
+        + "(read the rows afterwards to test wide, delete heavy rows)");
     addCommandDescriptor(MetaWriteTest.class, "metaWrite",
       "Populate meta table;used with 1 thread; to be cleaned up by cleanMeta");
     addCommandDescriptor(ScanTest.class, "scan", "Run scan test (read every row)");
@@ -2476,13 +2479,17 @@ public class PerformanceEvaluation extends Configured implements Tool {
       return format(i);
     }
 
+    protected void addDeletes(Delete delete, byte[] familyName) {
+      delete.addFamily(familyName);
+    }
+
     @Override
     boolean testRow(final long i, final long startTime) throws IOException {
       byte[] row = generateRow(i);
       Delete delete = new Delete(row);
       for (int family = 0; family < opts.families; family++) {
         byte[] familyName = Bytes.toBytes(FAMILY_NAME_BASE + family);
-        delete.addFamily(familyName);
+        addDeletes(delete, familyName);
       }
       delete.setDurability(opts.writeToWAL ? Durability.SYNC_WAL : Durability.SKIP_WAL);
       if (opts.autoFlush) {
@@ -2494,6 +2501,25 @@ public class PerformanceEvaluation extends Configured implements Tool {
     }
   }
 
+  /*
+   * Delete one version of the whole family per column, at timestamps older than the cells written
+   * by the write tests. The cells stay visible, but every read of the row has to check them
+   * against all the family version deletes.
+   */
+  static class SequentialDeleteFamilyVersionTest extends SequentialDeleteTest {
+
+    SequentialDeleteFamilyVersionTest(Connection con, TestOptions options, Status status) {
+      super(con, options, status);
+    }
+
+    @Override
+    protected void addDeletes(Delete delete, byte[] familyName) {
+      for (int column = 0; column < opts.columns; column++) {
+        delete.addFamilyVersion(familyName, column + 1);
+      }
+    }
+  }
+
   /*
    * Insert fake regions into meta table with contiguous split keys.
    */
@@ -19,18 +19,35 @@ package org.apache.hadoop.hbase.master.balancer;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.ClusterMetrics;
+import org.apache.hadoop.hbase.ClusterMetricsBuilder;
 import org.apache.hadoop.hbase.HBaseConfiguration;
 import org.apache.hadoop.hbase.HBaseInterfaceAudience;
 import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.HDFSBlocksDistribution;
+import org.apache.hadoop.hbase.RegionMetrics;
+import org.apache.hadoop.hbase.RegionMetricsBuilder;
+import org.apache.hadoop.hbase.ServerMetrics;
+import org.apache.hadoop.hbase.ServerMetricsBuilder;
 import org.apache.hadoop.hbase.ServerName;
+import org.apache.hadoop.hbase.Size;
 import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.BalancerDecision;
+import org.apache.hadoop.hbase.client.BalancerRejection;
+import org.apache.hadoop.hbase.client.Connection;
 import org.apache.hadoop.hbase.client.RegionInfo;
 import org.apache.hadoop.hbase.client.RegionInfoBuilder;
+import org.apache.hadoop.hbase.client.TableDescriptor;
 import org.apache.hadoop.hbase.master.LoadBalancer;
 import org.apache.hadoop.hbase.util.AbstractHBaseTool;
 import org.apache.hadoop.hbase.util.Bytes;
@@ -48,6 +65,9 @@ import org.apache.hbase.thirdparty.org.apache.commons.cli.Option;
  * implementations. Example command: $ bin/hbase
  * org.apache.hadoop.hbase.master.balancer.LoadBalancerPerformanceEvaluation -regions 1000 -servers
  * 100 -load_balancer org.apache.hadoop.hbase.master.balancer.SimpleLoadBalancer
+ * <p>
+ * Pass -region_load to also report random region loads to the balancer, which is needed to measure
+ * the cost functions working on the region loads, e.g, the read and write request cost functions.
  */
 @InterfaceAudience.LimitedPrivate(HBaseInterfaceAudience.TOOLS)
 public class LoadBalancerPerformanceEvaluation extends AbstractHBaseTool {
@@ -67,8 +87,13 @@ public class LoadBalancerPerformanceEvaluation extends AbstractHBaseTool {
   private static Option LOAD_BALANCER_OPT = new Option("load_balancer", true,
     "Type of Load Balancer to use. Default: " + DEFAULT_LOAD_BALANCER);
 
+  private static Option REGION_LOAD_OPT = new Option("region_load", false,
+    "Report random read, write, memstore and storefile loads for the regions before balancing, so "
+      + "the load based cost functions of the StochasticLoadBalancer are exercised too");
+
   private int numRegions;
   private int numServers;
+  private boolean regionLoad;
   private String loadBalancerType;
   private Class<?> loadBalancerClazz;
 
@@ -80,11 +105,107 @@ public class LoadBalancerPerformanceEvaluation extends AbstractHBaseTool {
   private Map<RegionInfo, ServerName> regionServerMap;
   private Map<TableName, Map<ServerName, List<RegionInfo>>> tableServerRegionMap;
 
+  /**
+   * A {@link ClusterInfoProvider} without a cluster behind it, where all the servers are online and
+   * empty.
+   */
+  private static final class PerfClusterInfoProvider implements ClusterInfoProvider {
+
+    private volatile Configuration conf;
+
+    PerfClusterInfoProvider(Configuration conf) {
+      this.conf = conf;
+    }
+
+    @Override
+    public Configuration getConfiguration() {
+      return conf;
+    }
+
+    @Override
+    public Connection getConnection() {
+      return null;
+    }
+
+    @Override
+    public List<RegionInfo> getAssignedRegions() {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public void unassign(RegionInfo regionInfo) {
+    }
+
+    @Override
+    public TableDescriptor getTableDescriptor(TableName tableName) {
+      return null;
+    }
+
+    @Override
+    public int getNumberOfTables() {
+      return 1;
+    }
+
+    @Override
+    public HDFSBlocksDistribution computeHDFSBlocksDistribution(Configuration conf,
+      TableDescriptor tableDescriptor, RegionInfo regionInfo) {
+      return new HDFSBlocksDistribution();
+    }
+
+    @Override
+    public boolean hasRegionReplica(Collection<RegionInfo> regions) {
+      return false;
+    }
+
+    @Override
+    public List<ServerName> getOnlineServersList() {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public List<ServerName> getOnlineServersListWithPredicator(List<ServerName> servers,
+      Predicate<ServerMetrics> filter) {
+      return servers;
+    }
+
+    @Override
+    public Map<ServerName, List<RegionInfo>>
+      getSnapShotOfAssignment(Collection<RegionInfo> regions) {
+      return Collections.emptyMap();
+    }
+
+    @Override
+    public boolean isOffPeakHour() {
+      return false;
+    }
+
+    @Override
+    public void recordBalancerDecision(Supplier<BalancerDecision> decision) {
+    }
+
+    @Override
+    public void recordBalancerRejection(Supplier<BalancerRejection> rejection) {
+    }
+
+    @Override
+    public void onConfigurationChange(Configuration conf) {
+      this.conf = conf;
+    }
+
+    @Override
+    public ServerMetrics getLoad(ServerName serverName) {
+      return null;
+    }
+  }
+
   // Non-default configurations.
   private void setupConf() {
     conf.setClass(HConstants.HBASE_MASTER_LOADBALANCER_CLASS, loadBalancerClazz,
       LoadBalancer.class);
+    // there is no HDFS to compute the locality from
+    conf.setBoolean("hbase.master.balancer.uselocality", false);
     loadBalancer = LoadBalancerFactory.getLoadBalancer(conf);
+    loadBalancer.setClusterInfoProvider(new PerfClusterInfoProvider(conf));
   }
 
   private void generateRegionsAndServers() {
@@ -115,11 +236,28 @@ public class LoadBalancerPerformanceEvaluation extends AbstractHBaseTool {
     tableServerRegionMap = Collections.singletonMap(tableName, serverRegionMap);
   }
 
+  private ClusterMetrics generateClusterMetrics() {
+    // All the regions start on the first server, see generateRegionsAndServers
+    Random rand = new Random();
+    List<RegionMetrics> regionMetrics = new ArrayList<>(numRegions);
+    for (RegionInfo hri : regions) {
+      regionMetrics.add(RegionMetricsBuilder.newBuilder(hri.getRegionName())
+        .setReadRequestCount(rand.nextInt(1000000)).setWriteRequestCount(rand.nextInt(1000000))
+        .setMemStoreSize(new Size(rand.nextInt(256), Size.Unit.MEGABYTE))
+        .setStoreFileSize(new Size(rand.nextInt(10240), Size.Unit.MEGABYTE)).build());
+    }
+    return ClusterMetricsBuilder.newBuilder()
+      .setLiveServerMetrics(Collections.singletonMap(servers.get(0),
+        ServerMetricsBuilder.newBuilder(servers.get(0)).setRegionMetrics(regionMetrics).build()))
+      .build();
+  }
+
   @Override
   protected void addOptions() {
     addOption(NUM_REGIONS_OPT);
     addOption(NUM_SERVERS_OPT);
     addOption(LOAD_BALANCER_OPT);
+    addOption(REGION_LOAD_OPT);
   }
 
   @Override
@@ -130,6 +268,8 @@ public class LoadBalancerPerformanceEvaluation extends AbstractHBaseTool {
     numServers = getOptionAsInt(cmd, NUM_SERVERS_OPT.getOpt(), DEFAULT_NUM_SERVERS);
     Preconditions.checkArgument(numServers > 0, "Invalid number of servers!");
 
+    regionLoad = cmd.hasOption(REGION_LOAD_OPT.getOpt());
+
     loadBalancerType = cmd.getOptionValue(LOAD_BALANCER_OPT.getOpt(), DEFAULT_LOAD_BALANCER);
     Preconditions.checkArgument(!loadBalancerType.isEmpty(), "Invalid load balancer type!");
 
@@ -149,6 +289,7 @@ public class LoadBalancerPerformanceEvaluation extends AbstractHBaseTool {
 
   @Override
   protected int doWork() throws Exception {
+    loadBalancer.initialize();
     generateRegionsAndServers();
 
     String methodName = "roundRobinAssignment";
@@ -163,6 +304,15 @@ public class LoadBalancerPerformanceEvaluation extends AbstractHBaseTool {
     loadBalancer.retainAssignment(regionServerMap, servers);
     System.out.print(formatResults(methodName, watch.elapsed(TimeUnit.MILLISECONDS)));
 
+    if (regionLoad) {
+      methodName = "updateClusterMetrics";
+      LOG.info("Calling " + methodName);
+      ClusterMetrics metrics = generateClusterMetrics();
+      watch.reset().start();
+      loadBalancer.updateClusterMetrics(metrics);
+      System.out.print(formatResults(methodName, watch.elapsed(TimeUnit.MILLISECONDS)));
+    }
+
     methodName = "balanceCluster";
     LOG.info("Calling " + methodName);
     watch.reset().start();
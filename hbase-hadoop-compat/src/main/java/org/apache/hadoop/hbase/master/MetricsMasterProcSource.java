@@ -51,4 +51,14 @@ public interface MetricsMasterProcSource extends BaseSource {
 
   String NUM_MASTER_WALS_DESC = "Number of master WAL files";
 
+  String PROCEDURE_STORE_UPDATES_NAME = "procedureStoreUpdates";
+
+  String PROCEDURE_STORE_UPDATES_DESC =
+    "Number of procedure inserts, updates and deletes written to the procedure store";
+
+  String PROCEDURE_STORE_WRITES_NAME = "procedureStoreWrites";
+
+  String PROCEDURE_STORE_WRITES_DESC = "Number of writes the procedure store did for its updates, "
+    + "concurrent updates are written together";
+
 }
@@ -56,6 +56,12 @@ public class MetricsMasterProcSourceImpl extends BaseSourceImpl implements Metri
     if (masterWrapper != null) {
       metricsRecordBuilder.addGauge(Interns.info(NUM_MASTER_WALS_NAME, NUM_MASTER_WALS_DESC),
         masterWrapper.getNumWALFiles());
+      metricsRecordBuilder.addCounter(
+        Interns.info(PROCEDURE_STORE_UPDATES_NAME, PROCEDURE_STORE_UPDATES_DESC),
+        masterWrapper.getProcedureStoreUpdateCount());
+      metricsRecordBuilder.addCounter(
+        Interns.info(PROCEDURE_STORE_WRITES_NAME, PROCEDURE_STORE_WRITES_DESC),
+        masterWrapper.getProcedureStoreWriteCount());
     }
 
     metricsRegistry.snapshot(metricsRecordBuilder, all);
@@ -123,6 +123,16 @@ public interface MetricsMasterWrapper {
    */
   long getNumWALFiles();
 
+  /**
+   * Get the number of procedure inserts, updates and deletes written to the procedure store.
+   */
+  long getProcedureStoreUpdateCount();
+
+  /**
+   * Get the number of writes the procedure store did for its updates.
+   */
+  long getProcedureStoreWriteCount();
+
   /**
    * Get the number of region split plans executed.
    */
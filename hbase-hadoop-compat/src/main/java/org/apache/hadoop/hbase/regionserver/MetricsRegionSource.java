@@ -56,6 +56,11 @@ public interface MetricsRegionSource extends Comparable<MetricsRegionSource> {
   String ROW_READS_ONLY_ON_MEMSTORE_DESC = "Row reads happening completely out of memstore";
   String MIXED_ROW_READS = "mixedRowReadsCount";
   String MIXED_ROW_READS_ON_STORE_DESC = "Row reads happening out of files and memstore on store";
+  String READ_AMPLIFICATION_SCORE = "readAmplificationScore";
+  String READ_AMPLIFICATION_SCORE_DESC =
+    "Store file reads per second that a compaction of the store could save";
+  String STORAGE_POLICY_STORE_FILE_SIZE = "storeFileSize";
+  String STORAGE_POLICY_STORE_FILE_SIZE_DESC = "Size of the store files in the storage policy";
 
   /**
    * Close the region's metrics as this region is closing.
@@ -34,6 +34,7 @@ public class MetricsRegionSourceImpl implements MetricsRegionSource {
   private static final Logger LOG = LoggerFactory.getLogger(MetricsRegionSourceImpl.class);
 
   private static final String _STORE = "_store_";
+  private static final String _STORAGE_POLICY = "storagePolicy_";
 
   private AtomicBoolean closed = new AtomicBoolean(false);
 
@@ -286,6 +287,24 @@ public class MetricsRegionSourceImpl implements MetricsRegionSource {
         MetricsRegionSource.ROW_READS_ONLY_ON_MEMSTORE_DESC);
       addCounter(mrb, this.regionWrapper.getMixedRowReadsCount(),
         MetricsRegionSource.MIXED_ROW_READS, MetricsRegionSource.MIXED_ROW_READS_ON_STORE_DESC);
+      Map<String, Double> readAmplificationScore = this.regionWrapper.getReadAmplificationScore();
+      if (readAmplificationScore != null) {
+        for (Entry<String, Double> entry : readAmplificationScore.entrySet()) {
+          mrb.addGauge(Interns.info(this.regionNamePrefix1 + _STORE + entry.getKey()
+            + this.regionNamePrefix2 + MetricsRegionSource.READ_AMPLIFICATION_SCORE,
+            MetricsRegionSource.READ_AMPLIFICATION_SCORE_DESC), entry.getValue());
+        }
+      }
+      Map<String, Long> storeFileSizeByStoragePolicy =
+        this.regionWrapper.getStoreFileSizeByStoragePolicy();
+      if (storeFileSizeByStoragePolicy != null) {
+        for (Entry<String, Long> entry : storeFileSizeByStoragePolicy.entrySet()) {
+          mrb.addGauge(Interns.info(
+            regionNamePrefix + _STORAGE_POLICY + entry.getKey() + "_"
+              + MetricsRegionSource.STORAGE_POLICY_STORE_FILE_SIZE,
+            MetricsRegionSource.STORAGE_POLICY_STORE_FILE_SIZE_DESC), entry.getValue());
+        }
+      }
     }
   }
 
@@ -166,4 +166,10 @@ public interface MetricsRegionWrapper {
   /** Returns the number of row reads on memstore and file per store */
   Map<String, Long> getMixedRowReadsCount();
 
+  /** Returns the store file reads per second that a compaction could save, per store */
+  Map<String, Double> getReadAmplificationScore();
+
+  /** Returns the size of the store files of the region per storage policy */
+  Map<String, Long> getStoreFileSizeByStoragePolicy();
+
 }
@@ -33,11 +33,16 @@ public class MetricsReplicationGlobalSourceSourceImpl
   private final MutableHistogram ageOfLastShippedOpHist;
   private final MutableGaugeLong sizeOfLogQueueGauge;
   private final MutableFastCounter logReadInEditsCounter;
+  private final MutableFastCounter walTailCacheHitsCounter;
+  private final MutableFastCounter walTailCacheMissesCounter;
+  private final MutableFastCounter bufferPoolBytesCounter;
+  private final MutableFastCounter bufferHeapBytesCounter;
   private final MutableFastCounter walEditsFilteredCounter;
   private final MutableFastCounter shippedBatchesCounter;
   private final MutableFastCounter failedBatchesCounter;
   private final MutableFastCounter shippedOpsCounter;
   private final MutableFastCounter shippedBytesCounter;
+  private final MutableFastCounter compressedBytesSavedCounter;
   private final MutableFastCounter logReadInBytesCounter;
   private final MutableFastCounter shippedHFilesCounter;
   private final MutableGaugeLong sizeOfHFileRefsQueueGauge;
@@ -68,10 +73,23 @@ public class MetricsReplicationGlobalSourceSourceImpl
 
     shippedBytesCounter = rms.getMetricsRegistry().getCounter(SOURCE_SHIPPED_BYTES, 0L);
 
+    compressedBytesSavedCounter =
+      rms.getMetricsRegistry().getCounter(SOURCE_COMPRESSED_BYTES_SAVED, 0L);
+
     logReadInBytesCounter = rms.getMetricsRegistry().getCounter(SOURCE_LOG_READ_IN_BYTES, 0L);
 
     logReadInEditsCounter = rms.getMetricsRegistry().getCounter(SOURCE_LOG_READ_IN_EDITS, 0L);
 
+    walTailCacheHitsCounter =
+      rms.getMetricsRegistry().getCounter(SOURCE_WAL_TAIL_CACHE_HITS, 0L);
+
+    walTailCacheMissesCounter =
+      rms.getMetricsRegistry().getCounter(SOURCE_WAL_TAIL_CACHE_MISSES, 0L);
+
+    bufferPoolBytesCounter = rms.getMetricsRegistry().getCounter(SOURCE_BUFFER_POOL_BYTES, 0L);
+
+    bufferHeapBytesCounter = rms.getMetricsRegistry().getCounter(SOURCE_BUFFER_HEAP_BYTES, 0L);
+
     walEditsFilteredCounter = rms.getMetricsRegistry().getCounter(SOURCE_LOG_EDITS_FILTERED, 0L);
 
     shippedHFilesCounter = rms.getMetricsRegistry().getCounter(SOURCE_SHIPPED_HFILES, 0L);
@@ -116,6 +134,46 @@ public class MetricsReplicationGlobalSourceSourceImpl
     logReadInEditsCounter.incr(size);
   }
 
+  @Override
+  public void incrWALTailCacheHits(long hits) {
+    walTailCacheHitsCounter.incr(hits);
+  }
+
+  @Override
+  public void incrWALTailCacheMisses(long misses) {
+    walTailCacheMissesCounter.incr(misses);
+  }
+
+  @Override
+  public long getWALTailCacheHits() {
+    return walTailCacheHitsCounter.value();
+  }
+
+  @Override
+  public long getWALTailCacheMisses() {
+    return walTailCacheMissesCounter.value();
+  }
+
+  @Override
+  public void incrBufferPoolBytes(long bytes) {
+    bufferPoolBytesCounter.incr(bytes);
+  }
+
+  @Override
+  public void incrBufferHeapBytes(long bytes) {
+    bufferHeapBytesCounter.incr(bytes);
+  }
+
+  @Override
+  public long getBufferPoolBytes() {
+    return bufferPoolBytesCounter.value();
+  }
+
+  @Override
+  public long getBufferHeapBytes() {
+    return bufferHeapBytesCounter.value();
+  }
+
   @Override
   public void incrLogEditsFiltered(long size) {
     walEditsFilteredCounter.incr(size);
@@ -141,6 +199,11 @@ public class MetricsReplicationGlobalSourceSourceImpl
     shippedBytesCounter.incr(size);
   }
 
+  @Override
+  public void incrCompressedBytesSaved(long size) {
+    compressedBytesSavedCounter.incr(size);
+  }
+
   @Override
   public void incrLogReadInBytes(long size) {
     logReadInBytesCounter.incr(size);
@@ -231,6 +294,17 @@ public class MetricsReplicationGlobalSourceSourceImpl
     return 0;
   }
 
+  @Override
+  public void setWALReadLag(long bytes) {
+    // Not implemented
+  }
+
+  @Override
+  public long getWALReadLag() {
+    // Not implemented
+    return 0;
+  }
+
   @Override
   public void incrSourceInitializing() {
     sourceInitializing.incr(1);
@@ -26,6 +26,8 @@ public interface MetricsReplicationSinkSource {
   public static final String SINK_FAILED_BATCHES = "sink.failedBatches";
   public static final String SINK_APPLIED_OPS = "sink.appliedOps";
   public static final String SINK_APPLIED_HFILES = "sink.appliedHFiles";
+  public static final String SINK_COMPRESSED_BYTES_SAVED = "sink.compressedBytesSaved";
+  public static final String SINK_REGION_APPLY_TIME = "sink.regionApplyTime";
 
   void setLastAppliedOpAge(long age);
 
@@ -39,6 +41,14 @@ public interface MetricsReplicationSinkSource {
 
   void incrAppliedHFiles(long hfileSize);
 
+  void incrCompressedBytesSaved(long size);
+
+  long getCompressedBytesSaved();
+
+  void updateRegionApplyTime(long time);
+
+  long getRegionApplyCount();
+
   long getSinkAppliedOps();
 
   long getFailedBatches();
@@ -25,17 +25,22 @@ import org.apache.yetus.audience.InterfaceAudience;
 public class MetricsReplicationSinkSourceImpl implements MetricsReplicationSinkSource {
 
   private final MutableHistogram ageHist;
+  private final MutableHistogram regionApplyTimeHist;
   private final MutableFastCounter batchesCounter;
   private final MutableFastCounter failedBatchesCounter;
   private final MutableFastCounter opsCounter;
   private final MutableFastCounter hfilesCounter;
+  private final MutableFastCounter compressedBytesSavedCounter;
 
   public MetricsReplicationSinkSourceImpl(MetricsReplicationSourceImpl rms) {
     ageHist = rms.getMetricsRegistry().newTimeHistogram(SINK_AGE_OF_LAST_APPLIED_OP);
+    regionApplyTimeHist = rms.getMetricsRegistry().newTimeHistogram(SINK_REGION_APPLY_TIME);
     batchesCounter = rms.getMetricsRegistry().getCounter(SINK_APPLIED_BATCHES, 0L);
     failedBatchesCounter = rms.getMetricsRegistry().getCounter(SINK_FAILED_BATCHES, 0L);
     opsCounter = rms.getMetricsRegistry().getCounter(SINK_APPLIED_OPS, 0L);
     hfilesCounter = rms.getMetricsRegistry().getCounter(SINK_APPLIED_HFILES, 0L);
+    compressedBytesSavedCounter =
+      rms.getMetricsRegistry().getCounter(SINK_COMPRESSED_BYTES_SAVED, 0L);
   }
 
   @Override
@@ -73,6 +78,26 @@ public class MetricsReplicationSinkSourceImpl implements MetricsReplicationSinkS
     hfilesCounter.incr(hfiles);
   }
 
+  @Override
+  public void incrCompressedBytesSaved(long size) {
+    compressedBytesSavedCounter.incr(size);
+  }
+
+  @Override
+  public long getCompressedBytesSaved() {
+    return compressedBytesSavedCounter.value();
+  }
+
+  @Override
+  public void updateRegionApplyTime(long time) {
+    regionApplyTimeHist.add(time);
+  }
+
+  @Override
+  public long getRegionApplyCount() {
+    return regionApplyTimeHist.getCount();
+  }
+
   @Override
   public long getSinkAppliedOps() {
     return opsCounter.value();
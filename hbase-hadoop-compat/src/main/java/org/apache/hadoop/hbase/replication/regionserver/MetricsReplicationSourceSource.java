@@ -30,9 +30,15 @@ public interface MetricsReplicationSourceSource extends BaseSource {
 
   public static final String SOURCE_SHIPPED_BYTES = "source.shippedBytes";
   public static final String SOURCE_SHIPPED_OPS = "source.shippedOps";
+  public static final String SOURCE_COMPRESSED_BYTES_SAVED = "source.compressedBytesSaved";
 
   public static final String SOURCE_LOG_READ_IN_BYTES = "source.logReadInBytes";
   public static final String SOURCE_LOG_READ_IN_EDITS = "source.logEditsRead";
+  public static final String SOURCE_WAL_TAIL_CACHE_HITS = "source.walTailCacheHits";
+  public static final String SOURCE_WAL_TAIL_CACHE_MISSES = "source.walTailCacheMisses";
+  public static final String SOURCE_WAL_READ_LAG = "source.walReadLag";
+  public static final String SOURCE_BUFFER_POOL_BYTES = "source.bufferPoolBytes";
+  public static final String SOURCE_BUFFER_HEAP_BYTES = "source.bufferHeapBytes";
 
   public static final String SOURCE_LOG_EDITS_FILTERED = "source.logEditsFiltered";
 
@@ -68,10 +74,28 @@ public interface MetricsReplicationSourceSource extends BaseSource {
 
   void incrShippedBytes(long size);
 
+  void incrCompressedBytesSaved(long size);
+
   void incrLogReadInBytes(long size);
 
   void incrLogReadInEdits(long size);
 
+  void incrWALTailCacheHits(long hits);
+
+  void incrWALTailCacheMisses(long misses);
+
+  long getWALTailCacheHits();
+
+  long getWALTailCacheMisses();
+
+  void incrBufferPoolBytes(long bytes);
+
+  void incrBufferHeapBytes(long bytes);
+
+  long getBufferPoolBytes();
+
+  long getBufferHeapBytes();
+
   void clear();
 
   long getLastShippedAge();
@@ -112,6 +136,10 @@ public interface MetricsReplicationSourceSource extends BaseSource {
 
   long getOldestWalAge();
 
+  void setWALReadLag(long bytes);
+
+  long getWALReadLag();
+
   void incrSourceInitializing();
 
   void decrSourceInitializing();
@@ -31,6 +31,11 @@ public class MetricsReplicationSourceSourceImpl implements MetricsReplicationSou
   private final String sizeOfLogQueueKey;
   private final String ageOfLastShippedOpKey;
   private final String logReadInEditsKey;
+  private final String walTailCacheHitsKey;
+  private final String walTailCacheMissesKey;
+  private final String walReadLagKey;
+  private final String bufferPoolBytesKey;
+  private final String bufferHeapBytesKey;
   private final String logEditsFilteredKey;
   private final String shippedBatchesKey;
   private final String shippedOpsKey;
@@ -38,6 +43,7 @@ public class MetricsReplicationSourceSourceImpl implements MetricsReplicationSou
   private String keyPrefix;
 
   private final String shippedBytesKey;
+  private final String compressedBytesSavedKey;
   private final String logReadInBytesKey;
   private final String shippedHFilesKey;
   private final String sizeOfHFileRefsQueueKey;
@@ -47,11 +53,17 @@ public class MetricsReplicationSourceSourceImpl implements MetricsReplicationSou
   private final MutableHistogram ageOfLastShippedOpHist;
   private final MutableGaugeLong sizeOfLogQueueGauge;
   private final MutableFastCounter logReadInEditsCounter;
+  private final MutableFastCounter walTailCacheHitsCounter;
+  private final MutableFastCounter walTailCacheMissesCounter;
+  private final MutableFastCounter bufferPoolBytesCounter;
+  private final MutableFastCounter bufferHeapBytesCounter;
+  private final MutableGaugeLong walReadLag;
   private final MutableFastCounter walEditsFilteredCounter;
   private final MutableFastCounter shippedBatchesCounter;
   private final MutableFastCounter failedBatchesCounter;
   private final MutableFastCounter shippedOpsCounter;
   private final MutableFastCounter shippedBytesCounter;
+  private final MutableFastCounter compressedBytesSavedCounter;
   private final MutableFastCounter logReadInBytesCounter;
   private final MutableFastCounter shippedHFilesCounter;
   private final MutableGaugeLong sizeOfHFileRefsQueueGauge;
@@ -96,12 +108,31 @@ public class MetricsReplicationSourceSourceImpl implements MetricsReplicationSou
     shippedBytesKey = this.keyPrefix + "shippedBytes";
     shippedBytesCounter = rms.getMetricsRegistry().getCounter(shippedBytesKey, 0L);
 
+    compressedBytesSavedKey = this.keyPrefix + "compressedBytesSaved";
+    compressedBytesSavedCounter =
+      rms.getMetricsRegistry().getCounter(compressedBytesSavedKey, 0L);
+
     logReadInBytesKey = this.keyPrefix + "logReadInBytes";
     logReadInBytesCounter = rms.getMetricsRegistry().getCounter(logReadInBytesKey, 0L);
 
     logReadInEditsKey = this.keyPrefix + "logEditsRead";
     logReadInEditsCounter = rms.getMetricsRegistry().getCounter(logReadInEditsKey, 0L);
 
+    walTailCacheHitsKey = this.keyPrefix + "walTailCacheHits";
+    walTailCacheHitsCounter = rms.getMetricsRegistry().getCounter(walTailCacheHitsKey, 0L);
+
+    walTailCacheMissesKey = this.keyPrefix + "walTailCacheMisses";
+    walTailCacheMissesCounter = rms.getMetricsRegistry().getCounter(walTailCacheMissesKey, 0L);
+
+    walReadLagKey = this.keyPrefix + "walReadLag";
+    walReadLag = rms.getMetricsRegistry().getGauge(walReadLagKey, 0L);
+
+    bufferPoolBytesKey = this.keyPrefix + "bufferPoolBytes";
+    bufferPoolBytesCounter = rms.getMetricsRegistry().getCounter(bufferPoolBytesKey, 0L);
+
+    bufferHeapBytesKey = this.keyPrefix + "bufferHeapBytes";
+    bufferHeapBytesCounter = rms.getMetricsRegistry().getCounter(bufferHeapBytesKey, 0L);
+
     logEditsFilteredKey = this.keyPrefix + "logEditsFiltered";
     walEditsFilteredCounter = rms.getMetricsRegistry().getCounter(logEditsFilteredKey, 0L);
 
@@ -159,6 +190,46 @@ public class MetricsReplicationSourceSourceImpl implements MetricsReplicationSou
     logReadInEditsCounter.incr(size);
   }
 
+  @Override
+  public void incrWALTailCacheHits(long hits) {
+    walTailCacheHitsCounter.incr(hits);
+  }
+
+  @Override
+  public void incrWALTailCacheMisses(long misses) {
+    walTailCacheMissesCounter.incr(misses);
+  }
+
+  @Override
+  public long getWALTailCacheHits() {
+    return walTailCacheHitsCounter.value();
+  }
+
+  @Override
+  public long getWALTailCacheMisses() {
+    return walTailCacheMissesCounter.value();
+  }
+
+  @Override
+  public void incrBufferPoolBytes(long bytes) {
+    bufferPoolBytesCounter.incr(bytes);
+  }
+
+  @Override
+  public void incrBufferHeapBytes(long bytes) {
+    bufferHeapBytesCounter.incr(bytes);
+  }
+
+  @Override
+  public long getBufferPoolBytes() {
+    return bufferPoolBytesCounter.value();
+  }
+
+  @Override
+  public long getBufferHeapBytes() {
+    return bufferHeapBytesCounter.value();
+  }
+
   @Override
   public void incrLogEditsFiltered(long size) {
     walEditsFilteredCounter.incr(size);
@@ -184,6 +255,11 @@ public class MetricsReplicationSourceSourceImpl implements MetricsReplicationSou
     shippedBytesCounter.incr(size);
   }
 
+  @Override
+  public void incrCompressedBytesSaved(long size) {
+    compressedBytesSavedCounter.incr(size);
+  }
+
   @Override
   public void incrLogReadInBytes(long size) {
     logReadInBytesCounter.incr(size);
@@ -199,9 +275,15 @@ public class MetricsReplicationSourceSourceImpl implements MetricsReplicationSou
     rms.removeMetric(failedBatchesKey);
     rms.removeMetric(shippedOpsKey);
     rms.removeMetric(shippedBytesKey);
+    rms.removeMetric(compressedBytesSavedKey);
 
     rms.removeMetric(logReadInBytesKey);
     rms.removeMetric(logReadInEditsKey);
+    rms.removeMetric(walTailCacheHitsKey);
+    rms.removeMetric(walTailCacheMissesKey);
+    rms.removeMetric(walReadLagKey);
+    rms.removeMetric(bufferPoolBytesKey);
+    rms.removeMetric(bufferHeapBytesKey);
 
     rms.removeMetric(logEditsFilteredKey);
 
@@ -298,6 +380,16 @@ public class MetricsReplicationSourceSourceImpl implements MetricsReplicationSou
     return oldestWalAge.value();
   }
 
+  @Override
+  public void setWALReadLag(long bytes) {
+    walReadLag.set(bytes);
+  }
+
+  @Override
+  public long getWALReadLag() {
+    return walReadLag.value();
+  }
+
   @Override
   public void incrSourceInitializing() {
     sourceInitializing.incr(1);
@@ -237,5 +237,19 @@ public class TestMetricsRegionSourceImpl {
       map.put("info", 0L);
       return map;
     }
+
+    @Override
+    public Map<String, Double> getReadAmplificationScore() {
+      Map<String, Double> map = new HashMap<>();
+      map.put("info", 0.0);
+      return map;
+    }
+
+    @Override
+    public Map<String, Long> getStoreFileSizeByStoragePolicy() {
+      Map<String, Long> map = new HashMap<>();
+      map.put("HOT", 0L);
+      return map;
+    }
   }
 }
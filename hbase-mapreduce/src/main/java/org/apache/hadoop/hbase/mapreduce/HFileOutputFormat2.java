@@ -178,6 +178,13 @@ public class HFileOutputFormat2 extends FileOutputFormat<ImmutableBytesWritable,
     "hbase.mapreduce.hfileoutputformat.disk.based.sorting.enabled";
   private static final boolean DISK_BASED_SORTING_ENABLED_DEFAULT = false;
 
+  /**
+   * Set by {@link #configureIncrementalLoadPresorted(Job, TableDescriptor, RegionLocator)} for
+   * map-only jobs writing already sorted cells. The RecordWriter then checks the rows come in order
+   * and rolls its files at the region boundaries found in the partitions file.
+   */
+  static final String PRESORTED_CONF_KEY = "hbase.mapreduce.hfileoutputformat.presorted";
+
   public static final String REMOTE_CLUSTER_CONF_PREFIX = "hbase.hfileoutputformat.remote.cluster.";
   public static final String REMOTE_CLUSTER_ZOOKEEPER_QUORUM_CONF_KEY =
     REMOTE_CLUSTER_CONF_PREFIX + "zookeeper.quorum";
@@ -238,6 +245,11 @@ public class HFileOutputFormat2 extends FileOutputFormat<ImmutableBytesWritable,
       createFamilyDataBlockEncodingMap(conf);
     final DataBlockEncoding overriddenEncoding =
       dataBlockEncodingStr != null ? DataBlockEncoding.valueOf(dataBlockEncodingStr) : null;
+    // the start keys of all the regions but the first, when the cells come in sorted
+    final byte[][] regionSplitKeys =
+      conf.getBoolean(PRESORTED_CONF_KEY, false) && !writeMultipleTables
+        ? readRegionSplitKeys(conf)
+        : null;
 
     return new RecordWriter<ImmutableBytesWritable, V>() {
       // Map of families to writers and how much has been output on the writer.
@@ -245,6 +257,9 @@ public class HFileOutputFormat2 extends FileOutputFormat<ImmutableBytesWritable,
       private final Map<byte[], byte[]> previousRows = new TreeMap<>(Bytes.BYTES_COMPARATOR);
       private final long now = EnvironmentEdgeManager.currentTime();
       private byte[] tableNameBytes = writeMultipleTables ? null : Bytes.toBytes(writeTableNames);
+      // the last row written and the end key of its region, for presorted input
+      private byte[] previousRow;
+      private byte[] regionEndKey;
 
       @Override
       public void write(ImmutableBytesWritable row, V cell) throws IOException {
@@ -268,6 +283,9 @@ public class HFileOutputFormat2 extends FileOutputFormat<ImmutableBytesWritable,
           }
         }
         byte[] tableAndFamily = getTableNameSuffixedWithFamily(tableNameBytes, family);
+        if (regionSplitKeys != null) {
+          checkRegionBoundary(rowKey);
+        }
 
         WriterLength wl = this.writers.get(tableAndFamily);
 
@@ -337,6 +355,33 @@ public class HFileOutputFormat2 extends FileOutputFormat<ImmutableBytesWritable,
         this.previousRows.put(family, rowKey);
       }
 
+      /**
+       * Rolls all the writers when the row is past the end of the region of the previous row, so
+       * that no file spans two regions. Fails on a row smaller than the previous one, as only
+       * sorted input can skip the shuffle.
+       */
+      private void checkRegionBoundary(byte[] rowKey) throws IOException {
+        if (previousRow != null && Bytes.compareTo(rowKey, previousRow) < 0) {
+          throw new IOException("Presorted input is out of order, row "
+            + Bytes.toStringBinary(rowKey) + " comes after row "
+            + Bytes.toStringBinary(previousRow));
+        }
+        if (
+          regionEndKey == null
+            || (regionEndKey.length > 0 && Bytes.compareTo(rowKey, regionEndKey) >= 0)
+        ) {
+          if (regionEndKey != null) {
+            rollWriters(null);
+          }
+          // the first split key greater than the row
+          int index = Arrays.binarySearch(regionSplitKeys, rowKey, Bytes.BYTES_COMPARATOR);
+          index = index >= 0 ? index + 1 : -(index + 1);
+          regionEndKey =
+            index < regionSplitKeys.length ? regionSplitKeys[index] : HConstants.EMPTY_END_ROW;
+        }
+        previousRow = rowKey;
+      }
+
       private Path getTableRelativePath(byte[] tableNameBytes) {
         String tableName = Bytes.toString(tableNameBytes);
         String[] tableNameParts = tableName.split(":");
@@ -498,6 +543,23 @@ public class HFileOutputFormat2 extends FileOutputFormat<ImmutableBytesWritable,
     StoreFileWriter writer = null;
   }
 
+  /**
+   * Read back the split points written by
+   * {@link #writePartitions(Configuration, Path, List, boolean)}, in order.
+   */
+  private static byte[][] readRegionSplitKeys(Configuration conf) throws IOException {
+    Path partitionsPath = new Path(TotalOrderPartitioner.getPartitionFile(conf));
+    List<byte[]> splitKeys = new ArrayList<>();
+    try (SequenceFile.Reader reader =
+      new SequenceFile.Reader(conf, SequenceFile.Reader.file(partitionsPath))) {
+      ImmutableBytesWritable key = new ImmutableBytesWritable();
+      while (reader.next(key)) {
+        splitKeys.add(key.copyBytes());
+      }
+    }
+    return splitKeys.toArray(new byte[0][]);
+  }
+
   /**
    * Return the start keys of all of the regions in this table, as a list of ImmutableBytesWritable.
    */
@@ -760,6 +822,34 @@ public class HFileOutputFormat2 extends FileOutputFormat<ImmutableBytesWritable,
     LOG.info("Incremental table " + tableDescriptor.getTableName() + " output configured.");
   }
 
+  /**
+   * Configure a map-only MapReduce Job to perform an incremental load into the given table, for
+   * map output already sorted by row, as from an upstream job which sorted its data per region. No
+   * shuffle nor reduce is run. Each map task
+   * <ul>
+   * <li>Checks its rows come in order, failing otherwise</li>
+   * <li>Writes the cells of each family to HFiles of their own</li>
+   * <li>Rolls all its HFiles when crossing the boundary of a region, per the regionLocator</li>
+   * </ul>
+   * The cells of a row must be sorted as well, which the HFile writer checks. Disk based sorting
+   * can not be combined with this mode.
+   */
+  public static void configureIncrementalLoadPresorted(Job job, TableDescriptor tableDescriptor,
+    RegionLocator regionLocator) throws IOException {
+    Configuration conf = job.getConfiguration();
+    if (diskBasedSortingEnabled(conf)) {
+      throw new IllegalArgumentException(
+        DISK_BASED_SORTING_ENABLED_KEY + " can not be set for presorted input");
+    }
+    configureIncrementalLoadMap(job, tableDescriptor);
+    job.setNumReduceTasks(0);
+    conf.setBoolean(PRESORTED_CONF_KEY, true);
+    // the partitions file carries the region boundaries to the map tasks
+    configurePartitioner(job,
+      getRegionStartKeys(Collections.singletonList(regionLocator), false), false);
+    LOG.info("Presorted incremental load configured for table " + tableDescriptor.getTableName());
+  }
+
   /**
    * Configure HBase cluster key for remote cluster to load region location for locality-sensitive
    * if it's enabled. It's not necessary to call this method explicitly when the cluster key for
@@ -23,8 +23,13 @@ import java.io.DataOutput;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import org.apache.commons.lang3.mutable.MutableBoolean;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
@@ -32,6 +37,8 @@ import org.apache.hadoop.hbase.HDFSBlocksDistribution;
 import org.apache.hadoop.hbase.HDFSBlocksDistribution.HostAndWeight;
 import org.apache.hadoop.hbase.HRegionLocation;
 import org.apache.hadoop.hbase.PrivateCellUtil;
+import org.apache.hadoop.hbase.client.AbstractClientScanner;
+import org.apache.hadoop.hbase.client.ClientSideHFileScanner;
 import org.apache.hadoop.hbase.client.ClientSideRegionScanner;
 import org.apache.hadoop.hbase.client.Connection;
 import org.apache.hadoop.hbase.client.ConnectionFactory;
@@ -42,6 +49,7 @@ import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.client.Scan.ReadType;
 import org.apache.hadoop.hbase.client.TableDescriptor;
+import org.apache.hadoop.hbase.client.metrics.ScanMetrics;
 import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
 import org.apache.hadoop.hbase.regionserver.HRegion;
 import org.apache.hadoop.hbase.snapshot.RestoreSnapshotHelper;
@@ -59,9 +67,12 @@ import org.slf4j.LoggerFactory;
 import org.apache.hbase.thirdparty.com.google.common.collect.Lists;
 
 import org.apache.hadoop.hbase.shaded.protobuf.ProtobufUtil;
+import org.apache.hadoop.hbase.shaded.protobuf.generated.HBaseProtos;
 import org.apache.hadoop.hbase.shaded.protobuf.generated.MapReduceProtos.TableSnapshotRegionSplit;
 import org.apache.hadoop.hbase.shaded.protobuf.generated.SnapshotProtos.SnapshotDescription;
 import org.apache.hadoop.hbase.shaded.protobuf.generated.SnapshotProtos.SnapshotRegionManifest;
+import org.apache.hadoop.hbase.shaded.protobuf.generated.SnapshotProtos.SnapshotRegionManifest.FamilyFiles;
+import org.apache.hadoop.hbase.shaded.protobuf.generated.SnapshotProtos.SnapshotRegionManifest.StoreFile;
 
 /**
  * Hadoop MR API-agnostic implementation for mapreduce over table snapshots.
@@ -135,6 +146,26 @@ public class TableSnapshotInputFormatImpl {
     "hbase.TableSnapshotInputFormat.scanner.readtype";
   public static final ReadType SNAPSHOT_INPUTFORMAT_SCANNER_READTYPE_DEFAULT = ReadType.STREAM;
 
+  /**
+   * Whether to read the store files of the restored regions directly, merging them with store
+   * scanners, instead of opening the regions. This skips the block cache and the coprocessors of
+   * the table. Scans it cannot serve, e.g. with a filter or reading MOB families, open the regions
+   * as usual, see {@link ClientSideHFileScanner#canScanDirectly(TableDescriptor, Scan)}.
+   */
+  public static final String SNAPSHOT_INPUTFORMAT_DIRECT_READ_KEY =
+    "hbase.TableSnapshotInputFormat.direct.read";
+  public static final boolean SNAPSHOT_INPUTFORMAT_DIRECT_READ_DEFAULT = false;
+
+  /**
+   * The size in bytes up to which regions are packed into one InputSplit, 0 to create one split per
+   * region. Regions are grouped by their best location, and a split holds at least one region.
+   * Only applies with one split per region, and to snapshots whose manifest records the sizes of
+   * the store files, which the v1 manifest format does not.
+   */
+  public static final String SNAPSHOT_INPUTFORMAT_SPLIT_TARGET_SIZE_KEY =
+    "hbase.TableSnapshotInputFormat.split.target.size";
+  public static final long SNAPSHOT_INPUTFORMAT_SPLIT_TARGET_SIZE_DEFAULT = 0;
+
   /**
    * Implementation class for InputSplit logic common between mapred and mapreduce.
    */
@@ -142,9 +173,12 @@ public class TableSnapshotInputFormatImpl {
 
     private TableDescriptor htd;
     private RegionInfo regionInfo;
+    // the regions read after the first one, when several regions are packed into the split
+    private List<RegionInfo> nextRegionInfos = Collections.emptyList();
     private String[] locations;
     private String scan;
     private String restoreDir;
+    private long length;
 
     // constructor for mapreduce framework / Writable
     public InputSplit() {
@@ -152,8 +186,15 @@ public class TableSnapshotInputFormatImpl {
 
     public InputSplit(TableDescriptor htd, RegionInfo regionInfo, List<String> locations, Scan scan,
       Path restoreDir) {
+      this(htd, Collections.singletonList(regionInfo), locations, scan, restoreDir, 0);
+    }
+
+    public InputSplit(TableDescriptor htd, List<RegionInfo> regionInfos, List<String> locations,
+      Scan scan, Path restoreDir, long length) {
       this.htd = htd;
-      this.regionInfo = regionInfo;
+      this.regionInfo = regionInfos.get(0);
+      this.nextRegionInfos = new ArrayList<>(regionInfos.subList(1, regionInfos.size()));
+      this.length = length;
       if (locations == null || locations.isEmpty()) {
         this.locations = new String[0];
       } else {
@@ -180,9 +221,9 @@ public class TableSnapshotInputFormatImpl {
       return restoreDir;
     }
 
+    /** Returns the size of the store files of the split, as recorded in the snapshot. */
     public long getLength() {
-      // TODO: We can obtain the file sizes of the snapshot here.
-      return 0;
+      return length;
     }
 
     public String[] getLocations() {
@@ -197,6 +238,14 @@ public class TableSnapshotInputFormatImpl {
       return regionInfo;
     }
 
+    /** Returns all the regions of the split, in the order they are read. */
+    public List<RegionInfo> getRegionInfos() {
+      List<RegionInfo> regionInfos = new ArrayList<>(1 + nextRegionInfos.size());
+      regionInfos.add(regionInfo);
+      regionInfos.addAll(nextRegionInfos);
+      return regionInfos;
+    }
+
     // TODO: We should have ProtobufSerialization in Hadoop, and directly use PB objects instead of
     // doing this wrapping with Writables.
     @Override
@@ -219,7 +268,11 @@ public class TableSnapshotInputFormatImpl {
 
       Bytes.writeByteArray(out, Bytes.toBytes(scan));
       Bytes.writeByteArray(out, Bytes.toBytes(restoreDir));
-
+      out.writeLong(length);
+      out.writeInt(nextRegionInfos.size());
+      for (RegionInfo hri : nextRegionInfos) {
+        Bytes.writeByteArray(out, ProtobufUtil.toRegionInfo(hri).toByteArray());
+      }
     }
 
     @Override
@@ -235,6 +288,13 @@ public class TableSnapshotInputFormatImpl {
 
       this.scan = Bytes.toString(Bytes.readByteArray(in));
       this.restoreDir = Bytes.toString(Bytes.readByteArray(in));
+      this.length = in.readLong();
+      int numNextRegions = in.readInt();
+      this.nextRegionInfos = new ArrayList<>(numNextRegions);
+      for (int i = 0; i < numNextRegions; i++) {
+        nextRegionInfos.add(ProtobufUtil
+          .toRegionInfo(HBaseProtos.RegionInfo.parseFrom(Bytes.readByteArray(in))));
+      }
     }
   }
 
@@ -244,23 +304,30 @@ public class TableSnapshotInputFormatImpl {
   public static class RecordReader {
     private InputSplit split;
     private Scan scan;
+    private Configuration conf;
+    private FileSystem fs;
     private Result result = null;
     private ImmutableBytesWritable row = null;
-    private ClientSideRegionScanner scanner;
+    private AbstractClientScanner scanner;
+    private List<RegionInfo> regionInfos;
+    private int nextRegion;
+    private boolean directRead;
+    // shared by the scanners of the regions of the split
+    private ScanMetrics scanMetrics;
     private int numOfCompleteRows = 0;
     private int rowLimitPerSplit;
 
-    public ClientSideRegionScanner getScanner() {
+    public AbstractClientScanner getScanner() {
       return scanner;
     }
 
     public void initialize(InputSplit split, Configuration conf) throws IOException {
       this.scan = TableMapReduceUtil.convertStringToScan(split.getScan());
       this.split = split;
+      this.conf = conf;
       this.rowLimitPerSplit = conf.getInt(SNAPSHOT_INPUTFORMAT_ROW_LIMIT_PER_INPUTSPLIT, 0);
-      TableDescriptor htd = split.htd;
-      RegionInfo hri = this.split.getRegionInfo();
-      FileSystem fs = CommonFSUtils.getCurrentFileSystem(conf);
+      this.fs = CommonFSUtils.getCurrentFileSystem(conf);
+      this.regionInfos = split.getRegionInfos();
 
       // region is immutable, this should be fine,
       // otherwise we have to set the thread read point
@@ -268,12 +335,35 @@ public class TableSnapshotInputFormatImpl {
       // disable caching of data blocks
       scan.setCacheBlocks(false);
 
-      scanner =
-        new ClientSideRegionScanner(conf, fs, new Path(split.restoreDir), htd, hri, scan, null);
+      directRead = conf.getBoolean(SNAPSHOT_INPUTFORMAT_DIRECT_READ_KEY,
+        SNAPSHOT_INPUTFORMAT_DIRECT_READ_DEFAULT);
+      if (directRead && !ClientSideHFileScanner.canScanDirectly(split.htd, scan)) {
+        LOG.info("Scan {} can not read the store files directly, opening the regions", scan);
+        directRead = false;
+      }
+      scanMetrics = scan.isScanMetricsEnabled() ? new ScanMetrics() : null;
+      openNextRegion();
+    }
+
+    private void openNextRegion() throws IOException {
+      RegionInfo hri = regionInfos.get(nextRegion++);
+      Path restoreDir = new Path(split.restoreDir);
+      if (directRead) {
+        scanner =
+          new ClientSideHFileScanner(conf, fs, restoreDir, split.htd, hri, scan, scanMetrics);
+      } else {
+        scanner =
+          new ClientSideRegionScanner(conf, fs, restoreDir, split.htd, hri, scan, scanMetrics);
+      }
     }
 
     public boolean nextKeyValue() throws IOException {
       result = scanner.next();
+      while (result == null && nextRegion < regionInfos.size()) {
+        scanner.close();
+        openNextRegion();
+        result = scanner.next();
+      }
       if (result == null) {
         // we are done
         return false;
@@ -422,6 +512,21 @@ public class TableSnapshotInputFormatImpl {
     boolean useRegionLoc = conf.getBoolean(SNAPSHOT_INPUTFORMAT_LOCALITY_BY_REGION_LOCATION,
       SNAPSHOT_INPUTFORMAT_LOCALITY_BY_REGION_LOCATION_DEFAULT);
 
+    long targetSize = conf.getLong(SNAPSHOT_INPUTFORMAT_SPLIT_TARGET_SIZE_KEY,
+      SNAPSHOT_INPUTFORMAT_SPLIT_TARGET_SIZE_DEFAULT);
+    Map<String, Long> regionSizes = getRegionSizes(manifest, scan);
+    if (regionSizes == null) {
+      if (targetSize > 0) {
+        LOG.info("The manifest of snapshot {} has no store file sizes, creating one split per"
+          + " region", manifest.getSnapshotDescription().getName());
+      }
+      regionSizes = Collections.emptyMap();
+      targetSize = 0;
+    }
+    // the regions to pack into splits, by their best location
+    Map<String, List<RegionInfo>> regionsByHost =
+      targetSize > 0 && numSplits <= 1 ? new LinkedHashMap<>() : null;
+
     Connection connection = null;
     RegionLocator regionLocator = null;
     if (localityEnabled && useRegionLoc) {
@@ -456,6 +561,7 @@ public class TableSnapshotInputFormatImpl {
         }
       }
 
+      long regionSize = regionSizes.getOrDefault(hri.getEncodedName(), 0L);
       if (numSplits > 1) {
         byte[][] sp = sa.split(hri.getStartKey(), hri.getEndKey(), numSplits, true);
         for (int i = 0; i < sp.length - 1; i++) {
@@ -478,7 +584,8 @@ public class TableSnapshotInputFormatImpl {
                 Bytes.compareTo(scan.getStopRow(), sp[i + 1]) < 0 ? scan.getStopRow() : sp[i + 1]);
             }
 
-            splits.add(new InputSplit(htd, hri, hosts, boundedScan, restoreDir));
+            splits.add(new InputSplit(htd, Collections.singletonList(hri), hosts, boundedScan,
+              restoreDir, regionSize / (sp.length - 1)));
           }
         }
       } else {
@@ -486,15 +593,82 @@ public class TableSnapshotInputFormatImpl {
           PrivateCellUtil.overlappingKeys(scan.getStartRow(), scan.getStopRow(), hri.getStartKey(),
             hri.getEndKey())
         ) {
-
-          splits.add(new InputSplit(htd, hri, hosts, scan, restoreDir));
+          if (regionsByHost != null) {
+            String host = hosts == null || hosts.isEmpty() ? "" : hosts.get(0);
+            regionsByHost.computeIfAbsent(host, k -> new ArrayList<>()).add(hri);
+          } else {
+            splits.add(new InputSplit(htd, Collections.singletonList(hri), hosts, scan, restoreDir,
+              regionSize));
+          }
         }
       }
     }
 
+    if (regionsByHost != null) {
+      for (Map.Entry<String, List<RegionInfo>> entry : regionsByHost.entrySet()) {
+        List<String> hosts =
+          entry.getKey().isEmpty() ? null : Collections.singletonList(entry.getKey());
+        packRegions(htd, entry.getValue(), regionSizes, targetSize, hosts, scan, restoreDir,
+          splits);
+      }
+    }
     return splits;
   }
 
+  /**
+   * Packs the given regions, in order, into splits of up to targetSize bytes. A region larger than
+   * targetSize gets a split of its own.
+   */
+  private static void packRegions(TableDescriptor htd, List<RegionInfo> regionInfos,
+    Map<String, Long> regionSizes, long targetSize, List<String> hosts, Scan scan, Path restoreDir,
+    List<InputSplit> splits) {
+    List<RegionInfo> packed = new ArrayList<>();
+    long packedSize = 0;
+    for (RegionInfo hri : regionInfos) {
+      long regionSize = regionSizes.getOrDefault(hri.getEncodedName(), 0L);
+      if (!packed.isEmpty() && packedSize + regionSize > targetSize) {
+        splits.add(new InputSplit(htd, packed, hosts, scan, restoreDir, packedSize));
+        packed = new ArrayList<>();
+        packedSize = 0;
+      }
+      packed.add(hri);
+      packedSize += regionSize;
+    }
+    if (!packed.isEmpty()) {
+      splits.add(new InputSplit(htd, packed, hosts, scan, restoreDir, packedSize));
+    }
+  }
+
+  /**
+   * Returns the size of the store files the scan reads in each region of the snapshot, keyed by
+   * encoded region name, or null if the manifest does not record the size of every store file.
+   */
+  private static Map<String, Long> getRegionSizes(SnapshotManifest manifest, Scan scan)
+    throws IOException {
+    Map<String, Long> regionSizes = new HashMap<>();
+    MutableBoolean missingSizes = new MutableBoolean(false);
+    manifest.visitRegionManifests(regionManifest -> {
+      long size = 0;
+      for (FamilyFiles familyFiles : regionManifest.getFamilyFilesList()) {
+        if (
+          scan.hasFamilies()
+            && !scan.getFamilyMap().containsKey(familyFiles.getFamilyName().toByteArray())
+        ) {
+          continue;
+        }
+        for (StoreFile storeFile : familyFiles.getStoreFilesList()) {
+          if (!storeFile.hasFileSize()) {
+            missingSizes.setTrue();
+          }
+          size += storeFile.getFileSize();
+        }
+      }
+      regionSizes.put(ProtobufUtil.toRegionInfo(regionManifest.getRegionInfo()).getEncodedName(),
+        size);
+    });
+    return missingSizes.booleanValue() ? null : regionSizes;
+  }
+
   /**
    * Compute block locations for snapshot files (which will get the locations for referred hfiles)
    * only when localityEnabled is true.
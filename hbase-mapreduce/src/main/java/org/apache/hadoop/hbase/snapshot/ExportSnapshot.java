@@ -18,12 +18,18 @@
 package org.apache.hadoop.hbase.snapshot;
 
 import java.io.BufferedInputStream;
+import java.io.BufferedReader;
 import java.io.DataInput;
 import java.io.DataOutput;
+import java.io.EOFException;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -38,6 +44,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.function.BiConsumer;
+import java.util.zip.CRC32C;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.FSDataOutputStream;
@@ -58,6 +65,7 @@ import org.apache.hadoop.hbase.mapreduce.TableMapReduceUtil;
 import org.apache.hadoop.hbase.mob.MobUtils;
 import org.apache.hadoop.hbase.regionserver.StoreFileInfo;
 import org.apache.hadoop.hbase.util.AbstractHBaseTool;
+import org.apache.hadoop.hbase.util.Bytes;
 import org.apache.hadoop.hbase.util.CommonFSUtils;
 import org.apache.hadoop.hbase.util.EnvironmentEdgeManager;
 import org.apache.hadoop.hbase.util.FSUtils;
@@ -65,6 +73,7 @@ import org.apache.hadoop.hbase.util.HFileArchiveUtil;
 import org.apache.hadoop.hbase.util.Pair;
 import org.apache.hadoop.hbase.util.Strings;
 import org.apache.hadoop.io.BytesWritable;
+import org.apache.hadoop.io.IOUtils;
 import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.io.Writable;
 import org.apache.hadoop.mapreduce.InputFormat;
@@ -83,8 +92,10 @@ import org.apache.yetus.audience.InterfaceAudience;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.apache.hbase.thirdparty.com.google.common.base.Throwables;
 import org.apache.hbase.thirdparty.com.google.common.collect.ImmutableList;
 import org.apache.hbase.thirdparty.com.google.common.collect.ImmutableSet;
+import org.apache.hbase.thirdparty.com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.hbase.thirdparty.org.apache.commons.cli.CommandLine;
 import org.apache.hbase.thirdparty.org.apache.commons.cli.Option;
 
@@ -133,6 +144,18 @@ public class ExportSnapshot extends AbstractHBaseTool implements Tool {
   private static final int DEFAULT_COPY_MANIFEST_THREADS =
     Runtime.getRuntime().availableProcessors();
   private static final String CONF_STORAGE_POLICY = "snapshot.export.storage.policy.family";
+  /**
+   * Files larger than this are copied as chunks of this size, in parallel, 0 to copy every file as
+   * a whole. Must be a multiple of the block size of the output file system, so the concatenated
+   * chunks have the block layout, and so the checksum, of a file copied as a whole.
+   */
+  static final String CONF_CHUNK_SIZE = "snapshot.export.chunk.size";
+  private static final long DEFAULT_CHUNK_SIZE = 0;
+  /** The number of chunks of a file copied in parallel by a mapper */
+  static final String CONF_CHUNK_THREADS = "snapshot.export.chunk.threads";
+  private static final int DEFAULT_CHUNK_THREADS = 4;
+  private static final String MR_FRAMEWORK_NAME = "mapreduce.framework.name";
+  private static final String MR_LOCAL_MAX_MAPS = "mapreduce.local.map.tasks.maximum";
 
   static class Testing {
     static final String CONF_TEST_FAILURE = "test.snapshot.export.failure";
@@ -180,6 +203,85 @@ public class ExportSnapshot extends AbstractHBaseTool implements Tool {
     static final Option FILE_LOCATION_RESOLVER = new Option(null, "file-location-resolver", true,
       "Fully qualified class name of an implementation of ExportSnapshot.FileLocationResolver. "
         + "See JavaDoc on that class for more information.");
+    static final Option LOCAL = new Option(null, "local", false,
+      "Run the copy job with the local MapReduce job runner, in this process, instead of "
+        + "submitting it to the cluster, for small exports. --mappers sets the number of "
+        + "map tasks run in parallel.");
+  }
+
+  /**
+   * The chunks of a file copied so far, persisted next to the output file, so that a retried task
+   * only copies the chunks which were not completed. A chunk is recorded with the CRC32C of its
+   * content, which is checked before reusing it.
+   */
+  static final class ChunkManifest {
+    private final long fileLength;
+    private final long chunkSize;
+    private final Map<Integer, Long> checksums = new HashMap<>();
+
+    ChunkManifest(long fileLength, long chunkSize) {
+      this.fileLength = fileLength;
+      this.chunkSize = chunkSize;
+    }
+
+    static Path getPath(Path outputPath) {
+      return new Path(outputPath.getParent(), "." + outputPath.getName() + ".chunks");
+    }
+
+    /**
+     * Returns the path of a chunk, in the directory of the output file as required by
+     * {@link FileSystem#concat(Path, Path[])}.
+     */
+    static Path getChunkPath(Path outputPath, int chunk) {
+      return new Path(outputPath.getParent(), "." + outputPath.getName() + ".chunk." + chunk);
+    }
+
+    /**
+     * Returns the manifest at the given path, or an empty one if there is none, or if it was
+     * written for another file length or chunk size.
+     */
+    static ChunkManifest read(FileSystem fs, Path path, long fileLength, long chunkSize)
+      throws IOException {
+      ChunkManifest manifest = new ChunkManifest(fileLength, chunkSize);
+      if (!fs.exists(path)) {
+        return manifest;
+      }
+      try (BufferedReader reader =
+        new BufferedReader(new InputStreamReader(fs.open(path), StandardCharsets.UTF_8))) {
+        String[] header = reader.readLine().split(" ");
+        if (Long.parseLong(header[0]) != fileLength || Long.parseLong(header[1]) != chunkSize) {
+          LOG.info("Ignoring chunk manifest {} written for another copy", path);
+          return manifest;
+        }
+        String line;
+        while ((line = reader.readLine()) != null) {
+          String[] fields = line.split(" ");
+          manifest.checksums.put(Integer.parseInt(fields[0]), Long.parseLong(fields[1]));
+        }
+      } catch (RuntimeException e) {
+        LOG.warn("Ignoring corrupted chunk manifest {}", path, e);
+        manifest.checksums.clear();
+      }
+      return manifest;
+    }
+
+    synchronized Long getChecksum(int chunk) {
+      return checksums.get(chunk);
+    }
+
+    /** Records a completed chunk, and persists the manifest */
+    synchronized void complete(FileSystem fs, Path path, int chunk, long checksum)
+      throws IOException {
+      checksums.put(chunk, checksum);
+      try (FSDataOutputStream out = fs.create(path, true)) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(fileLength).append(' ').append(chunkSize).append('\n');
+        for (Map.Entry<Integer, Long> e : checksums.entrySet()) {
+          sb.append(e.getKey()).append(' ').append(e.getValue()).append('\n');
+        }
+        out.write(Bytes.toBytes(sb.toString()));
+      }
+    }
   }
 
   // Export Map-Reduce Counters, to keep track of the progress
@@ -385,11 +487,9 @@ public class ExportSnapshot extends AbstractHBaseTool implements Tool {
         }
       }
 
-      InputStream in = openSourceFile(context, inputInfo);
-      int bandwidthMB = context.getConfiguration().getInt(CONF_BANDWIDTH_MB, 100);
-      if (Integer.MAX_VALUE != bandwidthMB) {
-        in = new ThrottledInputStream(new BufferedInputStream(in), bandwidthMB * 1024 * 1024L);
-      }
+      long chunkSize = context.getConfiguration().getLong(CONF_CHUNK_SIZE, DEFAULT_CHUNK_SIZE);
+      boolean chunked = chunkSize > 0 && inputStat.getLen() > chunkSize;
+      InputStream in = chunked ? null : throttle(context, openSourceFile(context, inputInfo), 1);
 
       Path inputPath = inputStat.getPath();
       try {
@@ -404,11 +504,14 @@ public class ExportSnapshot extends AbstractHBaseTool implements Tool {
           LOG.info("Setting storage policy {} for {}", key, outputPath.getParent());
           outputFs.setStoragePolicy(outputPath.getParent(), key);
         }
-        FSDataOutputStream out = outputFs.create(outputPath, true);
-
         long stime = EnvironmentEdgeManager.currentTime();
-        long totalBytesWritten =
-          copyData(context, inputPath, in, outputPath, out, inputStat.getLen());
+        long totalBytesWritten;
+        if (chunked) {
+          totalBytesWritten = copyChunks(context, inputInfo, inputStat, outputPath, chunkSize);
+        } else {
+          FSDataOutputStream out = outputFs.create(outputPath, true);
+          totalBytesWritten = copyData(context, inputPath, in, outputPath, out, inputStat.getLen());
+        }
 
         // Verify the file length and checksum
         verifyCopyResult(inputStat, outputFs.getFileStatus(outputPath));
@@ -433,6 +536,155 @@ public class ExportSnapshot extends AbstractHBaseTool implements Tool {
       }
     }
 
+    /**
+     * Limits the bandwidth of the given stream to its share of the bandwidth of the mapper.
+     */
+    private InputStream throttle(final Context context, final InputStream in, final int streams) {
+      int bandwidthMB = context.getConfiguration().getInt(CONF_BANDWIDTH_MB, 100);
+      if (Integer.MAX_VALUE == bandwidthMB) {
+        return in;
+      }
+      return new ThrottledInputStream(new BufferedInputStream(in),
+        Math.max(1, bandwidthMB * 1024 * 1024L / streams));
+    }
+
+    /**
+     * Copies the given file as chunks of chunkSize bytes, in parallel, to files next to the output
+     * file, which are then concatenated. The chunks already copied by a previous attempt, as
+     * recorded in the {@link ChunkManifest}, are not copied again.
+     * @return the number of bytes copied
+     */
+    private long copyChunks(final Context context, final SnapshotFileInfo inputInfo,
+      final FileStatus inputStat, final Path outputPath, final long chunkSize) throws IOException {
+      long fileLength = inputStat.getLen();
+      int chunks = (int) ((fileLength + chunkSize - 1) / chunkSize);
+      Path manifestPath = ChunkManifest.getPath(outputPath);
+      ChunkManifest manifest = ChunkManifest.read(outputFs, manifestPath, fileLength, chunkSize);
+      int threads = Math.max(1, Math.min(chunks,
+        context.getConfiguration().getInt(CONF_CHUNK_THREADS, DEFAULT_CHUNK_THREADS)));
+      ExecutorService pool = Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder()
+        .setNameFormat("ExportSnapshot-chunk-%d").setDaemon(true).build());
+      Path[] chunkPaths = new Path[chunks];
+      List<Future<Long>> futures = new ArrayList<>();
+      long bytesSkipped = 0;
+      try {
+        for (int i = 0; i < chunks; i++) {
+          final int chunk = i;
+          final long offset = i * chunkSize;
+          final long length = Math.min(chunkSize, fileLength - offset);
+          final Path chunkPath = ChunkManifest.getChunkPath(outputPath, chunk);
+          chunkPaths[chunk] = chunkPath;
+          Long checksum = manifest.getChecksum(chunk);
+          if (
+            checksum != null && outputFs.exists(chunkPath)
+              && outputFs.getFileStatus(chunkPath).getLen() == length
+              && (!verifyChecksum || checksum == getChunkChecksum(chunkPath))
+          ) {
+            LOG.info("Skip copy of chunk {} of {}, copied by a previous attempt", chunk,
+              inputStat.getPath());
+            bytesSkipped += length;
+            continue;
+          }
+          futures.add(pool.submit(() -> {
+            long copied = copyChunk(context, inputInfo, offset, length, chunkPath, threads);
+            manifest.complete(outputFs, manifestPath, chunk, copied);
+            return length;
+          }));
+        }
+        for (Future<Long> future : futures) {
+          future.get();
+        }
+      } catch (InterruptedException e) {
+        throw (InterruptedIOException) new InterruptedIOException().initCause(e);
+      } catch (ExecutionException e) {
+        Throwables.throwIfInstanceOf(e.getCause(), IOException.class);
+        throw new IOException(e.getCause());
+      } finally {
+        pool.shutdownNow();
+      }
+      context.getCounter(Counter.BYTES_SKIPPED).increment(bytesSkipped);
+      concatChunks(outputPath, chunkPaths);
+      outputFs.delete(manifestPath, false);
+      return fileLength - bytesSkipped;
+    }
+
+    /**
+     * Copies length bytes of the input file, starting at offset, to the given chunk file.
+     * @return the CRC32C of the copied bytes
+     */
+    private long copyChunk(final Context context, final SnapshotFileInfo inputInfo,
+      final long offset, final long length, final Path chunkPath, final int streams)
+      throws IOException {
+      CRC32C crc = new CRC32C();
+      FSDataInputStream source = openSourceFile(context, inputInfo);
+      source.seek(offset);
+      try (InputStream in = throttle(context, source, streams);
+        FSDataOutputStream out = outputFs.create(chunkPath, true)) {
+        byte[] buffer = new byte[bufferSize];
+        long remaining = length;
+        while (remaining > 0) {
+          int bytesRead = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+          if (bytesRead < 0) {
+            throw new EOFException("Unexpected end of " + inputInfo + " at " + (offset + length
+              - remaining) + ", expected " + (offset + length) + " bytes");
+          }
+          out.write(buffer, 0, bytesRead);
+          crc.update(buffer, 0, bytesRead);
+          remaining -= bytesRead;
+          context.getCounter(Counter.BYTES_COPIED).increment(bytesRead);
+        }
+      }
+      if (verifyChecksum && crc.getValue() != getChunkChecksum(chunkPath)) {
+        throw new IOException("Checksum mismatch between " + inputInfo + " at " + offset
+          + " and its copy " + chunkPath);
+      }
+      return crc.getValue();
+    }
+
+    private long getChunkChecksum(final Path chunkPath) throws IOException {
+      CRC32C crc = new CRC32C();
+      try (InputStream in = outputFs.open(chunkPath)) {
+        byte[] buffer = new byte[bufferSize];
+        int bytesRead;
+        while ((bytesRead = in.read(buffer)) > 0) {
+          crc.update(buffer, 0, bytesRead);
+        }
+      }
+      return crc.getValue();
+    }
+
+    /**
+     * Assembles the chunks into the output file, with {@link FileSystem#concat(Path, Path[])} when
+     * the output file system supports it, else by copying them one after the other.
+     */
+    private void concatChunks(final Path outputPath, final Path[] chunkPaths) throws IOException {
+      Path assembled = chunkPaths[0];
+      if (chunkPaths.length > 1) {
+        try {
+          outputFs.concat(assembled, Arrays.copyOfRange(chunkPaths, 1, chunkPaths.length));
+        } catch (UnsupportedOperationException | IOException | IllegalArgumentException e) {
+          // HDFS rejects a concat with an IOException, e.g. in an encryption zone
+          LOG.debug("Unable to concat the chunks of {} on {}, copying them", outputPath,
+            outputFs.getUri(), e);
+          try (FSDataOutputStream out = outputFs.create(outputPath, true)) {
+            for (Path chunkPath : chunkPaths) {
+              try (InputStream in = outputFs.open(chunkPath)) {
+                IOUtils.copyBytes(in, out, bufferSize, false);
+              }
+            }
+          }
+          for (Path chunkPath : chunkPaths) {
+            outputFs.delete(chunkPath, false);
+          }
+          return;
+        }
+      }
+      outputFs.delete(outputPath, false);
+      if (!outputFs.rename(assembled, outputPath)) {
+        throw new IOException("Unable to rename " + assembled + " to " + outputPath);
+      }
+    }
+
     /**
      * Create the output folder and optionally set ownership.
      */
@@ -1028,8 +1280,8 @@ public class ExportSnapshot extends AbstractHBaseTool implements Tool {
   private void runCopyJob(final Path inputRoot, final Path outputRoot, final String snapshotName,
     final Path snapshotDir, final boolean verifyChecksum, final String filesUser,
     final String filesGroup, final int filesMode, final int mappers, final int bandwidthMB,
-    final String storagePolicy, final String customFileGrouper, final String fileLocationResolver)
-    throws IOException, InterruptedException, ClassNotFoundException {
+    final String storagePolicy, final String customFileGrouper, final String fileLocationResolver,
+    final boolean local) throws IOException, InterruptedException, ClassNotFoundException {
     Configuration conf = getConf();
     if (filesGroup != null) conf.set(CONF_FILES_GROUP, filesGroup);
     if (filesUser != null) conf.set(CONF_FILES_USER, filesUser);
@@ -1055,6 +1307,12 @@ public class ExportSnapshot extends AbstractHBaseTool implements Tool {
     if (fileLocationResolver != null) {
       conf.set(CONF_INPUT_FILE_LOCATION_RESOLVER_CLASS, fileLocationResolver);
     }
+    if (local) {
+      // run the mappers as threads of this process, one per split
+      conf.set(MR_FRAMEWORK_NAME, "local");
+      conf.setInt(MR_LOCAL_MAX_MAPS,
+        mappers > 0 ? mappers : Runtime.getRuntime().availableProcessors());
+    }
 
     String jobname = conf.get(CONF_MR_JOB_NAME, "ExportSnapshot-" + snapshotName);
     Job job = new Job(conf);
@@ -1175,6 +1433,7 @@ public class ExportSnapshot extends AbstractHBaseTool implements Tool {
   private String storagePolicy = null;
   private String customFileGrouper = null;
   private String fileLocationResolver = null;
+  private boolean local = false;
 
   @Override
   protected void processOptions(CommandLine cmd) {
@@ -1206,6 +1465,7 @@ public class ExportSnapshot extends AbstractHBaseTool implements Tool {
     if (cmd.hasOption(Options.FILE_LOCATION_RESOLVER.getLongOpt())) {
       fileLocationResolver = cmd.getOptionValue(Options.FILE_LOCATION_RESOLVER.getLongOpt());
     }
+    local = cmd.hasOption(Options.LOCAL.getLongOpt());
   }
 
   /**
@@ -1243,6 +1503,14 @@ public class ExportSnapshot extends AbstractHBaseTool implements Tool {
     FileSystem inputFs = FileSystem.get(inputRoot.toUri(), srcConf);
     Configuration destConf = HBaseConfiguration.createClusterConf(conf, null, CONF_DEST_PREFIX);
     FileSystem outputFs = FileSystem.get(outputRoot.toUri(), destConf);
+    long chunkSize = conf.getLong(CONF_CHUNK_SIZE, DEFAULT_CHUNK_SIZE);
+    long outputBlockSize = outputFs.getDefaultBlockSize(outputRoot);
+    if (chunkSize > 0 && outputBlockSize > 0 && chunkSize % outputBlockSize != 0) {
+      System.err.println("The chunk size (" + CONF_CHUNK_SIZE + "=" + chunkSize
+        + ") is not a multiple of the block size of the destination file-system ("
+        + outputBlockSize + ")");
+      return EXIT_FAILURE;
+    }
     boolean skipTmp = conf.getBoolean(CONF_SKIP_TMP, false)
       || conf.get(SnapshotDescriptionUtils.SNAPSHOT_WORKING_DIR) != null;
     Path snapshotDir = SnapshotDescriptionUtils.getCompletedSnapshotDir(snapshotName, inputRoot);
@@ -1375,7 +1643,7 @@ public class ExportSnapshot extends AbstractHBaseTool implements Tool {
     try {
       runCopyJob(inputRoot, outputRoot, snapshotName, snapshotDir, verifyChecksum, filesUser,
         filesGroup, filesMode, mappers, bandwidthMB, storagePolicy, customFileGrouper,
-        fileLocationResolver);
+        fileLocationResolver, local);
 
       LOG.info("Finalize the Snapshot Export");
       if (!skipTmp) {
@@ -1435,6 +1703,7 @@ public class ExportSnapshot extends AbstractHBaseTool implements Tool {
     addOption(Options.RESET_TTL);
     addOption(Options.CUSTOM_FILE_GROUPER);
     addOption(Options.FILE_LOCATION_RESOLVER);
+    addOption(Options.LOCAL);
   }
 
   public static void main(String[] args) {
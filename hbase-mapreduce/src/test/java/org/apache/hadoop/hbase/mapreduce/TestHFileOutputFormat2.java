@@ -1044,6 +1044,80 @@ public class TestHFileOutputFormat2 extends HFileOutputFormat2TestBase {
     return null;
   }
 
+  /**
+   * Test that {@link HFileOutputFormat2} RecordWriter rolls its files at region boundaries and
+   * checks the order of the rows, when configured for presorted input.
+   */
+  @Test
+  public void testWritePresortedCells() throws Exception {
+    Configuration conf = new Configuration(this.UTIL.getConfiguration());
+    RecordWriter<ImmutableBytesWritable, Cell> writer = null;
+    TaskAttemptContext context = null;
+    Path dir = UTIL.getDataTestDir("testWritePresortedCells");
+    byte[] f1 = Bytes.toBytes("f1");
+    byte[] f2 = Bytes.toBytes("f2");
+    try {
+      conf.setBoolean(HFileOutputFormat2.LOCALITY_SENSITIVE_CONF_KEY, false);
+      Job job = Job.getInstance(conf);
+      FileOutputFormat.setOutputPath(job, dir);
+      RegionLocator regionLocator = Mockito.mock(RegionLocator.class);
+      setupMockStartKeys(regionLocator);
+      setupMockTableName(regionLocator);
+      TableDescriptor tableDescriptor = TableDescriptorBuilder.newBuilder(TABLE_NAMES[0])
+        .setColumnFamily(ColumnFamilyDescriptorBuilder.of(f1))
+        .setColumnFamily(ColumnFamilyDescriptorBuilder.of(f2)).build();
+      HFileOutputFormat2.configureIncrementalLoadPresorted(job, tableDescriptor, regionLocator);
+      assertEquals(0, job.getNumReduceTasks());
+
+      context = createTestTaskAttemptContext(job);
+      writer = new HFileOutputFormat2().getRecordWriter(context);
+      // the regions start at aaa, ggg and zzz
+      String[][] cells =
+        { { "b", "f1" }, { "b", "f2" }, { "c", "f1" }, { "h", "f2" }, { "zzzz", "f1" } };
+      for (String[] cell : cells) {
+        byte[] row = Bytes.toBytes(cell[0]);
+        byte[] family = Bytes.toBytes(cell[1]);
+        writer.write(new ImmutableBytesWritable(row), new KeyValue(row, family, family, row));
+      }
+      try {
+        byte[] row = Bytes.toBytes("a");
+        writer.write(new ImmutableBytesWritable(row), new KeyValue(row, f1, f1, row));
+        fail("Should fail on a row out of order");
+      } catch (IOException e) {
+        assertTrue(e.getMessage().contains("out of order"));
+      }
+      writer.close(context);
+      writer = null;
+
+      // one file per family and region written to
+      FileSystem fs = dir.getFileSystem(conf);
+      Map<String, Integer> filesPerFamily = new HashMap<>();
+      RemoteIterator<LocatedFileStatus> iterator = fs.listFiles(dir, true);
+      while (iterator.hasNext()) {
+        Path path = iterator.next().getPath();
+        HFile.Reader reader = HFile.createReader(fs, path, new CacheConfig(conf), true, conf);
+        try {
+          String family = path.getParent().getName();
+          filesPerFamily.merge(family, 1, Integer::sum);
+          // all the rows of a file are in one region
+          String firstRow = Bytes.toString(reader.getFirstRowKey().get());
+          String lastRow = Bytes.toString(reader.getLastRowKey().get());
+          assertEquals(firstRow.compareTo("ggg") < 0, lastRow.compareTo("ggg") < 0);
+          assertEquals(firstRow.compareTo("zzz") < 0, lastRow.compareTo("zzz") < 0);
+        } finally {
+          reader.close();
+        }
+      }
+      assertEquals(2, filesPerFamily.get("f1").intValue());
+      assertEquals(2, filesPerFamily.get("f2").intValue());
+    } finally {
+      if (writer != null && context != null) {
+        writer.close(context);
+      }
+      dir.getFileSystem(conf).delete(dir, true);
+    }
+  }
+
   @Test
   public void TestConfigureCompression() throws Exception {
     Configuration conf = new Configuration(this.UTIL.getConfiguration());
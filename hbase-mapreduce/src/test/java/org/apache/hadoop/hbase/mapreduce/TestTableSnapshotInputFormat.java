@@ -17,12 +17,14 @@
  */
 package org.apache.hadoop.hbase.mapreduce;
 
+import static org.apache.hadoop.hbase.mapreduce.TableSnapshotInputFormatImpl.SNAPSHOT_INPUTFORMAT_DIRECT_READ_KEY;
 import static org.apache.hadoop.hbase.mapreduce.TableSnapshotInputFormatImpl.SNAPSHOT_INPUTFORMAT_LOCALITY_BY_REGION_LOCATION;
 import static org.apache.hadoop.hbase.mapreduce.TableSnapshotInputFormatImpl.SNAPSHOT_INPUTFORMAT_LOCALITY_BY_REGION_LOCATION_DEFAULT;
 import static org.apache.hadoop.hbase.mapreduce.TableSnapshotInputFormatImpl.SNAPSHOT_INPUTFORMAT_LOCALITY_ENABLED_DEFAULT;
 import static org.apache.hadoop.hbase.mapreduce.TableSnapshotInputFormatImpl.SNAPSHOT_INPUTFORMAT_LOCALITY_ENABLED_KEY;
 import static org.apache.hadoop.hbase.mapreduce.TableSnapshotInputFormatImpl.SNAPSHOT_INPUTFORMAT_ROW_LIMIT_PER_INPUTSPLIT;
 import static org.apache.hadoop.hbase.mapreduce.TableSnapshotInputFormatImpl.SNAPSHOT_INPUTFORMAT_SCANNER_READTYPE;
+import static org.apache.hadoop.hbase.mapreduce.TableSnapshotInputFormatImpl.SNAPSHOT_INPUTFORMAT_SPLIT_TARGET_SIZE_KEY;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -39,6 +41,7 @@ import org.apache.hadoop.hbase.HConstants;
 import org.apache.hadoop.hbase.HDFSBlocksDistribution;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.Admin;
+import org.apache.hadoop.hbase.client.RegionInfo;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.client.Scan.ReadType;
@@ -46,7 +49,9 @@ import org.apache.hadoop.hbase.client.Table;
 import org.apache.hadoop.hbase.client.TestTableSnapshotScanner;
 import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
 import org.apache.hadoop.hbase.mapreduce.TableSnapshotInputFormat.TableSnapshotRegionSplit;
+import org.apache.hadoop.hbase.snapshot.SnapshotManifest;
 import org.apache.hadoop.hbase.snapshot.SnapshotTestingUtils;
+import org.apache.hadoop.hbase.snapshot.SnapshotTestingUtils.SnapshotMock;
 import org.apache.hadoop.hbase.testclassification.LargeTests;
 import org.apache.hadoop.hbase.testclassification.VerySlowMapReduceTests;
 import org.apache.hadoop.hbase.util.Bytes;
@@ -304,6 +309,75 @@ public class TestTableSnapshotInputFormat extends TableSnapshotInputFormatTestBa
     }
   }
 
+  @Test
+  public void testWithMockedMapReduceDirectReadPackedSplits() throws Exception {
+    String snapshotName = name.getMethodName() + "Snapshot";
+    final TableName tableName = TableName.valueOf(name.getMethodName());
+    try {
+      createTableAndSnapshot(UTIL, tableName, snapshotName, getStartRow(), getEndRow(), 10);
+
+      Configuration conf = new Configuration(UTIL.getConfiguration());
+      conf.setBoolean(SNAPSHOT_INPUTFORMAT_LOCALITY_ENABLED_KEY, false);
+      conf.setBoolean(SNAPSHOT_INPUTFORMAT_DIRECT_READ_KEY, true);
+      // pack all the regions into one split
+      conf.setLong(SNAPSHOT_INPUTFORMAT_SPLIT_TARGET_SIZE_KEY, Long.MAX_VALUE);
+      Job job = new Job(conf);
+      Path tmpTableDir = UTIL.getDataTestDirOnTestFS(snapshotName);
+      // the first and the last regions are out of the scan
+      Scan scan = new Scan().withStartRow(bbc).withStopRow(yya);
+
+      TableMapReduceUtil.initTableSnapshotMapperJob(snapshotName, scan,
+        TestTableSnapshotMapper.class, ImmutableBytesWritable.class, NullWritable.class, job, false,
+        tmpTableDir);
+
+      List<InputSplit> splits = new TableSnapshotInputFormat().getSplits(job);
+      assertEquals(1, splits.size());
+      TableSnapshotInputFormatImpl.InputSplit split =
+        ((TableSnapshotRegionSplit) splits.get(0)).getDelegate();
+      assertEquals(8, split.getRegionInfos().size());
+      Assert.assertTrue(split.getLength() > 0);
+      verifyWithMockedMapReduce(job, 10, 1, bbc, yya);
+
+      // every region is larger than the target size, so gets a split of its own
+      job.getConfiguration().setLong(SNAPSHOT_INPUTFORMAT_SPLIT_TARGET_SIZE_KEY, 1);
+      verifyWithMockedMapReduce(job, 10, 8, bbc, yya);
+    } finally {
+      UTIL.getAdmin().deleteSnapshot(snapshotName);
+      UTIL.deleteTable(tableName);
+    }
+  }
+
+  @Test
+  public void testPackedSplitsWithoutFileSizes() throws Exception {
+    Configuration conf = new Configuration(UTIL.getConfiguration());
+    conf.setBoolean(SNAPSHOT_INPUTFORMAT_LOCALITY_ENABLED_KEY, false);
+    conf.setLong(SNAPSHOT_INPUTFORMAT_SPLIT_TARGET_SIZE_KEY, Long.MAX_VALUE);
+    Path testRootDir = UTIL.getDataTestDirOnTestFS(name.getMethodName());
+    SnapshotMock snapshotMock = new SnapshotMock(conf, fs, testRootDir);
+    // the v1 manifest does not record the sizes of the store files
+    for (boolean v1 : new boolean[] { true, false }) {
+      SnapshotMock.SnapshotBuilder builder = v1
+        ? snapshotMock.createSnapshotV1("snapshotV1", "tableV1", 4)
+        : snapshotMock.createSnapshotV2("snapshotV2", "tableV2", 4);
+      for (int i = 0; i < 4; i++) {
+        builder.addRegion();
+      }
+      Path snapshotDir = builder.commit();
+      SnapshotManifest manifest =
+        SnapshotManifest.open(conf, fs, snapshotDir, builder.getSnapshotDescription());
+      List<RegionInfo> regionInfos =
+        TableSnapshotInputFormatImpl.getRegionInfosFromManifest(manifest);
+      List<TableSnapshotInputFormatImpl.InputSplit> splits = TableSnapshotInputFormatImpl
+        .getSplits(new Scan(), manifest, regionInfos, testRootDir, conf);
+      // without the sizes a region could be as large as any, so is not packed with the others
+      assertEquals(v1 ? 4 : 1, splits.size());
+      for (TableSnapshotInputFormatImpl.InputSplit split : splits) {
+        assertEquals(v1 ? 1 : 4, split.getRegionInfos().size());
+        assertEquals(v1, split.getLength() == 0);
+      }
+    }
+  }
+
   @Test
   public void testScanLimit() throws Exception {
     final TableName tableName = TableName.valueOf(name.getMethodName());
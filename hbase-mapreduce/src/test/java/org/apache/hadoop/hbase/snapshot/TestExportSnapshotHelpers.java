@@ -18,6 +18,7 @@
 package org.apache.hadoop.hbase.snapshot;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
@@ -26,9 +27,14 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hbase.HBaseClassTestRule;
+import org.apache.hadoop.hbase.HBaseCommonTestingUtil;
 import org.apache.hadoop.hbase.testclassification.RegionServerTests;
 import org.apache.hadoop.hbase.testclassification.SmallTests;
+import org.apache.hadoop.hbase.util.Bytes;
 import org.apache.hadoop.hbase.util.Pair;
 import org.junit.ClassRule;
 import org.junit.Test;
@@ -229,6 +235,38 @@ public class TestExportSnapshotHelpers {
     }
   }
 
+  @Test
+  public void testChunkManifest() throws Exception {
+    HBaseCommonTestingUtil util = new HBaseCommonTestingUtil();
+    FileSystem fs = FileSystem.getLocal(util.getConfiguration());
+    Path outputPath = new Path(util.getDataTestDir("testChunkManifest"), "hfile");
+    Path path = ExportSnapshot.ChunkManifest.getPath(outputPath);
+    assertEquals(outputPath.getParent(), path.getParent());
+    assertEquals(outputPath.getParent(),
+      ExportSnapshot.ChunkManifest.getChunkPath(outputPath, 1).getParent());
+
+    ExportSnapshot.ChunkManifest manifest = ExportSnapshot.ChunkManifest.read(fs, path, 100, 30);
+    assertNull(manifest.getChecksum(0));
+    manifest.complete(fs, path, 0, 42);
+    manifest.complete(fs, path, 2, 43);
+
+    manifest = ExportSnapshot.ChunkManifest.read(fs, path, 100, 30);
+    assertEquals(42L, manifest.getChecksum(0).longValue());
+    assertNull(manifest.getChecksum(1));
+    assertEquals(43L, manifest.getChecksum(2).longValue());
+
+    // the chunks of another copy of the file can not be reused
+    assertNull(ExportSnapshot.ChunkManifest.read(fs, path, 100, 40).getChecksum(0));
+    assertNull(ExportSnapshot.ChunkManifest.read(fs, path, 101, 30).getChecksum(0));
+
+    // nor the ones of a corrupted manifest
+    try (FSDataOutputStream out = fs.create(path, true)) {
+      out.write(Bytes.toBytes("100 30\n0"));
+    }
+    assertNull(ExportSnapshot.ChunkManifest.read(fs, path, 100, 30).getChecksum(0));
+    fs.delete(path.getParent(), true);
+  }
+
   public static class TestCustomFileGrouper implements ExportSnapshot.CustomFileGrouper {
     @Override
     public Collection<Collection<Pair<SnapshotFileInfo, Long>>>
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hbase.snapshot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Set;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.GlobalStorageStatistics;
+import org.apache.hadoop.fs.LocatedFileStatus;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.RemoteIterator;
+import org.apache.hadoop.hbase.HBaseClassTestRule;
+import org.apache.hadoop.hbase.HBaseTestingUtil;
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.snapshot.SnapshotTestingUtils.SnapshotMock;
+import org.apache.hadoop.hbase.testclassification.MapReduceTests;
+import org.apache.hadoop.hbase.testclassification.MediumTests;
+import org.apache.hadoop.hbase.util.CommonFSUtils;
+import org.apache.hadoop.hdfs.DFSOpsCountStatistics;
+import org.apache.hadoop.hdfs.DistributedFileSystem;
+import org.apache.hadoop.util.ToolRunner;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Tests exporting a snapshot to HDFS with the files copied as chunks, which are assembled with
+ * {@link FileSystem#concat(Path, Path[])}.
+ */
+@Category({ MapReduceTests.class, MediumTests.class })
+public class TestExportSnapshotInChunks {
+
+  @ClassRule
+  public static final HBaseClassTestRule CLASS_RULE =
+    HBaseClassTestRule.forClass(TestExportSnapshotInChunks.class);
+
+  private static final HBaseTestingUtil TEST_UTIL = new HBaseTestingUtil();
+
+  // tiny blocks, so the few bytes of the mocked store files make several chunks
+  private static final int BLOCK_SIZE = 32;
+
+  private static FileSystem fs;
+
+  private static Path testDir;
+
+  @BeforeClass
+  public static void setUpBeforeClass() throws Exception {
+    Configuration conf = TEST_UTIL.getConfiguration();
+    conf.setLong("dfs.namenode.fs-limits.min-block-size", 0);
+    conf.setInt("dfs.bytes-per-checksum", 16);
+    conf.setLong("dfs.blocksize", BLOCK_SIZE);
+    TEST_UTIL.startMiniDFSCluster(1);
+    fs = TEST_UTIL.getDFSCluster().getFileSystem();
+    testDir = TestExportSnapshotV1NoCluster.setup(fs, TEST_UTIL);
+  }
+
+  @AfterClass
+  public static void tearDownAfterClass() throws Exception {
+    TEST_UTIL.shutdownMiniDFSCluster();
+  }
+
+  private static long getConcatOps() {
+    return GlobalStorageStatistics.INSTANCE.get(DFSOpsCountStatistics.NAME)
+      .getLong(DFSOpsCountStatistics.OpType.CONCAT.getSymbol());
+  }
+
+  @Test
+  public void testExportInChunks() throws Exception {
+    assertTrue(fs instanceof DistributedFileSystem);
+    SnapshotMock snapshotMock = new SnapshotMock(TEST_UTIL.getConfiguration(), fs, testDir);
+    SnapshotMock.SnapshotBuilder builder =
+      snapshotMock.createSnapshotV2("tableInChunks", "tableInChunks");
+    builder.addRegion();
+    builder.commit();
+    String snapshotName = builder.getSnapshotDescription().getName();
+    TableName tableName = builder.getTableDescriptor().getTableName();
+
+    Configuration conf = new Configuration(TEST_UTIL.getConfiguration());
+    conf.setLong(ExportSnapshot.CONF_CHUNK_SIZE, 2 * BLOCK_SIZE);
+    Path tgtDir = TestExportSnapshotV1NoCluster.getDestinationDir(fs, TEST_UTIL, testDir);
+    long concatsBefore = getConcatOps();
+    // the checksums of the assembled files are verified against the input ones
+    int res = ToolRunner.run(conf, new ExportSnapshot(),
+      new String[] { "--snapshot", snapshotName, "--copy-to", tgtDir.toString(), "--local" });
+    assertEquals(0, res);
+    // the chunks were concatenated rather than copied into the output files
+    assertTrue(getConcatOps() > concatsBefore);
+
+    Set<String> exportedFiles =
+      TestExportSnapshot.verifySnapshot(conf, fs, tgtDir, tableName, snapshotName, false, null);
+    assertFalse(exportedFiles.isEmpty());
+    Path exportedTableDir = CommonFSUtils
+      .getTableDir(new Path(tgtDir, HConstants.HFILE_ARCHIVE_DIRECTORY), tableName);
+    int chunkedFiles = 0;
+    RemoteIterator<LocatedFileStatus> files = fs.listFiles(exportedTableDir, true);
+    while (files.hasNext()) {
+      LocatedFileStatus exported = files.next();
+      // no chunk or chunk manifest is left behind
+      assertFalse(exported.getPath().toString(), exported.getPath().getName().startsWith("."));
+      if (exported.getLen() > 2 * BLOCK_SIZE) {
+        chunkedFiles++;
+        // the blocks of the chunks are kept as they are, all of them full but the last one
+        assertEquals((exported.getLen() + BLOCK_SIZE - 1) / BLOCK_SIZE,
+          exported.getBlockLocations().length);
+      }
+    }
+    assertTrue(chunkedFiles > 0);
+  }
+}
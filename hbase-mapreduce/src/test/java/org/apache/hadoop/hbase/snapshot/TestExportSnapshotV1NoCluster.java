@@ -17,14 +17,22 @@
  */
 package org.apache.hadoop.hbase.snapshot;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashSet;
 import java.util.Set;
+import org.apache.commons.io.IOUtils;
+import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.LocalFileSystem;
+import org.apache.hadoop.fs.LocatedFileStatus;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.RemoteIterator;
 import org.apache.hadoop.hbase.HBaseClassTestRule;
 import org.apache.hadoop.hbase.HBaseCommonTestingUtil;
 import org.apache.hadoop.hbase.HConstants;
@@ -34,8 +42,10 @@ import org.apache.hadoop.hbase.regionserver.StoreFileInfo;
 import org.apache.hadoop.hbase.snapshot.SnapshotTestingUtils.SnapshotMock;
 import org.apache.hadoop.hbase.testclassification.MapReduceTests;
 import org.apache.hadoop.hbase.testclassification.MediumTests;
+import org.apache.hadoop.hbase.util.CommonFSUtils;
 import org.apache.hadoop.hbase.util.EnvironmentEdgeManager;
 import org.apache.hadoop.hbase.util.Pair;
+import org.apache.hadoop.util.ToolRunner;
 import org.junit.Before;
 import org.junit.ClassRule;
 import org.junit.Test;
@@ -97,6 +107,77 @@ public class TestExportSnapshotV1NoCluster {
     testSnapshotWithRefsExportFileSystemState(this.fs, builder, testUtil, testDir);
   }
 
+  /**
+   * Exports in this process, copying the files as chunks of a few bytes.
+   */
+  @Test
+  public void testExportLocallyInChunks() throws Exception {
+    final SnapshotMock snapshotMock =
+      new SnapshotMock(testUtil.getConfiguration(), this.fs, testDir);
+    final SnapshotMock.SnapshotBuilder builder =
+      snapshotMock.createSnapshotV1("tableInChunks", "tableInChunks");
+    builder.addRegion();
+    builder.commit();
+    String snapshotName = builder.getSnapshotDescription().getName();
+    TableName tableName = builder.getTableDescriptor().getTableName();
+    Configuration conf = new Configuration(testUtil.getConfiguration());
+    conf.setLong(ExportSnapshot.CONF_CHUNK_SIZE, 16);
+    // the chunk size must be a multiple of the block size of the destination, on a new instance of
+    // the local file system to pick it up
+    conf.setBoolean("fs.file.impl.disable.cache", true);
+    conf.setLong("fs.local.block.size", 16);
+    Path tgtDir = getDestinationDir(fs, testUtil, testDir);
+    // the local file system has no file checksums to compare
+    int res = ToolRunner.run(conf, new ExportSnapshot(), new String[] { "--snapshot",
+      snapshotName, "--copy-to", tgtDir.toString(), "--local", "--mappers", "2",
+      "--no-checksum-verify" });
+    assertEquals(0, res);
+
+    // the exported files have the content of the input ones
+    Path tableDir = CommonFSUtils.getTableDir(testDir, tableName);
+    Path exportedTableDir = CommonFSUtils.getTableDir(
+      new Path(tgtDir, HConstants.HFILE_ARCHIVE_DIRECTORY), tableName);
+    Set<String> exportedFiles = TestExportSnapshot.verifySnapshot(conf, fs, tgtDir, tableName,
+      snapshotName, false, null);
+    assertFalse(exportedFiles.isEmpty());
+    RemoteIterator<LocatedFileStatus> files = fs.listFiles(exportedTableDir, true);
+    while (files.hasNext()) {
+      Path exported = files.next().getPath();
+      assertFalse(exported.toString(), exported.getName().startsWith("."));
+      String relative = exported.toString().substring(exportedTableDir.toString().length() + 1);
+      assertArrayEquals(readFile(new Path(tableDir, relative)), readFile(exported));
+    }
+  }
+
+  /**
+   * A chunk size which is not a multiple of the block size of the destination is rejected before
+   * anything is copied.
+   */
+  @Test
+  public void testExportWithUnalignedChunkSize() throws Exception {
+    final SnapshotMock snapshotMock =
+      new SnapshotMock(testUtil.getConfiguration(), this.fs, testDir);
+    final SnapshotMock.SnapshotBuilder builder =
+      snapshotMock.createSnapshotV1("tableUnalignedChunks", "tableUnalignedChunks");
+    builder.addRegion();
+    builder.commit();
+    Configuration conf = new Configuration(testUtil.getConfiguration());
+    conf.setLong(ExportSnapshot.CONF_CHUNK_SIZE, 24);
+    conf.setBoolean("fs.file.impl.disable.cache", true);
+    conf.setLong("fs.local.block.size", 16);
+    Path tgtDir = getDestinationDir(fs, testUtil, testDir);
+    int res = ToolRunner.run(conf, new ExportSnapshot(), new String[] { "--snapshot",
+      builder.getSnapshotDescription().getName(), "--copy-to", tgtDir.toString(), "--local" });
+    assertEquals(1, res);
+    assertFalse(fs.exists(tgtDir));
+  }
+
+  private byte[] readFile(Path path) throws IOException {
+    try (InputStream in = fs.open(path)) {
+      return IOUtils.toByteArray(in);
+    }
+  }
+
   /**
    * Generates a couple of regions for the specified SnapshotMock, and then it will run the export
    * and verification.
@@ -122,7 +122,9 @@ public abstract class AbstractProcedureScheduler implements ProcedureScheduler {
     schedLock();
     try {
       enqueue(procedure, addFront);
-      if (notify) {
+      // a procedure waiting for a lock is not runnable, waking up a worker for it would only make
+      // the worker contend on the scheduler lock to poll nothing
+      if (notify && queueHasRunnables()) {
         schedWaitCond.signal();
       }
     } finally {
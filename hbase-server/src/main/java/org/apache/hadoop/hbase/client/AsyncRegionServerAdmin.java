@@ -44,6 +44,8 @@ import org.apache.hadoop.hbase.shaded.protobuf.generated.AdminProtos.FlushRegion
 import org.apache.hadoop.hbase.shaded.protobuf.generated.AdminProtos.FlushRegionResponse;
 import org.apache.hadoop.hbase.shaded.protobuf.generated.AdminProtos.GetOnlineRegionRequest;
 import org.apache.hadoop.hbase.shaded.protobuf.generated.AdminProtos.GetOnlineRegionResponse;
+import org.apache.hadoop.hbase.shaded.protobuf.generated.AdminProtos.GetRegionCachedBlocksRequest;
+import org.apache.hadoop.hbase.shaded.protobuf.generated.AdminProtos.GetRegionCachedBlocksResponse;
 import org.apache.hadoop.hbase.shaded.protobuf.generated.AdminProtos.GetRegionInfoRequest;
 import org.apache.hadoop.hbase.shaded.protobuf.generated.AdminProtos.GetRegionInfoResponse;
 import org.apache.hadoop.hbase.shaded.protobuf.generated.AdminProtos.GetRegionLoadRequest;
@@ -142,6 +144,11 @@ public class AsyncRegionServerAdmin {
     return call((stub, controller, done) -> stub.warmupRegion(controller, request, done));
   }
 
+  public CompletableFuture<GetRegionCachedBlocksResponse>
+    getRegionCachedBlocks(GetRegionCachedBlocksRequest request) {
+    return call((stub, controller, done) -> stub.getRegionCachedBlocks(controller, request, done));
+  }
+
   public CompletableFuture<CloseRegionResponse> closeRegion(CloseRegionRequest request) {
     return call((stub, controller, done) -> stub.closeRegion(controller, request, done));
   }
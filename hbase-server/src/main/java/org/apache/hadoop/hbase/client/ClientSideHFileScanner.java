@@ -0,0 +1,244 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hbase.client;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellComparator;
+import org.apache.hadoop.hbase.ExtendedCell;
+import org.apache.hadoop.hbase.PrivateCellUtil;
+import org.apache.hadoop.hbase.client.metrics.ScanMetrics;
+import org.apache.hadoop.hbase.client.metrics.ServerSideScanMetrics;
+import org.apache.hadoop.hbase.io.hfile.CacheConfig;
+import org.apache.hadoop.hbase.regionserver.HRegionFileSystem;
+import org.apache.hadoop.hbase.regionserver.HStore;
+import org.apache.hadoop.hbase.regionserver.HStoreFile;
+import org.apache.hadoop.hbase.regionserver.ScanInfo;
+import org.apache.hadoop.hbase.regionserver.StoreFileInfo;
+import org.apache.hadoop.hbase.regionserver.StoreFileScanner;
+import org.apache.hadoop.hbase.regionserver.StoreScanner;
+import org.apache.hadoop.hbase.regionserver.StoreUtils;
+import org.apache.hadoop.hbase.regionserver.storefiletracker.StoreFileTracker;
+import org.apache.hadoop.hbase.regionserver.storefiletracker.StoreFileTrackerFactory;
+import org.apache.hadoop.hbase.util.CommonFSUtils;
+import org.apache.yetus.audience.InterfaceAudience;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A client scanner which reads the store files of a region restored from a snapshot directly,
+ * without opening the region. The files of each family are merged by a {@link StoreScanner}, and
+ * the rows of the families by this scanner. The files are read with stream reads and without a
+ * block cache, as a full scan of immutable data reads every block once.
+ * <p/>
+ * Only scans which need no region level processing can be served this way, see
+ * {@link #canScanDirectly(TableDescriptor, Scan)}. The coprocessors of the table are not run.
+ */
+@InterfaceAudience.Private
+public class ClientSideHFileScanner extends AbstractClientScanner {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ClientSideHFileScanner.class);
+
+  private final CellComparator comparator = CellComparator.getInstance();
+  private final byte[] stopRow;
+  private final boolean includeStopRow;
+  private final List<HStoreFile> storeFiles = new ArrayList<>();
+  private final List<FamilyScanner> familyScanners = new ArrayList<>();
+  private boolean hasMore = true;
+
+  /**
+   * Scans one family of the region, buffering the cells of its current row.
+   */
+  private static final class FamilyScanner {
+
+    private final StoreScanner scanner;
+    private final List<ExtendedCell> row = new ArrayList<>();
+    private boolean hasMore = true;
+
+    FamilyScanner(StoreScanner scanner) {
+      this.scanner = scanner;
+    }
+
+    /** Returns the first cell of the current row of this family, or null if exhausted. */
+    ExtendedCell peek() throws IOException {
+      // a row whose cells are all deleted or expired comes back empty
+      while (row.isEmpty() && hasMore) {
+        hasMore = scanner.next(row);
+      }
+      return row.isEmpty() ? null : row.get(0);
+    }
+  }
+
+  public ClientSideHFileScanner(Configuration conf, FileSystem fs, Path rootDir,
+    TableDescriptor htd, RegionInfo hri, Scan scan, ScanMetrics scanMetrics) throws IOException {
+    this.stopRow = scan.getStopRow();
+    this.includeStopRow = scan.includeStopRow();
+    // the scanners have no store to switch from pread to stream read with, so read the files
+    // sequentially from the start
+    Scan storeScan = new Scan(scan).setReadType(Scan.ReadType.STREAM);
+    HRegionFileSystem regionFs = HRegionFileSystem.openRegionFromFileSystem(conf, fs,
+      CommonFSUtils.getTableDir(rootDir, htd.getTableName()), hri, true);
+    long timeToPurgeDeletes = Math.max(conf.getLong("hbase.hstore.time.to.purge.deletes", 0), 0);
+    try {
+      for (ColumnFamilyDescriptor family : getFamilies(htd, scan)) {
+        StoreFileTracker tracker = StoreFileTrackerFactory.create(conf, htd, family, regionFs);
+        List<HStoreFile> files = new ArrayList<>();
+        for (StoreFileInfo info : tracker.load()) {
+          HStoreFile file = new HStoreFile(info, family.getBloomFilterType(), CacheConfig.DISABLED);
+          storeFiles.add(file);
+          file.initReader();
+          files.add(file);
+        }
+        if (files.isEmpty()) {
+          continue;
+        }
+        ScanInfo scanInfo = new ScanInfo(StoreUtils.createStoreConfiguration(conf, htd, family),
+          family, HStore.determineTTLFromFamily(family), timeToPurgeDeletes, comparator);
+        List<StoreFileScanner> scanners = StoreFileScanner.getScannersForStoreFiles(files, false,
+          false, false, false, Long.MAX_VALUE);
+        NavigableSet<byte[]> columns = scan.getFamilyMap().get(family.getName());
+        familyScanners.add(new FamilyScanner(
+          StoreScanner.createForStoreFiles(storeScan, scanInfo, columns, scanners)));
+      }
+    } catch (IOException | RuntimeException e) {
+      close();
+      throw e;
+    }
+
+    if (scanMetrics == null) {
+      initScanMetrics(scan);
+    } else {
+      this.scanMetrics = scanMetrics;
+      setIsScanMetricsByRegionEnabled(scan.isScanMetricsByRegionEnabled());
+    }
+    if (isScanMetricsByRegionEnabled()) {
+      this.scanMetrics.moveToNextRegion();
+      this.scanMetrics.initScanMetricsRegionInfo(hri.getEncodedName(), null);
+    }
+  }
+
+  /**
+   * Returns whether the given scan can be served by a {@link ClientSideHFileScanner}, that is, it
+   * has no filter, reads forward whole rows, and none of its families stores MOB data.
+   */
+  public static boolean canScanDirectly(TableDescriptor htd, Scan scan) {
+    if (
+      scan.getFilter() != null || scan.isReversed() || scan.getBatch() > 0
+        || scan.getMaxResultsPerColumnFamily() >= 0 || scan.getRowOffsetPerColumnFamily() > 0
+    ) {
+      return false;
+    }
+    for (byte[] family : scan.getFamilyMap().keySet()) {
+      if (!htd.hasColumnFamily(family)) {
+        // let the region scanner report the missing family
+        return false;
+      }
+    }
+    for (ColumnFamilyDescriptor family : getFamilies(htd, scan)) {
+      if (family.isMobEnabled()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static List<ColumnFamilyDescriptor> getFamilies(TableDescriptor htd, Scan scan) {
+    if (!scan.hasFamilies()) {
+      return List.of(htd.getColumnFamilies());
+    }
+    // the family map is sorted, so are the families of a row
+    List<ColumnFamilyDescriptor> families = new ArrayList<>();
+    for (byte[] family : scan.getFamilyMap().keySet()) {
+      families.add(htd.getColumnFamily(family));
+    }
+    return families;
+  }
+
+  private boolean isPastStopRow(Cell cell) {
+    if (stopRow.length == 0) {
+      return false;
+    }
+    int cmp = comparator.compareRows(cell, stopRow, 0, stopRow.length);
+    return cmp > 0 || (cmp == 0 && !includeStopRow);
+  }
+
+  @Override
+  public Result next() throws IOException {
+    if (!hasMore) {
+      return null;
+    }
+    ExtendedCell first = null;
+    for (FamilyScanner familyScanner : familyScanners) {
+      ExtendedCell cell = familyScanner.peek();
+      if (cell != null && (first == null || comparator.compareRows(cell, first) < 0)) {
+        first = cell;
+      }
+    }
+    if (first == null || isPastStopRow(first)) {
+      hasMore = false;
+      return null;
+    }
+    List<Cell> values = new ArrayList<>();
+    for (FamilyScanner familyScanner : familyScanners) {
+      ExtendedCell cell = familyScanner.peek();
+      if (cell != null && comparator.compareRows(cell, first) == 0) {
+        values.addAll(familyScanner.row);
+        familyScanner.row.clear();
+      }
+    }
+
+    Result result = Result.create(values);
+    if (this.scanMetrics != null) {
+      long resultSize = 0;
+      for (Cell cell : values) {
+        resultSize += PrivateCellUtil.estimatedSerializedSizeOf(cell);
+      }
+      this.scanMetrics.addToCounter(ScanMetrics.BYTES_IN_RESULTS_METRIC_NAME, resultSize);
+      this.scanMetrics.addToCounter(ServerSideScanMetrics.COUNT_OF_ROWS_SCANNED_KEY_METRIC_NAME, 1);
+    }
+    return result;
+  }
+
+  @Override
+  public void close() {
+    for (FamilyScanner familyScanner : familyScanners) {
+      familyScanner.scanner.close();
+    }
+    familyScanners.clear();
+    for (HStoreFile file : storeFiles) {
+      try {
+        file.closeStoreFile(false);
+      } catch (IOException ex) {
+        LOG.warn("Exception while closing store file {}", file, ex);
+      }
+    }
+    storeFiles.clear();
+    hasMore = false;
+  }
+
+  @Override
+  public boolean renewLease() {
+    throw new UnsupportedOperationException();
+  }
+}
@@ -309,7 +309,13 @@ public enum EventType {
    * RS log roll.<br>
    * RS_LOG_ROLL
    */
-  RS_LOG_ROLL(91, ExecutorType.RS_LOG_ROLL);
+  RS_LOG_ROLL(91, ExecutorType.RS_LOG_ROLL),
+
+  /**
+   * RS region warmup.<br>
+   * RS_REGION_WARMUP
+   */
+  RS_REGION_WARMUP(92, ExecutorType.RS_REGION_WARMUP);
 
   private final int code;
   private final ExecutorType executor;
@@ -28,6 +28,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
@@ -178,6 +179,7 @@ public class ExecutorService {
     private int corePoolSize = -1;
     private boolean allowCoreThreadTimeout = false;
     private long keepAliveTimeMillis = KEEP_ALIVE_TIME_MILLIS_DEFAULT;
+    private boolean prioritized = false;
     private ExecutorType executorType;
 
     public ExecutorConfig setExecutorType(ExecutorType type) {
@@ -227,6 +229,19 @@ public class ExecutorService {
       this.keepAliveTimeMillis = keepAliveTimeMillis;
       return this;
     }
+
+    public boolean isPrioritized() {
+      return prioritized;
+    }
+
+    /**
+     * Runs the queued events in the order of {@link EventHandler#getPriority()} instead of in FIFO
+     * order. Events of the same priority still run in FIFO order.
+     */
+    public ExecutorConfig setPrioritized(boolean prioritized) {
+      this.prioritized = prioritized;
+      return this;
+    }
   }
 
   /**
@@ -236,7 +251,7 @@ public class ExecutorService {
     // the thread pool executor that services the requests
     final TrackingThreadPoolExecutor threadPoolExecutor;
     // work queue to use - unbounded queue
-    final BlockingQueue<Runnable> q = new LinkedBlockingQueue<>();
+    final BlockingQueue<Runnable> q;
     private final String name;
     private static final AtomicLong seqids = new AtomicLong(0);
     private final long id;
@@ -244,6 +259,7 @@ public class ExecutorService {
     protected Executor(ExecutorConfig config) {
       this.id = seqids.incrementAndGet();
       this.name = config.getName();
+      this.q = config.isPrioritized() ? new PriorityBlockingQueue<>() : new LinkedBlockingQueue<>();
       // create the thread pool executor
       this.threadPoolExecutor = new TrackingThreadPoolExecutor(
         // setting maxPoolSize > corePoolSize has no effect since we use an unbounded task queue.
@@ -19,10 +19,14 @@ package org.apache.hadoop.hbase.io;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.IntConsumer;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.CellUtil;
 import org.apache.hadoop.hbase.ExtendedCell;
 import org.apache.hadoop.hbase.HConstants;
 import org.apache.hadoop.hbase.KeyValue;
@@ -68,6 +72,9 @@ public class HalfStoreFileReader extends StoreFileReader {
 
   private AtomicBoolean closed = new AtomicBoolean(false);
 
+  // range tombstones of the top half which start in the bottom half, clamped to the split row
+  private volatile List<ExtendedCell> inheritedRangeTombstones = Collections.emptyList();
+
   /**
    * Creates a half file reader for a hfile referred to by an hfilelink.
    * @param context   Reader context info
@@ -95,6 +102,53 @@ public class HalfStoreFileReader extends StoreFileReader {
     return this.top;
   }
 
+  /**
+   * Only keeps the range tombstones which delete rows of this half. In the top half, a tombstone
+   * starting before the split row is clamped to start at the split row.
+   */
+  @Override
+  protected List<ExtendedCell> loadRangeTombstones() throws IOException {
+    List<ExtendedCell> tombstones = new ArrayList<>();
+    List<ExtendedCell> inherited = new ArrayList<>();
+    for (ExtendedCell tombstone : super.loadRangeTombstones()) {
+      boolean startsInBottom = getComparator().compareRows(tombstone, splitCell) < 0;
+      if (!top) {
+        if (startsInBottom) {
+          tombstones.add(tombstone);
+        }
+        continue;
+      }
+      byte[] stopRow = CellUtil.cloneValue(tombstone);
+      if (getComparator().compareRows(splitCell, stopRow, 0, stopRow.length) >= 0) {
+        // ends before the split row
+        continue;
+      }
+      if (startsInBottom) {
+        KeyValue clamped = new KeyValue(CellUtil.cloneRow(splitCell),
+          CellUtil.cloneFamily(tombstone), null, tombstone.getTimestamp(),
+          KeyValue.Type.DeleteRange, stopRow);
+        clamped.setSequenceId(tombstone.getSequenceId());
+        inherited.add(clamped);
+        tombstone = clamped;
+      }
+      tombstones.add(tombstone);
+    }
+    if (!inherited.isEmpty()) {
+      inheritedRangeTombstones = Collections.unmodifiableList(inherited);
+    }
+    return tombstones;
+  }
+
+  /**
+   * Returns the range tombstones of the top half which start in the bottom half, clamped to the
+   * split row. They are not returned by the scanners of this half, so a compaction has to add them
+   * to its output itself.
+   */
+  public List<ExtendedCell> getInheritedRangeTombstones() throws IOException {
+    getRangeTombstones();
+    return inheritedRangeTombstones;
+  }
+
   @Override
   protected HFileScanner getScanner(final boolean cacheBlocks, final boolean pread,
     final boolean isCompaction) {
@@ -18,6 +18,7 @@
 package org.apache.hadoop.hbase.io.hfile;
 
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import org.apache.hadoop.conf.Configuration;
@@ -270,6 +271,19 @@ public interface BlockCache extends Iterable<CachedBlock>, ConfigurationObserver
     return Optional.empty();
   }
 
+  /**
+   * Returns an Optional containing the blocks of the given file which are in this cache, for the
+   * implementations which keep an index of the blocks by file. Other implementations return an
+   * empty Optional, and the blocks of a file can only be found by going through the
+   * {@link #iterator()} of the whole cache.
+   * @param hfileName the name of the file.
+   * @return empty optional if this method is not supported, otherwise the returned optional
+   *         contains the cached blocks of the file.
+   */
+  default Optional<List<CachedBlock>> getCachedBlocksByHfileName(String hfileName) {
+    return Optional.empty();
+  }
+
   /**
    * Evict all blocks for the given file name between the passed offset values.
    * @param hfileName  The file for which blocks should be evicted.
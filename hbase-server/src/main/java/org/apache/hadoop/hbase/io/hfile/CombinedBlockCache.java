@@ -18,6 +18,7 @@
 package org.apache.hadoop.hbase.io.hfile;
 
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import org.apache.commons.lang3.mutable.Mutable;
@@ -443,6 +444,13 @@ public class CombinedBlockCache implements ResizableBlockCache, HeapSize {
     return l2Cache.getRegionCachedInfo();
   }
 
+  @Override
+  public Optional<List<CachedBlock>> getCachedBlocksByHfileName(String hfileName) {
+    // the data blocks are in the L2 cache, the L1 cache only has the index and bloom blocks,
+    // which are read anyway when the file is opened
+    return l2Cache.getCachedBlocksByHfileName(hfileName);
+  }
+
   @Override
   public void setMaxSize(long size) {
     this.l1Cache.setMaxSize(size);
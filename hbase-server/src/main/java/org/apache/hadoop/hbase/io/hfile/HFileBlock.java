@@ -67,6 +67,7 @@ import org.apache.hadoop.hbase.util.Bytes;
 import org.apache.hadoop.hbase.util.ChecksumType;
 import org.apache.hadoop.hbase.util.ClassSize;
 import org.apache.hadoop.hbase.util.EnvironmentEdgeManager;
+import org.apache.hadoop.hbase.util.ObjectIntPair;
 import org.apache.hadoop.util.ReflectionUtils;
 import org.apache.yetus.audience.InterfaceAudience;
 import org.slf4j.Logger;
@@ -986,6 +987,57 @@ public class HFileBlock implements Cacheable {
         fileContext.getBytesPerChecksum());
     }
 
+    /**
+     * Readies a block whose on-disk bytes are taken verbatim from a block of another HFile, so no
+     * encoding or compression is done. Only the previous block offset and the checksum fields of
+     * the header are rewritten, and the checksums are regenerated with this writer's settings. Sets
+     * block write state to "block ready".
+     * @param onDiskBlock   the block as read from the file system, checksums already verified
+     * @param unpackedBlock the same block after decompression, used for cache-on-write and the
+     *                      uncompressed size bookkeeping
+     */
+    void copyBlock(HFileBlock onDiskBlock, HFileBlock unpackedBlock) throws IOException {
+      if (state == State.BLOCK_READY && startOffset != -1) {
+        prevOffsetByType[blockType.getId()] = startOffset;
+      }
+      startOffset = -1;
+      blockType = onDiskBlock.getBlockType();
+      prevOffset = prevOffsetByType[blockType.getId()];
+
+      baosInMemory.reset();
+      baosInMemory.write(HConstants.HFILEBLOCK_DUMMY_HEADER);
+      copyBufferWithoutHeader(baosInMemory, unpackedBlock,
+        unpackedBlock.getUncompressedSizeWithoutHeader());
+
+      int onDiskDataSizeWithHeader = onDiskBlock.getOnDiskDataSizeWithHeader();
+      if (onDiskBlockBytesWithHeader == null) {
+        onDiskBlockBytesWithHeader = new ByteArrayOutputStream(onDiskDataSizeWithHeader);
+      }
+      onDiskBlockBytesWithHeader.reset();
+      onDiskBlockBytesWithHeader.write(HConstants.HFILEBLOCK_DUMMY_HEADER);
+      copyBufferWithoutHeader(onDiskBlockBytesWithHeader, onDiskBlock,
+        onDiskDataSizeWithHeader - onDiskBlock.headerSize());
+      state = State.BLOCK_READY;
+
+      int numBytes = (int) ChecksumUtil.numBytes(onDiskBlockBytesWithHeader.size(),
+        fileContext.getBytesPerChecksum());
+      putHeader(onDiskBlockBytesWithHeader, onDiskBlockBytesWithHeader.size() + numBytes,
+        baosInMemory.size(), onDiskBlockBytesWithHeader.size());
+      if (onDiskChecksum.length != numBytes) {
+        onDiskChecksum = new byte[numBytes];
+      }
+      ChecksumUtil.generateChecksums(onDiskBlockBytesWithHeader.getBuffer(), 0,
+        onDiskBlockBytesWithHeader.size(), onDiskChecksum, 0, fileContext.getChecksumType(),
+        fileContext.getBytesPerChecksum());
+    }
+
+    private static void copyBufferWithoutHeader(ByteArrayOutputStream dest, HFileBlock block,
+      int length) {
+      ObjectIntPair<ByteBuffer> pair = new ObjectIntPair<>();
+      block.getBufferReadOnly().asSubByteBuffer(block.headerSize(), length, pair);
+      dest.write(pair.getFirst(), pair.getSecond(), length);
+    }
+
     /**
      * Put the header into the given byte array at the given offset.
      * @param onDiskSize       size of the block on disk header + data + checksum
@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hbase.io.hfile;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.ByteBufferKeyValue;
+import org.apache.hadoop.hbase.ExtendedCell;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.io.encoding.DataBlockEncoder;
+import org.apache.hadoop.hbase.io.encoding.DataBlockEncoding;
+import org.apache.hadoop.hbase.nio.ByteBuff;
+import org.apache.hadoop.hbase.util.ByteBufferUtils;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.util.ObjectIntPair;
+import org.apache.yetus.audience.InterfaceAudience;
+
+/**
+ * Walks the data blocks of an HFile in file order. Each block is exposed both in its on-disk form,
+ * i.e. still encoded and compressed, and as the cells it holds. Inline blocks such as leaf index
+ * and bloom chunks are skipped.
+ * <p>
+ * Used by compactions that copy whole blocks into a new file instead of re-encoding their cells,
+ * see {@link HFileWriterImpl#appendDataBlock(HFileDataBlockScanner)}. The cells returned by
+ * {@link #getCells()} reference the current block and are only valid until the next call to
+ * {@link #next()} or {@link #close()}.
+ */
+@InterfaceAudience.Private
+public class HFileDataBlockScanner implements Closeable {
+
+  private final HFile.Reader reader;
+  private final HFileBlock.FSReader fsBlockReader;
+  private final HFileContext fileContext;
+  private final long lastDataBlockOffset;
+  private final DataBlockEncoder.EncodedSeeker seeker;
+
+  private long offset;
+  private long nextBlockOnDiskSize = -1;
+  private HFileBlock onDiskBlock;
+  private HFileBlock unpackedBlock;
+  private final List<ExtendedCell> cells = new ArrayList<>();
+
+  public HFileDataBlockScanner(HFile.Reader reader, Configuration conf) {
+    this.reader = reader;
+    this.fsBlockReader = reader.getUncachedBlockReader();
+    this.fileContext = reader.getFileContext();
+    FixedFileTrailer trailer = reader.getTrailer();
+    if (trailer.getEntryCount() == 0) {
+      this.offset = 0;
+      this.lastDataBlockOffset = -1;
+    } else {
+      this.offset = trailer.getFirstDataBlockOffset();
+      this.lastDataBlockOffset = trailer.getLastDataBlockOffset();
+    }
+    DataBlockEncoding encoding = reader.getDataBlockEncoding();
+    if (encoding == DataBlockEncoding.NONE) {
+      this.seeker = null;
+    } else {
+      DataBlockEncoder encoder = encoding.getEncoder();
+      this.seeker = encoder.createSeeker(encoder.newDataBlockDecodingContext(conf, fileContext));
+    }
+  }
+
+  /**
+   * Advances to the next data block of the file.
+   * @return false if there are no more data blocks
+   */
+  public boolean next() throws IOException {
+    releaseCurrentBlock();
+    while (offset <= lastDataBlockOffset) {
+      HFileBlock block =
+        fsBlockReader.readBlockData(offset, nextBlockOnDiskSize, true, false, true);
+      offset += block.getOnDiskSizeWithHeader();
+      nextBlockOnDiskSize = block.getNextBlockOnDiskSize();
+      if (!block.getBlockType().isData()) {
+        block.release();
+        continue;
+      }
+      onDiskBlock = block;
+      unpackedBlock = block.unpack(fileContext, fsBlockReader);
+      decodeCells();
+      return true;
+    }
+    return false;
+  }
+
+  /** Returns the current block as read from the file system. */
+  HFileBlock getOnDiskBlock() {
+    return onDiskBlock;
+  }
+
+  /** Returns the current block after decompression, possibly still data block encoded. */
+  HFileBlock getUnpackedBlock() {
+    return unpackedBlock;
+  }
+
+  /** Returns the on-disk size of the current block, including header and checksums. */
+  public int getOnDiskSizeWithHeader() {
+    return onDiskBlock.getOnDiskSizeWithHeader();
+  }
+
+  /** Returns the uncompressed size of the current block, not including the header. */
+  public int getUncompressedSizeWithoutHeader() {
+    return onDiskBlock.getUncompressedSizeWithoutHeader();
+  }
+
+  /** Returns the cells of the current block, in the order they were written. */
+  public List<ExtendedCell> getCells() {
+    return Collections.unmodifiableList(cells);
+  }
+
+  public HFile.Reader getReader() {
+    return reader;
+  }
+
+  private void decodeCells() throws IOException {
+    if (seeker != null) {
+      ByteBuff buf = unpackedBlock.getBufferReadOnly();
+      int pos = unpackedBlock.headerSize() + DataBlockEncoding.ID_SIZE;
+      buf.position(pos);
+      buf.limit(unpackedBlock.headerSize() + unpackedBlock.getUncompressedSizeWithoutHeader());
+      seeker.setCurrentBuffer(buf.slice());
+      do {
+        cells.add(seeker.getCell());
+      } while (seeker.next());
+      return;
+    }
+    // No data block encoding, the block is a sequence of serialized KeyValues followed by their
+    // tags and memstore timestamps, see HFileReaderImpl.HFileScannerImpl#readKeyValueLen.
+    ByteBuff buf = unpackedBlock.getBufferWithoutHeader();
+    ObjectIntPair<ByteBuffer> pair = new ObjectIntPair<>();
+    while (buf.hasRemaining()) {
+      int keyLen = buf.getIntAfterPosition(0);
+      int valueLen = buf.getIntAfterPosition(Bytes.SIZEOF_INT);
+      int len = KeyValue.KEYVALUE_INFRASTRUCTURE_SIZE + keyLen + valueLen;
+      if (fileContext.isIncludesTags()) {
+        int tagsLen = ((buf.getByteAfterPosition(len) & 0xff) << 8)
+          ^ (buf.getByteAfterPosition(len + 1) & 0xff);
+        len += KeyValue.TAGS_LENGTH_SIZE + tagsLen;
+      }
+      buf.asSubByteBuffer(buf.position(), len, pair);
+      ByteBuffer bb = pair.getFirst();
+      ExtendedCell cell = bb.hasArray()
+        ? new KeyValue(bb.array(), bb.arrayOffset() + pair.getSecond(), len)
+        : new ByteBufferKeyValue(bb, pair.getSecond(), len);
+      buf.skip(len);
+      if (fileContext.isIncludesMvcc()) {
+        cell.setSequenceId(ByteBufferUtils.readVLong(buf));
+      }
+      cells.add(cell);
+    }
+  }
+
+  private void releaseCurrentBlock() {
+    cells.clear();
+    if (unpackedBlock != null && unpackedBlock != onDiskBlock) {
+      unpackedBlock.release();
+    }
+    if (onDiskBlock != null) {
+      onDiskBlock.release();
+    }
+    unpackedBlock = null;
+    onDiskBlock = null;
+  }
+
+  @Override
+  public void close() {
+    releaseCurrentBlock();
+    offset = lastDataBlockOffset + 1;
+  }
+}
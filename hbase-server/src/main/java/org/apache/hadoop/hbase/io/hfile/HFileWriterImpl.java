@@ -784,12 +784,6 @@ public class HFileWriterImpl implements HFile.Writer {
 
     blockWriter.write(cell);
 
-    totalKeyLength += PrivateCellUtil.estimatedSerializedSizeOfKey(cell);
-    totalValueLength += cell.getValueLength();
-    if (lenOfBiggestCell < PrivateCellUtil.estimatedSerializedSizeOf(cell)) {
-      lenOfBiggestCell = PrivateCellUtil.estimatedSerializedSizeOf(cell);
-      keyOfBiggestCell = PrivateCellUtil.getCellKeySerializedAsKeyValueKey(cell);
-    }
     // Are we the first key in this block?
     if (firstCellInBlock == null) {
       // If cell is big, block will be closed and this firstCellInBlock reference will only last
@@ -799,6 +793,17 @@ public class HFileWriterImpl implements HFile.Writer {
 
     // TODO: What if cell is 10MB and we write infrequently? We hold on to cell here indefinitely?
     lastCell = cell;
+    trackCell(cell);
+  }
+
+  /** Updates the file level statistics with a cell that was written to the current block. */
+  private void trackCell(final ExtendedCell cell) {
+    totalKeyLength += PrivateCellUtil.estimatedSerializedSizeOfKey(cell);
+    totalValueLength += cell.getValueLength();
+    if (lenOfBiggestCell < PrivateCellUtil.estimatedSerializedSizeOf(cell)) {
+      lenOfBiggestCell = PrivateCellUtil.estimatedSerializedSizeOf(cell);
+      keyOfBiggestCell = PrivateCellUtil.getCellKeySerializedAsKeyValueKey(cell);
+    }
     entryCount++;
     this.maxMemstoreTS = Math.max(this.maxMemstoreTS, cell.getSequenceId());
     int tagsLength = cell.getTagsLength();
@@ -809,6 +814,75 @@ public class HFileWriterImpl implements HFile.Writer {
     trackTimestamps(cell);
   }
 
+  /**
+   * Returns whether the data blocks of the given file can be copied into this file as they are, see
+   * {@link #appendDataBlock(HFileDataBlockScanner)}. The two files must agree on everything that
+   * shapes the on-disk bytes of a data block: compression, data block encoding, whether memstore
+   * timestamps and tags are written and how tags are compressed. Encrypted files are never copied
+   * as the data key differs per file.
+   */
+  public boolean canAppendDataBlocksFrom(HFile.Reader reader) {
+    HFileContext sourceContext = reader.getFileContext();
+    return reader.getTrailer().getMajorVersion() == getMajorVersion()
+      && sourceContext.isUseHBaseChecksum()
+      && sourceContext.getCompression() == hFileContext.getCompression()
+      && reader.getDataBlockEncoding() == blockEncoder.getDataBlockEncoding()
+      && sourceContext.isIncludesMvcc() == hFileContext.isIncludesMvcc()
+      && sourceContext.isIncludesTags() == hFileContext.isIncludesTags()
+      && sourceContext.isCompressTags() == isTagsCompressed()
+      && sourceContext.getEncryptionContext() == Encryption.Context.NONE
+      && hFileContext.getEncryptionContext() == Encryption.Context.NONE
+      && sourceContext.getCellComparator().getClass()
+          == hFileContext.getCellComparator().getClass();
+  }
+
+  /**
+   * Appends the current data block of the given scanner without decoding and re-encoding its
+   * cells: the on-disk bytes are copied and only the block index entry is built from them. A
+   * partially written block is finished first, so the copied block keeps the boundaries it had in
+   * its source file. The cells of the block must sort after any cell appended before, and the
+   * caller must have checked {@link #canAppendDataBlocksFrom(HFile.Reader)}.
+   */
+  public void appendDataBlock(HFileDataBlockScanner source) throws IOException {
+    List<ExtendedCell> cells = source.getCells();
+    if (cells.isEmpty()) {
+      return;
+    }
+    checkKey(cells.get(0));
+    finishBlock();
+    writeInlineBlocks(false);
+
+    lastCellOfPreviousBlock = lastCell;
+    ExtendedCell firstCell = cells.get(0);
+    for (ExtendedCell cell : cells) {
+      trackCell(cell);
+    }
+    lastCell = KeyValueUtil.toNewKeyCell(cells.get(cells.size() - 1));
+
+    if (firstDataBlockOffset == UNSET) {
+      firstDataBlockOffset = outputStream.getPos();
+    }
+    lastDataBlockOffset = outputStream.getPos();
+    blockWriter.copyBlock(source.getOnDiskBlock(), source.getUnpackedBlock());
+    blockWriter.writeHeaderAndData(outputStream);
+    ExtendedCell indexEntry =
+      getMidpoint(this.hFileContext.getCellComparator(), lastCellOfPreviousBlock, firstCell);
+    dataBlockIndexWriter.addEntry(PrivateCellUtil.getCellKeySerializedAsKeyValueKey(indexEntry),
+      lastDataBlockOffset, blockWriter.getOnDiskSizeWithHeader());
+    totalUncompressedBytes += blockWriter.getUncompressedSizeWithHeader();
+    if (cacheConf.shouldCacheDataOnWrite()) {
+      doCacheOnWrite(lastDataBlockOffset);
+    }
+    writeInlineBlocks(false);
+    newBlock();
+  }
+
+  private boolean isTagsCompressed() {
+    return hFileContext.isIncludesTags()
+      && hFileContext.getDataBlockEncoding() != DataBlockEncoding.NONE
+      && hFileContext.isCompressTags();
+  }
+
   @Override
   public void beforeShipped() throws IOException {
     this.blockWriter.beforeShipped();
@@ -859,9 +933,7 @@ public class HFileWriterImpl implements HFile.Writer {
       // When tags are not being written in this file, MAX_TAGS_LEN is excluded
       // from the FileInfo
       fileInfo.append(HFileInfo.MAX_TAGS_LEN, Bytes.toBytes(this.maxTagsLength), false);
-      boolean tagsCompressed = (hFileContext.getDataBlockEncoding() != DataBlockEncoding.NONE)
-        && hFileContext.isCompressTags();
-      fileInfo.append(HFileInfo.TAGS_COMPRESSED, Bytes.toBytes(tagsCompressed), false);
+      fileInfo.append(HFileInfo.TAGS_COMPRESSED, Bytes.toBytes(isTagsCompressed()), false);
     }
   }
 
@@ -1942,6 +1942,19 @@ public class BucketCache implements BlockCache, HeapSize {
     return numEvicted;
   }
 
+  @Override
+  public Optional<List<CachedBlock>> getCachedBlocksByHfileName(String hfileName) {
+    long now = System.nanoTime();
+    List<CachedBlock> blocks = new ArrayList<>();
+    for (BlockCacheKey key : getAllCacheKeysForFile(hfileName, 0, Long.MAX_VALUE)) {
+      BucketEntry entry = backingMap.get(key);
+      if (entry != null) {
+        blocks.add(toCachedBlock(key, entry, now));
+      }
+    }
+    return Optional.of(blocks);
+  }
+
   private Set<BlockCacheKey> getAllCacheKeysForFile(String hfileName, long init, long end) {
     return blocksByHFile.subSet(new BlockCacheKey(hfileName, init), true,
       new BlockCacheKey(hfileName, end), true);
@@ -2130,77 +2143,81 @@ public class BucketCache implements BlockCache, HeapSize {
       @Override
       public CachedBlock next() {
         final Map.Entry<BlockCacheKey, BucketEntry> e = i.next();
-        return new CachedBlock() {
-          @Override
-          public String toString() {
-            return BlockCacheUtil.toString(this, now);
-          }
+        return toCachedBlock(e.getKey(), e.getValue(), now);
+      }
 
-          @Override
-          public BlockPriority getBlockPriority() {
-            return e.getValue().getPriority();
-          }
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
 
-          @Override
-          public BlockType getBlockType() {
-            // Not held by BucketEntry. Could add it if wanted on BucketEntry creation.
-            return null;
-          }
+  private static CachedBlock toCachedBlock(BlockCacheKey key, BucketEntry entry, long now) {
+    return new CachedBlock() {
+      @Override
+      public String toString() {
+        return BlockCacheUtil.toString(this, now);
+      }
 
-          @Override
-          public long getOffset() {
-            return e.getKey().getOffset();
-          }
+      @Override
+      public BlockPriority getBlockPriority() {
+        return entry.getPriority();
+      }
 
-          @Override
-          public long getSize() {
-            return e.getValue().getLength();
-          }
+      @Override
+      public BlockType getBlockType() {
+        // Not held by BucketEntry. Could add it if wanted on BucketEntry creation.
+        return null;
+      }
 
-          @Override
-          public long getCachedTime() {
-            return e.getValue().getCachedTime();
-          }
+      @Override
+      public long getOffset() {
+        return key.getOffset();
+      }
 
-          @Override
-          public String getFilename() {
-            return e.getKey().getHfileName();
-          }
+      @Override
+      public long getSize() {
+        return entry.getLength();
+      }
 
-          @Override
-          public int compareTo(CachedBlock other) {
-            int diff = this.getFilename().compareTo(other.getFilename());
-            if (diff != 0) return diff;
+      @Override
+      public long getCachedTime() {
+        return entry.getCachedTime();
+      }
 
-            diff = Long.compare(this.getOffset(), other.getOffset());
-            if (diff != 0) return diff;
-            if (other.getCachedTime() < 0 || this.getCachedTime() < 0) {
-              throw new IllegalStateException(
-                "" + this.getCachedTime() + ", " + other.getCachedTime());
-            }
-            return Long.compare(other.getCachedTime(), this.getCachedTime());
-          }
+      @Override
+      public String getFilename() {
+        return key.getHfileName();
+      }
 
-          @Override
-          public int hashCode() {
-            return e.getKey().hashCode();
-          }
+      @Override
+      public int compareTo(CachedBlock other) {
+        int diff = this.getFilename().compareTo(other.getFilename());
+        if (diff != 0) return diff;
+
+        diff = Long.compare(this.getOffset(), other.getOffset());
+        if (diff != 0) return diff;
+        if (other.getCachedTime() < 0 || this.getCachedTime() < 0) {
+          throw new IllegalStateException(
+            "" + this.getCachedTime() + ", " + other.getCachedTime());
+        }
+        return Long.compare(other.getCachedTime(), this.getCachedTime());
+      }
 
-          @Override
-          public boolean equals(Object obj) {
-            if (obj instanceof CachedBlock) {
-              CachedBlock cb = (CachedBlock) obj;
-              return compareTo(cb) == 0;
-            } else {
-              return false;
-            }
-          }
-        };
+      @Override
+      public int hashCode() {
+        return key.hashCode();
       }
 
       @Override
-      public void remove() {
-        throw new UnsupportedOperationException();
+      public boolean equals(Object obj) {
+        if (obj instanceof CachedBlock) {
+          CachedBlock cb = (CachedBlock) obj;
+          return compareTo(cb) == 0;
+        } else {
+          return false;
+        }
       }
     };
   }
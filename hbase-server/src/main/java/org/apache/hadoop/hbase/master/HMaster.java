@@ -2434,8 +2434,12 @@ public class HMaster extends HBaseServerBase<MasterRpcServices> implements Maste
 
       TransitRegionStateProcedure proc =
         this.assignmentManager.createMoveRegionProcedure(rp.getRegionInfo(), rp.getDestination());
-      if (conf.getBoolean(WARMUP_BEFORE_MOVE, DEFAULT_WARMUP_BEFORE_MOVE)) {
-        // Warmup the region on the destination before initiating the move.
+      if (
+        conf.getBoolean(WARMUP_BEFORE_MOVE, DEFAULT_WARMUP_BEFORE_MOVE)
+          && !assignmentManager.isWarmTransferEnabled()
+      ) {
+        // Warmup the region on the destination before initiating the move. Not needed with warm
+        // transfer enabled, where the procedure warms up the region along with its hot blocks.
         // A region server could reject the close request because it either does not
         // have the specified region or the region is being split.
         LOG.info(getClientIdAuditPrefix() + " move " + rp + ", warming up region on "
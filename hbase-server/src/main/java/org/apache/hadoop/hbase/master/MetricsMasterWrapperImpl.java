@@ -29,6 +29,8 @@ import org.apache.hadoop.hbase.ServerName;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.RegionInfo;
 import org.apache.hadoop.hbase.client.TableDescriptor;
+import org.apache.hadoop.hbase.procedure2.store.ProcedureStore;
+import org.apache.hadoop.hbase.procedure2.store.region.RegionProcedureStore;
 import org.apache.hadoop.hbase.quotas.QuotaObserverChore;
 import org.apache.hadoop.hbase.quotas.SpaceQuotaSnapshot;
 import org.apache.hadoop.hbase.util.PairOfSameType;
@@ -180,6 +182,22 @@ public class MetricsMasterWrapperImpl implements MetricsMasterWrapper {
     return master.getNumWALFiles();
   }
 
+  @Override
+  public long getProcedureStoreUpdateCount() {
+    ProcedureStore store = master.getProcedureStore();
+    return store instanceof RegionProcedureStore
+      ? ((RegionProcedureStore) store).getUpdateCount()
+      : 0;
+  }
+
+  @Override
+  public long getProcedureStoreWriteCount() {
+    ProcedureStore store = master.getProcedureStore();
+    return store instanceof RegionProcedureStore
+      ? ((RegionProcedureStore) store).getWriteCount()
+      : 0;
+  }
+
   @Override
   public Map<String, Entry<Long, Long>> getTableSpaceUtilization() {
     if (master == null) {
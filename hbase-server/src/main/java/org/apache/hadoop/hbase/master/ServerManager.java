@@ -157,6 +157,14 @@ public class ServerManager implements ConfigurationObserver {
     ConcurrentNavigableMap<byte[], Long>> storeFlushedSequenceIdsByRegion =
       new ConcurrentSkipListMap<>(Bytes.BYTES_COMPARATOR);
 
+  /**
+   * The read request counts last reported for the regions of servers which died, by region name.
+   * They are handed to the server the region is assigned to next, which uses them to open the
+   * busiest regions first.
+   */
+  private final ConcurrentNavigableMap<byte[], Long> readRequestCountsOfDeadServers =
+    new ConcurrentSkipListMap<>(Bytes.BYTES_COMPARATOR);
+
   /** Map of registered servers to their current load */
   private final ConcurrentNavigableMap<ServerName, ServerMetrics> onlineServers =
     new ConcurrentSkipListMap<>();
@@ -547,6 +555,25 @@ public class ServerManager implements ConfigurationObserver {
     return builder.build();
   }
 
+  /**
+   * Returns the read request count last reported for the region by a server which died since, or
+   * -1 if unknown. The count is kept until the region is opened again, see
+   * {@link #removeReadRequestCountBeforeCrash(RegionInfo)}, so a failed open can be retried with
+   * it.
+   */
+  public long getReadRequestCountBeforeCrash(RegionInfo region) {
+    Long count = readRequestCountsOfDeadServers.get(region.getRegionName());
+    return count != null ? count : -1;
+  }
+
+  /**
+   * Forgets the read request count of the region reported by a dead server, once the region is
+   * opened again, or is gone, e.g. deleted, split or merged.
+   */
+  public void removeReadRequestCountBeforeCrash(RegionInfo region) {
+    readRequestCountsOfDeadServers.remove(region.getRegionName());
+  }
+
   /** Returns ServerMetrics if serverName is known else null */
   public ServerMetrics getLoad(final ServerName serverName) {
     return this.onlineServers.get(serverName);
@@ -730,7 +757,11 @@ public class ServerManager implements ConfigurationObserver {
         // add to deadservers first; do this so it'll show in dead servers list if
         // not in online servers list.
         this.deadservers.putIfAbsent(sn);
-        this.onlineServers.remove(sn);
+        ServerMetrics metrics = this.onlineServers.remove(sn);
+        if (metrics != null) {
+          metrics.getRegionMetrics().forEach(
+            (name, rm) -> readRequestCountsOfDeadServers.put(name, rm.getReadRequestCount()));
+        }
         onlineServers.notifyAll();
       } else {
         // If not online, that is odd but may happen if 'Unknown Servers' -- where meta
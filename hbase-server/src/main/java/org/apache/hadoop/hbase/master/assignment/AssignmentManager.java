@@ -97,6 +97,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.apache.hadoop.hbase.shaded.protobuf.ProtobufUtil;
+import org.apache.hadoop.hbase.shaded.protobuf.RequestConverter;
+import org.apache.hadoop.hbase.shaded.protobuf.generated.AdminProtos.GetRegionCachedBlocksRequest;
+import org.apache.hadoop.hbase.shaded.protobuf.generated.HBaseProtos.RegionSpecifier.RegionSpecifierType;
 import org.apache.hadoop.hbase.shaded.protobuf.generated.RegionServerStatusProtos.RegionStateTransition;
 import org.apache.hadoop.hbase.shaded.protobuf.generated.RegionServerStatusProtos.RegionStateTransition.TransitionCode;
 import org.apache.hadoop.hbase.shaded.protobuf.generated.RegionServerStatusProtos.ReportRegionStateTransitionRequest;
@@ -178,6 +181,25 @@ public class AssignmentManager {
 
   public static final int DEFAULT_FORCE_REGION_RETAINMENT_RETRIES = 600;
 
+  /**
+   * Whether to prefetch the hottest cached blocks of a region into the block cache of the
+   * destination server before closing it on the source server when moving it.
+   */
+  public static final String WARM_TRANSFER_ENABLED = "hbase.assignment.warm.transfer.enabled";
+
+  public static final boolean DEFAULT_WARM_TRANSFER_ENABLED = false;
+
+  /** The maximum size of the cached blocks to transfer when moving a region */
+  public static final String WARM_TRANSFER_MAX_SIZE = "hbase.assignment.warm.transfer.max.size";
+
+  public static final long DEFAULT_WARM_TRANSFER_MAX_SIZE = 1024L * 1024 * 1024;
+
+  /** How long to wait for the destination server to warm up before closing the region anyway */
+  public static final String WARM_TRANSFER_TIMEOUT_MS =
+    "hbase.assignment.warm.transfer.timeout.ms";
+
+  public static final long DEFAULT_WARM_TRANSFER_TIMEOUT_MS = 60000;
+
   private final ProcedureEvent<?> metaAssignEvent = new ProcedureEvent<>("meta assign");
   private final ProcedureEvent<?> metaLoadEvent = new ProcedureEvent<>("meta load");
 
@@ -232,6 +254,12 @@ public class AssignmentManager {
 
   private final int forceRegionRetainmentRetries;
 
+  private final boolean warmTransferEnabled;
+
+  private final long warmTransferMaxSize;
+
+  private final long warmTransferTimeoutMs;
+
   public AssignmentManager(MasterServices master, MasterRegion masterRegion) {
     this(master, masterRegion, new RegionStateStore(master, masterRegion));
   }
@@ -278,6 +306,11 @@ public class AssignmentManager {
       DEFAULT_FORCE_REGION_RETAINMENT_WAIT_INTERVAL);
     forceRegionRetainmentRetries =
       conf.getInt(FORCE_REGION_RETAINMENT_RETRIES, DEFAULT_FORCE_REGION_RETAINMENT_RETRIES);
+
+    warmTransferEnabled = conf.getBoolean(WARM_TRANSFER_ENABLED, DEFAULT_WARM_TRANSFER_ENABLED);
+    warmTransferMaxSize = conf.getLong(WARM_TRANSFER_MAX_SIZE, DEFAULT_WARM_TRANSFER_MAX_SIZE);
+    warmTransferTimeoutMs =
+      conf.getLong(WARM_TRANSFER_TIMEOUT_MS, DEFAULT_WARM_TRANSFER_TIMEOUT_MS);
   }
 
   private void mirrorMetaLocations() throws IOException, KeeperException {
@@ -410,6 +443,7 @@ public class AssignmentManager {
     stopAssignmentThread();
 
     // Stop the RegionStateStore
+    regionStateStore.stop();
     regionStates.clear();
 
     // Update meta events (for testing)
@@ -1194,6 +1228,7 @@ public class AssignmentManager {
     for (int i = 0; i < regions.size(); ++i) {
       final RegionInfo regionInfo = regions.get(i);
       regionStates.deleteRegion(regionInfo);
+      master.getServerManager().removeReadRequestCountBeforeCrash(regionInfo);
     }
   }
 
@@ -2013,6 +2048,7 @@ public class AssignmentManager {
     if (node != null) {
       node.offline();
     }
+    master.getServerManager().removeReadRequestCountBeforeCrash(regionInfo);
   }
 
   public void onlineRegion(final RegionInfo regionInfo, final ServerName serverName) {
@@ -2193,6 +2229,53 @@ public class AssignmentManager {
       });
   }
 
+  public boolean isWarmTransferEnabled() {
+    return warmTransferEnabled;
+  }
+
+  /**
+   * Asks the current server of the region for the blocks of the region in its block cache, hottest
+   * first, and makes the given target server prefetch them into its own block cache. The target
+   * prefetches in the background, and keeps going while the region moves, as the blocks are cached
+   * by file name and offset, the same for the warmup region and the opened one. The returned
+   * future never completes exceptionally, and completes after at most
+   * {@link #WARM_TRANSFER_TIMEOUT_MS}, as this is only an optimization for the following open.
+   */
+  CompletableFuture<Void> warmTransferRegion(RegionStateNode regionNode, ServerName target) {
+    RegionInfo region = regionNode.getRegionInfo();
+    ServerName source = regionNode.getRegionLocation();
+    long startTime = EnvironmentEdgeManager.currentTime();
+    CompletableFuture<Void> future = master.getAsyncClusterConnection()
+      .getRegionServerAdmin(source)
+      .getRegionCachedBlocks(GetRegionCachedBlocksRequest.newBuilder()
+        .setRegion(RequestConverter.buildRegionSpecifier(RegionSpecifierType.REGION_NAME,
+          region.getRegionName()))
+        .setMaxSize(warmTransferMaxSize).build())
+      .thenCompose(blocks -> master.getAsyncClusterConnection().getRegionServerAdmin(target)
+        .warmupRegion(RequestConverter.buildWarmupRegionRequest(region).toBuilder()
+          .addAllCachedBlock(blocks.getCachedBlockList()).build())
+        .thenAccept(resp -> {
+          int listed = blocks.getCachedBlockCount();
+          LOG.info(
+            "Warming up {} on {} from {}, {} ms: {} hot blocks, {} already cached on the target,"
+              + " hit ratio {}, prefetching {} in the background",
+            region.getEncodedName(), target, source,
+            EnvironmentEdgeManager.currentTime() - startTime, listed,
+            resp.getAlreadyCachedBlocks(),
+            listed > 0 ? String.format("%.2f", (double) resp.getAlreadyCachedBlocks() / listed)
+              : "n/a",
+            resp.getPrefetchingBlocks());
+        }))
+      .handle((r, e) -> {
+        if (e != null) {
+          LOG.warn("Failed to warm up {} on {} from {}, moving it cold", region, target, source,
+            e);
+        }
+        return null;
+      });
+    return future.completeOnTimeout(null, warmTransferTimeoutMs, TimeUnit.MILLISECONDS);
+  }
+
   // for open and close, they will first be persist to the procedure store in
   // RegionRemoteProcedureBase. So here we will first change the in memory state as it is considered
   // as succeeded if the persistence to procedure store is succeeded, and then when the
@@ -2205,6 +2288,8 @@ public class AssignmentManager {
     RegionInfo regionInfo = regionNode.getRegionInfo();
     regionStates.addRegionToServer(regionNode);
     regionStates.removeFromFailedOpen(regionInfo);
+    // only used to order the opens of the region, until one succeeds
+    master.getServerManager().removeReadRequestCountBeforeCrash(regionInfo);
   }
 
   // should be called under the RegionStateNode lock
@@ -2284,6 +2369,7 @@ public class AssignmentManager {
     // it is a split parent. And usually only one of them can match, as after restart, the region
     // state will be changed from SPLIT to CLOSED.
     regionStateStore.splitRegion(parent, daughterA, daughterB, serverName, td);
+    master.getServerManager().removeReadRequestCountBeforeCrash(parent);
     if (shouldAssignFavoredNodes(parent)) {
       List<ServerName> onlineServers = this.master.getServerManager().getOnlineServersList();
       getFavoredNodePromoter().generateFavoredNodesForDaughter(onlineServers, parent, daughterA,
@@ -2306,6 +2392,7 @@ public class AssignmentManager {
     node.setState(State.MERGED);
     for (RegionInfo ri : mergeParents) {
       regionStates.deleteRegion(ri);
+      master.getServerManager().removeReadRequestCountBeforeCrash(ri);
     }
     TableDescriptor td = master.getTableDescriptors().get(child.getTable());
     regionStateStore.mergeRegions(child, mergeParents, serverName, td);
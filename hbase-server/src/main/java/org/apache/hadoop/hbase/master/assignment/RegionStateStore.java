@@ -22,9 +22,18 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hbase.CatalogFamilyFormat;
 import org.apache.hadoop.hbase.Cell;
 import org.apache.hadoop.hbase.Cell.Type;
@@ -39,6 +48,7 @@ import org.apache.hadoop.hbase.MetaTableAccessor;
 import org.apache.hadoop.hbase.RegionLocations;
 import org.apache.hadoop.hbase.ServerName;
 import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.AsyncBufferedMutator;
 import org.apache.hadoop.hbase.client.AsyncTable;
 import org.apache.hadoop.hbase.client.Delete;
 import org.apache.hadoop.hbase.client.Get;
@@ -89,13 +99,85 @@ public class RegionStateStore {
   /** The delimiter for meta columns for replicaIds &gt; 0 */
   protected static final char META_REPLICA_ID_DELIMITER = '_';
 
+  /**
+   * Whether to coalesce the hbase:meta updates of concurrent region transitions into multi-row
+   * batches. Assigning many regions at once, e.g. on a cluster restart, otherwise costs one meta
+   * RPC per region state change. An update is only batched while another one is in flight, so a
+   * lone region transition does not wait for the batch.
+   */
+  public static final String META_UPDATE_BATCH_ENABLED_KEY =
+    "hbase.assignment.meta.update.batch.enabled";
+  public static final boolean DEFAULT_META_UPDATE_BATCH_ENABLED = false;
+
+  /** How long a batched hbase:meta update may wait for others to share its RPC. */
+  public static final String META_UPDATE_BATCH_WAIT_MSEC_KEY =
+    "hbase.assignment.meta.update.batch.wait.msec";
+  public static final long DEFAULT_META_UPDATE_BATCH_WAIT_MSEC = 5;
+
+  /** The number of hbase:meta updates after which a batch is sent without waiting any longer. */
+  public static final String META_UPDATE_BATCH_MAX_SIZE_KEY =
+    "hbase.assignment.meta.update.batch.max.size";
+  public static final int DEFAULT_META_UPDATE_BATCH_MAX_SIZE = 1000;
+
   private final MasterServices master;
 
   private final MasterRegion masterRegion;
 
+  private final boolean batchMetaUpdates;
+
+  // created on first use, as the connection is not ready when we are constructed
+  private AsyncBufferedMutator metaMutator;
+
+  private boolean stopped = false;
+
+  // the hbase:meta updates of user regions in flight, to only batch the concurrent ones
+  private final AtomicInteger inflightMetaUpdates = new AtomicInteger();
+
+  /**
+   * In-memory view of the 'info:merge*' columns of hbase:meta. It maps the encoded name of every
+   * merged region which has not been cleaned up by the CatalogJanitor yet to its merge parents. It
+   * is loaded with meta and then kept up to date by our own writes to these columns, so the chores
+   * which need it do not have to scan meta. The CatalogJanitor verifies it against its full meta
+   * scan, see {@link #reconcileMergeRegions(Map, long)}.
+   */
+  private final ConcurrentMap<String, List<RegionInfo>> mergeRegions = new ConcurrentHashMap<>();
+
+  // bumped on every change to mergeRegions, guarded by mergeRegions
+  private long mergeRegionsVersion = 0;
+
   public RegionStateStore(MasterServices master, MasterRegion masterRegion) {
     this.master = master;
     this.masterRegion = masterRegion;
+    this.batchMetaUpdates = master.getConfiguration().getBoolean(META_UPDATE_BATCH_ENABLED_KEY,
+      DEFAULT_META_UPDATE_BATCH_ENABLED);
+  }
+
+  /**
+   * Sends the buffered hbase:meta updates and stops batching the following ones.
+   */
+  public synchronized void stop() {
+    stopped = true;
+    if (metaMutator != null) {
+      metaMutator.close();
+      metaMutator = null;
+    }
+  }
+
+  private synchronized AsyncBufferedMutator getMetaMutator() {
+    if (stopped) {
+      return null;
+    }
+    if (metaMutator == null) {
+      Configuration conf = master.getConfiguration();
+      metaMutator = master.getAsyncConnection()
+        .getBufferedMutatorBuilder(TableName.META_TABLE_NAME).setWriteBufferPeriodicFlush(
+          conf.getLong(META_UPDATE_BATCH_WAIT_MSEC_KEY, DEFAULT_META_UPDATE_BATCH_WAIT_MSEC),
+          TimeUnit.MILLISECONDS)
+        .setMaxMutations(
+          conf.getInt(META_UPDATE_BATCH_MAX_SIZE_KEY, DEFAULT_META_UPDATE_BATCH_MAX_SIZE))
+        .build();
+    }
+    return metaMutator;
   }
 
   @FunctionalInterface
@@ -117,6 +199,7 @@ public class RegionStateStore {
               st = EnvironmentEdgeManager.currentTime();
             }
             visitMetaEntry(visitor, r);
+            loadMergeRegions(r);
             if (LOG.isTraceEnabled()) {
               long et = EnvironmentEdgeManager.currentTime();
               LOG.trace("[T] LOAD META PERF " + StringUtils.humanTimeDiff(et - st));
@@ -129,6 +212,25 @@ public class RegionStateStore {
       });
   }
 
+  private void loadMergeRegions(Result result) {
+    List<RegionInfo> parents = CatalogFamilyFormat.getMergeRegions(result.rawCells());
+    RegionInfo child = CatalogFamilyFormat.getRegionInfo(result);
+    if (parents != null && child != null) {
+      trackMergeRegions(child.getEncodedName(), parents);
+    }
+  }
+
+  private void trackMergeRegions(String child, List<RegionInfo> parents) {
+    synchronized (mergeRegions) {
+      if (parents != null) {
+        mergeRegions.put(child, parents);
+      } else {
+        mergeRegions.remove(child);
+      }
+      mergeRegionsVersion++;
+    }
+  }
+
   /**
    * Queries META table for the passed region encoded name, delegating action upon results to the
    * {@code RegionStateVisitor} passed as second parameter.
@@ -283,8 +385,17 @@ public class RegionStateStore {
         future = FutureUtils.failedFuture(e);
       }
     } else {
-      AsyncTable<?> table = master.getAsyncConnection().getTable(TableName.META_TABLE_NAME);
-      future = table.put(put);
+      // A region has at most one meta update in flight, as its procedure waits for the update
+      // before moving on, so batching does not reorder the updates of a region.
+      boolean concurrent = inflightMetaUpdates.getAndIncrement() > 0;
+      AsyncBufferedMutator mutator = batchMetaUpdates && concurrent ? getMetaMutator() : null;
+      if (mutator != null) {
+        future = mutator.mutate(put);
+      } else {
+        AsyncTable<?> table = master.getAsyncConnection().getTable(TableName.META_TABLE_NAME);
+        future = table.put(put);
+      }
+      FutureUtils.addListener(future, (r, e) -> inflightMetaUpdates.decrementAndGet());
     }
     FutureUtils.addListener(future, (r, e) -> {
       if (e != null) {
@@ -458,6 +569,7 @@ public class RegionStateStore {
       ReplicationBarrierFamilyFormat.addReplicationParent(putOfMerged, replicationParents);
     }
     multiMutate(child, mutations);
+    trackMergeRegions(child.getEncodedName(), Arrays.asList(parents));
   }
 
   /**
@@ -483,6 +595,7 @@ public class RegionStateStore {
     // NOTE: We are doing a new hbase:meta read here.
     Cell[] cells = getRegionCatalogResult(mergeRegion).rawCells();
     if (cells == null || cells.length == 0) {
+      trackMergeRegions(mergeRegion.getEncodedName(), null);
       return;
     }
     Delete delete = new Delete(mergeRegion.getRegionName());
@@ -502,16 +615,81 @@ public class RegionStateStore {
     if (qualifiers.isEmpty()) {
       LOG.info("No merged qualifiers for region " + mergeRegion.getRegionNameAsString()
         + " in meta table, they are cleaned up already, Skip.");
+      trackMergeRegions(mergeRegion.getEncodedName(), null);
       return;
     }
     try (Table table = master.getConnection().getTable(TableName.META_TABLE_NAME)) {
       table.delete(delete);
     }
+    trackMergeRegions(mergeRegion.getEncodedName(), null);
     LOG.info(
       "Deleted merge references in " + mergeRegion.getRegionNameAsString() + ", deleted qualifiers "
         + qualifiers.stream().map(Bytes::toStringBinary).collect(Collectors.joining(", ")));
   }
 
+  /**
+   * Returns the encoded names of the regions which have been merged into a region that still has
+   * its 'info:merge*' columns in hbase:meta. Served from memory, without reading hbase:meta.
+   */
+  public Set<String> getMergedParentRegionEncodedNames() {
+    Set<String> parents = new HashSet<>();
+    for (List<RegionInfo> regions : mergeRegions.values()) {
+      for (RegionInfo region : regions) {
+        parents.add(region.getEncodedName());
+      }
+    }
+    return parents;
+  }
+
+  /**
+   * Returns the version of the in-memory view of the 'info:merge*' columns, to be passed to
+   * {@link #reconcileMergeRegions(Map, long)} after scanning hbase:meta.
+   */
+  public long getMergeRegionsVersion() {
+    synchronized (mergeRegions) {
+      return mergeRegionsVersion;
+    }
+  }
+
+  /**
+   * Verify the in-memory view of the 'info:merge*' columns against what a full scan of hbase:meta
+   * found, and replace it with the scanned one if they differ. Nothing is done if the view changed
+   * since the scan started, as the scan could have missed these changes.
+   * @param mergeRegionsInMeta the merge parents of every merged region found by the scan
+   * @param version            the version of the view when the scan started
+   * @return the number of merged regions which were wrong in the view, or -1 if not verified
+   */
+  public int reconcileMergeRegions(Map<RegionInfo, List<RegionInfo>> mergeRegionsInMeta,
+    long version) {
+    Map<String, List<RegionInfo>> scanned = new HashMap<>();
+    mergeRegionsInMeta.forEach((child, parents) -> scanned.put(child.getEncodedName(), parents));
+    synchronized (mergeRegions) {
+      if (version != mergeRegionsVersion) {
+        LOG.debug("Merge regions changed while scanning hbase:meta, skip verifying them");
+        return -1;
+      }
+      int mismatches = 0;
+      for (Map.Entry<String, List<RegionInfo>> e : scanned.entrySet()) {
+        if (!e.getValue().equals(mergeRegions.get(e.getKey()))) {
+          mismatches++;
+        }
+      }
+      for (String child : mergeRegions.keySet()) {
+        if (!scanned.containsKey(child)) {
+          mismatches++;
+        }
+      }
+      if (mismatches > 0) {
+        LOG.warn("{} merged regions in memory did not match hbase:meta, reloaded {} merged regions",
+          mismatches, scanned.size());
+        mergeRegions.clear();
+        mergeRegions.putAll(scanned);
+        mergeRegionsVersion++;
+      }
+      return mismatches;
+    }
+  }
+
   static Put addMergeRegions(Put put, Collection<RegionInfo> mergeRegions) throws IOException {
     int limit = 10000; // Arbitrary limit. No room in our formatted 'task0000' below for more.
     int max = mergeRegions.size();
@@ -143,6 +143,12 @@ public class TransitRegionStateProcedure
 
   private CompletableFuture<Void> future;
 
+  // whether the current future is the warm transfer to the assign candidate of a move, and whether
+  // we have already done it. Not persisted, after a master restart we just close the region cold.
+  private transient boolean warmTransferring;
+
+  private transient boolean warmTransferDone;
+
   public TransitRegionStateProcedure() {
   }
 
@@ -386,11 +392,24 @@ public class TransitRegionStateProcedure
   private void closeRegion(MasterProcedureEnv env, RegionStateNode regionNode)
     throws IOException, ProcedureSuspendedException {
     if (
-      ProcedureFutureUtil.checkFuture(this, this::getFuture, this::setFuture,
-        () -> closeRegionAfterUpdatingMeta(env, regionNode))
+      ProcedureFutureUtil.checkFuture(this, this::getFuture, this::setFuture, () -> {
+        if (warmTransferring) {
+          // the region is still open, execute this state again to start closing it
+          warmTransferring = false;
+        } else {
+          closeRegionAfterUpdatingMeta(env, regionNode);
+        }
+      })
     ) {
       return;
     }
+    if (shouldWarmTransfer(env, regionNode)) {
+      warmTransferDone = true;
+      warmTransferring = true;
+      ProcedureFutureUtil.suspendIfNecessary(this, this::setFuture,
+        env.getAssignmentManager().warmTransferRegion(regionNode, assignCandidate), env,
+        () -> warmTransferring = false);
+    }
     if (regionNode.isInState(State.OPEN, State.CLOSING, State.MERGING, State.SPLITTING)) {
       // this is the normal case
       ProcedureFutureUtil.suspendIfNecessary(this, this::setFuture,
@@ -403,6 +422,12 @@ public class TransitRegionStateProcedure
     }
   }
 
+  private boolean shouldWarmTransfer(MasterProcedureEnv env, RegionStateNode regionNode) {
+    return type == TransitionType.MOVE && !warmTransferDone
+      && env.getAssignmentManager().isWarmTransferEnabled() && regionNode.isInState(State.OPEN)
+      && assignCandidate != null && !assignCandidate.equals(regionNode.getRegionLocation());
+  }
+
   private Flow confirmClosed(MasterProcedureEnv env, RegionStateNode regionNode)
     throws IOException {
     if (regionNode.isInState(State.CLOSED)) {
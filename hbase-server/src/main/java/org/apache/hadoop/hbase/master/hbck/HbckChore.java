@@ -20,15 +20,12 @@ package org.apache.hadoop.hbase.master.hbck;
 import java.io.IOException;
 import java.time.Instant;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
-import org.apache.hadoop.hbase.CatalogFamilyFormat;
-import org.apache.hadoop.hbase.MetaTableAccessor;
 import org.apache.hadoop.hbase.ScheduledChore;
 import org.apache.hadoop.hbase.ServerName;
 import org.apache.hadoop.hbase.client.RegionInfo;
@@ -101,7 +98,10 @@ public class HbckChore extends ScheduledChore {
       loadRegionsFromInMemoryState(report);
       loadRegionsFromRSReport(report);
       try {
-        loadRegionsFromFS(scanForMergedParentRegions(), report);
+        // the merge parents are tracked in memory, we do not need to scan hbase:meta for them
+        loadRegionsFromFS(
+          master.getAssignmentManager().getRegionStateStore().getMergedParentRegionEncodedNames(),
+          report);
       } catch (IOException e) {
         LOG.warn("Failed to load the regions from filesystem", e);
       }
@@ -142,28 +142,6 @@ public class HbckChore extends ScheduledChore {
     return this.disabled;
   }
 
-  /**
-   * Scan hbase:meta to get set of merged parent regions, this is a very heavy scan.
-   * @return Return generated {@link HashSet}
-   */
-  private HashSet<String> scanForMergedParentRegions() throws IOException {
-    HashSet<String> mergedParentRegions = new HashSet<>();
-    // Null tablename means scan all of meta.
-    MetaTableAccessor.scanMetaForTableRegions(this.master.getConnection(), r -> {
-      List<RegionInfo> mergeParents = CatalogFamilyFormat.getMergeRegions(r.rawCells());
-      if (mergeParents != null) {
-        for (RegionInfo mergeRegion : mergeParents) {
-          if (mergeRegion != null) {
-            // This region is already being merged
-            mergedParentRegions.add(mergeRegion.getEncodedName());
-          }
-        }
-      }
-      return true;
-    }, null);
-    return mergedParentRegions;
-  }
-
   private void loadRegionsFromInMemoryState(final HbckReport report) {
     List<RegionState> regionStates =
       master.getAssignmentManager().getRegionStates().getRegionStates();
@@ -255,7 +233,7 @@ public class HbckChore extends ScheduledChore {
     }
   }
 
-  private void loadRegionsFromFS(final HashSet<String> mergedParentRegions, final HbckReport report)
+  private void loadRegionsFromFS(final Set<String> mergedParentRegions, final HbckReport report)
     throws IOException {
     Path rootDir = master.getMasterFileSystem().getRootDir();
     FileSystem fs = master.getMasterFileSystem().getFileSystem();
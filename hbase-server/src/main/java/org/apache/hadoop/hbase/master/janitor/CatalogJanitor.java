@@ -20,6 +20,7 @@ package org.apache.hadoop.hbase.master.janitor;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -49,6 +50,7 @@ import org.apache.hadoop.hbase.master.MasterServices;
 import org.apache.hadoop.hbase.master.assignment.AssignmentManager;
 import org.apache.hadoop.hbase.master.assignment.GCMultipleMergedRegionsProcedure;
 import org.apache.hadoop.hbase.master.assignment.GCRegionProcedure;
+import org.apache.hadoop.hbase.master.assignment.RegionStateStore;
 import org.apache.hadoop.hbase.master.procedure.MasterProcedureEnv;
 import org.apache.hadoop.hbase.procedure2.ProcedureExecutor;
 import org.apache.hadoop.hbase.regionserver.HRegionFileSystem;
@@ -172,7 +174,13 @@ public class CatalogJanitor extends ScheduledChore {
         // -1 indicates previous scan is in progress
         return -1;
       }
+      RegionStateStore regionStateStore = getRegionStateStore();
+      long mergeRegionsVersion =
+        regionStateStore != null ? regionStateStore.getMergeRegionsVersion() : -1;
       this.lastReport = scanForReport();
+      if (regionStateStore != null) {
+        verifyMergeRegions(regionStateStore, mergeRegionsVersion);
+      }
       if (!this.lastReport.isEmpty()) {
         LOG.warn(this.lastReport.toString());
       } else {
@@ -229,6 +237,26 @@ public class CatalogJanitor extends ScheduledChore {
     }
   }
 
+  private RegionStateStore getRegionStateStore() {
+    AssignmentManager am = this.services.getAssignmentManager();
+    return am != null ? am.getRegionStateStore() : null;
+  }
+
+  /**
+   * Verify the in-memory view of the merged regions, which the other chores read instead of
+   * scanning hbase:meta themselves, against what we have just scanned.
+   */
+  private void verifyMergeRegions(RegionStateStore regionStateStore, long version) {
+    Map<RegionInfo, List<RegionInfo>> mergeRegions = new HashMap<>();
+    for (Map.Entry<RegionInfo, Result> e : this.lastReport.mergedRegions.entrySet()) {
+      List<RegionInfo> parents = CatalogFamilyFormat.getMergeRegions(e.getValue().rawCells());
+      if (parents != null) {
+        mergeRegions.put(e.getKey(), parents);
+      }
+    }
+    regionStateStore.reconcileMergeRegions(mergeRegions, version);
+  }
+
   /**
    * Scan hbase:meta.
    * @return Return generated {@link CatalogJanitorReport}
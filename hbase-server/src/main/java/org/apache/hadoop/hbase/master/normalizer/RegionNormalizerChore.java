@@ -34,11 +34,14 @@ import org.slf4j.LoggerFactory;
 class RegionNormalizerChore extends ScheduledChore {
   private static final Logger LOG = LoggerFactory.getLogger(RegionNormalizerChore.class);
 
+  static final String NORMALIZER_PERIOD_KEY = "hbase.normalizer.period";
+  static final int DEFAULT_NORMALIZER_PERIOD = 300_000;
+
   private final MasterServices master;
 
   public RegionNormalizerChore(MasterServices master) {
     super(master.getServerName() + "-RegionNormalizerChore", master,
-      master.getConfiguration().getInt("hbase.normalizer.period", 300_000));
+      master.getConfiguration().getInt(NORMALIZER_PERIOD_KEY, DEFAULT_NORMALIZER_PERIOD));
     this.master = master;
   }
 
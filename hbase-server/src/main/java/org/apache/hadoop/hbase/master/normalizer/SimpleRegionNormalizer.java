@@ -24,12 +24,21 @@ import static org.apache.hbase.thirdparty.org.apache.commons.collections4.Collec
 import java.time.Instant;
 import java.time.Period;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.BooleanSupplier;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hbase.HBaseInterfaceAudience;
 import org.apache.hadoop.hbase.RegionMetrics;
@@ -37,6 +46,7 @@ import org.apache.hadoop.hbase.ServerMetrics;
 import org.apache.hadoop.hbase.ServerName;
 import org.apache.hadoop.hbase.Size;
 import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.BalancerDecision;
 import org.apache.hadoop.hbase.client.MasterSwitchType;
 import org.apache.hadoop.hbase.client.RegionInfo;
 import org.apache.hadoop.hbase.client.TableDescriptor;
@@ -44,6 +54,9 @@ import org.apache.hadoop.hbase.conf.ConfigurationObserver;
 import org.apache.hadoop.hbase.master.MasterServices;
 import org.apache.hadoop.hbase.master.RegionState;
 import org.apache.hadoop.hbase.master.assignment.RegionStates;
+import org.apache.hadoop.hbase.master.balancer.BaseLoadBalancer;
+import org.apache.hadoop.hbase.namequeues.BalancerDecisionDetails;
+import org.apache.hadoop.hbase.namequeues.NamedQueueRecorder;
 import org.apache.hadoop.hbase.util.EnvironmentEdgeManager;
 import org.apache.yetus.audience.InterfaceAudience;
 import org.slf4j.Logger;
@@ -59,6 +72,12 @@ import org.slf4j.LoggerFactory;
  * <li>Otherwise, for the next region in the chain R1, if R0 + R1 is smaller then S, R0 and R1 are
  * kindly requested to merge.</li>
  * </ol>
+ * When {@value #LOAD_WEIGHT_KEY} is above zero, the size of each region is blended with its share
+ * of the read and write requests of the table, measured between two runs of the normalizer, so a
+ * small but hot region is not merged and a large but cold one is not split. When
+ * {@value #MAX_STORE_FILES_PER_SERVER_KEY} is above zero, the plans of a run are limited so that
+ * each region server has at most that many store files to compact because of them. The plans are
+ * recorded in the balancer decision queue when it is enabled.
  */
 @InterfaceAudience.LimitedPrivate(HBaseInterfaceAudience.CONFIG)
 class SimpleRegionNormalizer implements RegionNormalizer, ConfigurationObserver {
@@ -84,9 +103,20 @@ class SimpleRegionNormalizer implements RegionNormalizer, ConfigurationObserver
   static final String MERGE_REQUEST_MAX_NUMBER_OF_REGIONS_COUNT_KEY =
     "hbase.normalizer.merge.merge_request_max_number_of_regions";
   static final long DEFAULT_MERGE_REQUEST_MAX_NUMBER_OF_REGIONS_COUNT = 100;
+  static final String LOAD_WEIGHT_KEY = "hbase.normalizer.load.weight";
+  static final double DEFAULT_LOAD_WEIGHT = 0;
+  static final String MAX_STORE_FILES_PER_SERVER_KEY =
+    "hbase.normalizer.max.store.files.per.server";
+  static final int DEFAULT_MAX_STORE_FILES_PER_SERVER = 0;
+  static final int REQUEST_COUNTS_EXPIRY_PERIODS = 3;
 
   private MasterServices masterServices;
   private NormalizerConfiguration normalizerConfiguration;
+  private NamedQueueRecorder namedQueueRecorder;
+  // the request counts of the regions of each table at the previous run, to compute request rates.
+  // Counts older than a few normalizer periods are dropped, so are those of deleted tables.
+  private final ConcurrentMap<TableName, RequestCounts> lastRequestCounts =
+    new ConcurrentHashMap<>();
 
   public SimpleRegionNormalizer() {
     masterServices = null;
@@ -104,6 +134,14 @@ class SimpleRegionNormalizer implements RegionNormalizer, ConfigurationObserver
       return;
     }
     normalizerConfiguration = new NormalizerConfiguration(conf, normalizerConfiguration);
+    if (
+      conf.getBoolean(BaseLoadBalancer.BALANCER_DECISION_BUFFER_ENABLED,
+        BaseLoadBalancer.DEFAULT_BALANCER_DECISION_BUFFER_ENABLED)
+    ) {
+      namedQueueRecorder = NamedQueueRecorder.getInstance(conf);
+    } else {
+      namedQueueRecorder = null;
+    }
   }
 
   @Override
@@ -151,6 +189,25 @@ class SimpleRegionNormalizer implements RegionNormalizer, ConfigurationObserver
     return settledValue;
   }
 
+  private static double parseLoadWeight(final Configuration conf) {
+    final double parsedValue = conf.getDouble(LOAD_WEIGHT_KEY, DEFAULT_LOAD_WEIGHT);
+    final double settledValue = Math.min(1, Math.max(0, parsedValue));
+    if (parsedValue != settledValue) {
+      warnInvalidValue(LOAD_WEIGHT_KEY, parsedValue, settledValue);
+    }
+    return settledValue;
+  }
+
+  private static int parseMaxStoreFilesPerServer(final Configuration conf) {
+    final int parsedValue =
+      conf.getInt(MAX_STORE_FILES_PER_SERVER_KEY, DEFAULT_MAX_STORE_FILES_PER_SERVER);
+    final int settledValue = Math.max(0, parsedValue);
+    if (parsedValue != settledValue) {
+      warnInvalidValue(MAX_STORE_FILES_PER_SERVER_KEY, parsedValue, settledValue);
+    }
+    return settledValue;
+  }
+
   private static <T> void warnInvalidValue(final String key, final T parsedValue,
     final T settledValue) {
     LOG.warn("Configured value {}={} is invalid. Setting value to {}.", key, parsedValue,
@@ -203,6 +260,20 @@ class SimpleRegionNormalizer implements RegionNormalizer, ConfigurationObserver
     return normalizerConfiguration.getMergeRequestMaxNumberOfRegionsCount();
   }
 
+  /**
+   * Return this instance's configured value for {@value #LOAD_WEIGHT_KEY}.
+   */
+  public double getLoadWeight() {
+    return normalizerConfiguration.getLoadWeight();
+  }
+
+  /**
+   * Return this instance's configured value for {@value #MAX_STORE_FILES_PER_SERVER_KEY}.
+   */
+  public int getMaxStoreFilesPerServer() {
+    return normalizerConfiguration.getMaxStoreFilesPerServer();
+  }
+
   @Override
   public void setMasterServices(final MasterServices masterServices) {
     this.masterServices = masterServices;
@@ -248,6 +319,10 @@ class SimpleRegionNormalizer implements RegionNormalizer, ConfigurationObserver
       plans.addAll(mergePlans);
     }
 
+    // split plans come first, so they are the last to be dropped
+    final int droppedPlansCount = limitStoreFilesPerServer(ctx, plans);
+    recordNormalizationDecision(ctx, plans, droppedPlansCount);
+
     if (
       normalizerConfiguration.getCumulativePlansSizeLimitMb() != DEFAULT_CUMULATIVE_SIZE_LIMIT_MB
     ) {
@@ -256,30 +331,95 @@ class SimpleRegionNormalizer implements RegionNormalizer, ConfigurationObserver
       shuffleNormalizationPlans(plans);
     }
 
-    LOG.debug("Computed normalization plans for table {}. Total plans: {}, split plans: {}, "
-      + "merge plans: {}", table, plans.size(), splitPlansCount, mergePlansCount);
+    LOG.debug(
+      "Computed normalization plans for table {}. Total plans: {}, split plans: {}, "
+        + "merge plans: {}, dropped for the store file limit: {}",
+      table, plans.size(), splitPlansCount, mergePlansCount, droppedPlansCount);
     return plans;
   }
 
   /** Returns size of region in MB and if region is not found than -1 */
   private long getRegionSizeMB(RegionInfo hri) {
+    RegionMetrics regionLoad = getRegionMetrics(hri);
+    if (regionLoad == null) {
+      return -1;
+    }
+    return (long) regionLoad.getStoreFileSize().get(Size.Unit.MEGABYTE);
+  }
+
+  /** Returns the number of store files of the region, 0 if the region is not found */
+  private int getStoreFileCount(RegionInfo hri) {
+    RegionMetrics regionLoad = getRegionMetrics(hri);
+    return regionLoad != null ? regionLoad.getStoreFileCount() : 0;
+  }
+
+  /** Returns the last reported metrics of the region, or null if not found */
+  private RegionMetrics getRegionMetrics(RegionInfo hri) {
     ServerName sn =
       masterServices.getAssignmentManager().getRegionStates().getRegionServerOfRegion(hri);
     if (sn == null) {
       LOG.debug("{} region was not found on any Server", hri.getRegionNameAsString());
-      return -1;
+      return null;
     }
     ServerMetrics serverMetrics = masterServices.getServerManager().getLoad(sn);
     if (serverMetrics == null) {
       LOG.debug("server {} was not found in ServerManager", sn.getServerName());
-      return -1;
+      return null;
     }
     RegionMetrics regionLoad = serverMetrics.getRegionMetrics().get(hri.getRegionName());
     if (regionLoad == null) {
       LOG.debug("{} was not found in RegionsLoad", hri.getRegionNameAsString());
-      return -1;
+      return null;
     }
-    return (long) regionLoad.getStoreFileSize().get(Size.Unit.MEGABYTE);
+    return regionLoad;
+  }
+
+  /**
+   * Returns the request rates per second of the regions of the table, by encoded region name, since
+   * the previous call for this table. Regions without a previous request count are left out.
+   */
+  private Map<String, Double> getRequestRates(final TableName table,
+    final List<RegionInfo> tableRegions) {
+    final long now = EnvironmentEdgeManager.currentTime();
+    final RequestCounts previous = lastRequestCounts.get(table);
+    final Map<String, Long> counts = new HashMap<>();
+    final Map<String, Double> rates = new HashMap<>();
+    for (RegionInfo hri : tableRegions) {
+      RegionMetrics regionLoad = getRegionMetrics(hri);
+      if (regionLoad == null) {
+        continue;
+      }
+      long count = regionLoad.getReadRequestCount() + regionLoad.getWriteRequestCount();
+      counts.put(hri.getEncodedName(), count);
+      Long previousCount = previous != null ? previous.counts.get(hri.getEncodedName()) : null;
+      // the counts start over when a region is reopened, e.g. after a move
+      if (previousCount != null && count >= previousCount && now > previous.timestamp) {
+        rates.put(hri.getEncodedName(),
+          (count - previousCount) * 1000.0 / (now - previous.timestamp));
+      }
+    }
+    lastRequestCounts.put(table, new RequestCounts(now, counts));
+    final long expiry = getRequestCountsExpiry();
+    lastRequestCounts.values().removeIf(c -> now - c.timestamp > expiry);
+    return rates;
+  }
+
+  /** Returns the tables whose request counts are kept, for testing. */
+  Set<TableName> getRequestCountTables() {
+    return Collections.unmodifiableSet(lastRequestCounts.keySet());
+  }
+
+  /**
+   * Returns how long the request counts of a table are kept without being updated, a few periods
+   * of the normalizer chore.
+   */
+  private long getRequestCountsExpiry() {
+    final Configuration conf = getConf();
+    final long period = conf != null
+      ? conf.getInt(RegionNormalizerChore.NORMALIZER_PERIOD_KEY,
+        RegionNormalizerChore.DEFAULT_NORMALIZER_PERIOD)
+      : RegionNormalizerChore.DEFAULT_NORMALIZER_PERIOD;
+    return REQUEST_COUNTS_EXPIRY_PERIODS * period;
   }
 
   private boolean isMasterSwitchEnabled(final MasterSwitchType masterSwitchType) {
@@ -392,7 +532,7 @@ class SimpleRegionNormalizer implements RegionNormalizer, ConfigurationObserver
       sumRangeMembersSizeMb = 0;
       for (current = rangeStart; current < ctx.getTableRegions().size(); current++) {
         final RegionInfo regionInfo = ctx.getTableRegions().get(current);
-        final long regionSizeMb = getRegionSizeMB(regionInfo);
+        final long regionSizeMb = ctx.getNormalizationSizeMb(regionInfo);
         if (skipForMerge(configuration, ctx, regionInfo)) {
           // this region cannot participate in a range. resume the outer loop.
           rangeStart = Math.max(current, rangeStart + 1);
@@ -414,7 +554,7 @@ class SimpleRegionNormalizer implements RegionNormalizer, ConfigurationObserver
               && (rangeMembers.size() < getMergeRequestMaxNumberOfRegionsCount()))
         ) {
           // add the current region to the range when there's capacity remaining.
-          rangeMembers.add(new NormalizationTarget(regionInfo, regionSizeMb));
+          rangeMembers.add(new NormalizationTarget(regionInfo, getRegionSizeMB(regionInfo)));
           sumRangeMembersSizeMb += regionSizeMb;
           continue;
         }
@@ -457,11 +597,12 @@ class SimpleRegionNormalizer implements RegionNormalizer, ConfigurationObserver
         continue;
       }
       final long regionSizeMb = getRegionSizeMB(hri);
-      if (regionSizeMb > 2 * avgRegionSize) {
+      final long normalizationSizeMb = ctx.getNormalizationSizeMb(hri);
+      if (regionSizeMb > 0 && normalizationSizeMb > 2 * avgRegionSize) {
         LOG.info(
-          "Table {}, large region {} has size {} MB, more than twice avg size {} MB, "
-            + "splitting",
-          ctx.getTableName(), hri.getRegionNameAsString(), regionSizeMb,
+          "Table {}, large region {} has size {} MB, normalization size {} MB, more than twice "
+            + "avg size {} MB, splitting",
+          ctx.getTableName(), hri.getRegionNameAsString(), regionSizeMb, normalizationSizeMb,
           String.format("%.3f", avgRegionSize));
         plans.add(new SplitNormalizationPlan(hri, regionSizeMb));
       }
@@ -493,6 +634,118 @@ class SimpleRegionNormalizer implements RegionNormalizer, ConfigurationObserver
     return getRegionSizeMB(regionInfo) >= normalizerConfiguration.getMergeMinRegionSizeMb(ctx);
   }
 
+  /**
+   * Drops the plans which would make a region server compact more than
+   * {@value #MAX_STORE_FILES_PER_SERVER_KEY} store files, walking the plans in order. The first
+   * plan of each server is always kept, or regions with many store files would never be normalized.
+   * Merged regions are charged to the server of their first region.
+   * @return the number of plans dropped
+   */
+  private int limitStoreFilesPerServer(final NormalizeContext ctx,
+    final List<NormalizationPlan> plans) {
+    final int maxStoreFilesPerServer = normalizerConfiguration.getMaxStoreFilesPerServer();
+    if (maxStoreFilesPerServer <= 0) {
+      return 0;
+    }
+    final Map<ServerName, Integer> storeFilesPerServer = new HashMap<>();
+    int droppedPlansCount = 0;
+    for (Iterator<NormalizationPlan> iter = plans.iterator(); iter.hasNext();) {
+      final List<RegionInfo> regions = getRegions(iter.next());
+      final ServerName sn = ctx.getRegionStates().getRegionServerOfRegion(regions.get(0));
+      if (sn == null) {
+        continue;
+      }
+      final int storeFiles = regions.stream().mapToInt(this::getStoreFileCount).sum();
+      final int current = storeFilesPerServer.getOrDefault(sn, 0);
+      if (current > 0 && current + storeFiles > maxStoreFilesPerServer) {
+        LOG.debug("Table {}, not normalizing regions {} with {} store files, server {} already has "
+          + "{} store files to compact", ctx.getTableName(), regions, storeFiles, sn, current);
+        iter.remove();
+        droppedPlansCount++;
+        continue;
+      }
+      storeFilesPerServer.put(sn, current + storeFiles);
+    }
+    return droppedPlansCount;
+  }
+
+  private static List<RegionInfo> getRegions(final NormalizationPlan plan) {
+    if (plan instanceof SplitNormalizationPlan) {
+      return Collections.singletonList(((SplitNormalizationPlan) plan).getSplitTarget()
+        .getRegionInfo());
+    }
+    return ((MergeNormalizationPlan) plan).getNormalizationTargets().stream()
+      .map(NormalizationTarget::getRegionInfo).collect(Collectors.toList());
+  }
+
+  /**
+   * Records the plans computed for a table in the balancer decision queue, with the size, request
+   * rate and store files of the regions involved. The costs are the coefficient of variation of the
+   * normalization sizes of the regions, before and after the plans.
+   */
+  private void recordNormalizationDecision(final NormalizeContext ctx,
+    final List<NormalizationPlan> plans, final int droppedPlansCount) {
+    final NamedQueueRecorder recorder = namedQueueRecorder;
+    if (recorder == null || plans.isEmpty()) {
+      return;
+    }
+    final Map<String, Long> sizes = new LinkedHashMap<>();
+    for (RegionInfo hri : ctx.getTableRegions()) {
+      sizes.put(hri.getEncodedName(), ctx.getNormalizationSizeMb(hri));
+    }
+    final double initCost = getCoefficientOfVariation(sizes.values());
+    final List<String> decisions = new ArrayList<>(plans.size());
+    for (NormalizationPlan plan : plans) {
+      final List<RegionInfo> regions = getRegions(plan);
+      final StringBuilder sb = new StringBuilder();
+      sb.append("table: ").append(ctx.getTableName()).append(" , ").append(plan.getType())
+        .append(" regions: [");
+      long sizeMb = 0;
+      for (RegionInfo hri : regions) {
+        final Long regionSizeMb = sizes.remove(hri.getEncodedName());
+        sizeMb += regionSizeMb != null ? Math.max(0, regionSizeMb) : 0;
+        final Double requestRate = ctx.getRequestRate(hri);
+        sb.append(hri.getEncodedName()).append(" (size: ").append(getRegionSizeMB(hri))
+          .append(" MB, normalization size: ").append(regionSizeMb).append(" MB, request rate: ")
+          .append(requestRate != null ? String.format("%.3f", requestRate) : "unknown")
+          .append("/s, store files: ").append(getStoreFileCount(hri)).append(")");
+        if (hri != regions.get(regions.size() - 1)) {
+          sb.append(", ");
+        }
+      }
+      sb.append("] , normalization size: ").append(sizeMb).append(" MB , avg region size: ")
+        .append(String.format("%.3f", ctx.getAverageRegionSizeMb())).append(" MB");
+      decisions.add(sb.toString());
+      LOG.debug("Normalization decision: {}", sb);
+      // estimate the sizes after the plan, the daughters of a split share the parent evenly
+      final String name = regions.get(0).getEncodedName();
+      if (plan.getType() == NormalizationPlan.PlanType.SPLIT) {
+        sizes.put(name + ".a", sizeMb / 2);
+        sizes.put(name + ".b", sizeMb - sizeMb / 2);
+      } else {
+        sizes.put(name, sizeMb);
+      }
+    }
+    final double computedCost = getCoefficientOfVariation(sizes.values());
+    final String functionCosts = "loadWeight=" + ctx.getLoadWeight() + ", avgRequestRate="
+      + String.format("%.3f", ctx.getAverageRequestRate()) + ", droppedPlans=" + droppedPlansCount;
+    recorder.addRecord(new BalancerDecisionDetails(new BalancerDecision.Builder()
+      .setInitTotalCost(initCost).setInitialFunctionCosts(functionCosts)
+      .setComputedTotalCost(computedCost).setFinalFunctionCosts(functionCosts)
+      .setComputedSteps(plans.size()).setRegionPlans(decisions).build()));
+  }
+
+  private static double getCoefficientOfVariation(final Collection<Long> values) {
+    final double mean =
+      values.stream().filter(v -> v >= 0).mapToLong(Long::longValue).average().orElse(0);
+    if (mean <= 0) {
+      return 0;
+    }
+    final double variance = values.stream().filter(v -> v >= 0)
+      .mapToDouble(v -> (v - mean) * (v - mean)).average().orElse(0);
+    return Math.sqrt(variance) / mean;
+  }
+
   /**
    * This very simple method exists so we can verify it was called in a unit test. Visible for
    * testing.
@@ -523,6 +776,8 @@ class SimpleRegionNormalizer implements RegionNormalizer, ConfigurationObserver
     private final long mergeMinRegionSizeMb;
     private final long mergeRequestMaxNumberOfRegionsCount;
     private final long cumulativePlansSizeLimitMb;
+    private final double loadWeight;
+    private final int maxStoreFilesPerServer;
 
     private NormalizerConfiguration() {
       conf = null;
@@ -533,6 +788,8 @@ class SimpleRegionNormalizer implements RegionNormalizer, ConfigurationObserver
       mergeMinRegionSizeMb = DEFAULT_MERGE_MIN_REGION_SIZE_MB;
       mergeRequestMaxNumberOfRegionsCount = DEFAULT_MERGE_REQUEST_MAX_NUMBER_OF_REGIONS_COUNT;
       cumulativePlansSizeLimitMb = DEFAULT_CUMULATIVE_SIZE_LIMIT_MB;
+      loadWeight = DEFAULT_LOAD_WEIGHT;
+      maxStoreFilesPerServer = DEFAULT_MAX_STORE_FILES_PER_SERVER;
     }
 
     private NormalizerConfiguration(final Configuration conf,
@@ -546,6 +803,8 @@ class SimpleRegionNormalizer implements RegionNormalizer, ConfigurationObserver
       mergeRequestMaxNumberOfRegionsCount = parseMergeRequestMaxNumberOfRegionsCount(conf);
       cumulativePlansSizeLimitMb =
         conf.getLong(CUMULATIVE_SIZE_LIMIT_MB_KEY, DEFAULT_CUMULATIVE_SIZE_LIMIT_MB);
+      loadWeight = parseLoadWeight(conf);
+      maxStoreFilesPerServer = parseMaxStoreFilesPerServer(conf);
       logConfigurationUpdated(SPLIT_ENABLED_KEY, currentConfiguration.isSplitEnabled(),
         splitEnabled);
       logConfigurationUpdated(MERGE_ENABLED_KEY, currentConfiguration.isMergeEnabled(),
@@ -559,6 +818,9 @@ class SimpleRegionNormalizer implements RegionNormalizer, ConfigurationObserver
       logConfigurationUpdated(MERGE_REQUEST_MAX_NUMBER_OF_REGIONS_COUNT_KEY,
         currentConfiguration.getMergeRequestMaxNumberOfRegionsCount(),
         mergeRequestMaxNumberOfRegionsCount);
+      logConfigurationUpdated(LOAD_WEIGHT_KEY, currentConfiguration.getLoadWeight(), loadWeight);
+      logConfigurationUpdated(MAX_STORE_FILES_PER_SERVER_KEY,
+        currentConfiguration.getMaxStoreFilesPerServer(), maxStoreFilesPerServer);
     }
 
     public Configuration getConf() {
@@ -629,6 +891,33 @@ class SimpleRegionNormalizer implements RegionNormalizer, ConfigurationObserver
     private long getCumulativePlansSizeLimitMb() {
       return cumulativePlansSizeLimitMb;
     }
+
+    public double getLoadWeight() {
+      return loadWeight;
+    }
+
+    public double getLoadWeight(NormalizeContext context) {
+      final double loadWeight = context.getOrDefault(LOAD_WEIGHT_KEY, Double::parseDouble, -1.0);
+      if (loadWeight < 0 || loadWeight > 1) {
+        return getLoadWeight();
+      }
+      return loadWeight;
+    }
+
+    public int getMaxStoreFilesPerServer() {
+      return maxStoreFilesPerServer;
+    }
+  }
+
+  /** The request counts of the regions of a table, by encoded region name, at a point in time. */
+  private static final class RequestCounts {
+    private final long timestamp;
+    private final Map<String, Long> counts;
+
+    private RequestCounts(final long timestamp, final Map<String, Long> counts) {
+      this.timestamp = timestamp;
+      this.counts = counts;
+    }
   }
 
   /**
@@ -642,6 +931,9 @@ class SimpleRegionNormalizer implements RegionNormalizer, ConfigurationObserver
     private final List<RegionInfo> tableRegions;
     private final double averageRegionSizeMb;
     private final TableDescriptor tableDescriptor;
+    private final double loadWeight;
+    private final Map<String, Double> requestRates;
+    private final double averageRequestRate;
 
     public NormalizeContext(final TableDescriptor tableDescriptor) {
       this.tableDescriptor = tableDescriptor;
@@ -658,6 +950,12 @@ class SimpleRegionNormalizer implements RegionNormalizer, ConfigurationObserver
       tableRegions.sort(RegionInfo.COMPARATOR);
       averageRegionSizeMb =
         SimpleRegionNormalizer.this.getAverageRegionSizeMb(this.tableRegions, this.tableDescriptor);
+      loadWeight = SimpleRegionNormalizer.this.normalizerConfiguration.getLoadWeight(this);
+      requestRates = loadWeight > 0
+        ? SimpleRegionNormalizer.this.getRequestRates(tableName, tableRegions)
+        : Collections.emptyMap();
+      averageRequestRate =
+        requestRates.values().stream().mapToDouble(Double::doubleValue).average().orElse(0);
     }
 
     public TableName getTableName() {
@@ -676,6 +974,36 @@ class SimpleRegionNormalizer implements RegionNormalizer, ConfigurationObserver
       return averageRegionSizeMb;
     }
 
+    public double getLoadWeight() {
+      return loadWeight;
+    }
+
+    public double getAverageRequestRate() {
+      return averageRequestRate;
+    }
+
+    /** Returns the request rate of the region per second, or null if unknown */
+    public Double getRequestRate(final RegionInfo hri) {
+      return requestRates.get(hri.getEncodedName());
+    }
+
+    /**
+     * Returns the size of the region in MB blended with its request rate relative to the table,
+     * {@code (1 - w) * size + w * avgSize * rate / avgRate} for a load weight {@code w}, which
+     * keeps the table average unchanged. Returns the plain size when there are no request rates
+     * yet, and -1 if the region is not found.
+     */
+    public long getNormalizationSizeMb(final RegionInfo hri) {
+      final long regionSizeMb = getRegionSizeMB(hri);
+      if (regionSizeMb < 0 || loadWeight <= 0 || averageRequestRate <= 0) {
+        return regionSizeMb;
+      }
+      final Double requestRate = getRequestRate(hri);
+      final double loadRatio = requestRate != null ? requestRate / averageRequestRate : 1;
+      return Math.round(
+        (1 - loadWeight) * regionSizeMb + loadWeight * averageRegionSizeMb * loadRatio);
+    }
+
     public <T> T getOrDefault(String key, Function<String, T> function, T defaultValue) {
       String value = tableDescriptor.getValue(key);
       if (value == null) {
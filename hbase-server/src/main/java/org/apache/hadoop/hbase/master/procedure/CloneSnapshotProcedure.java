@@ -415,11 +415,11 @@ public class CloneSnapshotProcedure extends AbstractStateMachineTableProcedure<C
       final MasterFileSystem mfs = env.getMasterServices().getMasterFileSystem();
 
       SnapshotManifest manifest =
-        SnapshotManifest.open(env.getMasterConfiguration(), mfs.getFileSystem(),
+        SnapshotManifest.openLazily(env.getMasterConfiguration(), mfs.getFileSystem(),
           SnapshotDescriptionUtils.getCompletedSnapshotDir(snapshot, mfs.getRootDir()), snapshot);
 
       ProcedureSyncWait.getMasterQuotaManager(env).checkNamespaceTableAndRegionQuota(getTableName(),
-        manifest.getRegionManifestsMap().size());
+        manifest.getRegionInfosMap().size());
     }
 
     final MasterCoprocessorHost cpHost = env.getMasterCoprocessorHost();
@@ -465,10 +465,13 @@ public class CloneSnapshotProcedure extends AbstractStateMachineTableProcedure<C
         try {
           // 1. Execute the on-disk Clone
           Path snapshotDir = SnapshotDescriptionUtils.getCompletedSnapshotDir(snapshot, rootDir);
-          SnapshotManifest manifest = SnapshotManifest.open(conf, fs, snapshotDir, snapshot);
-          RestoreSnapshotHelper restoreHelper = new RestoreSnapshotHelper(conf, fs, manifest,
-            tableDescriptor, tableRootDir, monitorException, monitorStatus);
-          RestoreSnapshotHelper.RestoreMetaChanges metaChanges = restoreHelper.restoreHdfsRegions();
+          RestoreSnapshotHelper.RestoreMetaChanges metaChanges;
+          try (SnapshotManifest manifest =
+            SnapshotManifest.openLazily(conf, fs, snapshotDir, snapshot)) {
+            RestoreSnapshotHelper restoreHelper = new RestoreSnapshotHelper(conf, fs, manifest,
+              tableDescriptor, tableRootDir, monitorException, monitorStatus);
+            metaChanges = restoreHelper.restoreHdfsRegions();
+          }
 
           // Clone operation should not have stuff to restore or remove
           Preconditions.checkArgument(!metaChanges.hasRegionsToRestore(),
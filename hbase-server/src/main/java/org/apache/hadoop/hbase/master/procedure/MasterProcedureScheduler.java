@@ -796,6 +796,9 @@ public class MasterProcedureScheduler extends AbstractProcedureScheduler {
   public boolean waitRegions(final Procedure<?> procedure, final TableName table,
     final RegionInfo... regionInfos) {
     Arrays.sort(regionInfos, RegionInfo.COMPARATOR);
+    // logged after releasing the scheduler lock, as all the region procedures go through here
+    boolean hasLock = true;
+    long lockOwner = -1;
     schedLock();
     try {
       assert table != null;
@@ -804,7 +807,6 @@ public class MasterProcedureScheduler extends AbstractProcedureScheduler {
       }
 
       // acquire region xlocks or wait
-      boolean hasLock = true;
       final LockAndQueue[] regionLocks = new LockAndQueue[regionInfos.length];
       for (int i = 0; i < regionInfos.length; ++i) {
         assert regionInfos[i] != null;
@@ -815,26 +817,28 @@ public class MasterProcedureScheduler extends AbstractProcedureScheduler {
 
         regionLocks[i] = locking.getRegionLock(regionInfos[i].getEncodedName());
         if (!regionLocks[i].tryExclusiveLock(procedure)) {
-          LOG.info("Waiting on xlock for {} held by pid={}", procedure,
-            regionLocks[i].getExclusiveLockProcIdOwner());
+          lockOwner = regionLocks[i].getExclusiveLockProcIdOwner();
           waitProcedure(regionLocks[i], procedure);
           hasLock = false;
           while (i-- > 0) {
             regionLocks[i].releaseExclusiveLock(procedure);
           }
           break;
-        } else {
-          LOG.info("Took xlock for {}", procedure);
         }
       }
 
       if (!hasLock) {
         wakeTableSharedLock(procedure, table);
       }
-      return !hasLock;
     } finally {
       schedUnlock();
     }
+    if (hasLock) {
+      LOG.info("Took xlock for {}", procedure);
+    } else {
+      LOG.info("Waiting on xlock for {} held by pid={}", procedure, lockOwner);
+    }
+    return !hasLock;
   }
 
   /**
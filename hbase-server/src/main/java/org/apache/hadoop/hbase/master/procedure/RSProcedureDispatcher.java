@@ -578,7 +578,8 @@ public class RSProcedureDispatcher extends RemoteProcedureDispatcher<MasterProce
     public OpenRegionRequest.RegionOpenInfo
       buildRegionOpenInfoRequest(final MasterProcedureEnv env) {
       return RequestConverter.buildRegionOpenInfo(regionInfo,
-        env.getAssignmentManager().getFavoredNodes(regionInfo), procId);
+        env.getAssignmentManager().getFavoredNodes(regionInfo), procId,
+        env.getMasterServices().getServerManager().getReadRequestCountBeforeCrash(regionInfo));
     }
   }
 
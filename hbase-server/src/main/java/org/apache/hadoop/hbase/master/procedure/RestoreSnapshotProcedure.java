@@ -375,9 +375,9 @@ public class RestoreSnapshotProcedure
       // Table already exist. Check and update the region quota for this table namespace.
       final MasterFileSystem mfs = env.getMasterServices().getMasterFileSystem();
       SnapshotManifest manifest =
-        SnapshotManifest.open(env.getMasterConfiguration(), mfs.getFileSystem(),
+        SnapshotManifest.openLazily(env.getMasterConfiguration(), mfs.getFileSystem(),
           SnapshotDescriptionUtils.getCompletedSnapshotDir(snapshot, mfs.getRootDir()), snapshot);
-      int snapshotRegionCount = manifest.getRegionManifestsMap().size();
+      int snapshotRegionCount = manifest.getRegionInfosMap().size();
       int tableRegionCount =
         ProcedureSyncWait.getMasterQuotaManager(env).getRegionCountOfTable(tableName);
 
@@ -410,11 +410,13 @@ public class RestoreSnapshotProcedure
     LOG.info("Starting restore snapshot=" + ClientSnapshotDescriptionUtils.toString(snapshot));
     try {
       Path snapshotDir = SnapshotDescriptionUtils.getCompletedSnapshotDir(snapshot, rootDir);
-      SnapshotManifest manifest = SnapshotManifest.open(conf, fs, snapshotDir, snapshot);
-      RestoreSnapshotHelper restoreHelper = new RestoreSnapshotHelper(conf, fs, manifest,
-        modifiedTableDescriptor, rootDir, monitorException, getMonitorStatus());
-
-      RestoreSnapshotHelper.RestoreMetaChanges metaChanges = restoreHelper.restoreHdfsRegions();
+      RestoreSnapshotHelper.RestoreMetaChanges metaChanges;
+      try (SnapshotManifest manifest =
+        SnapshotManifest.openLazily(conf, fs, snapshotDir, snapshot)) {
+        RestoreSnapshotHelper restoreHelper = new RestoreSnapshotHelper(conf, fs, manifest,
+          modifiedTableDescriptor, rootDir, monitorException, getMonitorStatus());
+        metaChanges = restoreHelper.restoreHdfsRegions();
+      }
       regionsToRestore = metaChanges.getRegionsToRestore();
       regionsToRemove = metaChanges.getRegionsToRemove();
       regionsToAdd = metaChanges.getRegionsToAdd();
@@ -18,9 +18,11 @@
 package org.apache.hadoop.hbase.master.snapshot;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ThreadPoolExecutor;
 import org.apache.hadoop.hbase.ServerName;
 import org.apache.hadoop.hbase.client.RegionInfo;
 import org.apache.hadoop.hbase.client.RegionReplicaUtil;
@@ -30,6 +32,8 @@ import org.apache.hadoop.hbase.mob.MobUtils;
 import org.apache.hadoop.hbase.procedure.Procedure;
 import org.apache.hadoop.hbase.procedure.ProcedureCoordinator;
 import org.apache.hadoop.hbase.snapshot.HBaseSnapshotException;
+import org.apache.hadoop.hbase.snapshot.SnapshotManifest;
+import org.apache.hadoop.hbase.util.ModifyRegionUtils;
 import org.apache.hadoop.hbase.util.Pair;
 import org.apache.yetus.audience.InterfaceAudience;
 import org.slf4j.Logger;
@@ -97,16 +101,17 @@ public class EnabledTableSnapshotHandler extends TakeSnapshotHandler {
       LOG.info("Done waiting - online snapshot for " + this.snapshot.getName());
 
       // Take the offline regions as disabled
+      List<RegionInfo> offlineRegions = new ArrayList<>();
       for (Pair<RegionInfo, ServerName> region : regions) {
         RegionInfo regionInfo = region.getFirst();
         if (
           regionInfo.isOffline() && (regionInfo.isSplit() || regionInfo.isSplitParent())
             && RegionReplicaUtil.isDefaultReplica(regionInfo)
         ) {
-          LOG.info("Take disabled snapshot of offline region=" + regionInfo);
-          snapshotDisabledRegion(regionInfo);
+          offlineRegions.add(regionInfo);
         }
       }
+      snapshotOfflineRegions(offlineRegions);
       // handle the mob files if any.
       boolean mobEnabled = MobUtils.hasMobColumns(htd);
       if (mobEnabled) {
@@ -125,6 +130,28 @@ public class EnabledTableSnapshotHandler extends TakeSnapshotHandler {
     }
   }
 
+  /**
+   * Takes a snapshot of the offline regions in parallel, building their region manifests from the
+   * files on disk
+   */
+  private void snapshotOfflineRegions(final List<RegionInfo> regions) throws IOException {
+    if (regions.isEmpty()) {
+      return;
+    }
+    ThreadPoolExecutor exec = SnapshotManifest.createExecutor(conf, "OfflineRegionsSnapshot");
+    try {
+      ModifyRegionUtils.editRegions(exec, regions, new ModifyRegionUtils.RegionEditTask() {
+        @Override
+        public void editRegion(final RegionInfo regionInfo) throws IOException {
+          LOG.info("Take disabled snapshot of offline region=" + regionInfo);
+          snapshotDisabledRegion(regionInfo);
+        }
+      });
+    } finally {
+      exec.shutdown();
+    }
+  }
+
   /**
    * Takes a snapshot of the mob region
    */
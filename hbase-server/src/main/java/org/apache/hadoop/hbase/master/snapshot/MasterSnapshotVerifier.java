@@ -41,7 +41,6 @@ import org.slf4j.LoggerFactory;
 
 import org.apache.hadoop.hbase.shaded.protobuf.ProtobufUtil;
 import org.apache.hadoop.hbase.shaded.protobuf.generated.SnapshotProtos.SnapshotDescription;
-import org.apache.hadoop.hbase.shaded.protobuf.generated.SnapshotProtos.SnapshotRegionManifest;
 
 /**
  * General snapshot verification on the master.
@@ -103,7 +102,7 @@ public final class MasterSnapshotVerifier {
   public void verifySnapshot(Path snapshotDir, boolean verifyRegions)
     throws CorruptedSnapshotException, IOException {
     SnapshotManifest manifest =
-      SnapshotManifest.open(services.getConfiguration(), workingDirFs, snapshotDir, snapshot);
+      SnapshotManifest.openLazily(services.getConfiguration(), workingDirFs, snapshotDir, snapshot);
     // verify snapshot info matches
     verifySnapshotDescription(snapshotDir);
 
@@ -156,8 +155,8 @@ public final class MasterSnapshotVerifier {
     // Remove the non-default regions
     RegionReplicaUtil.removeNonDefaultRegions(regions);
 
-    Map<String, SnapshotRegionManifest> regionManifests = manifest.getRegionManifestsMap();
-    if (regionManifests == null) {
+    Map<String, RegionInfo> regionInfos = manifest.getRegionInfosMap();
+    if (regionInfos.isEmpty()) {
       String msg = "Snapshot " + ClientSnapshotDescriptionUtils.toString(snapshot) + " looks empty";
       LOG.error(msg);
       throw new CorruptedSnapshotException(msg);
@@ -167,10 +166,10 @@ public final class MasterSnapshotVerifier {
     boolean hasMobStore = false;
     // the mob region is a dummy region, it's not a real region in HBase.
     // the mob region has a special name, it could be found by the region name.
-    if (regionManifests.get(MobUtils.getMobRegionInfo(tableName).getEncodedName()) != null) {
+    if (regionInfos.get(MobUtils.getMobRegionInfo(tableName).getEncodedName()) != null) {
       hasMobStore = true;
     }
-    int realRegionCount = hasMobStore ? regionManifests.size() - 1 : regionManifests.size();
+    int realRegionCount = hasMobStore ? regionInfos.size() - 1 : regionInfos.size();
     if (realRegionCount != regions.size()) {
       errorMsg =
         "Regions moved during the snapshot '" + ClientSnapshotDescriptionUtils.toString(snapshot)
@@ -181,8 +180,8 @@ public final class MasterSnapshotVerifier {
     // Verify RegionInfo
     if (verifyRegions) {
       for (RegionInfo region : regions) {
-        SnapshotRegionManifest regionManifest = regionManifests.get(region.getEncodedName());
-        if (regionManifest == null) {
+        RegionInfo manifestRegionInfo = regionInfos.get(region.getEncodedName());
+        if (manifestRegionInfo == null) {
           // could happen due to a move or split race.
           String mesg = " No snapshot region directory found for region:" + region;
           if (errorMsg.isEmpty()) {
@@ -192,7 +191,7 @@ public final class MasterSnapshotVerifier {
           continue;
         }
 
-        verifyRegionInfo(region, regionManifest);
+        verifyRegionInfo(region, manifestRegionInfo);
       }
       if (!errorMsg.isEmpty()) {
         throw new CorruptedSnapshotException(errorMsg);
@@ -207,12 +206,11 @@ public final class MasterSnapshotVerifier {
 
   /**
    * Verify that the regionInfo is valid
-   * @param region   the region to check
-   * @param manifest snapshot manifest to inspect
+   * @param region             the region to check
+   * @param manifestRegionInfo the region info found in the snapshot manifest
    */
-  private void verifyRegionInfo(final RegionInfo region, final SnapshotRegionManifest manifest)
+  private void verifyRegionInfo(final RegionInfo region, final RegionInfo manifestRegionInfo)
     throws IOException {
-    RegionInfo manifestRegionInfo = ProtobufUtil.toRegionInfo(manifest.getRegionInfo());
     if (RegionInfo.COMPARATOR.compare(region, manifestRegionInfo) != 0) {
       String msg =
         "Manifest region info " + manifestRegionInfo + "doesn't match expected region:" + region;
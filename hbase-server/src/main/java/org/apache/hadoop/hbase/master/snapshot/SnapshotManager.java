@@ -997,7 +997,7 @@ public class SnapshotManager extends MasterProcedureManager implements Stoppable
     // information.
     SnapshotDescription snapshot = SnapshotDescriptionUtils.readSnapshotInfo(fs, snapshotDir);
     SnapshotManifest manifest =
-      SnapshotManifest.open(master.getConfiguration(), fs, snapshotDir, snapshot);
+      SnapshotManifest.openLazily(master.getConfiguration(), fs, snapshotDir, snapshot);
     TableDescriptor snapshotTableDesc = manifest.getTableDescriptor();
     TableName tableName = TableName.valueOf(reqSnapshot.getTable());
 
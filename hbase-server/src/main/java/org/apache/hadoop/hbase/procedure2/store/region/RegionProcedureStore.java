@@ -29,6 +29,9 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 import org.apache.commons.lang3.mutable.MutableLong;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileSystem;
@@ -87,6 +90,29 @@ public class RegionProcedureStore extends ProcedureStoreBase {
 
   private int numThreads;
 
+  // the procedure updates waiting to be written, see write
+  private final List<PendingWrite> pendingWrites = new ArrayList<>();
+
+  private final ReentrantLock writeLock = new ReentrantLock();
+
+  private final LongAdder updateCount = new LongAdder();
+
+  private final LongAdder writeCount = new LongAdder();
+
+  private static final class PendingWrite {
+
+    private final List<Mutation> mutations;
+
+    // guarded by writeLock
+    private boolean done;
+
+    private IOException error;
+
+    PendingWrite(List<Mutation> mutations) {
+      this.mutations = mutations;
+    }
+  }
+
   public RegionProcedureStore(Server server, MasterRegion region, LeaseRecovery leaseRecovery) {
     this.server = server;
     this.region = region;
@@ -285,20 +311,74 @@ public class RegionProcedureStore extends ProcedureStoreBase {
     loader.handleCorrupted(tree.getCorruptedProcs());
   }
 
-  private void serializePut(Procedure<?> proc, List<Mutation> mutations, List<byte[]> rowsToLock)
+  private static void serializePut(Procedure<?> proc, List<Mutation> mutations)
     throws IOException {
     ProcedureProtos.Procedure proto = ProcedureUtil.convertToProtoProcedure(proc);
     byte[] row = Bytes.toBytes(proc.getProcId());
     mutations.add(new Put(row).addColumn(PROC_FAMILY, PROC_QUALIFIER, proto.toByteArray()));
-    rowsToLock.add(row);
   }
 
   // As we need to keep the max procedure id, here we can not simply delete the procedure, just fill
   // the proc column with an empty array.
-  private void serializeDelete(long procId, List<Mutation> mutations, List<byte[]> rowsToLock) {
+  private static void serializeDelete(long procId, List<Mutation> mutations) {
     byte[] row = Bytes.toBytes(procId);
     mutations.add(new Put(row).addColumn(PROC_FAMILY, PROC_QUALIFIER, EMPTY_BYTE_ARRAY));
-    rowsToLock.add(row);
+  }
+
+  /**
+   * Write the given mutations atomically to the master region.
+   * <p/>
+   * This is a group commit, the mutations are queued and the first caller which gets the write lock
+   * writes all the queued mutations of the concurrent callers with a single multi row mutation. So
+   * during a storm of procedure updates, e.g, when lots of servers crash at once, we do far less
+   * writes, and WAL syncs, to the master region than procedure updates.
+   */
+  private void write(List<Mutation> mutations) throws IOException {
+    PendingWrite write = new PendingWrite(mutations);
+    synchronized (pendingWrites) {
+      pendingWrites.add(write);
+    }
+    updateCount.increment();
+    writeLock.lock();
+    try {
+      if (!write.done) {
+        List<PendingWrite> writes;
+        synchronized (pendingWrites) {
+          writes = new ArrayList<>(pendingWrites);
+          pendingWrites.clear();
+        }
+        IOException error = null;
+        try {
+          writeBatch(writes);
+        } catch (IOException e) {
+          error = e;
+        }
+        for (PendingWrite w : writes) {
+          w.error = error;
+          w.done = true;
+        }
+      }
+    } finally {
+      writeLock.unlock();
+    }
+    if (write.error != null) {
+      throw write.error;
+    }
+  }
+
+  private void writeBatch(List<PendingWrite> writes) throws IOException {
+    // All the mutations of a multi row mutation have the same sequence id, so we can not write two
+    // mutations for the same procedure, only keep the last one, which has the newest state.
+    Map<byte[], Mutation> rowToMutation = new TreeMap<>(Bytes.BYTES_COMPARATOR);
+    for (PendingWrite w : writes) {
+      for (Mutation mutation : w.mutations) {
+        rowToMutation.put(mutation.getRow(), mutation);
+      }
+    }
+    List<Mutation> mutations = new ArrayList<>(rowToMutation.values());
+    List<byte[]> rowsToLock = new ArrayList<>(rowToMutation.keySet());
+    writeCount.increment();
+    region.update(r -> r.mutateRowsWithLocks(mutations, rowsToLock, NO_NONCE, NO_NONCE));
   }
 
   @Override
@@ -309,13 +389,12 @@ public class RegionProcedureStore extends ProcedureStoreBase {
       return;
     }
     List<Mutation> mutations = new ArrayList<>(subProcs.length + 1);
-    List<byte[]> rowsToLock = new ArrayList<>(subProcs.length + 1);
     try {
-      serializePut(proc, mutations, rowsToLock);
+      serializePut(proc, mutations);
       for (Procedure<?> subProc : subProcs) {
-        serializePut(subProc, mutations, rowsToLock);
+        serializePut(subProc, mutations);
       }
-      region.update(r -> r.mutateRowsWithLocks(mutations, rowsToLock, NO_NONCE, NO_NONCE));
+      write(mutations);
     } catch (IOException e) {
       LOG.error(HBaseMarkers.FATAL, "Failed to insert proc {}, sub procs {}", proc,
         Arrays.toString(subProcs), e);
@@ -326,12 +405,11 @@ public class RegionProcedureStore extends ProcedureStoreBase {
   @Override
   public void insert(Procedure<?>[] procs) {
     List<Mutation> mutations = new ArrayList<>(procs.length);
-    List<byte[]> rowsToLock = new ArrayList<>(procs.length);
     try {
       for (Procedure<?> proc : procs) {
-        serializePut(proc, mutations, rowsToLock);
+        serializePut(proc, mutations);
       }
-      region.update(r -> r.mutateRowsWithLocks(mutations, rowsToLock, NO_NONCE, NO_NONCE));
+      write(mutations);
     } catch (IOException e) {
       LOG.error(HBaseMarkers.FATAL, "Failed to insert procs {}", Arrays.toString(procs), e);
       throw new UncheckedIOException(e);
@@ -340,10 +418,10 @@ public class RegionProcedureStore extends ProcedureStoreBase {
 
   @Override
   public void update(Procedure<?> proc) {
+    List<Mutation> mutations = new ArrayList<>(1);
     try {
-      ProcedureProtos.Procedure proto = ProcedureUtil.convertToProtoProcedure(proc);
-      region.update(r -> r.put(new Put(Bytes.toBytes(proc.getProcId())).addColumn(PROC_FAMILY,
-        PROC_QUALIFIER, proto.toByteArray())));
+      serializePut(proc, mutations);
+      write(mutations);
     } catch (IOException e) {
       LOG.error(HBaseMarkers.FATAL, "Failed to update proc {}", proc, e);
       throw new UncheckedIOException(e);
@@ -352,9 +430,10 @@ public class RegionProcedureStore extends ProcedureStoreBase {
 
   @Override
   public void delete(long procId) {
+    List<Mutation> mutations = new ArrayList<>(1);
+    serializeDelete(procId, mutations);
     try {
-      region.update(r -> r.put(
-        new Put(Bytes.toBytes(procId)).addColumn(PROC_FAMILY, PROC_QUALIFIER, EMPTY_BYTE_ARRAY)));
+      write(mutations);
     } catch (IOException e) {
       LOG.error(HBaseMarkers.FATAL, "Failed to delete pid={}", procId, e);
       throw new UncheckedIOException(e);
@@ -364,13 +443,12 @@ public class RegionProcedureStore extends ProcedureStoreBase {
   @Override
   public void delete(Procedure<?> parentProc, long[] subProcIds) {
     List<Mutation> mutations = new ArrayList<>(subProcIds.length + 1);
-    List<byte[]> rowsToLock = new ArrayList<>(subProcIds.length + 1);
     try {
-      serializePut(parentProc, mutations, rowsToLock);
+      serializePut(parentProc, mutations);
       for (long subProcId : subProcIds) {
-        serializeDelete(subProcId, mutations, rowsToLock);
+        serializeDelete(subProcId, mutations);
       }
-      region.update(r -> r.mutateRowsWithLocks(mutations, rowsToLock, NO_NONCE, NO_NONCE));
+      write(mutations);
     } catch (IOException e) {
       LOG.error(HBaseMarkers.FATAL, "Failed to delete parent proc {}, sub pids={}", parentProc,
         Arrays.toString(subProcIds), e);
@@ -383,24 +461,35 @@ public class RegionProcedureStore extends ProcedureStoreBase {
     if (count == 0) {
       return;
     }
-    if (count == 1) {
-      delete(procIds[offset]);
-      return;
-    }
     List<Mutation> mutations = new ArrayList<>(count);
-    List<byte[]> rowsToLock = new ArrayList<>(count);
     for (int i = 0; i < count; i++) {
       long procId = procIds[offset + i];
-      serializeDelete(procId, mutations, rowsToLock);
+      serializeDelete(procId, mutations);
     }
     try {
-      region.update(r -> r.mutateRowsWithLocks(mutations, rowsToLock, NO_NONCE, NO_NONCE));
+      write(mutations);
     } catch (IOException e) {
       LOG.error(HBaseMarkers.FATAL, "Failed to delete pids={}", Arrays.toString(procIds), e);
       throw new UncheckedIOException(e);
     }
   }
 
+  /**
+   * Returns the number of procedure updates, i.e, inserts, updates and deletes, written.
+   */
+  public long getUpdateCount() {
+    return updateCount.sum();
+  }
+
+  /**
+   * Returns the number of writes to the master region done for the procedure updates. Every write
+   * carries the concurrent procedure updates, so it is less than {@link #getUpdateCount()} under
+   * load.
+   */
+  public long getWriteCount() {
+    return writeCount.sum();
+  }
+
   @Override
   public void cleanup() {
     // actually delete the procedures if it is not the one with the max procedure id.
@@ -86,6 +86,15 @@ public class CompactSplit implements CompactionRequester, PropagatingConfigurati
   public static final String HBASE_REGION_SERVER_ENABLE_COMPACTION =
     "hbase.regionserver.compaction.enabled";
 
+  /**
+   * Whether queued compactions of the same priority are ordered by the store file reads they would
+   * save per compacted byte, see {@link HStore#getReadAmplificationScore()}, instead of by the time
+   * they were requested.
+   */
+  public static final String READ_AMPLIFICATION_ORDERING_KEY =
+    "hbase.regionserver.compaction.read.amplification.ordering";
+  public static final boolean DEFAULT_READ_AMPLIFICATION_ORDERING = false;
+
   private final HRegionServer server;
   private final Configuration conf;
   private volatile ThreadPoolExecutor longCompactions;
@@ -96,6 +105,7 @@ public class CompactSplit implements CompactionRequester, PropagatingConfigurati
   private volatile Set<String> underCompactionStores = ConcurrentHashMap.newKeySet();
 
   private volatile boolean compactionsEnabled;
+  private volatile boolean readAmplificationOrdering;
   /**
    * Splitting should not take place if the total number of regions exceed this. This is not a hard
    * limit to the number of regions but it is a guideline to stop splitting after number of online
@@ -107,6 +117,8 @@ public class CompactSplit implements CompactionRequester, PropagatingConfigurati
     this.server = server;
     this.conf = server.getConfiguration();
     this.compactionsEnabled = this.conf.getBoolean(HBASE_REGION_SERVER_ENABLE_COMPACTION, true);
+    this.readAmplificationOrdering =
+      this.conf.getBoolean(READ_AMPLIFICATION_ORDERING_KEY, DEFAULT_READ_AMPLIFICATION_ORDERING);
     createCompactionExecutors();
     createSplitExcecutors();
 
@@ -120,6 +132,8 @@ public class CompactSplit implements CompactionRequester, PropagatingConfigurati
     this.server = null;
     this.conf = conf;
     this.compactionsEnabled = this.conf.getBoolean(HBASE_REGION_SERVER_ENABLE_COMPACTION, true);
+    this.readAmplificationOrdering =
+      this.conf.getBoolean(READ_AMPLIFICATION_ORDERING_KEY, DEFAULT_READ_AMPLIFICATION_ORDERING);
     createCompactionExecutors();
     createSplitExcecutors();
   }
@@ -569,6 +583,11 @@ public class CompactSplit implements CompactionRequester, PropagatingConfigurati
       if (cmp != 0) {
         return cmp;
       }
+      // larger gain first, all gains are 0 unless read amplification ordering is enabled
+      cmp = Double.compare(o2.queuedReadGain, o1.queuedReadGain);
+      if (cmp != 0) {
+        return cmp;
+      }
       CompactionContext c1 = o1.compaction;
       CompactionContext c2 = o2.compaction;
       if (c1 != null) {
@@ -586,6 +605,8 @@ public class CompactSplit implements CompactionRequester, PropagatingConfigurati
     private final CompactionLifeCycleTracker tracker;
     private final CompactionCompleteTracker completeTracker;
     private int queuedPriority;
+    // store file reads per second saved per compacted MB, fixed while queued to keep the order
+    private final double queuedReadGain;
     private ThreadPoolExecutor parent;
     private User user;
     private long time;
@@ -600,11 +621,19 @@ public class CompactSplit implements CompactionRequester, PropagatingConfigurati
       this.completeTracker = completeTracker;
       this.queuedPriority =
         compaction != null ? compaction.getRequest().getPriority() : store.getCompactPriority();
+      this.queuedReadGain = readAmplificationOrdering ? getReadGain(store, compaction) : 0;
       this.parent = parent;
       this.user = user;
       this.time = EnvironmentEdgeManager.currentTime();
     }
 
+    private double getReadGain(HStore store, CompactionContext compaction) {
+      // Without a selection yet, assume the whole store gets compacted.
+      long bytes =
+        compaction != null ? compaction.getRequest().getSize() : store.getStorefilesSize();
+      return store.getReadAmplificationScore() / Math.max(1, bytes >> 20);
+    }
+
     @Override
     public String toString() {
       if (compaction != null) {
@@ -794,6 +823,14 @@ public class CompactSplit implements CompactionRequester, PropagatingConfigurati
     this.compactionThroughputController =
       CompactionThroughputControllerFactory.create(server, newConf);
 
+    boolean readAmplificationOrdering =
+      newConf.getBoolean(READ_AMPLIFICATION_ORDERING_KEY, DEFAULT_READ_AMPLIFICATION_ORDERING);
+    if (this.readAmplificationOrdering != readAmplificationOrdering) {
+      LOG.info("Changing the value of " + READ_AMPLIFICATION_ORDERING_KEY + " from "
+        + this.readAmplificationOrdering + " to " + readAmplificationOrdering);
+      this.readAmplificationOrdering = readAmplificationOrdering;
+    }
+
     // We change this atomically here instead of reloading the config in order that upstream
     // would be the only one with the flexibility to reload the config.
     this.conf.reloadConfiguration();
@@ -119,6 +119,15 @@ public class CompositeImmutableSegment extends ImmutableSegment {
     return list;
   }
 
+  @Override
+  public List<ExtendedCell> getRangeTombstones() {
+    List<ExtendedCell> tombstones = new ArrayList<>();
+    for (ImmutableSegment s : segments) {
+      tombstones.addAll(s.getRangeTombstones());
+    }
+    return tombstones;
+  }
+
   @Override
   public boolean isTagsPresent() {
     for (ImmutableSegment s : segments) {
@@ -139,6 +139,7 @@ import org.apache.hadoop.hbase.io.HFileLink;
 import org.apache.hadoop.hbase.io.HeapSize;
 import org.apache.hadoop.hbase.io.TimeRange;
 import org.apache.hadoop.hbase.io.hfile.BlockCache;
+import org.apache.hadoop.hbase.io.hfile.BlockCacheKey;
 import org.apache.hadoop.hbase.io.hfile.CombinedBlockCache;
 import org.apache.hadoop.hbase.io.hfile.HFile;
 import org.apache.hadoop.hbase.io.hfile.bucket.BucketCache;
@@ -295,6 +296,15 @@ public class HRegion implements HeapSize, PropagatingConfigurationObserver, Regi
 
   public static final boolean DEFAULT_USE_META_CELL_COMPARATOR = false;
 
+  /**
+   * Whether to accept range deletes, see {@link Delete#addFamilyRange(byte[], byte[])}. Their
+   * DeleteRange markers can not be read from the WALs and store files by servers which predate
+   * them, so they must only be enabled once all the servers of the cluster support them.
+   */
+  public static final String RANGE_DELETE_ENABLED_KEY = "hbase.regionserver.range.delete.enabled";
+
+  public static final boolean DEFAULT_RANGE_DELETE_ENABLED = false;
+
   final AtomicBoolean closed = new AtomicBoolean(false);
 
   /*
@@ -439,6 +449,8 @@ public class HRegion implements HeapSize, PropagatingConfigurationObserver, Regi
    */
   private boolean isLoadingCfsOnDemandDefault = false;
 
+  private final boolean rangeDeleteEnabled;
+
   private final AtomicInteger majorInProgress = new AtomicInteger(0);
   private final AtomicInteger minorInProgress = new AtomicInteger(0);
 
@@ -830,6 +842,8 @@ public class HRegion implements HeapSize, PropagatingConfigurationObserver, Regi
     this.smallestReadPointCalcLock = new ReadPointCalculationLock(conf);
 
     this.isLoadingCfsOnDemandDefault = conf.getBoolean(LOAD_CFS_ON_DEMAND_CONFIG_KEY, true);
+    this.rangeDeleteEnabled =
+      conf.getBoolean(RANGE_DELETE_ENABLED_KEY, DEFAULT_RANGE_DELETE_ENABLED);
     this.htableDescriptor = htd;
     Set<byte[]> families = this.htableDescriptor.getColumnFamilyNames();
     for (byte[] family : families) {
@@ -1015,6 +1029,7 @@ public class HRegion implements HeapSize, PropagatingConfigurationObserver, Regi
 
   private long initializeRegionInternals(final CancelableProgressable reporter,
     final MonitoredTask status) throws IOException {
+    long openStartTime = EnvironmentEdgeManager.currentTime();
     if (coprocessorHost != null) {
       status.setStatus("Running coprocessor pre-open hook");
       coprocessorHost.preOpen();
@@ -1032,8 +1047,11 @@ public class HRegion implements HeapSize, PropagatingConfigurationObserver, Regi
 
     // Initialize all the HStores
     status.setStatus("Initializing all the Stores");
+    long storeInitStartTime = EnvironmentEdgeManager.currentTime();
     long maxSeqId = initializeStores(reporter, status);
+    long storeInitTime = EnvironmentEdgeManager.currentTime() - storeInitStartTime;
     this.mvcc.advanceTo(maxSeqId);
+    long replayStartTime = EnvironmentEdgeManager.currentTime();
     if (!isRestoredRegion && ServerRegionReplicaUtil.shouldReplayRecoveredEdits(this)) {
       Collection<HStore> stores = this.stores.values();
       try {
@@ -1053,6 +1071,7 @@ public class HRegion implements HeapSize, PropagatingConfigurationObserver, Regi
         stores.forEach(HStore::stopReplayingFromWAL);
       }
     }
+    long replayTime = EnvironmentEdgeManager.currentTime() - replayStartTime;
     this.lastReplayedOpenRegionSeqId = maxSeqId;
 
     this.writestate.setReadOnly(ServerRegionReplicaUtil.isReadOnly(this));
@@ -1114,8 +1133,13 @@ public class HRegion implements HeapSize, PropagatingConfigurationObserver, Regi
       initializeRegionReplicationSink(reporter, status);
     }
 
-    LOG.info("Opened {}; next sequenceid={}; {}, {}", this.getRegionInfo().getShortNameToLog(),
-      nextSeqId, this.splitPolicy, this.flushPolicy);
+    long openTime = EnvironmentEdgeManager.currentTime() - openStartTime;
+    LOG.info("Opened {}; next sequenceid={}; {}, {}; took {} ms ({} ms initializing stores, {} ms"
+      + " replaying edits)", this.getRegionInfo().getShortNameToLog(), nextSeqId, this.splitPolicy,
+      this.flushPolicy, openTime, storeInitTime, replayTime);
+    if (rsServices != null && rsServices.getMetrics() != null) {
+      rsServices.getMetrics().updateRegionOpen(openTime, storeInitTime, replayTime);
+    }
 
     // A region can be reopened if failed a split; reset flags
     this.closing.set(false);
@@ -3294,6 +3318,48 @@ public class HRegion implements HeapSize, PropagatingConfigurationObserver, Regi
         }
         checkFamily(family, delete.getDurability());
       }
+      for (Map.Entry<byte[], List<Cell>> e : delete.getFamilyCellMap().entrySet()) {
+        for (Cell cell : e.getValue()) {
+          if (cell.getType() == Cell.Type.DeleteRange) {
+            checkRangeDelete(e.getKey(), cell);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * A range delete must end within this region, and is only supported by stores which keep a
+   * single sorted run of files for the whole region. It is rejected unless enabled, and on the
+   * families replicated to other clusters, which may not support it.
+   */
+  private void checkRangeDelete(byte[] family, Cell cell) throws IOException {
+    if (!rangeDeleteEnabled) {
+      throw new DoNotRetryIOException(
+        "Range deletes are not enabled, see " + RANGE_DELETE_ENABLED_KEY);
+    }
+    if (getTableDescriptor().getColumnFamily(family).getScope() != REPLICATION_SCOPE_LOCAL) {
+      throw new DoNotRetryIOException("Range deletes are not supported on replicated family "
+        + Bytes.toString(family) + " of " + getTableDescriptor().getTableName());
+    }
+    byte[] stopRow = CellUtil.cloneValue(cell);
+    if (Bytes.compareTo(stopRow, 0, stopRow.length, cell.getRowArray(), cell.getRowOffset(),
+      cell.getRowLength()) <= 0) {
+      throw new DoNotRetryIOException("Range delete stop row " + Bytes.toStringBinary(stopRow)
+        + " is not after its start row " + Bytes.toStringBinary(CellUtil.cloneRow(cell)));
+    }
+    byte[] endKey = getRegionInfo().getEndKey();
+    if (endKey.length > 0 && Bytes.compareTo(stopRow, endKey) > 0) {
+      throw new DoNotRetryIOException("Range delete stop row " + Bytes.toStringBinary(stopRow)
+        + " is beyond the end of region " + getRegionInfo().getRegionNameAsString());
+    }
+    if (getRegionInfo().isMetaRegion()) {
+      throw new DoNotRetryIOException("Range deletes are not supported on " + getTableDescriptor()
+        .getTableName());
+    }
+    if (stores.get(family).getStoreEngine() instanceof StripeStoreEngine) {
+      throw new DoNotRetryIOException("Range deletes are not supported by the stripe store engine,"
+        + " family " + Bytes.toString(family));
     }
   }
 
@@ -4511,6 +4577,14 @@ public class HRegion implements HeapSize, PropagatingConfigurationObserver, Regi
             // There were some Appends in the batch.
             region.metricsRegion.updateAppend();
           }
+          if (region.metricsRegion.isSamplingWrittenRows()) {
+            visitBatchOperations(false, miniBatchOp.getLastIndexExclusive(), (int i) -> {
+              if (retCodeDetails[i].getOperationStatusCode() == OperationStatusCode.SUCCESS) {
+                region.metricsRegion.updateWrittenRow(getMutation(i).getRow());
+              }
+              return true;
+            });
+          }
         }
       }
 
@@ -7934,7 +8008,35 @@ public class HRegion implements HeapSize, PropagatingConfigurationObserver, Regi
   public static HRegion warmupHRegion(final RegionInfo info, final TableDescriptor htd,
     final WAL wal, final Configuration conf, final RegionServerServices rsServices,
     final CancelableProgressable reporter) throws IOException {
+    HRegion r = newWarmupHRegion(info, htd, wal, conf, rsServices);
+    r.initializeWarmup(reporter);
+    r.close();
+    return r;
+  }
 
+  /**
+   * Warms up the region like {@link #warmupHRegion(RegionInfo, TableDescriptor, WAL,
+   * Configuration, RegionServerServices, CancelableProgressable)}, and also reads the given blocks
+   * of its store files into the block cache, see {@link RegionCacheWarmer}.
+   */
+  public static RegionCacheWarmer.PrefetchResult warmupHRegion(final RegionInfo info,
+    final TableDescriptor htd, final WAL wal, final Configuration conf,
+    final RegionServerServices rsServices, final CancelableProgressable reporter,
+    final BlockCache blockCache, final Collection<BlockCacheKey> blocks) throws IOException {
+    HRegion r = newWarmupHRegion(info, htd, wal, conf, rsServices);
+    // so the store files read through the block cache of the region server
+    r.setBlockCache(blockCache);
+    try {
+      r.initializeWarmup(reporter);
+      return RegionCacheWarmer.prefetchBlocks(r, blockCache, blocks);
+    } finally {
+      r.close();
+    }
+  }
+
+  private static HRegion newWarmupHRegion(final RegionInfo info, final TableDescriptor htd,
+    final WAL wal, final Configuration conf, final RegionServerServices rsServices)
+    throws IOException {
     Objects.requireNonNull(info, "RegionInfo cannot be null");
     LOG.debug("Warmup {}", info);
     Path rootDir = CommonFSUtils.getRootDir(conf);
@@ -7946,10 +8048,7 @@ public class HRegion implements HeapSize, PropagatingConfigurationObserver, Regi
     if (fs == null) {
       fs = rootDir.getFileSystem(conf);
     }
-    HRegion r = HRegion.newHRegion(tableDir, wal, fs, conf, info, htd, null);
-    r.initializeWarmup(reporter);
-    r.close();
-    return r;
+    return HRegion.newHRegion(tableDir, wal, fs, conf, info, htd, null);
   }
 
   /**
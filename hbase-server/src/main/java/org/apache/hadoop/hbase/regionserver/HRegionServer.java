@@ -1645,6 +1645,11 @@ public class HRegionServer extends HBaseServerBase<RSRpcServices>
       .setCompactionState(ProtobufUtil.createCompactionStateForRegionLoad(r.getCompactionState()))
       .setLastMajorCompactionTs(r.getOldestHfileTs(true)).setRegionSizeMB(regionSizeMB)
       .setCurrentRegionCachedRatio(currentRegionCachedRatio.floatValue());
+    MetricsRegion metricsRegion = r.getMetrics();
+    if (metricsRegion != null) {
+      regionLoadBldr.setReadLatencyP99Ms(metricsRegion.getReadLatencyP99())
+        .setWriteLatencyP99Ms(metricsRegion.getWriteLatencyP99());
+    }
     r.setCompleteSequenceId(regionLoadBldr);
     return regionLoadBldr.build();
   }
@@ -1893,8 +1898,11 @@ public class HRegionServer extends HBaseServerBase<RSRpcServices>
 
     // Start executor services
     final int openRegionThreads = conf.getInt("hbase.regionserver.executor.openregion.threads", 3);
+    // The opens are ordered by the priority of their table and the past traffic of their region,
+    // see AssignRegionHandler#getPriority
     executorService.startExecutorService(executorService.new ExecutorConfig()
-      .setExecutorType(ExecutorType.RS_OPEN_REGION).setCorePoolSize(openRegionThreads));
+      .setExecutorType(ExecutorType.RS_OPEN_REGION).setCorePoolSize(openRegionThreads)
+      .setPrioritized(true));
     final int openMetaThreads = conf.getInt("hbase.regionserver.executor.openmeta.threads", 1);
     executorService.startExecutorService(executorService.new ExecutorConfig()
       .setExecutorType(ExecutorType.RS_OPEN_META).setCorePoolSize(openMetaThreads));
@@ -1902,7 +1910,7 @@ public class HRegionServer extends HBaseServerBase<RSRpcServices>
       conf.getInt("hbase.regionserver.executor.openpriorityregion.threads", 3);
     executorService.startExecutorService(
       executorService.new ExecutorConfig().setExecutorType(ExecutorType.RS_OPEN_PRIORITY_REGION)
-        .setCorePoolSize(openPriorityRegionThreads));
+        .setCorePoolSize(openPriorityRegionThreads).setPrioritized(true));
     final int closeRegionThreads =
       conf.getInt("hbase.regionserver.executor.closeregion.threads", 3);
     executorService.startExecutorService(executorService.new ExecutorConfig()
@@ -1972,6 +1980,10 @@ public class HRegionServer extends HBaseServerBase<RSRpcServices>
     final int logRollThreads = conf.getInt("hbase.regionserver.executor.log.roll.threads", 1);
     executorService.startExecutorService(executorService.new ExecutorConfig()
       .setExecutorType(ExecutorType.RS_LOG_ROLL).setCorePoolSize(logRollThreads));
+    final int regionWarmupThreads =
+      conf.getInt("hbase.regionserver.executor.region.warmup.threads", 1);
+    executorService.startExecutorService(executorService.new ExecutorConfig()
+      .setExecutorType(ExecutorType.RS_REGION_WARMUP).setCorePoolSize(regionWarmupThreads));
 
     Threads.setDaemonThreadRunning(this.walRoller, getName() + ".logRoller",
       uncaughtExceptionHandler);
@@ -164,6 +164,10 @@ public class HStore
   private LongAdder memstoreOnlyRowReadsCount = new LongAdder();
   // rows that has cells from both memstore and files (or only files)
   private LongAdder mixedRowReadsCount = new LongAdder();
+  // user scans, and the store files they had to read, since the last compaction of this store
+  private final LongAdder userScansSinceCompaction = new LongAdder();
+  private final LongAdder filesScannedSinceCompaction = new LongAdder();
+  private volatile long readAmplificationSince = EnvironmentEdgeManager.currentTime();
 
   /**
    * Lock specific to archiving compacted store files. This avoids races around the combination of
@@ -1207,6 +1211,7 @@ public class HStore
       }
     }
     replaceStoreFiles(filesToCompact, sfs, true);
+    resetReadAmplification();
 
     long outputBytes = getTotalSize(sfs);
 
@@ -1850,6 +1855,24 @@ public class HStore
       sf -> true);
   }
 
+  /**
+   * Returns the size of the store files per storage policy. Files written without a storage policy
+   * of their own are counted under the policy of the family.
+   */
+  public Map<String, Long> getStorefilesSizeByStoragePolicy() {
+    String familyPolicy = getColumnFamilyDescriptor().getStoragePolicy();
+    if (familyPolicy == null) {
+      familyPolicy = conf.get(BLOCK_STORAGE_POLICY_KEY, DEFAULT_BLOCK_STORAGE_POLICY);
+    }
+    Map<String, Long> sizes = new HashMap<>();
+    for (HStoreFile file : this.storeEngine.getStoreFileManager().getStoreFiles()) {
+      String policy = file.getStoragePolicy();
+      sizes.merge(policy != null ? policy : familyPolicy.trim(),
+        StoreUtils.getStorefileFieldSize(file, StoreFileReader::length), Long::sum);
+    }
+    return sizes;
+  }
+
   @Override
   public long getHFilesSize() {
     // Include only StoreFiles which are HFiles
@@ -2461,6 +2484,39 @@ public class HStore
     return new ReadOnlyConfiguration(this.conf);
   }
 
+  /**
+   * Records a user scan of this store, Gets included, that had to read {@code filesScanned} store
+   * files.
+   */
+  void updateReadAmplification(int filesScanned) {
+    userScansSinceCompaction.increment();
+    filesScannedSinceCompaction.add(filesScanned);
+  }
+
+  private void resetReadAmplification() {
+    readAmplificationSince = EnvironmentEdgeManager.currentTime();
+    userScansSinceCompaction.reset();
+    filesScannedSinceCompaction.reset();
+  }
+
+  /**
+   * Returns how many store file reads per second a compaction of this store could save, based on
+   * the user scans since the last compaction: the average number of store files read per scan
+   * beyond the first, times the scan rate. A store that is read often and has to merge many files
+   * for each read scores high, a store that is never read scores 0.
+   */
+  public double getReadAmplificationScore() {
+    long scans = userScansSinceCompaction.sum();
+    if (scans == 0) {
+      return 0;
+    }
+    double extraFilesPerScan =
+      Math.max(0, (double) filesScannedSinceCompaction.sum() / scans - 1);
+    long elapsedMs =
+      Math.max(1000, EnvironmentEdgeManager.currentTime() - readAmplificationSince);
+    return extraFilesPerScan * scans * 1000 / elapsedMs;
+  }
+
   void updateMetricsStore(boolean memstoreRead) {
     if (memstoreRead) {
       memstoreOnlyRowReadsCount.increment();
@@ -98,6 +98,12 @@ public class HStoreFile implements StoreFile {
   /** Delete Family Count in FileInfo */
   public static final byte[] DELETE_FAMILY_COUNT = Bytes.toBytes("DELETE_FAMILY_COUNT");
 
+  /** Range Tombstone Count in FileInfo */
+  public static final byte[] RANGE_TOMBSTONE_COUNT = Bytes.toBytes("RANGE_TOMBSTONE_COUNT");
+
+  /** Name of the meta block holding the range tombstones of a store file */
+  public static final String RANGE_TOMBSTONE_BLOCK_KEY = "RANGE_TOMBSTONES";
+
   /** Last Bloom filter key in FileInfo */
   public static final byte[] LAST_BLOOM_KEY = Bytes.toBytes("LAST_BLOOM_KEY");
 
@@ -128,6 +134,9 @@ public class HStoreFile implements StoreFile {
 
   public static final byte[] HISTORICAL_KEY = Bytes.toBytes("HISTORICAL");
 
+  /** Key for the storage policy the store file was written with, if it was given one */
+  public static final byte[] STORAGE_POLICY_KEY = Bytes.toBytes("STORAGE_POLICY");
+
   private final StoreFileInfo fileInfo;
 
   // StoreFile.Reader
@@ -340,6 +349,15 @@ public class HStoreFile implements StoreFile {
     return metadataMap.get(key);
   }
 
+  /**
+   * Returns the storage policy this file was written with, or null if it was written without one
+   * of its own, i.e. with the policy of its family.
+   */
+  public String getStoragePolicy() {
+    byte[] policy = getMetadataValue(STORAGE_POLICY_KEY);
+    return policy != null ? Bytes.toString(policy) : null;
+  }
+
   @Override
   public boolean isBulkLoadResult() {
     return StoreFileInfo.hasBulkloadSeqId(this.getPath())
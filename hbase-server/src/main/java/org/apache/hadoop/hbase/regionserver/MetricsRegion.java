@@ -17,8 +17,15 @@
  */
 package org.apache.hadoop.hbase.regionserver;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hbase.CompatibilitySingletonFactory;
+import org.apache.hadoop.hbase.metrics.Snapshot;
+import org.apache.hadoop.hbase.metrics.impl.FastLongHistogram;
+import org.apache.hadoop.hbase.util.EnvironmentEdgeManager;
+import org.apache.hadoop.hbase.util.ReservoirSample;
 import org.apache.yetus.audience.InterfaceAudience;
 
 /**
@@ -27,15 +34,57 @@ import org.apache.yetus.audience.InterfaceAudience;
  */
 @InterfaceAudience.Private
 public class MetricsRegion {
+  /**
+   * The length of the window the read and write latency percentiles reported to the master in
+   * RegionLoad are computed over.
+   */
+  public static final String LATENCY_WINDOW_MS_KEY =
+    "hbase.regionserver.metrics.region.latency.window.ms";
+  public static final long DEFAULT_LATENCY_WINDOW_MS = 60000;
+
+  // far less than the default, as there is one histogram per region instead of one per server
+  private static final int LATENCY_HISTOGRAM_BINS = 20;
+
+  private static final double[] LATENCY_QUANTILES = new double[] { 0.99 };
+
+  // the time constant of the exponentially weighted growth history, the weight of a rate measured
+  // this long ago has decayed to 1/e
+  static final long GROWTH_HISTORY_TIME_CONSTANT_MS = 600000;
+
   private final MetricsRegionSource source;
   private final MetricsUserAggregate userAggregate;
   private MetricsRegionWrapper regionWrapper;
 
+  private final long latencyWindowMs;
+  private final FastLongHistogram readLatency = new FastLongHistogram(LATENCY_HISTOGRAM_BINS);
+  private final FastLongHistogram writeLatency = new FastLongHistogram(LATENCY_HISTOGRAM_BINS);
+  // the percentiles of the last completed window, guarded by the object lock
+  private long latencyWindowStart;
+  private long readLatencyP99;
+  private long writeLatencyP99;
+
+  // the exponentially weighted size growth and write request rates, guarded by growthHistoryLock
+  private final Object growthHistoryLock = new Object();
+  private long lastGrowthUpdateTime = -1;
+  private long lastSize;
+  private long lastWriteRequestCount;
+  private boolean hasGrowthRates;
+  private double sizeGrowthRate;
+  private double writeRequestRate;
+
+  // a sample of the rows written to the region, only when a split policy asks for it, see
+  // startSamplingWrittenRows. Guarded by writtenRowsLock, ReservoirSample is not thread safe
+  private final Object writtenRowsLock = new Object();
+  private volatile ReservoirSample<byte[]> writtenRows;
+  private int writtenRowsSampleInterval;
+
   public MetricsRegion(final MetricsRegionWrapper wrapper, Configuration conf) {
     source = CompatibilitySingletonFactory.getInstance(MetricsRegionServerSourceFactory.class)
       .createRegion(wrapper);
     this.regionWrapper = wrapper;
     userAggregate = MetricsUserAggregateFactory.getMetricsUserAggregate(conf);
+    latencyWindowMs = conf.getLong(LATENCY_WINDOW_MS_KEY, DEFAULT_LATENCY_WINDOW_MS);
+    latencyWindowStart = EnvironmentEdgeManager.currentTime();
   }
 
   public void close() {
@@ -81,4 +130,151 @@ public class MetricsRegion {
   public void updateReadRequestCount() {
     userAggregate.updateReadRequestCount();
   }
+
+  /**
+   * Record the time in milliseconds a get or a scan next call on this region took.
+   */
+  public void updateReadLatency(long t) {
+    readLatency.add(t, 1);
+  }
+
+  /**
+   * Record the time in milliseconds a mutation on this region took.
+   */
+  public void updateWriteLatency(long t) {
+    writeLatency.add(t, 1);
+  }
+
+  /**
+   * Returns the 99th percentile of the read latency in the last completed window, or 0 if there
+   * were no reads.
+   */
+  public synchronized long getReadLatencyP99() {
+    rollLatencyWindow();
+    return readLatencyP99;
+  }
+
+  /**
+   * Returns the 99th percentile of the write latency in the last completed window, or 0 if there
+   * were no writes.
+   */
+  public synchronized long getWriteLatencyP99() {
+    rollLatencyWindow();
+    return writeLatencyP99;
+  }
+
+  private void rollLatencyWindow() {
+    long now = EnvironmentEdgeManager.currentTime();
+    if (now - latencyWindowStart < latencyWindowMs) {
+      return;
+    }
+    latencyWindowStart = now;
+    readLatencyP99 = getP99(readLatency.snapshotAndReset());
+    writeLatencyP99 = getP99(writeLatency.snapshotAndReset());
+  }
+
+  /**
+   * Record the current size and write request count of the region. Called periodically, the
+   * differences to the previous call are used to maintain exponentially weighted growth rates.
+   */
+  public void updateGrowthHistory(long size, long writeRequestCount) {
+    long now = EnvironmentEdgeManager.currentTime();
+    synchronized (growthHistoryLock) {
+      if (lastGrowthUpdateTime >= 0) {
+        long elapsed = now - lastGrowthUpdateTime;
+        if (elapsed <= 0) {
+          return;
+        }
+        double seconds = elapsed / 1000.0;
+        double currentSizeGrowthRate = (size - lastSize) / seconds;
+        double currentWriteRequestRate = (writeRequestCount - lastWriteRequestCount) / seconds;
+        if (hasGrowthRates) {
+          // the longer since the last update, the more weight the current rates get
+          double alpha = 1 - Math.exp(-(double) elapsed / GROWTH_HISTORY_TIME_CONSTANT_MS);
+          sizeGrowthRate += alpha * (currentSizeGrowthRate - sizeGrowthRate);
+          writeRequestRate += alpha * (currentWriteRequestRate - writeRequestRate);
+        } else {
+          sizeGrowthRate = currentSizeGrowthRate;
+          writeRequestRate = currentWriteRequestRate;
+          hasGrowthRates = true;
+        }
+      }
+      lastGrowthUpdateTime = now;
+      lastSize = size;
+      lastWriteRequestCount = writeRequestCount;
+    }
+  }
+
+  /** Returns whether there have been at least two calls to updateGrowthHistory */
+  public boolean hasGrowthHistory() {
+    synchronized (growthHistoryLock) {
+      return hasGrowthRates;
+    }
+  }
+
+  /**
+   * Returns the exponentially weighted growth rate of the region size, in bytes per second. Can be
+   * negative, e.g, after compactions dropped deleted data.
+   */
+  public double getSizeGrowthRate() {
+    synchronized (growthHistoryLock) {
+      return sizeGrowthRate;
+    }
+  }
+
+  /** Returns the exponentially weighted write request rate of the region, in requests per second */
+  public double getWriteRequestRate() {
+    synchronized (growthHistoryLock) {
+      return writeRequestRate;
+    }
+  }
+
+  /**
+   * Start keeping a reservoir sample of the rows written to this region, of at most
+   * {@code sampleSize} rows, out of one in every {@code sampleInterval} rows written on average.
+   */
+  public void startSamplingWrittenRows(int sampleSize, int sampleInterval) {
+    synchronized (writtenRowsLock) {
+      writtenRowsSampleInterval = Math.max(1, sampleInterval);
+      writtenRows = new ReservoirSample<>(sampleSize);
+    }
+  }
+
+  /** Returns whether {@link #updateWrittenRow(byte[])} should be called for the rows written */
+  public boolean isSamplingWrittenRows() {
+    return writtenRows != null;
+  }
+
+  /**
+   * Record a row written to this region, see {@link #startSamplingWrittenRows(int, int)}.
+   */
+  public void updateWrittenRow(byte[] row) {
+    ReservoirSample<byte[]> sample = writtenRows;
+    if (sample == null) {
+      return;
+    }
+    // only take the lock for the rows we sample
+    if (
+      writtenRowsSampleInterval > 1
+        && ThreadLocalRandom.current().nextInt(writtenRowsSampleInterval) != 0
+    ) {
+      return;
+    }
+    synchronized (writtenRowsLock) {
+      sample.add(row);
+    }
+  }
+
+  /** Returns a copy of the sampled written rows, in no particular order */
+  public List<byte[]> getWrittenRowsSample() {
+    synchronized (writtenRowsLock) {
+      return writtenRows != null
+        ? new ArrayList<>(writtenRows.getSamplingResult())
+        : new ArrayList<>();
+    }
+  }
+
+  private static long getP99(Snapshot snapshot) {
+    return snapshot.getCount() > 0 ? snapshot.getQuantiles(LATENCY_QUANTILES)[0] : 0;
+  }
 }
@@ -50,6 +50,9 @@ public class MetricsRegionServer {
   private MetricRegistry metricRegistry;
   private MetricsThrottleExceptions throttleMetrics;
   private Timer bulkLoadTimer;
+  private Timer regionOpenTimer;
+  private Timer regionOpenStoreInitTimer;
+  private Timer regionOpenReplayTimer;
   // Incremented once for each call to Scan#nextRaw
   private Meter serverReadQueryMeter;
   // Incremented per write.
@@ -70,6 +73,9 @@ public class MetricsRegionServer {
 
     // create and use metrics from the new hbase-metrics based registry.
     bulkLoadTimer = metricRegistry.timer("Bulkload");
+    regionOpenTimer = metricRegistry.timer("RegionOpen");
+    regionOpenStoreInitTimer = metricRegistry.timer("RegionOpenStoreInit");
+    regionOpenReplayTimer = metricRegistry.timer("RegionOpenReplay");
 
     slowMetricTime = conf.getLong(SLOW_METRIC_TIME, DEFAULT_SLOW_METRIC_TIME);
     quotaSource = CompatibilitySingletonFactory.getInstance(MetricsRegionServerQuotaSource.class);
@@ -106,6 +112,7 @@ public class MetricsRegionServer {
   }
 
   public void updatePutBatch(HRegion region, long t) {
+    updateWriteLatency(region, t);
     if (region.getMetricsTableRequests() != null) {
       region.getMetricsTableRequests().updatePutBatch(t);
     }
@@ -113,6 +120,7 @@ public class MetricsRegionServer {
   }
 
   public void updatePut(HRegion region, long t) {
+    updateWriteLatency(region, t);
     if (region.getMetricsTableRequests() != null) {
       region.getMetricsTableRequests().updatePut(t);
     }
@@ -124,6 +132,7 @@ public class MetricsRegionServer {
   }
 
   public void updateDelete(HRegion region, long t) {
+    updateWriteLatency(region, t);
     if (region.getMetricsTableRequests() != null) {
       region.getMetricsTableRequests().updateDelete(t);
     }
@@ -135,6 +144,7 @@ public class MetricsRegionServer {
   }
 
   public void updateDeleteBatch(HRegion region, long t) {
+    updateWriteLatency(region, t);
     if (region.getMetricsTableRequests() != null) {
       region.getMetricsTableRequests().updateDeleteBatch(t);
     }
@@ -156,6 +166,7 @@ public class MetricsRegionServer {
   }
 
   public void updateCheckAndMutate(HRegion region, long time, long blockBytesScanned) {
+    updateWriteLatency(region, time);
     if (region.getMetricsTableRequests() != null) {
       region.getMetricsTableRequests().updateCheckAndMutate(time, blockBytesScanned);
     }
@@ -164,6 +175,7 @@ public class MetricsRegionServer {
   }
 
   public void updateGet(HRegion region, long time, long blockBytesScanned) {
+    updateReadLatency(region, time);
     if (region.getMetricsTableRequests() != null) {
       region.getMetricsTableRequests().updateGet(time, blockBytesScanned);
     }
@@ -175,6 +187,7 @@ public class MetricsRegionServer {
   }
 
   public void updateIncrement(HRegion region, long time, long blockBytesScanned) {
+    updateWriteLatency(region, time);
     if (region.getMetricsTableRequests() != null) {
       region.getMetricsTableRequests().updateIncrement(time, blockBytesScanned);
     }
@@ -186,6 +199,7 @@ public class MetricsRegionServer {
   }
 
   public void updateAppend(HRegion region, long time, long blockBytesScanned) {
+    updateWriteLatency(region, time);
     if (region.getMetricsTableRequests() != null) {
       region.getMetricsTableRequests().updateAppend(time, blockBytesScanned);
     }
@@ -196,12 +210,27 @@ public class MetricsRegionServer {
     userAggregate.updateAppend(time, blockBytesScanned);
   }
 
+  private static void updateReadLatency(HRegion region, long t) {
+    MetricsRegion metricsRegion = region.getMetrics();
+    if (metricsRegion != null) {
+      metricsRegion.updateReadLatency(t);
+    }
+  }
+
+  private static void updateWriteLatency(HRegion region, long t) {
+    MetricsRegion metricsRegion = region.getMetrics();
+    if (metricsRegion != null) {
+      metricsRegion.updateWriteLatency(t);
+    }
+  }
+
   public void updateReplay(long t) {
     serverSource.updateReplay(t);
     userAggregate.updateReplay(t);
   }
 
   public void updateScan(HRegion region, long time, long responseCellSize, long blockBytesScanned) {
+    updateReadLatency(region, time);
     if (region.getMetricsTableRequests() != null) {
       region.getMetricsTableRequests().updateScan(time, responseCellSize, blockBytesScanned);
     }
@@ -255,6 +284,18 @@ public class MetricsRegionServer {
     this.bulkLoadTimer.updateMillis(millis);
   }
 
+  /**
+   * Records how long a region took to open, and how much of that went into initializing its stores
+   * and into replaying its recovered edits.
+   */
+  public void updateRegionOpen(long millis, long storeInitMillis, long replayMillis) {
+    if (regionOpenTimer != null) {
+      regionOpenTimer.updateMillis(millis);
+      regionOpenStoreInitTimer.updateMillis(storeInitMillis);
+      regionOpenReplayTimer.updateMillis(replayMillis);
+    }
+  }
+
   /**
    * @see MetricsRegionServerQuotaSource#incrementNumRegionSizeReportsSent(long)
    */
@@ -60,6 +60,8 @@ public class MetricsRegionWrapperImpl implements MetricsRegionWrapper, Closeable
   private long maxCompactionQueueSize;
   private Map<String, Long> readsOnlyFromMemstore;
   private Map<String, Long> mixedReadsOnStore;
+  private Map<String, Double> readAmplificationScores;
+  private Map<String, Long> storeFileSizeByStoragePolicy;
 
   private ScheduledFuture<?> regionMetricsUpdateTask;
 
@@ -250,6 +252,16 @@ public class MetricsRegionWrapperImpl implements MetricsRegionWrapper, Closeable
     return mixedReadsOnStore;
   }
 
+  @Override
+  public Map<String, Double> getReadAmplificationScore() {
+    return readAmplificationScores;
+  }
+
+  @Override
+  public Map<String, Long> getStoreFileSizeByStoragePolicy() {
+    return storeFileSizeByStoragePolicy;
+  }
+
   public class HRegionMetricsWrapperRunnable implements Runnable {
 
     @Override
@@ -266,6 +278,8 @@ public class MetricsRegionWrapperImpl implements MetricsRegionWrapper, Closeable
       long tempMaxFlushQueueSize = 0;
       long avgAgeNumerator = 0;
       long numHFiles = 0;
+      Map<String, Double> tempReadAmplificationScores = new HashMap<>();
+      Map<String, Long> tempStoreFileSizeByStoragePolicy = new HashMap<>();
       if (region.stores != null) {
         for (HStore store : region.stores.values()) {
           tempNumStoreFiles += store.getStorefilesCount();
@@ -320,8 +334,14 @@ public class MetricsRegionWrapperImpl implements MetricsRegionWrapper, Closeable
             tempVal += store.getMemstoreOnlyRowReadsCount();
           }
           readsOnlyFromMemstore.put(store.getColumnFamilyName(), tempVal);
+          tempReadAmplificationScores.put(store.getColumnFamilyName(),
+            store.getReadAmplificationScore());
+          store.getStorefilesSizeByStoragePolicy().forEach(
+            (policy, size) -> tempStoreFileSizeByStoragePolicy.merge(policy, size, Long::sum));
         }
       }
+      readAmplificationScores = tempReadAmplificationScores;
+      storeFileSizeByStoragePolicy = tempStoreFileSizeByStoragePolicy;
       MutableLong regionCachedAmount = new MutableLong(0);
       region.getBlockCache().getRegionCachedInfo().ifPresent(regionCacheRatio -> regionCachedAmount
         .addAndGet(regionCacheRatio.getOrDefault(region.getRegionInfo().getEncodedName(), 0L)));
@@ -354,6 +374,11 @@ public class MetricsRegionWrapperImpl implements MetricsRegionWrapper, Closeable
       if (tempMaxFlushQueueSize > maxFlushQueueSize) {
         maxFlushQueueSize = tempMaxFlushQueueSize;
       }
+      MetricsRegion metricsRegion = region.getMetrics();
+      if (metricsRegion != null) {
+        metricsRegion.updateGrowthHistory(tempMemstoreSize + tempStoreFileSize,
+          region.getWriteRequestsCount());
+      }
     }
   }
 
@@ -26,6 +26,7 @@ import org.apache.hadoop.hbase.ExtendedCell;
 import org.apache.hadoop.hbase.HConstants;
 import org.apache.hadoop.hbase.KeyValue;
 import org.apache.hadoop.hbase.PrivateCellUtil;
+import org.apache.hadoop.hbase.util.Bytes;
 import org.apache.hadoop.hbase.util.ClassSize;
 import org.apache.yetus.audience.InterfaceAudience;
 
@@ -37,9 +38,14 @@ public class MutableSegment extends Segment {
 
   private final AtomicBoolean flushed = new AtomicBoolean(false);
 
-  public final static long DEEP_OVERHEAD =
-    ClassSize.align(Segment.DEEP_OVERHEAD + ClassSize.CONCURRENT_SKIPLISTMAP
-      + ClassSize.SYNC_TIMERANGE_TRACKER + ClassSize.REFERENCE + ClassSize.ATOMIC_BOOLEAN);
+  // the flushed reference may fit in the alignment padding of the fields of Segment, so align the
+  // fields of both classes together
+  private final static long FIELDS_OVERHEAD = ClassSize.align(ClassSize.OBJECT
+    + 8 * ClassSize.REFERENCE + Bytes.SIZEOF_LONG + Bytes.SIZEOF_BOOLEAN);
+
+  public final static long DEEP_OVERHEAD = ClassSize.align(Segment.DEEP_OVERHEAD
+    - Segment.FIXED_OVERHEAD + FIELDS_OVERHEAD + ClassSize.CONCURRENT_SKIPLISTMAP
+    + ClassSize.SYNC_TIMERANGE_TRACKER + ClassSize.ATOMIC_BOOLEAN);
 
   protected MutableSegment(CellSet<ExtendedCell> cellSet, CellComparator comparator,
     MemStoreLAB memStoreLAB, MemStoreSizing memstoreSizing) {
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hbase.regionserver;
+
+import java.util.List;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.HBaseInterfaceAudience;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.util.EnvironmentEdgeManager;
+import org.apache.yetus.audience.InterfaceAudience;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A split policy which, in addition to the size based decisions of {@link SteppingSplitPolicy},
+ * splits a region ahead of time when its exponentially weighted growth rate, as tracked by
+ * {@link MetricsRegion}, forecasts it to go over the max file size within
+ * "hbase.predictive.policy.horizon" milliseconds, or when its write request rate is over
+ * "hbase.predictive.policy.maxWriteRate" requests per second.
+ * <p>
+ * The split point is the median of a reservoir sample of the rows written to the region, so the
+ * daughters share the write load evenly, instead of the midkey of the largest store file which
+ * only balances the data already written. Falls back to the midkey when there are not enough
+ * samples yet.
+ */
+@InterfaceAudience.LimitedPrivate(HBaseInterfaceAudience.CONFIG)
+public class PredictiveSplitPolicy extends SteppingSplitPolicy {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PredictiveSplitPolicy.class);
+
+  // How far ahead in milliseconds the size growth is forecast
+  private long horizon;
+  public static final long DEFAULT_HORIZON_MS = 1800000; // 30 minutes
+
+  // Write requests per second above which the region is split, zero or less disables it
+  private double maxWriteRate;
+  public static final double DEFAULT_MAX_WRITE_RATE = 0;
+
+  // Minimum age of the region in milliseconds before it is considered for a predictive split
+  private long minAge;
+  public static final long DEFAULT_MIN_AGE_MS = 600000; // 10 minutes
+
+  // Number of written rows kept for picking the split point, and how many rows per sampled row
+  private int sampleSize;
+  public static final int DEFAULT_SAMPLE_SIZE = 1000;
+  private int sampleInterval;
+  public static final int DEFAULT_SAMPLE_INTERVAL = 16;
+
+  // Minimum number of sampled rows inside the region to use their median as the split point
+  static final int MIN_SAMPLED_ROWS = 10;
+
+  private MetricsRegion metricsRegion;
+  private long startTime;
+
+  @Override
+  public String toString() {
+    return "PredictiveSplitPolicy{" + "horizon=" + horizon + ", maxWriteRate=" + maxWriteRate
+      + ", minAge=" + minAge + ", sampleSize=" + sampleSize + ", sampleInterval=" + sampleInterval
+      + ", " + super.toString() + '}';
+  }
+
+  @Override
+  protected void configureForRegion(final HRegion region) {
+    super.configureForRegion(region);
+    Configuration conf = getConf();
+    horizon = conf.getLong("hbase.predictive.policy.horizon", DEFAULT_HORIZON_MS);
+    maxWriteRate = conf.getDouble("hbase.predictive.policy.maxWriteRate", DEFAULT_MAX_WRITE_RATE);
+    minAge = conf.getLong("hbase.predictive.policy.minAge", DEFAULT_MIN_AGE_MS);
+    sampleSize = conf.getInt("hbase.predictive.policy.sampleSize", DEFAULT_SAMPLE_SIZE);
+    sampleInterval = conf.getInt("hbase.predictive.policy.sampleInterval", DEFAULT_SAMPLE_INTERVAL);
+
+    if (horizon < 0) {
+      LOG.warn("Forecast horizon is negative: " + horizon + ". Resetting it to default of "
+        + DEFAULT_HORIZON_MS);
+      horizon = DEFAULT_HORIZON_MS;
+    }
+    if (sampleSize < MIN_SAMPLED_ROWS) {
+      LOG.warn("Written rows sample size is too low: " + sampleSize
+        + ". Resetting it to default of " + DEFAULT_SAMPLE_SIZE);
+      sampleSize = DEFAULT_SAMPLE_SIZE;
+    }
+
+    startTime = EnvironmentEdgeManager.currentTime();
+    metricsRegion = region.getMetrics();
+    if (metricsRegion != null) {
+      metricsRegion.startSamplingWrittenRows(sampleSize, sampleInterval);
+    }
+  }
+
+  @Override
+  protected boolean shouldSplit() {
+    if (super.shouldSplit()) {
+      return true;
+    }
+    if (metricsRegion == null || !metricsRegion.hasGrowthHistory()) {
+      return false;
+    }
+    if (EnvironmentEdgeManager.currentTime() < startTime + minAge) {
+      return false;
+    }
+    if (!canSplit()) {
+      return false;
+    }
+
+    long size = 0;
+    for (HStore store : region.getStores()) {
+      size += store.getSize();
+    }
+    double growthRate = metricsRegion.getSizeGrowthRate();
+    double forecastSize = size + Math.max(0, growthRate) * horizon / 1000.0;
+    if (forecastSize > getDesiredMaxFileSize()) {
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("Going to split region " + region.getRegionInfo().getRegionNameAsString()
+          + " because it is forecast to grow to " + (long) forecastSize + " bytes within "
+          + horizon + " ms. Size: " + size + ", growth rate: " + growthRate + " bytes/s");
+      }
+      return true;
+    }
+
+    double writeRate = metricsRegion.getWriteRequestRate();
+    if (maxWriteRate > 0 && writeRate > maxWriteRate) {
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("Going to split region " + region.getRegionInfo().getRegionNameAsString()
+          + " because of its write rate. Write rate: " + writeRate + " requests/s");
+      }
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  protected byte[] getSplitPoint() {
+    byte[] splitPoint = super.getSplitPoint();
+    // the stores return no split point when they can not be split, e.g. with references
+    if (splitPoint == null) {
+      return null;
+    }
+    byte[] writeBalancedSplitPoint = getWriteBalancedSplitPoint();
+    return writeBalancedSplitPoint != null ? writeBalancedSplitPoint : splitPoint;
+  }
+
+  /**
+   * Returns the median of the sampled rows written to the region, or null if there are not enough
+   * of them. Never returns the start key of the region, which would leave a daughter empty.
+   */
+  private byte[] getWriteBalancedSplitPoint() {
+    if (metricsRegion == null) {
+      return null;
+    }
+    List<byte[]> rows = metricsRegion.getWrittenRowsSample();
+    byte[] startKey = region.getRegionInfo().getStartKey();
+    byte[] endKey = region.getRegionInfo().getEndKey();
+    rows.removeIf(row -> Bytes.compareTo(row, startKey) <= 0
+      || (endKey.length > 0 && Bytes.compareTo(row, endKey) >= 0));
+    if (rows.size() < MIN_SAMPLED_ROWS) {
+      return null;
+    }
+    rows.sort(Bytes.BYTES_COMPARATOR);
+    return rows.get(rows.size() / 2);
+  }
+}
@@ -90,7 +90,9 @@ import org.apache.hadoop.hbase.exceptions.ScannerResetException;
 import org.apache.hadoop.hbase.exceptions.TimeoutIOException;
 import org.apache.hadoop.hbase.exceptions.UnknownProtocolException;
 import org.apache.hadoop.hbase.io.ByteBuffAllocator;
+import org.apache.hadoop.hbase.io.SizedExtendedCellScanner;
 import org.apache.hadoop.hbase.io.hfile.BlockCache;
+import org.apache.hadoop.hbase.io.hfile.BlockCacheKey;
 import org.apache.hadoop.hbase.ipc.HBaseRpcController;
 import org.apache.hadoop.hbase.ipc.PriorityFunction;
 import org.apache.hadoop.hbase.ipc.QosPriority;
@@ -123,9 +125,11 @@ import org.apache.hadoop.hbase.regionserver.handler.OpenMetaHandler;
 import org.apache.hadoop.hbase.regionserver.handler.OpenPriorityRegionHandler;
 import org.apache.hadoop.hbase.regionserver.handler.OpenRegionHandler;
 import org.apache.hadoop.hbase.regionserver.handler.UnassignRegionHandler;
+import org.apache.hadoop.hbase.regionserver.handler.WarmupRegionHandler;
 import org.apache.hadoop.hbase.replication.ReplicationUtils;
 import org.apache.hadoop.hbase.replication.regionserver.RejectReplicationRequestStateChecker;
 import org.apache.hadoop.hbase.replication.regionserver.RejectRequestsFromClientStateChecker;
+import org.apache.hadoop.hbase.replication.regionserver.ReplicationCellCodec;
 import org.apache.hadoop.hbase.security.Superusers;
 import org.apache.hadoop.hbase.security.access.Permission;
 import org.apache.hadoop.hbase.util.Bytes;
@@ -178,6 +182,8 @@ import org.apache.hadoop.hbase.shaded.protobuf.generated.AdminProtos.GetCachedFi
 import org.apache.hadoop.hbase.shaded.protobuf.generated.AdminProtos.GetCachedFilesListResponse;
 import org.apache.hadoop.hbase.shaded.protobuf.generated.AdminProtos.GetOnlineRegionRequest;
 import org.apache.hadoop.hbase.shaded.protobuf.generated.AdminProtos.GetOnlineRegionResponse;
+import org.apache.hadoop.hbase.shaded.protobuf.generated.AdminProtos.GetRegionCachedBlocksRequest;
+import org.apache.hadoop.hbase.shaded.protobuf.generated.AdminProtos.GetRegionCachedBlocksResponse;
 import org.apache.hadoop.hbase.shaded.protobuf.generated.AdminProtos.GetRegionInfoRequest;
 import org.apache.hadoop.hbase.shaded.protobuf.generated.AdminProtos.GetRegionInfoResponse;
 import org.apache.hadoop.hbase.shaded.protobuf.generated.AdminProtos.GetRegionLoadRequest;
@@ -190,6 +196,7 @@ import org.apache.hadoop.hbase.shaded.protobuf.generated.AdminProtos.OpenRegionR
 import org.apache.hadoop.hbase.shaded.protobuf.generated.AdminProtos.OpenRegionRequest.RegionOpenInfo;
 import org.apache.hadoop.hbase.shaded.protobuf.generated.AdminProtos.OpenRegionResponse;
 import org.apache.hadoop.hbase.shaded.protobuf.generated.AdminProtos.OpenRegionResponse.RegionOpeningState;
+import org.apache.hadoop.hbase.shaded.protobuf.generated.AdminProtos.RegionCachedBlock;
 import org.apache.hadoop.hbase.shaded.protobuf.generated.AdminProtos.RemoteProcedureRequest;
 import org.apache.hadoop.hbase.shaded.protobuf.generated.AdminProtos.ReplicateWALEntryRequest;
 import org.apache.hadoop.hbase.shaded.protobuf.generated.AdminProtos.ReplicateWALEntryResponse;
@@ -2066,6 +2073,30 @@ public class RSRpcServices extends HBaseRpcServicesBase<HRegionServer>
         LOG.info("{} is in transition; skipping warmup", region);
         return response;
       }
+      BlockCache blockCache = server.getBlockCache().orElse(null);
+      if (request.getCachedBlockCount() > 0 && blockCache != null) {
+        List<BlockCacheKey> blocks = new ArrayList<>(request.getCachedBlockCount());
+        int alreadyCachedBlocks = 0;
+        for (RegionCachedBlock block : request.getCachedBlockList()) {
+          BlockCacheKey key = new BlockCacheKey(block.getFileName(), block.getOffset());
+          if (RegionCacheWarmer.isCached(blockCache, key)) {
+            alreadyCachedBlocks++;
+          } else {
+            blocks.add(key);
+          }
+        }
+        if (!blocks.isEmpty()) {
+          // the prefetch is throttled, so do not hold the rpc handler while doing it
+          LOG.info("Warmup {}, prefetching {} blocks, {} already cached",
+            region.getRegionNameAsString(), blocks.size(), alreadyCachedBlocks);
+          server.getExecutorService()
+            .submit(new WarmupRegionHandler(server, region, htd, blockCache, blocks));
+          return WarmupRegionResponse.newBuilder().setPrefetchingBlocks(blocks.size())
+            .setAlreadyCachedBlocks(alreadyCachedBlocks).build();
+        }
+        response = WarmupRegionResponse.newBuilder().setAlreadyCachedBlocks(alreadyCachedBlocks)
+          .build();
+      }
       LOG.info("Warmup {}", region.getRegionNameAsString());
       HRegion.warmupHRegion(region, htd, server.getWAL(region), server.getConfiguration(), server,
         null);
@@ -2259,12 +2290,19 @@ public class RSRpcServices extends HBaseRpcServicesBase<HRegionServer>
         List<WALEntry> entries = request.getEntryList();
         checkShouldRejectReplicationRequest(entries);
         ExtendedCellScanner cellScanner = getAndReset(controller);
+        if (request.hasCompressedCells()) {
+          SizedExtendedCellScanner cells =
+            ReplicationCellCodec.decompressCells(server.getConfiguration(), request);
+          server.getReplicationSinkService()
+            .incrCompressedBytesSaved(cells.heapSize() - request.getCompressedCells().size());
+          cellScanner = cells;
+        }
         server.getRegionServerCoprocessorHost().preReplicateLogEntries();
         server.getReplicationSinkService().replicateLogEntries(entries, cellScanner,
           request.getReplicationClusterId(), request.getSourceBaseNamespaceDirPath(),
           request.getSourceHFileArchiveDirPath());
         server.getRegionServerCoprocessorHost().postReplicateLogEntries();
-        return ReplicateWALEntryResponse.newBuilder().build();
+        return ReplicateWALEntryResponse.newBuilder().setCompressedCellsSupported(true).build();
       } else {
         throw new ServiceException("Replication services are not initialized yet");
       }
@@ -3953,8 +3991,10 @@ public class RSRpcServices extends HBaseRpcServicesBase<HRegionServer>
       }
       long procId = regionOpenInfo.getOpenProcId();
       if (server.submitRegionProcedure(procId)) {
+        long readRequestCount =
+          regionOpenInfo.hasReadRequestCount() ? regionOpenInfo.getReadRequestCount() : 0;
         server.getExecutorService().submit(AssignRegionHandler.create(server, regionInfo, procId,
-          tableDesc, masterSystemTime, initiatingMasterActiveTime));
+          tableDesc, masterSystemTime, initiatingMasterActiveTime, readRequestCount));
       }
     }
   }
@@ -4058,6 +4098,31 @@ public class RSRpcServices extends HBaseRpcServicesBase<HRegionServer>
     return responseBuilder.addAllCachedFiles(fullyCachedFiles).build();
   }
 
+  /**
+   * List the blocks of a region in the block cache of this server, hottest first. This method
+   * should only be called by Master, to have them prefetched by the destination of a region move.
+   */
+  @Override
+  public GetRegionCachedBlocksResponse getRegionCachedBlocks(RpcController controller,
+    GetRegionCachedBlocksRequest request) throws ServiceException {
+    try {
+      checkOpen();
+      HRegion region = getRegion(request.getRegion());
+      GetRegionCachedBlocksResponse.Builder builder = GetRegionCachedBlocksResponse.newBuilder();
+      BlockCache blockCache = server.getBlockCache().orElse(null);
+      if (blockCache != null) {
+        long maxSize = request.hasMaxSize() ? request.getMaxSize() : Long.MAX_VALUE;
+        for (BlockCacheKey key : RegionCacheWarmer.getCachedBlocks(region, blockCache, maxSize)) {
+          builder.addCachedBlock(RegionCachedBlock.newBuilder().setFileName(key.getHfileName())
+            .setOffset(key.getOffset()));
+        }
+      }
+      return builder.build();
+    } catch (IOException ie) {
+      throw new ServiceException(ie);
+    }
+  }
+
   RegionScannerContext checkQuotaAndGetRegionScannerContext(ScanRequest request,
     ScanResponse.Builder builder) throws IOException {
     if (request.hasScannerId()) {
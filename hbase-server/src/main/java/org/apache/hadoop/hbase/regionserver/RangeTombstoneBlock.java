@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hbase.regionserver;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.hadoop.hbase.ExtendedCell;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.KeyValueUtil;
+import org.apache.hadoop.io.Writable;
+import org.apache.yetus.audience.InterfaceAudience;
+
+/**
+ * The range tombstones of a store file, as written to its
+ * {@link HStoreFile#RANGE_TOMBSTONE_BLOCK_KEY} meta block. The block holds the number of
+ * tombstones, then for each of them the length of its serialized {@link KeyValue}, the KeyValue
+ * and its sequence id, which the KeyValue serialization does not carry.
+ */
+@InterfaceAudience.Private
+public class RangeTombstoneBlock implements Writable {
+
+  private List<ExtendedCell> tombstones;
+
+  /** Creates an empty block, to be read with {@link #readFields(DataInput)}. */
+  public RangeTombstoneBlock() {
+    this(Collections.emptyList());
+  }
+
+  /**
+   * @param tombstones the {@link KeyValue.Type#DeleteRange} markers to write, sorted by row
+   */
+  public RangeTombstoneBlock(List<ExtendedCell> tombstones) {
+    this.tombstones = tombstones;
+  }
+
+  /** Returns the range tombstones of this block, sorted by row. */
+  public List<ExtendedCell> getTombstones() {
+    return tombstones;
+  }
+
+  @Override
+  public void write(DataOutput out) throws IOException {
+    out.writeInt(tombstones.size());
+    for (ExtendedCell tombstone : tombstones) {
+      KeyValue kv = KeyValueUtil.ensureKeyValue(tombstone);
+      out.writeInt(kv.getLength());
+      out.write(kv.getBuffer(), kv.getOffset(), kv.getLength());
+      out.writeLong(kv.getSequenceId());
+    }
+  }
+
+  @Override
+  public void readFields(DataInput in) throws IOException {
+    int count = in.readInt();
+    if (count < 0) {
+      throw new IOException("Invalid range tombstone count " + count);
+    }
+    List<ExtendedCell> read = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      int length = in.readInt();
+      if (length <= 0) {
+        throw new IOException("Invalid length " + length + " of range tombstone " + i);
+      }
+      byte[] bytes = new byte[length];
+      in.readFully(bytes);
+      KeyValue kv = new KeyValue(bytes, 0, length);
+      if (kv.getTypeByte() != KeyValue.Type.DeleteRange.getCode()) {
+        throw new IOException("Range tombstone " + i + " is not a range delete: " + kv);
+      }
+      kv.setSequenceId(in.readLong());
+      read.add(kv);
+    }
+    tombstones = read;
+  }
+}
@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hbase.regionserver;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.io.hfile.BlockCache;
+import org.apache.hadoop.hbase.io.hfile.BlockCacheKey;
+import org.apache.hadoop.hbase.io.hfile.BlockPriority;
+import org.apache.hadoop.hbase.io.hfile.Cacheable;
+import org.apache.hadoop.hbase.io.hfile.CachedBlock;
+import org.apache.hadoop.hbase.io.hfile.HFile;
+import org.apache.hadoop.hbase.io.hfile.HFileBlock;
+import org.apache.hadoop.hbase.util.EnvironmentEdgeManager;
+import org.apache.yetus.audience.InterfaceAudience;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hands the hot blocks of a region over from the block cache of one region server to another, so
+ * the region is not served from a cold cache after a move. The source lists the blocks of the
+ * region it has cached with {@link #getCachedBlocks(HRegion, BlockCache, long)}, and the target
+ * reads them from the file system into its own cache while warming the region up, with
+ * {@link #prefetchBlocks(HRegion, BlockCache, Collection)}. The target does so in the background,
+ * see {@link org.apache.hadoop.hbase.regionserver.handler.WarmupRegionHandler}.
+ */
+@InterfaceAudience.Private
+public final class RegionCacheWarmer {
+
+  private static final Logger LOG = LoggerFactory.getLogger(RegionCacheWarmer.class);
+
+  /** The maximum rate at which the blocks are read from the file system, in bytes per second */
+  public static final String WARMUP_BANDWIDTH_KEY = "hbase.regionserver.warmup.bandwidth";
+  public static final long DEFAULT_WARMUP_BANDWIDTH = 100L * 1024 * 1024;
+
+  // blocks accessed more than once before the ones accessed once, the most recently cached first
+  private static final Comparator<CachedBlock> HOTTEST_FIRST =
+    Comparator.comparingInt((CachedBlock b) -> getHeat(b.getBlockPriority())).reversed()
+      .thenComparing(Comparator.comparingLong(CachedBlock::getCachedTime).reversed());
+
+  private RegionCacheWarmer() {
+  }
+
+  private static int getHeat(BlockPriority priority) {
+    if (priority == null) {
+      return 0;
+    }
+    switch (priority) {
+      case MEMORY:
+        return 2;
+      case MULTI:
+        return 1;
+      default:
+        return 0;
+    }
+  }
+
+  /** The outcome of {@link #prefetchBlocks(HRegion, BlockCache, Collection)} */
+  public static final class PrefetchResult {
+    private final int prefetchedBlocks;
+    private final long prefetchedBytes;
+    private final int alreadyCachedBlocks;
+
+    PrefetchResult(int prefetchedBlocks, long prefetchedBytes, int alreadyCachedBlocks) {
+      this.prefetchedBlocks = prefetchedBlocks;
+      this.prefetchedBytes = prefetchedBytes;
+      this.alreadyCachedBlocks = alreadyCachedBlocks;
+    }
+
+    public int getPrefetchedBlocks() {
+      return prefetchedBlocks;
+    }
+
+    public long getPrefetchedBytes() {
+      return prefetchedBytes;
+    }
+
+    public int getAlreadyCachedBlocks() {
+      return alreadyCachedBlocks;
+    }
+  }
+
+  /**
+   * Returns the blocks of the store files of the region which are in the given cache, hottest
+   * first, of at most {@code maxSize} bytes in total. The blocks are looked up by file if the cache
+   * supports it, see {@link BlockCache#getCachedBlocksByHfileName(String)}, otherwise the whole
+   * cache is gone through.
+   */
+  public static List<BlockCacheKey> getCachedBlocks(HRegion region, BlockCache blockCache,
+    long maxSize) {
+    Set<String> fileNames = new HashSet<>();
+    for (HStore store : region.getStores()) {
+      for (HStoreFile storeFile : store.getStorefiles()) {
+        fileNames.add(storeFile.getPath().getName());
+      }
+    }
+    List<CachedBlock> cachedBlocks = getCachedBlocksByFile(blockCache, fileNames);
+    if (cachedBlocks == null) {
+      cachedBlocks = new ArrayList<>();
+      for (Iterator<CachedBlock> iter = blockCache.iterator(); iter.hasNext();) {
+        CachedBlock cachedBlock = iter.next();
+        if (cachedBlock.getFilename() != null && fileNames.contains(cachedBlock.getFilename())) {
+          cachedBlocks.add(cachedBlock);
+        }
+      }
+    }
+    cachedBlocks.sort(HOTTEST_FIRST);
+    // a combined cache may list a block in both of its levels
+    Set<BlockCacheKey> keys = new LinkedHashSet<>();
+    long size = 0;
+    for (CachedBlock cachedBlock : cachedBlocks) {
+      if (size + cachedBlock.getSize() > maxSize) {
+        break;
+      }
+      if (keys.add(new BlockCacheKey(cachedBlock.getFilename(), cachedBlock.getOffset()))) {
+        size += cachedBlock.getSize();
+      }
+    }
+    return new ArrayList<>(keys);
+  }
+
+  /**
+   * Returns the cached blocks of the given files, or null if the cache does not index its blocks
+   * by file.
+   */
+  private static List<CachedBlock> getCachedBlocksByFile(BlockCache blockCache,
+    Set<String> fileNames) {
+    List<CachedBlock> cachedBlocks = new ArrayList<>();
+    for (String fileName : fileNames) {
+      Optional<List<CachedBlock>> blocks = blockCache.getCachedBlocksByHfileName(fileName);
+      if (!blocks.isPresent()) {
+        return null;
+      }
+      cachedBlocks.addAll(blocks.get());
+    }
+    return cachedBlocks;
+  }
+
+  /** Returns whether the given block is in the cache, without counting it as an access. */
+  public static boolean isCached(BlockCache blockCache, BlockCacheKey key) {
+    Cacheable cached = blockCache.getBlock(key, false, false, false);
+    if (cached == null) {
+      return false;
+    }
+    cached.release();
+    return true;
+  }
+
+  /**
+   * Reads the given blocks of the store files of the region into the block cache, at most at
+   * {@value #WARMUP_BANDWIDTH_KEY} bytes per second. Blocks of files the region does not have, for
+   * example compacted away in the meantime, are skipped. The region must have been opened with the
+   * block cache, so its store files read through it.
+   */
+  public static PrefetchResult prefetchBlocks(HRegion region, BlockCache blockCache,
+    Collection<BlockCacheKey> blocks) throws IOException {
+    Configuration conf = region.getBaseConf();
+    long bandwidth = conf.getLong(WARMUP_BANDWIDTH_KEY, DEFAULT_WARMUP_BANDWIDTH);
+    Map<String, HFile.Reader> readers = new HashMap<>();
+    for (HStore store : region.getStores()) {
+      for (HStoreFile storeFile : store.getStorefiles()) {
+        StoreFileReader reader = storeFile.getReader();
+        if (reader != null) {
+          readers.put(storeFile.getPath().getName(), reader.getHFileReader());
+        }
+      }
+    }
+    long startTime = EnvironmentEdgeManager.currentTime();
+    int prefetchedBlocks = 0;
+    long prefetchedBytes = 0;
+    int alreadyCachedBlocks = 0;
+    for (BlockCacheKey key : blocks) {
+      HFile.Reader reader = readers.get(key.getHfileName());
+      if (reader == null) {
+        continue;
+      }
+      if (isCached(blockCache, key)) {
+        alreadyCachedBlocks++;
+        continue;
+      }
+      HFileBlock block =
+        reader.readBlock(key.getOffset(), -1, true, true, false, false, null, null);
+      try {
+        prefetchedBytes += block.getOnDiskSizeWithHeader();
+      } finally {
+        block.release();
+      }
+      prefetchedBlocks++;
+      if (bandwidth > 0) {
+        long sleepTime = prefetchedBytes * 1000 / bandwidth
+          - (EnvironmentEdgeManager.currentTime() - startTime);
+        if (sleepTime > 0) {
+          try {
+            Thread.sleep(sleepTime);
+          } catch (InterruptedException e) {
+            throw (InterruptedIOException) new InterruptedIOException(
+              "Interrupted while prefetching blocks of " + region).initCause(e);
+          }
+        }
+      }
+    }
+    LOG.info("Prefetched {} blocks, {} bytes, of {} in {} ms, {} blocks were already cached",
+      prefetchedBlocks, prefetchedBytes, region, EnvironmentEdgeManager.currentTime() - startTime,
+      alreadyCachedBlocks);
+    return new PrefetchResult(prefetchedBlocks, prefetchedBytes, alreadyCachedBlocks);
+  }
+}
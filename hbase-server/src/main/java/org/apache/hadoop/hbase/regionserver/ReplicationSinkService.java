@@ -43,4 +43,11 @@ public interface ReplicationSinkService extends ReplicationService {
   void replicateLogEntries(List<WALEntry> entries, ExtendedCellScanner cells,
     String replicationClusterId, String sourceBaseNamespaceDirPath,
     String sourceHFileArchiveDirPath) throws IOException;
+
+  /**
+   * Records the bytes saved on the wire by receiving the cells of a batch compressed, see
+   * {@link org.apache.hadoop.hbase.replication.regionserver.ReplicationCellCodec}.
+   */
+  default void incrCompressedBytesSaved(long bytesSaved) {
+  }
 }
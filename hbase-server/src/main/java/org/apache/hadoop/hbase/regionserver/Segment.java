@@ -17,6 +17,7 @@
  */
 package org.apache.hadoop.hbase.regionserver;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -28,6 +29,7 @@ import org.apache.hadoop.hbase.Cell;
 import org.apache.hadoop.hbase.CellComparator;
 import org.apache.hadoop.hbase.ExtendedCell;
 import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.PrivateCellUtil;
 import org.apache.hadoop.hbase.io.TimeRange;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.apache.hadoop.hbase.util.ClassSize;
@@ -43,9 +45,10 @@ import org.slf4j.Logger;
 public abstract class Segment implements MemStoreSizing {
 
   public final static long FIXED_OVERHEAD =
-    ClassSize.align(ClassSize.OBJECT + 6 * ClassSize.REFERENCE // cellSet, comparator, updatesLock,
+    ClassSize.align(ClassSize.OBJECT + 7 * ClassSize.REFERENCE // cellSet, comparator, updatesLock,
                                                                // memStoreLAB, memStoreSizing,
-                                                               // and timeRangeTracker
+                                                               // timeRangeTracker and
+                                                               // rangeTombstones
       + Bytes.SIZEOF_LONG // minSequenceId
       + Bytes.SIZEOF_BOOLEAN); // tagsPresent
   public final static long DEEP_OVERHEAD = FIXED_OVERHEAD + ClassSize.ATOMIC_REFERENCE
@@ -61,6 +64,8 @@ public abstract class Segment implements MemStoreSizing {
   protected final MemStoreSizing memStoreSizing;
   protected final TimeRangeTracker timeRangeTracker;
   protected volatile boolean tagsPresent;
+  // The DeleteRange cells of this segment. They are rare, so the list is copied on every addition.
+  private volatile List<ExtendedCell> rangeTombstones = Collections.emptyList();
 
   // Empty constructor to be used when Segment is used as interface,
   // and there is no need in true Segments state
@@ -117,6 +122,7 @@ public abstract class Segment implements MemStoreSizing {
     this.memStoreSizing = segment.memStoreSizing;
     this.tagsPresent = segment.isTagsPresent();
     this.timeRangeTracker = segment.getTimeRangeTracker();
+    this.rangeTombstones = segment.getRangeTombstones();
   }
 
   /**
@@ -265,6 +271,18 @@ public abstract class Segment implements MemStoreSizing {
     return this.timeRangeTracker;
   }
 
+  /** Returns the DeleteRange cells of this segment */
+  public List<ExtendedCell> getRangeTombstones() {
+    return rangeTombstones;
+  }
+
+  private synchronized void addRangeTombstone(ExtendedCell cell) {
+    List<ExtendedCell> tombstones = new ArrayList<>(rangeTombstones.size() + 1);
+    tombstones.addAll(rangeTombstones);
+    tombstones.add(cell);
+    rangeTombstones = tombstones;
+  }
+
   // *** Methods for SegmentsScanner
   public ExtendedCell last() {
     return getCellSet().last();
@@ -327,6 +345,9 @@ public abstract class Segment implements MemStoreSizing {
     }
     getTimeRangeTracker().includeTimestamp(cellToAdd);
     minSequenceId = Math.min(minSequenceId, cellToAdd.getSequenceId());
+    if (succ && PrivateCellUtil.isDeleteRange(cellToAdd)) {
+      addRangeTombstone(cellToAdd);
+    }
     // In no tags case this NoTagsKeyValue.getTagsLength() is a cheap call.
     // When we use ACL CP or Visibility CP which deals with Tags during
     // mutation, the TagRewriteCell.getTagsLength() is a cheaper call. We do not
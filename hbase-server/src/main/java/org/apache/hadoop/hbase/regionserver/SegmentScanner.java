@@ -18,7 +18,9 @@
 package org.apache.hadoop.hbase.regionserver;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.SortedSet;
 import java.util.function.IntConsumer;
 import org.apache.commons.lang3.NotImplementedException;
@@ -329,6 +331,22 @@ public class SegmentScanner implements KeyValueScanner {
     return res;
   }
 
+  /** Returns the DeleteRange cells of the segment visible at the read point of this scanner */
+  List<ExtendedCell> getRangeTombstones() {
+    List<ExtendedCell> tombstones = new ArrayList<>();
+    for (ExtendedCell tombstone : getSegment().getRangeTombstones()) {
+      if (tombstone.getSequenceId() <= readPoint) {
+        tombstones.add(tombstone);
+      }
+    }
+    return tombstones;
+  }
+
+  /** Returns the max timestamp of the cells of the segment */
+  long getMaxTimestamp() {
+    return getSegment().getTimeRangeTracker().getMax();
+  }
+
   /********************* Private Methods **********************/
 
   private Segment getSegment() {
@@ -21,10 +21,15 @@ import static org.apache.hadoop.hbase.regionserver.HStoreFile.BLOOM_FILTER_PARAM
 import static org.apache.hadoop.hbase.regionserver.HStoreFile.BLOOM_FILTER_TYPE_KEY;
 import static org.apache.hadoop.hbase.regionserver.HStoreFile.DELETE_FAMILY_COUNT;
 import static org.apache.hadoop.hbase.regionserver.HStoreFile.LAST_BLOOM_KEY;
+import static org.apache.hadoop.hbase.regionserver.HStoreFile.RANGE_TOMBSTONE_BLOCK_KEY;
+import static org.apache.hadoop.hbase.regionserver.HStoreFile.RANGE_TOMBSTONE_COUNT;
 
 import com.google.errorprone.annotations.RestrictedApi;
 import java.io.DataInput;
+import java.io.DataInputStream;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.SortedSet;
@@ -37,6 +42,7 @@ import org.apache.hadoop.hbase.HConstants;
 import org.apache.hadoop.hbase.KeyValue;
 import org.apache.hadoop.hbase.PrivateCellUtil;
 import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.io.ByteBuffInputStream;
 import org.apache.hadoop.hbase.io.TimeRange;
 import org.apache.hadoop.hbase.io.encoding.DataBlockEncoding;
 import org.apache.hadoop.hbase.io.hfile.BlockType;
@@ -74,6 +80,9 @@ public class StoreFileReader {
   protected TimeRange timeRange = null;
   private byte[] lastBloomKey;
   private long deleteFamilyCnt = -1;
+  private int rangeTombstoneCnt = 0;
+  // loaded lazily from the range tombstone meta block, see getRangeTombstones
+  private volatile List<ExtendedCell> rangeTombstones;
   private boolean bulkLoadResult = false;
   private KeyValue.KeyOnlyKeyValue lastBloomKeyOnlyKV = null;
   private boolean skipResetSeqId = true;
@@ -114,6 +123,7 @@ public class StoreFileReader {
     this.lastBloomKeyOnlyKV = storeFileReader.lastBloomKeyOnlyKV;
     this.skipResetSeqId = storeFileReader.skipResetSeqId;
     this.prefixLength = storeFileReader.prefixLength;
+    this.rangeTombstoneCnt = storeFileReader.rangeTombstoneCnt;
   }
 
   public boolean isPrimaryReplicaReader() {
@@ -476,6 +486,10 @@ public class StoreFileReader {
     if (cnt != null) {
       deleteFamilyCnt = Bytes.toLong(cnt);
     }
+    byte[] rangeCnt = fi.get(RANGE_TOMBSTONE_COUNT);
+    if (rangeCnt != null) {
+      rangeTombstoneCnt = Bytes.toInt(rangeCnt);
+    }
 
     return fi;
   }
@@ -587,6 +601,45 @@ public class StoreFileReader {
     return deleteFamilyCnt;
   }
 
+  /**
+   * Returns the number of range tombstones in the file. Files without range tombstones have no
+   * range tombstone count in their file info, so 0 is returned for them.
+   */
+  public int getRangeTombstoneCnt() {
+    return rangeTombstoneCnt;
+  }
+
+  /**
+   * Returns the {@link org.apache.hadoop.hbase.KeyValue.Type#DeleteRange} markers of this file,
+   * sorted by row. They are read from the range tombstone meta block on first use, so that a scan
+   * can learn about the ranges deleted before it reaches them in the data blocks.
+   */
+  public List<ExtendedCell> getRangeTombstones() throws IOException {
+    List<ExtendedCell> tombstones = rangeTombstones;
+    if (tombstones == null) {
+      tombstones = rangeTombstoneCnt > 0
+        ? Collections.unmodifiableList(loadRangeTombstones())
+        : Collections.emptyList();
+      rangeTombstones = tombstones;
+    }
+    return tombstones;
+  }
+
+  protected List<ExtendedCell> loadRangeTombstones() throws IOException {
+    HFileBlock block = reader.getMetaBlock(RANGE_TOMBSTONE_BLOCK_KEY, true);
+    if (block == null) {
+      return Collections.emptyList();
+    }
+    try {
+      RangeTombstoneBlock tombstones = new RangeTombstoneBlock();
+      tombstones.readFields(
+        new DataInputStream(new ByteBuffInputStream(block.getBufferWithoutHeader())));
+      return tombstones.getTombstones();
+    } finally {
+      block.release();
+    }
+  }
+
   public Optional<ExtendedCell> getFirstKey() {
     return reader.getFirstKey();
   }
@@ -27,6 +27,8 @@ import static org.apache.hadoop.hbase.regionserver.HStoreFile.MAJOR_COMPACTION_K
 import static org.apache.hadoop.hbase.regionserver.HStoreFile.MAX_SEQ_ID_KEY;
 import static org.apache.hadoop.hbase.regionserver.HStoreFile.MOB_CELLS_COUNT;
 import static org.apache.hadoop.hbase.regionserver.HStoreFile.MOB_FILE_REFS;
+import static org.apache.hadoop.hbase.regionserver.HStoreFile.RANGE_TOMBSTONE_BLOCK_KEY;
+import static org.apache.hadoop.hbase.regionserver.HStoreFile.RANGE_TOMBSTONE_COUNT;
 import static org.apache.hadoop.hbase.regionserver.StoreEngine.STORE_ENGINE_CLASS_KEY;
 
 import java.io.IOException;
@@ -51,12 +53,14 @@ import org.apache.hadoop.hbase.CellUtil;
 import org.apache.hadoop.hbase.ExtendedCell;
 import org.apache.hadoop.hbase.HBaseInterfaceAudience;
 import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.KeyValueUtil;
 import org.apache.hadoop.hbase.PrivateCellUtil;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.ColumnFamilyDescriptorBuilder;
 import org.apache.hadoop.hbase.io.hfile.CacheConfig;
 import org.apache.hadoop.hbase.io.hfile.HFile;
 import org.apache.hadoop.hbase.io.hfile.HFileContext;
+import org.apache.hadoop.hbase.io.hfile.HFileDataBlockScanner;
 import org.apache.hadoop.hbase.io.hfile.HFileWriterImpl;
 import org.apache.hadoop.hbase.mob.MobUtils;
 import org.apache.hadoop.hbase.regionserver.compactions.DefaultCompactor;
@@ -397,7 +401,10 @@ public class StoreFileWriter implements CellSink, ShipperListener {
     if ((lastCell == null || !CellUtil.matchingColumn(lastCell, cell))) {
       initColumnState();
     }
-    if (cell.getType() == Cell.Type.DeleteFamily) {
+    if (cell.getType() == Cell.Type.DeleteRange) {
+      // A range tombstone spans rows, keep it with the live versions it may delete.
+      liveFileWriter.append(cell);
+    } else if (cell.getType() == Cell.Type.DeleteFamily) {
       if (deleteFamily == null) {
         deleteFamily = cell;
         liveFileWriter.append(cell);
@@ -498,12 +505,33 @@ public class StoreFileWriter implements CellSink, ShipperListener {
     appendCell(cell);
   }
 
+  /**
+   * Returns whether the data blocks of the given store file can be copied into this writer as they
+   * are, see {@link #appendDataBlock(HFileDataBlockScanner)}. Never the case when historical files
+   * are written, since that needs every cell to be routed on its own.
+   */
+  public boolean canAppendDataBlocksFrom(StoreFileReader reader) {
+    return historicalFilePath == null
+      && liveFileWriter.canAppendDataBlocksFrom(reader.getHFileReader());
+  }
+
+  /**
+   * Appends the current data block of the given scanner without re-encoding its cells. The bloom
+   * filters and the file statistics are still fed every cell of the block.
+   */
+  public void appendDataBlock(HFileDataBlockScanner source) throws IOException {
+    Preconditions.checkState(historicalFilePath == null,
+      "Data blocks can not be copied when historical files are written");
+    liveFileWriter.appendDataBlock(source);
+  }
+
   private static class SingleStoreFileWriter {
     private final BloomFilterWriter generalBloomFilterWriter;
     private final BloomFilterWriter deleteFamilyBloomFilterWriter;
     private final BloomType bloomType;
     private byte[] bloomParam = null;
     private long deleteFamilyCnt = 0;
+    private final List<ExtendedCell> rangeTombstones = new ArrayList<>();
     private BloomContext bloomContext = null;
     private BloomContext deleteFamilyBloomContext = null;
     private final Supplier<Collection<HStoreFile>> compactedFilesSupplier;
@@ -705,9 +733,25 @@ public class StoreFileWriter implements CellSink, ShipperListener {
     private void append(final ExtendedCell cell) throws IOException {
       appendGeneralBloomfilter(cell);
       appendDeleteFamilyBloomFilter(cell);
+      if (PrivateCellUtil.isDeleteRange(cell)) {
+        // the cell may live in a block which is released before we close
+        rangeTombstones.add(KeyValueUtil.copyToNewKeyValue(cell));
+      }
       writer.append(cell);
     }
 
+    private boolean canAppendDataBlocksFrom(HFile.Reader reader) {
+      return ((HFileWriterImpl) writer).canAppendDataBlocksFrom(reader);
+    }
+
+    private void appendDataBlock(HFileDataBlockScanner source) throws IOException {
+      for (ExtendedCell cell : source.getCells()) {
+        appendGeneralBloomfilter(cell);
+        appendDeleteFamilyBloomFilter(cell);
+      }
+      ((HFileWriterImpl) writer).appendDataBlock(source);
+    }
+
     private void beforeShipped() throws IOException {
       // For now these writer will always be of type ShipperListener true.
       // TODO : Change all writers to be specifically created for compaction context
@@ -774,9 +818,24 @@ public class StoreFileWriter implements CellSink, ShipperListener {
       return hasDeleteFamilyBloom;
     }
 
+    /**
+     * Writes the range tombstones of the file into their own meta block, so that readers can find
+     * them without scanning the file. See {@link StoreFileReader#getRangeTombstones()}. Files
+     * without range tombstones, which is all of them unless range deletes are enabled, get neither
+     * the meta block nor its file info entry.
+     */
+    private void closeRangeTombstones() throws IOException {
+      if (rangeTombstones.isEmpty()) {
+        return;
+      }
+      writer.appendMetaBlock(RANGE_TOMBSTONE_BLOCK_KEY, new RangeTombstoneBlock(rangeTombstones));
+      writer.appendFileInfo(RANGE_TOMBSTONE_COUNT, Bytes.toBytes(rangeTombstones.size()));
+    }
+
     private void close() throws IOException {
       boolean hasGeneralBloom = this.closeGeneralBloomFilter();
       boolean hasDeleteFamilyBloom = this.closeDeleteFamilyBloomFilter();
+      closeRangeTombstones();
 
       writer.close();
 
@@ -965,6 +1024,7 @@ public class StoreFileWriter implements CellSink, ShipperListener {
       }
       CommonFSUtils.setStoragePolicy(this.fs, dir, policyName);
 
+      String appliedStoragePolicy = null;
       if (liveFilePath == null) {
         // The stored file and related blocks will used the directory based StoragePolicy.
         // Because HDFS DistributedFileSystem does not support create files with storage policy
@@ -979,6 +1039,7 @@ public class StoreFileWriter implements CellSink, ShipperListener {
               "Create tmp dir " + dir.toString() + " with storage policy: " + fileStoragePolicy);
           }
           CommonFSUtils.setStoragePolicy(this.fs, dir, fileStoragePolicy);
+          appliedStoragePolicy = fileStoragePolicy;
         }
         liveFilePath = getUniqueFile(fs, dir);
         if (!BloomFilterFactory.isGeneralBloomEnabled(conf)) {
@@ -1001,9 +1062,14 @@ public class StoreFileWriter implements CellSink, ShipperListener {
           writerCreationTracker.accept(historicalFilePath);
         }
       }
-      return new StoreFileWriter(fs, liveFilePath, historicalFilePath, conf, cacheConf, bloomType,
-        maxKeyCount, favoredNodes, fileContext, shouldDropCacheBehind, compactedFilesSupplier,
-        comparator, maxVersions, newVersionBehavior);
+      StoreFileWriter writer = new StoreFileWriter(fs, liveFilePath, historicalFilePath, conf,
+        cacheConf, bloomType, maxKeyCount, favoredNodes, fileContext, shouldDropCacheBehind,
+        compactedFilesSupplier, comparator, maxVersions, newVersionBehavior);
+      if (appliedStoragePolicy != null) {
+        // Lets tiered compaction policies tell when the file has aged out of its storage tier.
+        writer.appendFileInfo(HStoreFile.STORAGE_POLICY_KEY, Bytes.toBytes(appliedStoragePolicy));
+      }
+      return writer;
     }
   }
 }
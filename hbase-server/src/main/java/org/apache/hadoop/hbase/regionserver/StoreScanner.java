@@ -43,6 +43,7 @@ import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.conf.ConfigKey;
 import org.apache.hadoop.hbase.executor.ExecutorService;
 import org.apache.hadoop.hbase.filter.Filter;
+import org.apache.hadoop.hbase.io.HalfStoreFileReader;
 import org.apache.hadoop.hbase.ipc.RpcCall;
 import org.apache.hadoop.hbase.ipc.RpcServer;
 import org.apache.hadoop.hbase.regionserver.ScannerContext.LimitScope;
@@ -51,6 +52,7 @@ import org.apache.hadoop.hbase.regionserver.handler.ParallelSeekHandler;
 import org.apache.hadoop.hbase.regionserver.querymatcher.CompactionScanQueryMatcher;
 import org.apache.hadoop.hbase.regionserver.querymatcher.ScanQueryMatcher;
 import org.apache.hadoop.hbase.regionserver.querymatcher.UserScanQueryMatcher;
+import org.apache.hadoop.hbase.util.CollectionBackedScanner;
 import org.apache.hadoop.hbase.util.EnvironmentEdgeManager;
 import org.apache.yetus.audience.InterfaceAudience;
 import org.slf4j.Logger;
@@ -261,11 +263,22 @@ public class StoreScanner extends NonReversedNonLazyKeyValueScanner
 
     List<KeyValueScanner> scanners = null;
     try {
+      scanners = store.getScanners(cacheBlocks, scanUsePread, false, matcher, scan.getStartRow(),
+        scan.includeStartRow(), scan.getStopRow(), scan.includeStopRow(), this.readPt,
+        isOnlyLatestVersionScan(scan));
+      if (!scan.isRaw()) {
+        // before filtering, a file can delete rows beyond its own key range or bloom filter
+        addRangeTombstones(scanners);
+      }
       // Pass columns to try to filter out unnecessary StoreFiles.
-      scanners = selectScannersFrom(store,
-        store.getScanners(cacheBlocks, scanUsePread, false, matcher, scan.getStartRow(),
-          scan.includeStartRow(), scan.getStopRow(), scan.includeStopRow(), this.readPt,
-          isOnlyLatestVersionScan(scan)));
+      scanners = selectScannersFrom(store, scanners);
+      int fileScanners = 0;
+      for (KeyValueScanner scanner : scanners) {
+        if (scanner.isFileScanner()) {
+          fileScanners++;
+        }
+      }
+      store.updateReadAmplification(fileScanners);
 
       // Seek all scanners to the start of the Row (or if the exact matching row
       // key does not exist, then to the start of the next matching Row).
@@ -334,6 +347,7 @@ public class StoreScanner extends NonReversedNonLazyKeyValueScanner
       CompactionScanQueryMatcher.create(scanInfo, scanType, smallestReadPoint, earliestPutTs,
         oldestUnexpiredTS, now, dropDeletesFromRow, dropDeletesToRow, store.getCoprocessorHost());
 
+    scanners = addInheritedRangeTombstones(scanners);
     // Filter the list of scanners using Bloom filters, time range, TTL, etc.
     scanners = selectScannersFrom(store, scanners);
 
@@ -344,6 +358,59 @@ public class StoreScanner extends NonReversedNonLazyKeyValueScanner
     resetKVHeap(scanners, comparator);
   }
 
+  /**
+   * Hands the range tombstones of all the given scanners to the matcher up front, so that a cell is
+   * deleted even if the tombstone covering it starts before the first row of the scan.
+   */
+  private void addRangeTombstones(List<KeyValueScanner> scanners) throws IOException {
+    List<ExtendedCell> tombstones = new ArrayList<>();
+    long maxTimestamp = Long.MIN_VALUE;
+    for (KeyValueScanner scanner : scanners) {
+      if (scanner instanceof StoreFileScanner) {
+        StoreFileReader reader = ((StoreFileScanner) scanner).getReader();
+        for (ExtendedCell tombstone : reader.getRangeTombstones()) {
+          if (tombstone.getSequenceId() <= readPt) {
+            tombstones.add(tombstone);
+          }
+        }
+        maxTimestamp = Math.max(maxTimestamp, reader.getMaxTimestamp());
+      } else if (scanner instanceof SegmentScanner) {
+        SegmentScanner segmentScanner = (SegmentScanner) scanner;
+        tombstones.addAll(segmentScanner.getRangeTombstones());
+        maxTimestamp = Math.max(maxTimestamp, segmentScanner.getMaxTimestamp());
+      } else {
+        maxTimestamp = Long.MAX_VALUE;
+      }
+    }
+    if (!tombstones.isEmpty()) {
+      matcher.addRangeTombstones(tombstones, maxTimestamp);
+    }
+  }
+
+  /**
+   * The scanners of the top half of a split file do not return the range tombstones starting in
+   * the bottom half, so add them, clamped to the split row, to keep them in the compacted file.
+   */
+  private List<? extends KeyValueScanner> addInheritedRangeTombstones(
+    List<? extends KeyValueScanner> scanners) throws IOException {
+    List<ExtendedCell> inherited = new ArrayList<>();
+    for (KeyValueScanner scanner : scanners) {
+      if (
+        scanner instanceof StoreFileScanner
+          && ((StoreFileScanner) scanner).getReader() instanceof HalfStoreFileReader
+      ) {
+        HalfStoreFileReader reader = (HalfStoreFileReader) ((StoreFileScanner) scanner).getReader();
+        inherited.addAll(reader.getInheritedRangeTombstones());
+      }
+    }
+    if (inherited.isEmpty()) {
+      return scanners;
+    }
+    List<KeyValueScanner> withInherited = new ArrayList<>(scanners);
+    withInherited.add(new CollectionBackedScanner(inherited, comparator));
+    return withInherited;
+  }
+
   private void seekAllScanner(ScanInfo scanInfo, List<? extends KeyValueScanner> scanners)
     throws IOException {
     // Seek all scanners to the initial key
@@ -389,6 +456,39 @@ public class StoreScanner extends NonReversedNonLazyKeyValueScanner
     seekAllScanner(scanInfo, scanners);
   }
 
+  /**
+   * Opens a user scan across the given store files of a family without a Store, for reading the
+   * files of a snapshot directly, see ClientSideHFileScanner.
+   * <p>
+   * Everything in the files is treated as committed, so the scanners should be opened with a read
+   * point of {@link Long#MAX_VALUE}, and the range tombstones of all the files are applied to the
+   * scan, as in a scan of the store. The scanner does not follow changes to the set of files, and
+   * the caller closes the readers of the files after closing the scanner.
+   * @param scan     the spec
+   * @param scanInfo the configuration of the family
+   * @param columns  which columns we are scanning, or null for all of them
+   * @param scanners the scanners of all the store files of the family
+   */
+  public static StoreScanner createForStoreFiles(Scan scan, ScanInfo scanInfo,
+    NavigableSet<byte[]> columns, List<StoreFileScanner> scanners) throws IOException {
+    return new StoreScanner(scan, scanInfo, columns, new ArrayList<>(scanners), Long.MAX_VALUE);
+  }
+
+  private StoreScanner(Scan scan, ScanInfo scanInfo, NavigableSet<byte[]> columns,
+    List<KeyValueScanner> scanners, long readPt) throws IOException {
+    this(null, scan, scanInfo, columns != null ? columns.size() : 0, readPt, scan.getCacheBlocks(),
+      ScanType.USER_SCAN);
+    if (columns != null && scan.isRaw()) {
+      throw new DoNotRetryIOException("Cannot specify any column for a raw scan");
+    }
+    this.matcher =
+      UserScanQueryMatcher.create(scan, scanInfo, columns, oldestUnexpiredTS, now, null);
+    if (!scan.isRaw()) {
+      addRangeTombstones(scanners);
+    }
+    seekAllScanner(scanInfo, scanners);
+  }
+
   // Used to instantiate a scanner for compaction in test
   StoreScanner(ScanInfo scanInfo, int maxVersions, ScanType scanType,
     List<? extends KeyValueScanner> scanners) throws IOException {
@@ -35,12 +35,17 @@ import java.util.function.Consumer;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellComparator;
+import org.apache.hadoop.hbase.CellUtil;
 import org.apache.hadoop.hbase.ExtendedCell;
 import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.KeyValueUtil;
 import org.apache.hadoop.hbase.PrivateCellUtil;
 import org.apache.hadoop.hbase.PrivateConstants;
+import org.apache.hadoop.hbase.TagType;
 import org.apache.hadoop.hbase.io.compress.Compression;
 import org.apache.hadoop.hbase.io.hfile.HFile;
+import org.apache.hadoop.hbase.io.hfile.HFileDataBlockScanner;
 import org.apache.hadoop.hbase.io.hfile.HFileInfo;
 import org.apache.hadoop.hbase.regionserver.CellSink;
 import org.apache.hadoop.hbase.regionserver.CreateStoreFileWriterParams;
@@ -100,6 +105,15 @@ public abstract class Compactor<T extends CellSink> {
   protected final boolean dropCacheMajor;
   protected final boolean dropCacheMinor;
 
+  /**
+   * Whether minor compactions may copy the data blocks of the selected files as they are, see
+   * {@link #compactByCopyingBlocks(CompactionRequestImpl, ThroughputController)}.
+   */
+  public static final String BLOCK_COPY_ENABLED_KEY = "hbase.hstore.compaction.block.copy.enabled";
+  public static final boolean DEFAULT_BLOCK_COPY_ENABLED = false;
+
+  protected final boolean blockCopyEnabled;
+
   // We track progress per request using the CompactionRequestImpl identity as key.
   // completeCompaction() cleans up this state.
   private final Set<CompactionProgress> progressSet =
@@ -124,6 +138,7 @@ public abstract class Compactor<T extends CellSink> {
         HConstants.MIN_KEEP_SEQID_PERIOD);
     this.dropCacheMajor = conf.getBoolean(MAJOR_COMPACTION_DROP_CACHE, true);
     this.dropCacheMinor = conf.getBoolean(MINOR_COMPACTION_DROP_CACHE, true);
+    this.blockCopyEnabled = conf.getBoolean(BLOCK_COPY_ENABLED_KEY, DEFAULT_BLOCK_COPY_ENABLED);
   }
 
   protected interface CellSinkFactory<S> {
@@ -398,6 +413,217 @@ public abstract class Compactor<T extends CellSink> {
     return commitWriter(writer, fd, request);
   }
 
+  /**
+   * Compacts by copying the data blocks of the selected files into the new file as they are,
+   * instead of merging the cells through a {@link StoreScanner} and encoding and compressing them
+   * again. This only gives the same result as {@link #compact} when the compaction scanner would
+   * keep every cell, so it is only tried for minor compactions of files whose row ranges do not
+   * overlap, which is what flushes of a time series table look like. It gives up as soon as it sees
+   * a cell the scanner could drop: a delete marker, a version beyond the max versions of the
+   * family, a cell newer than the smallest read point, or a cell with a TTL of its own. Files
+   * holding cells expired by the TTL of the family are not copied at all.
+   * <p>
+   * The bloom filters, the time range and the other file statistics are still built from the
+   * cells, so only the data block index is rebuilt from the copied blocks.
+   * @return the new file, or null if the compaction has to go through the regular path. In that
+   *         case any partially written file has been removed already.
+   */
+  protected final List<Path> compactByCopyingBlocks(CompactionRequestImpl request,
+    ThroughputController throughputController) throws IOException {
+    if (!blockCopyEnabled || request.isMajor()) {
+      return null;
+    }
+    // Coprocessors may rewrite the cells passing through the compaction scanner.
+    if (
+      store.getCoprocessorHost() != null && !store.getCoprocessorHost().getCoprocessors().isEmpty()
+    ) {
+      return null;
+    }
+    ScanInfo scanInfo = store.getScanInfo();
+    if (scanInfo.isNewVersionBehavior()) {
+      return null;
+    }
+    List<HStoreFile> files = getFilesInKeyOrder(request.getFiles(), scanInfo);
+    if (files == null) {
+      return null;
+    }
+    FileDetails fd = getFileDetails(files, request.isAllFiles(), false);
+    long smallestReadPoint = getSmallestReadPoint();
+    boolean dropCache = request.isAllFiles() ? this.dropCacheMajor : this.dropCacheMinor;
+    StoreFileWriter writer =
+      createWriter(fd, dropCache, false, request.getWriterCreationTracker());
+    boolean finished = false;
+    CompactionProgress progress = new CompactionProgress(fd.maxKeyCount);
+    progressSet.add(progress);
+    String compactionName = ThroughputControlUtil.getNameForThrottling(store, "compaction");
+    throughputController.start(compactionName);
+    try {
+      for (HStoreFile file : files) {
+        if (!writer.canAppendDataBlocksFrom(file.getReader())) {
+          LOG.debug("Can not copy the data blocks of {} into {}, compacting cell by cell",
+            file.getPath(), writer.getPath());
+          return null;
+        }
+      }
+      CloseChecker closeChecker = new CloseChecker(conf, EnvironmentEdgeManager.currentTime());
+      CopiedCellChecker cellChecker =
+        new CopiedCellChecker(scanInfo.getMaxVersions(), smallestReadPoint);
+      int copiedBlocks = 0;
+      for (HStoreFile file : files) {
+        try (HFileDataBlockScanner blocks =
+          new HFileDataBlockScanner(file.getReader().getHFileReader(), conf)) {
+          while (blocks.next()) {
+            if (!cellChecker.keepsAll(blocks.getCells())) {
+              LOG.debug("Found a cell in {} that compaction would not keep, compacting {} cell by"
+                + " cell", file.getPath(), store);
+              return null;
+            }
+            writer.appendDataBlock(blocks);
+            writer.beforeShipped();
+            copiedBlocks++;
+            int len = blocks.getOnDiskSizeWithHeader();
+            progress.currentCompactedKVs += blocks.getCells().size();
+            progress.totalCompactedSize += blocks.getUncompressedSizeWithoutHeader();
+            throughputController.control(compactionName, len);
+            if (
+              closeChecker.isSizeLimit(store, len)
+                || closeChecker.isTimeLimit(store, EnvironmentEdgeManager.currentTime())
+            ) {
+              progress.cancel();
+              throw new InterruptedIOException("Aborting compaction of store " + store
+                + " in region " + store.getRegionInfo().getRegionNameAsString()
+                + " because it was interrupted.");
+            }
+          }
+        }
+      }
+      progress.complete();
+      finished = true;
+      LOG.debug("Compacted {} files of {} by copying {} data blocks", files.size(), store,
+        copiedBlocks);
+    } catch (InterruptedException e) {
+      progress.cancel();
+      throw new InterruptedIOException(
+        "Interrupted while control throughput of compacting " + compactionName);
+    } finally {
+      throughputController.finish(compactionName);
+      if (finished) {
+        store.updateCompactedMetrics(request.isMajor(), progress);
+      } else {
+        abortStoreFileWriter(writer);
+      }
+      progressSet.remove(progress);
+    }
+    List<Path> newFiles = writer.getPaths();
+    writer.appendMetadata(fd.maxSeqId, request.isAllFiles(), request.getFiles());
+    writer.close();
+    return newFiles;
+  }
+
+  /**
+   * Returns the files sorted by their first key if their row ranges are disjoint and their blocks
+   * can be copied, otherwise null. Files holding no cells are left out.
+   */
+  private List<HStoreFile> getFilesInKeyOrder(Collection<HStoreFile> filesToCompact,
+    ScanInfo scanInfo) {
+    long oldestUnexpiredTs = scanInfo.getTtl() == Long.MAX_VALUE
+      ? Long.MIN_VALUE
+      : EnvironmentEdgeManager.currentTime() - scanInfo.getTtl();
+    List<HStoreFile> files = new ArrayList<>(filesToCompact.size());
+    for (HStoreFile file : filesToCompact) {
+      StoreFileReader reader = file.getReader();
+      // References only cover half of their file, and the cells of bulk loaded files get their
+      // sequence id from the file, not from the blocks.
+      if (reader == null || file.isReference() || reader.isBulkLoaded()) {
+        return null;
+      }
+      if (reader.getEntries() == 0) {
+        continue;
+      }
+      if (
+        !file.getFirstKey().isPresent() || !file.getLastKey().isPresent()
+          || file.getMinimumTimestamp().orElse(Long.MIN_VALUE) < oldestUnexpiredTs
+      ) {
+        return null;
+      }
+      files.add(file);
+    }
+    CellComparator comparator = store.getComparator();
+    files.sort((f1, f2) -> comparator.compare(f1.getFirstKey().get(), f2.getFirstKey().get()));
+    for (int i = 1; i < files.size(); i++) {
+      // Rows must not be shared between files, as delete markers and versions apply row-wide.
+      if (
+        comparator.compareRows(files.get(i - 1).getLastKey().get(),
+          files.get(i).getFirstKey().get()) >= 0
+      ) {
+        return null;
+      }
+    }
+    return files.isEmpty() ? null : files;
+  }
+
+  /** Closes the writer and removes the files it has written so far. */
+  protected final void abortStoreFileWriter(StoreFileWriter writer) {
+    List<Path> leftoverFiles = writer.getPaths();
+    try {
+      writer.close();
+    } catch (IOException e) {
+      LOG.warn("Failed to close the writer after an unfinished compaction.", e);
+    }
+    try {
+      for (Path path : leftoverFiles) {
+        store.getFileSystem().delete(path, false);
+      }
+    } catch (IOException e) {
+      LOG.warn("Failed to delete the leftover file {} after an unfinished compaction.",
+        leftoverFiles, e);
+    }
+  }
+
+  /**
+   * Tells whether a compaction scanner would keep every cell of the blocks being copied. Blocks
+   * are checked in key order, so versions are counted across block boundaries.
+   */
+  private static final class CopiedCellChecker {
+    private final int maxVersions;
+    private final long smallestReadPoint;
+    private ExtendedCell lastCell;
+    private int versions;
+
+    CopiedCellChecker(int maxVersions, long smallestReadPoint) {
+      this.maxVersions = maxVersions;
+      this.smallestReadPoint = smallestReadPoint;
+    }
+
+    boolean keepsAll(List<ExtendedCell> cells) {
+      for (ExtendedCell cell : cells) {
+        if (cell.getType() != Cell.Type.Put || cell.getSequenceId() > smallestReadPoint) {
+          return false;
+        }
+        // A cell with a TTL of its own may expire before the file does.
+        if (
+          cell.getTagsLength() > 0 && PrivateCellUtil.getTag(cell, TagType.TTL_TAG_TYPE).isPresent()
+        ) {
+          return false;
+        }
+        if (lastCell != null && CellUtil.matchingRowColumn(lastCell, cell)) {
+          // The column trackers skip a version that has the same timestamp as the previous one.
+          if (lastCell.getTimestamp() == cell.getTimestamp() || ++versions > maxVersions) {
+            return false;
+          }
+        } else {
+          versions = 1;
+        }
+        lastCell = cell;
+      }
+      if (lastCell != null) {
+        // The cells of a block are released once the next block is read.
+        lastCell = KeyValueUtil.toNewKeyCell(lastCell);
+      }
+      return true;
+    }
+  }
+
   protected abstract List<Path> commitWriter(T writer, FileDetails fd,
     CompactionRequestImpl request) throws IOException;
 
@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.OptionalLong;
 import org.apache.commons.lang3.mutable.MutableLong;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hbase.HDFSBlocksDistribution;
@@ -106,11 +107,33 @@ public class CustomDateTieredCompactionPolicy extends DateTieredCompactionPolicy
   @Override
   public CompactionRequestImpl selectMinorCompaction(ArrayList<HStoreFile> candidateSelection,
     boolean mayUseOffPeak, boolean mayBeStuck) throws IOException {
+    // applyCompactionPolicy removes the files it does not select from the given list
+    List<HStoreFile> candidates = new ArrayList<>(candidateSelection);
     ArrayList<HStoreFile> filteredByPolicy = this.compactionPolicyPerWindow
       .applyCompactionPolicy(candidateSelection, mayUseOffPeak, mayBeStuck);
+    if (filteredByPolicy.isEmpty()) {
+      CompactionRequestImpl storagePolicyChange =
+        selectStoragePolicyChange(candidates, EnvironmentEdgeManager.currentTime());
+      if (storagePolicyChange != null) {
+        return storagePolicyChange;
+      }
+    }
     return selectMajorCompaction(filteredByPolicy);
   }
 
+  @Override
+  protected OptionalLong getTieringTimestamp(HStoreFile file) {
+    byte[] timeRangeBytes = file.getMetadataValue(CUSTOM_TIERING_TIME_RANGE);
+    if (timeRangeBytes != null) {
+      try {
+        return OptionalLong.of(TimeRangeTracker.parseFrom(timeRangeBytes).getMax());
+      } catch (IOException e) {
+        LOG.warn("Got TIERING_CELL_TIME_RANGE info from file, but failed to parse it:", e);
+      }
+    }
+    return OptionalLong.empty();
+  }
+
   @Override
   public boolean shouldPerformMajorCompaction(Collection<HStoreFile> filesToCompact)
     throws IOException {
@@ -289,10 +289,69 @@ public class DateTieredCompactionPolicy extends SortedCompactionPolicy {
         }
       }
     }
+    CompactionRequestImpl storagePolicyChange =
+      selectStoragePolicyChange(candidateSelection, now);
+    if (storagePolicyChange != null) {
+      return storagePolicyChange;
+    }
     // A non-null file list is expected by HStore
     return new CompactionRequestImpl(Collections.emptyList());
   }
 
+  /**
+   * Returns a compaction that rewrites a file into the storage policy of a colder tier, if any of
+   * the candidates has aged out of the tier it was written for, e.g. from the hot into the warm
+   * window. Files written without a storage policy of their own are left alone.
+   */
+  protected CompactionRequestImpl selectStoragePolicyChange(Collection<HStoreFile> candidates,
+    long now) {
+    if (!comConf.isDateTieredStoragePolicyEnable()) {
+      return null;
+    }
+    for (HStoreFile file : candidates) {
+      String storagePolicy = file.getStoragePolicy();
+      OptionalLong tieringTimestamp = getTieringTimestamp(file);
+      if (storagePolicy == null || !tieringTimestamp.isPresent()) {
+        continue;
+      }
+      String windowStoragePolicy = getWindowStoragePolicy(now, tieringTimestamp.getAsLong());
+      int tier = getStorageTier(storagePolicy);
+      // Only move to colder tiers, the newest cell of a file may be younger than its window.
+      if (
+        tier >= 0 && !windowStoragePolicy.equals(storagePolicy)
+          && getStorageTier(windowStoragePolicy) > tier
+      ) {
+        LOG.debug("Moving {} from storage policy {} to {}", file, storagePolicy,
+          windowStoragePolicy);
+        Map<Long, String> boundaryPolicyMap = new HashMap<>();
+        boundaryPolicyMap.put(Long.MIN_VALUE, windowStoragePolicy);
+        return new DateTieredCompactionRequest(Collections.singletonList(file),
+          Collections.singletonList(Long.MIN_VALUE), boundaryPolicyMap);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the timestamp that decides which storage tier the file belongs to, that of its newest
+   * cell.
+   */
+  protected OptionalLong getTieringTimestamp(HStoreFile file) {
+    return file.getMaximumTimestamp();
+  }
+
+  /** Returns 0 for the hot, 1 for the warm and 2 for the cold storage policy, -1 for others. */
+  private int getStorageTier(String storagePolicy) {
+    if (storagePolicy.equals(comConf.getColdWindowStoragePolicy())) {
+      return 2;
+    } else if (storagePolicy.equals(comConf.getWarmWindowStoragePolicy())) {
+      return 1;
+    } else if (storagePolicy.equals(comConf.getHotWindowStoragePolicy())) {
+      return 0;
+    }
+    return -1;
+  }
+
   private DateTieredCompactionRequest generateCompactionRequest(ArrayList<HStoreFile> storeFiles,
     CompactionWindow window, boolean mayUseOffPeak, boolean mayBeStuck, int minThreshold, long now)
     throws IOException {
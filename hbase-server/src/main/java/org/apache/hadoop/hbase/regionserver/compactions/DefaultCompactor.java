@@ -28,8 +28,6 @@ import org.apache.hadoop.hbase.regionserver.StoreFileWriter;
 import org.apache.hadoop.hbase.regionserver.throttle.ThroughputController;
 import org.apache.hadoop.hbase.security.User;
 import org.apache.yetus.audience.InterfaceAudience;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 /**
  * Compact passed set of files. Create an instance and then call
@@ -37,7 +35,6 @@ import org.slf4j.LoggerFactory;
  */
 @InterfaceAudience.Private
 public class DefaultCompactor extends Compactor<StoreFileWriter> {
-  private static final Logger LOG = LoggerFactory.getLogger(DefaultCompactor.class);
 
   public DefaultCompactor(Configuration conf, HStore store) {
     super(conf, store);
@@ -59,6 +56,10 @@ public class DefaultCompactor extends Compactor<StoreFileWriter> {
    */
   public List<Path> compact(final CompactionRequestImpl request,
     ThroughputController throughputController, User user) throws IOException {
+    List<Path> newFiles = compactByCopyingBlocks(request, throughputController);
+    if (newFiles != null) {
+      return newFiles;
+    }
     return compact(request, defaultScannerFactory, writerFactory, throughputController, user);
   }
 
@@ -73,20 +74,7 @@ public class DefaultCompactor extends Compactor<StoreFileWriter> {
 
   @Override
   protected final void abortWriter(StoreFileWriter writer) throws IOException {
-    List<Path> leftoverFiles = writer.getPaths();
-    try {
-      writer.close();
-    } catch (IOException e) {
-      LOG.warn("Failed to close the writer after an unfinished compaction.", e);
-    }
-    try {
-      for (Path path : leftoverFiles) {
-        store.getFileSystem().delete(path, false);
-      }
-    } catch (IOException e) {
-      LOG.warn("Failed to delete the leftover file {} after an unfinished compaction.",
-        leftoverFiles, e);
-    }
+    abortStoreFileWriter(writer);
   }
 
 }
@@ -51,6 +51,9 @@ public class AssignRegionHandler extends EventHandler {
 
   private static final Logger LOG = LoggerFactory.getLogger(AssignRegionHandler.class);
 
+  // table priorities above this one are not told apart when ordering the opens
+  private static final long MAX_TABLE_PRIORITY = 1_000_000;
+
   private final RegionInfo regionInfo;
 
   private final long openProcId;
@@ -64,18 +67,37 @@ public class AssignRegionHandler extends EventHandler {
 
   private final RetryCounter retryCounter;
 
+  // the read requests the region served on its previous server
+  private final long readRequestCount;
+
   public AssignRegionHandler(HRegionServer server, RegionInfo regionInfo, long openProcId,
     @Nullable TableDescriptor tableDesc, long masterSystemTime, long initiatingMasterActiveTime,
-    EventType eventType) {
+    long readRequestCount, EventType eventType) {
     super(server, eventType);
     this.regionInfo = regionInfo;
     this.openProcId = openProcId;
     this.tableDesc = tableDesc;
     this.masterSystemTime = masterSystemTime;
     this.initiatingMasterActiveTime = initiatingMasterActiveTime;
+    this.readRequestCount = readRequestCount;
     this.retryCounter = HandlerUtil.getRetryCounter();
   }
 
+  /**
+   * Opens the regions of the tables with a higher {@link TableDescriptor#getPriority()} first, and
+   * among the regions of the same table priority, the ones which served more reads on their
+   * previous server first, so that the busiest regions of the most important tables come back
+   * first after a crash.
+   */
+  @Override
+  public int getPriority() {
+    // lower values run first; the read count only counts by its order of magnitude
+    long tablePriority = tableDesc != null ? tableDesc.getPriority() : HConstants.NORMAL_QOS;
+    tablePriority = Math.max(0, Math.min(tablePriority, MAX_TABLE_PRIORITY));
+    int readMagnitude = Long.SIZE - Long.numberOfLeadingZeros(Math.max(0, readRequestCount));
+    return Integer.MAX_VALUE - (int) (tablePriority * (Long.SIZE + 1) + readMagnitude);
+  }
+
   private HRegionServer getServer() {
     return (HRegionServer) server;
   }
@@ -176,7 +198,7 @@ public class AssignRegionHandler extends EventHandler {
 
   public static AssignRegionHandler create(HRegionServer server, RegionInfo regionInfo,
     long openProcId, TableDescriptor tableDesc, long masterSystemTime,
-    long initiatingMasterActiveTime) {
+    long initiatingMasterActiveTime, long readRequestCount) {
     EventType eventType;
     if (regionInfo.isMetaRegion()) {
       eventType = EventType.M_RS_OPEN_META;
@@ -189,6 +211,6 @@ public class AssignRegionHandler extends EventHandler {
       eventType = EventType.M_RS_OPEN_REGION;
     }
     return new AssignRegionHandler(server, regionInfo, openProcId, tableDesc, masterSystemTime,
-      initiatingMasterActiveTime, eventType);
+      initiatingMasterActiveTime, readRequestCount, eventType);
   }
 }
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hbase.regionserver.handler;
+
+import java.io.IOException;
+import java.util.List;
+import org.apache.hadoop.hbase.client.RegionInfo;
+import org.apache.hadoop.hbase.client.TableDescriptor;
+import org.apache.hadoop.hbase.executor.EventHandler;
+import org.apache.hadoop.hbase.executor.EventType;
+import org.apache.hadoop.hbase.io.hfile.BlockCache;
+import org.apache.hadoop.hbase.io.hfile.BlockCacheKey;
+import org.apache.hadoop.hbase.regionserver.HRegion;
+import org.apache.hadoop.hbase.regionserver.HRegionServer;
+import org.apache.hadoop.hbase.regionserver.RegionCacheWarmer;
+import org.apache.yetus.audience.InterfaceAudience;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Warms up a region and prefetches the given blocks of its store files into the block cache, see
+ * {@link RegionCacheWarmer}. Runs on its own executor, as the prefetch is throttled and must not
+ * hold an RPC handler.
+ */
+@InterfaceAudience.Private
+public class WarmupRegionHandler extends EventHandler {
+
+  private static final Logger LOG = LoggerFactory.getLogger(WarmupRegionHandler.class);
+
+  private final RegionInfo regionInfo;
+
+  private final TableDescriptor tableDesc;
+
+  private final BlockCache blockCache;
+
+  private final List<BlockCacheKey> blocks;
+
+  public WarmupRegionHandler(HRegionServer server, RegionInfo regionInfo,
+    TableDescriptor tableDesc, BlockCache blockCache, List<BlockCacheKey> blocks) {
+    super(server, EventType.RS_REGION_WARMUP);
+    this.regionInfo = regionInfo;
+    this.tableDesc = tableDesc;
+    this.blockCache = blockCache;
+    this.blocks = blocks;
+  }
+
+  @Override
+  public void process() throws IOException {
+    HRegionServer rs = (HRegionServer) server;
+    HRegion.warmupHRegion(regionInfo, tableDesc, rs.getWAL(regionInfo), rs.getConfiguration(), rs,
+      null, blockCache, blocks);
+  }
+
+  @Override
+  protected void handleException(Throwable t) {
+    // only an optimization for the following open, never abort for it
+    LOG.warn("Failed warmup of {}", regionInfo.getRegionNameAsString(), t);
+  }
+}
@@ -22,6 +22,7 @@ import static org.apache.hadoop.hbase.HConstants.EMPTY_START_ROW;
 import java.io.IOException;
 import org.apache.hadoop.hbase.ExtendedCell;
 import org.apache.hadoop.hbase.KeepDeletedCells;
+import org.apache.hadoop.hbase.PrivateCellUtil;
 import org.apache.hadoop.hbase.filter.Filter;
 import org.apache.hadoop.hbase.regionserver.RegionCoprocessorHost;
 import org.apache.hadoop.hbase.regionserver.ScanInfo;
@@ -101,7 +102,13 @@ public abstract class CompactionScanQueryMatcher extends ScanQueryMatcher {
       keepDeletedCells == KeepDeletedCells.FALSE
         || (keepDeletedCells == KeepDeletedCells.TTL && cell.getTimestamp() < oldestUnexpiredTS)
     ) {
-      deletes.add(cell);
+      // A compaction reads the store files from their start, so it always sees a range tombstone
+      // before the cells it deletes.
+      if (PrivateCellUtil.isDeleteRange(cell)) {
+        rangeTombstones.add(cell);
+      } else {
+        deletes.add(cell);
+      }
     }
   }
 
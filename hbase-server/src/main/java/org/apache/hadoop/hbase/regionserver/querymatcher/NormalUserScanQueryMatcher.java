@@ -18,6 +18,8 @@
 package org.apache.hadoop.hbase.regionserver.querymatcher;
 
 import java.io.IOException;
+import java.util.List;
+import org.apache.hadoop.hbase.CellUtil;
 import org.apache.hadoop.hbase.ExtendedCell;
 import org.apache.hadoop.hbase.KeepDeletedCells;
 import org.apache.hadoop.hbase.PrivateCellUtil;
@@ -40,12 +42,21 @@ public abstract class NormalUserScanQueryMatcher extends UserScanQueryMatcher {
   /** whether time range queries can see rows "behind" a delete */
   protected final boolean seePastDeleteMarkers;
 
+  private final boolean reversed;
+
+  /** The max timestamp of all the cells this scan reads */
+  private long maxTimestamp = Long.MAX_VALUE;
+
+  /** The first row after a range deleted as a whole, set when returning SEEK_NEXT_USING_HINT */
+  private ExtendedCell rangeDeleteHint;
+
   protected NormalUserScanQueryMatcher(Scan scan, ScanInfo scanInfo, ColumnTracker columns,
     boolean hasNullColumn, DeleteTracker deletes, long oldestUnexpiredTS, long now) {
     super(scan, scanInfo, columns, hasNullColumn, oldestUnexpiredTS, now);
     this.deletes = deletes;
     this.get = scan.isGetScan();
     this.seePastDeleteMarkers = scanInfo.getKeepDeletedCells() != KeepDeletedCells.FALSE;
+    this.reversed = scan.isReversed();
   }
 
   @Override
@@ -66,9 +77,8 @@ public abstract class NormalUserScanQueryMatcher extends UserScanQueryMatcher {
     long timestamp = cell.getTimestamp();
     byte typeByte = cell.getTypeByte();
     if (PrivateCellUtil.isDelete(typeByte)) {
-      boolean includeDeleteMarker =
-        seePastDeleteMarkers ? tr.withinTimeRange(timestamp) : tr.withinOrAfterTimeRange(timestamp);
-      if (includeDeleteMarker) {
+      // range tombstones are already known from addRangeTombstones
+      if (includeDeleteMarker(timestamp) && !PrivateCellUtil.isDeleteRange(cell)) {
         this.deletes.add(cell);
       }
       return MatchCode.SKIP;
@@ -80,6 +90,43 @@ public abstract class NormalUserScanQueryMatcher extends UserScanQueryMatcher {
     return matchColumn(cell, timestamp, typeByte);
   }
 
+  private boolean includeDeleteMarker(long timestamp) {
+    return seePastDeleteMarkers
+      ? tr.withinTimeRange(timestamp)
+      : tr.withinOrAfterTimeRange(timestamp);
+  }
+
+  @Override
+  public void addRangeTombstones(List<ExtendedCell> tombstones, long maxTimestamp) {
+    for (ExtendedCell tombstone : tombstones) {
+      if (includeDeleteMarker(tombstone.getTimestamp())) {
+        rangeTombstones.add(tombstone);
+      }
+    }
+    this.maxTimestamp = maxTimestamp;
+  }
+
+  @Override
+  protected MatchCode checkRangeDeleted(ExtendedCell cell, ExtendedCell rangeTombstone) {
+    // If no cell read by this scan is newer than the tombstone, the rest of the range is deleted as
+    // a whole and we can seek past it.
+    if (!reversed && !get && rangeTombstone.getTimestamp() >= maxTimestamp) {
+      rangeDeleteHint = PrivateCellUtil.createFirstOnRow(CellUtil.cloneValue(rangeTombstone));
+      return MatchCode.SEEK_NEXT_USING_HINT;
+    }
+    return super.checkRangeDeleted(cell, rangeTombstone);
+  }
+
+  @Override
+  public ExtendedCell getNextKeyHint(ExtendedCell cell) throws IOException {
+    if (rangeDeleteHint != null) {
+      ExtendedCell hint = rangeDeleteHint;
+      rangeDeleteHint = null;
+      return hint;
+    }
+    return super.getNextKeyHint(cell);
+  }
+
   @Override
   protected void reset() {
     deletes.reset();
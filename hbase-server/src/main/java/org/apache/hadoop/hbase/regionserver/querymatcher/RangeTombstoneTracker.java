@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hbase.regionserver.querymatcher;
+
+import java.util.Arrays;
+import org.apache.hadoop.hbase.CellComparator;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.ExtendedCell;
+import org.apache.hadoop.hbase.KeyValueUtil;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.yetus.audience.InterfaceAudience;
+
+/**
+ * Keeps track of the {@link org.apache.hadoop.hbase.KeyValue.Type#DeleteRange} markers seen by a
+ * query. A range tombstone deletes the cells of its family with a timestamp less than or equal to
+ * its own in all rows from its row, inclusive, up to the row held in its value, exclusive.
+ * <p>
+ * Unlike the {@link DeleteTracker}, which only holds the deletes of the current row, the range
+ * tombstones stay around for the whole query. They are kept sorted by start row, together with the
+ * largest end row of all the tombstones up to each position, so that a lookup is a binary search
+ * followed by a walk back over the tombstones which may still cover the row.
+ * <p>
+ * This class is NOT thread-safe as queries are never multi-threaded
+ */
+@InterfaceAudience.Private
+public class RangeTombstoneTracker {
+
+  private final CellComparator comparator;
+
+  /**
+   * Whether a tombstone only deletes the cells written before it, see
+   * {@link NewVersionBehaviorTracker}.
+   */
+  private final boolean mvccSensitive;
+
+  private ExtendedCell[] tombstones = new ExtendedCell[0];
+  private byte[][] endRows = new byte[0][];
+  // maxEndRows[i] is the largest of endRows[0..i]
+  private byte[][] maxEndRows = new byte[0][];
+  private int size = 0;
+  // whether tombstones[0, size) is sorted by row
+  private boolean sorted = true;
+
+  public RangeTombstoneTracker(CellComparator comparator, boolean mvccSensitive) {
+    this.comparator = comparator;
+    this.mvccSensitive = mvccSensitive;
+  }
+
+  /**
+   * Add a range tombstone. The cell is copied, so it can come from a block which is released later.
+   */
+  public void add(ExtendedCell tombstone) {
+    if (size == tombstones.length) {
+      int capacity = Math.max(4, size * 2);
+      tombstones = Arrays.copyOf(tombstones, capacity);
+      endRows = Arrays.copyOf(endRows, capacity);
+      maxEndRows = Arrays.copyOf(maxEndRows, capacity);
+    }
+    if (size > 0 && comparator.compareRows(tombstones[size - 1], tombstone) > 0) {
+      sorted = false;
+    }
+    tombstones[size] = KeyValueUtil.copyToNewKeyValue(tombstone);
+    endRows[size] = CellUtil.cloneValue(tombstone);
+    if (sorted) {
+      maxEndRows[size] = size == 0 ? endRows[size] : maxRow(maxEndRows[size - 1], endRows[size]);
+    }
+    size++;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Check whether the specified cell is deleted by one of the tracked range tombstones.
+   * @return the tombstone deleting the cell, or null if the cell is not deleted
+   */
+  public ExtendedCell getCoveringTombstone(ExtendedCell cell) {
+    if (size == 0) {
+      return null;
+    }
+    if (!sorted) {
+      sort();
+    }
+    // find the last tombstone starting at or before the row of the cell
+    int low = 0;
+    int high = size - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      if (comparator.compareRows(tombstones[mid], cell) <= 0) {
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+    for (int i = high; i >= 0 && compareRowTo(cell, maxEndRows[i]) < 0; i--) {
+      ExtendedCell tombstone = tombstones[i];
+      if (
+        compareRowTo(cell, endRows[i]) < 0 && cell.getTimestamp() <= tombstone.getTimestamp()
+          && (!mvccSensitive || cell.getSequenceId() < tombstone.getSequenceId())
+      ) {
+        return tombstone;
+      }
+    }
+    return null;
+  }
+
+  private int compareRowTo(ExtendedCell cell, byte[] row) {
+    return comparator.compareRows(cell, row, 0, row.length);
+  }
+
+  private static byte[] maxRow(byte[] left, byte[] right) {
+    return Bytes.compareTo(left, right) >= 0 ? left : right;
+  }
+
+  private void sort() {
+    Integer[] order = new Integer[size];
+    for (int i = 0; i < size; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, (i, j) -> comparator.compareRows(tombstones[i], tombstones[j]));
+    ExtendedCell[] sortedTombstones = new ExtendedCell[tombstones.length];
+    byte[][] sortedEndRows = new byte[endRows.length][];
+    for (int i = 0; i < size; i++) {
+      sortedTombstones[i] = tombstones[order[i]];
+      sortedEndRows[i] = endRows[order[i]];
+      maxEndRows[i] = i == 0 ? sortedEndRows[i] : maxRow(maxEndRows[i - 1], sortedEndRows[i]);
+    }
+    tombstones = sortedTombstones;
+    endRows = sortedEndRows;
+    sorted = true;
+  }
+}
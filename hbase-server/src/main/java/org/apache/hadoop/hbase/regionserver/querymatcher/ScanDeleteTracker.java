@@ -18,8 +18,6 @@
 package org.apache.hadoop.hbase.regionserver.querymatcher;
 
 import java.io.IOException;
-import java.util.SortedSet;
-import java.util.TreeSet;
 import org.apache.hadoop.hbase.CellComparator;
 import org.apache.hadoop.hbase.CellUtil;
 import org.apache.hadoop.hbase.ExtendedCell;
@@ -47,7 +45,7 @@ public class ScanDeleteTracker implements DeleteTracker {
 
   protected boolean hasFamilyStamp = false;
   protected long familyStamp = 0L;
-  protected SortedSet<Long> familyVersionStamps = new TreeSet<Long>();
+  protected TimestampSet familyVersionStamps = new TimestampSet();
   protected ExtendedCell deleteCell = null;
   protected byte[] deleteBuffer = null;
   protected int deleteOffset = 0;
@@ -105,7 +103,7 @@ public class ScanDeleteTracker implements DeleteTracker {
       return DeleteResult.FAMILY_DELETED;
     }
 
-    if (familyVersionStamps.contains(Long.valueOf(timestamp))) {
+    if (familyVersionStamps.contains(timestamp)) {
       return DeleteResult.FAMILY_VERSION_DELETED;
     }
 
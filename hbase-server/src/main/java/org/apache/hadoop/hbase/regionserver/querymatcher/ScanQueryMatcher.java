@@ -19,6 +19,7 @@ package org.apache.hadoop.hbase.regionserver.querymatcher;
 
 import java.io.IOException;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NavigableSet;
 import org.apache.hadoop.hbase.Cell;
 import org.apache.hadoop.hbase.CellComparator;
@@ -130,6 +131,9 @@ public abstract class ScanQueryMatcher implements ShipperListener {
   /** Row the query is on */
   protected ExtendedCell currentRow;
 
+  /** Keeps track of range deletes, which are not reset when moving to the next row */
+  protected final RangeTombstoneTracker rangeTombstones;
+
   protected ScanQueryMatcher(ExtendedCell startKey, ScanInfo scanInfo, ColumnTracker columns,
     long oldestUnexpiredTS, long now) {
     this.rowComparator = scanInfo.getComparator();
@@ -137,6 +141,8 @@ public abstract class ScanQueryMatcher implements ShipperListener {
     this.oldestUnexpiredTS = oldestUnexpiredTS;
     this.now = now;
     this.columns = columns;
+    this.rangeTombstones =
+      new RangeTombstoneTracker(scanInfo.getComparator(), scanInfo.isNewVersionBehavior());
   }
 
   /** Returns true if the cell is expired */
@@ -199,6 +205,30 @@ public abstract class ScanQueryMatcher implements ShipperListener {
   }
 
   protected final MatchCode checkDeleted(DeleteTracker deletes, ExtendedCell cell) {
+    MatchCode returnCode = checkDeleteTracker(deletes, cell);
+    if (returnCode != null || rangeTombstones.isEmpty()) {
+      return returnCode;
+    }
+    ExtendedCell rangeTombstone = rangeTombstones.getCoveringTombstone(cell);
+    if (rangeTombstone == null) {
+      return null;
+    }
+    if (deletes instanceof NewVersionBehaviorTracker) {
+      return MatchCode.SKIP;
+    }
+    return checkRangeDeleted(cell, rangeTombstone);
+  }
+
+  /**
+   * Decides where to go on after the specified cell was found deleted by a range tombstone. The
+   * tombstone also deletes all the older versions of the column, so by default we seek to the next
+   * column.
+   */
+  protected MatchCode checkRangeDeleted(ExtendedCell cell, ExtendedCell rangeTombstone) {
+    return columns.getNextRowOrNextColumn(cell);
+  }
+
+  private MatchCode checkDeleteTracker(DeleteTracker deletes, ExtendedCell cell) {
     if (deletes.isEmpty() && !(deletes instanceof NewVersionBehaviorTracker)) {
       return null;
     }
@@ -238,6 +268,16 @@ public abstract class ScanQueryMatcher implements ShipperListener {
    */
   public abstract MatchCode match(ExtendedCell cell) throws IOException;
 
+  /**
+   * Adds the range tombstones of the store files and memstore segments read by this query. A user
+   * scan may start in the middle of a deleted range, so it can not rely on seeing the tombstone
+   * before the cells it deletes, unlike a compaction, which tracks the tombstones as it reads them.
+   * @param tombstones   the range tombstones visible to this query
+   * @param maxTimestamp the max timestamp of all the cells read by this query
+   */
+  public void addRangeTombstones(List<ExtendedCell> tombstones, long maxTimestamp) {
+  }
+
   /** Returns the start key */
   public ExtendedCell getStartKey() {
     return startKey;
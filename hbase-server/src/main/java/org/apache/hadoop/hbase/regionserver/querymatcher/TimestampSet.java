@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hbase.regionserver.querymatcher;
+
+import java.util.Arrays;
+import org.apache.yetus.audience.InterfaceAudience;
+
+/**
+ * A set of timestamps backed by a sorted long array, used by the delete trackers to remember the
+ * DeleteFamilyVersion markers of a row. A wide row can carry millions of them, so this avoids the
+ * boxing and the per entry overhead of a {@code TreeSet<Long>}.
+ * <p>
+ * The markers of a row are seen in descending timestamp order, which is the order they sort in, so
+ * adding is normally an append. Timestamps added out of order are sorted in before the next lookup.
+ * <p>
+ * This class is NOT thread-safe as queries are never multi-threaded
+ */
+@InterfaceAudience.Private
+public class TimestampSet {
+
+  private static final int INITIAL_CAPACITY = 8;
+
+  /**
+   * Arrays larger than this are dropped on {@link #clear()}, so that one wide row does not pin its
+   * memory for the rest of the scan.
+   */
+  private static final int MAX_RETAINED_CAPACITY = 1024;
+
+  private long[] timestamps = new long[INITIAL_CAPACITY];
+  private int size = 0;
+  // whether timestamps[0, size) is sorted in descending order
+  private boolean sorted = true;
+
+  public void add(long timestamp) {
+    if (size > 0 && sorted) {
+      long last = timestamps[size - 1];
+      if (timestamp == last) {
+        return;
+      }
+      sorted = timestamp < last;
+    }
+    if (size == timestamps.length) {
+      timestamps = Arrays.copyOf(timestamps, size * 2);
+    }
+    timestamps[size++] = timestamp;
+  }
+
+  public boolean contains(long timestamp) {
+    if (size == 0) {
+      return false;
+    }
+    if (!sorted) {
+      sort();
+    }
+    // binary search over the descending array
+    int low = 0;
+    int high = size - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      long midVal = timestamps[mid];
+      if (midVal > timestamp) {
+        low = mid + 1;
+      } else if (midVal < timestamp) {
+        high = mid - 1;
+      } else {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void sort() {
+    Arrays.sort(timestamps, 0, size);
+    for (int i = 0, j = size - 1; i < j; i++, j--) {
+      long timestamp = timestamps[i];
+      timestamps[i] = timestamps[j];
+      timestamps[j] = timestamp;
+    }
+    int newSize = 1;
+    for (int i = 1; i < size; i++) {
+      if (timestamps[i] != timestamps[newSize - 1]) {
+        timestamps[newSize++] = timestamps[i];
+      }
+    }
+    size = newSize;
+    sorted = true;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public int size() {
+    if (!sorted) {
+      sort();
+    }
+    return size;
+  }
+
+  public void clear() {
+    if (timestamps.length > MAX_RETAINED_CAPACITY) {
+      timestamps = new long[INITIAL_CAPACITY];
+    }
+    size = 0;
+    sorted = true;
+  }
+}
@@ -312,6 +312,12 @@ public abstract class AbstractFSWAL<W extends WriterBase> implements WAL {
    */
   volatile W writer;
 
+  /**
+   * The entries recently appended to the current log file, for the replication sources tailing it.
+   * Null if disabled.
+   */
+  private final WALTailCache tailCache;
+
   // Last time to check low replication on hlog's pipeline
   private volatile long lastTimeCheckLowReplication = EnvironmentEdgeManager.currentTime();
 
@@ -616,6 +622,13 @@ public abstract class AbstractFSWAL<W extends WriterBase> implements WAL {
       + ", maxLogs=" + this.maxLogs);
     this.slowSyncNs =
       TimeUnit.MILLISECONDS.toNanos(conf.getInt(SLOW_SYNC_TIME_MS, DEFAULT_SLOW_SYNC_TIME_MS));
+    long tailCacheSize =
+      conf.getLong(WALTailCache.WAL_TAIL_CACHE_SIZE_KEY, WALTailCache.DEFAULT_WAL_TAIL_CACHE_SIZE);
+    // with compression, the entries of a file can only be read in order from its start
+    this.tailCache =
+      tailCacheSize > 0 && !conf.getBoolean(HConstants.ENABLE_WAL_COMPRESSION, false)
+        ? new WALTailCache(tailCacheSize)
+        : null;
     this.rollOnSyncNs = TimeUnit.MILLISECONDS
       .toNanos(conf.getInt(ROLL_ON_SYNC_TIME_MS, DEFAULT_ROLL_ON_SYNC_TIME_MS));
     this.slowSyncRollThreshold =
@@ -1330,7 +1343,11 @@ public abstract class AbstractFSWAL<W extends WriterBase> implements WAL {
         i.visitLogEntryBeforeWrite(entry.getRegionInfo(), entry.getKey(), entry.getEdit());
       }
     }
+    long startPos = tailCache != null ? writer.getLength() : 0;
     doAppend(writer, entry);
+    if (tailCache != null) {
+      tailCache.add(writer, startPos, writer.getLength(), entry);
+    }
     assert highestUnsyncedTxid < entry.getTxid();
     highestUnsyncedTxid = entry.getTxid();
     if (entry.isCloseRegion()) {
@@ -1444,6 +1461,11 @@ public abstract class AbstractFSWAL<W extends WriterBase> implements WAL {
     }
   }
 
+  @Override
+  public WALTailCache getWALTailCache(Path path) {
+    return tailCache != null && path.equals(getOldPath()) ? tailCache : null;
+  }
+
   @Override
   public long appendData(RegionInfo info, WALKeyImpl key, WALEdit edits) throws IOException {
     return TraceUtil.trace(() -> append(info, key, edits, true),
@@ -2078,6 +2100,9 @@ public abstract class AbstractFSWAL<W extends WriterBase> implements WAL {
       logRollAndSetupWalProps(oldPath, newPath, 0);
     }
     this.writer = nextWriter;
+    if (tailCache != null) {
+      tailCache.reset(nextWriter, newPath);
+    }
     /**
      * Here is used for {@link AsyncFSWAL} and {@link FSHLog} to set the under layer filesystem
      * output after writer is replaced.
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hbase.regionserver.wal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hbase.ExtendedCell;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.KeyValueUtil;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.util.Pair;
+import org.apache.hadoop.hbase.wal.WAL.Entry;
+import org.apache.hadoop.hbase.wal.WALEdit;
+import org.apache.hadoop.hbase.wal.WALEditInternalHelper;
+import org.apache.hadoop.hbase.wal.WALKeyImpl;
+import org.apache.yetus.audience.InterfaceAudience;
+
+/**
+ * A bounded cache of the entries most recently appended to the WAL file currently being written,
+ * keyed by their position in the file. Replication sources tailing this file can take the entries
+ * from here instead of reading them back from the file system, as long as they do not fall behind
+ * the oldest cached entry.
+ * <p>
+ * The cells are copied when appended, as the cells of a WAL entry may be backed by the buffers of
+ * the rpc call which wrote them, and released once the call is done. An entry taken from the cache
+ * is a copy of the cached one, which can be modified by the replication filters.
+ */
+@InterfaceAudience.Private
+public class WALTailCache {
+
+  /** The maximum heap size of the cached entries, 0 to disable the cache */
+  public static final String WAL_TAIL_CACHE_SIZE_KEY = "hbase.regionserver.wal.tail.cache.size";
+  public static final long DEFAULT_WAL_TAIL_CACHE_SIZE = 0;
+
+  private static final class CachedEntry {
+    private final WALKeyImpl key;
+    private final List<ExtendedCell> cells;
+    private final long endPos;
+    private final long heapSize;
+
+    CachedEntry(WALKeyImpl key, List<ExtendedCell> cells, long endPos, long heapSize) {
+      this.key = key;
+      this.cells = cells;
+      this.endPos = endPos;
+      this.heapSize = heapSize;
+    }
+  }
+
+  private final long maxSize;
+
+  // the writer and the path of the file the cached entries were appended to
+  private Object writer;
+  private Path path;
+
+  private final NavigableMap<Long, CachedEntry> entries = new TreeMap<>();
+
+  private long size;
+
+  public WALTailCache(long maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Drop the cached entries, the next ones will be appended with the given writer to the given
+   * file.
+   */
+  synchronized void reset(Object writer, Path path) {
+    this.writer = writer;
+    this.path = path;
+    entries.clear();
+    size = 0;
+  }
+
+  /**
+   * Cache an entry just appended with the given writer, between the given positions of the file.
+   */
+  void add(Object writer, long startPos, long endPos, Entry entry) {
+    List<ExtendedCell> cells = WALEditInternalHelper.getExtendedCells(entry.getEdit());
+    List<ExtendedCell> copies = new ArrayList<>(cells.size());
+    long heapSize = 0;
+    for (ExtendedCell cell : cells) {
+      KeyValue kv = KeyValueUtil.copyToNewKeyValue(cell);
+      heapSize += kv.heapSize();
+      copies.add(kv);
+    }
+    WALKeyImpl key = copyKey(entry.getKey());
+    synchronized (this) {
+      if (writer != this.writer) {
+        // appended to a writer which has been replaced, should not happen
+        return;
+      }
+      entries.put(startPos, new CachedEntry(key, copies, endPos, heapSize));
+      size += heapSize;
+      while (size > maxSize && !entries.isEmpty()) {
+        size -= entries.pollFirstEntry().getValue().heapSize;
+      }
+    }
+  }
+
+  /**
+   * Returns the entry starting at the given position of the given file and its end position, or
+   * null if it is not cached or ends after the given limit, usually the synced length of the file.
+   */
+  public Pair<Entry, Long> get(Path path, long position, long limit) {
+    CachedEntry cached;
+    synchronized (this) {
+      if (!path.equals(this.path)) {
+        return null;
+      }
+      cached = entries.get(position);
+    }
+    if (cached == null || cached.endPos > limit) {
+      return null;
+    }
+    WALEdit edit = new WALEdit(cached.cells.size(), false);
+    WALEditInternalHelper.addExtendedCell(edit, cached.cells);
+    return Pair.newPair(new Entry(copyKey(cached.key), edit), cached.endPos);
+  }
+
+  private static WALKeyImpl copyKey(WALKeyImpl key) {
+    NavigableMap<byte[], Integer> scopes = null;
+    if (key.getReplicationScopes() != null) {
+      scopes = new TreeMap<>(Bytes.BYTES_COMPARATOR);
+      scopes.putAll(key.getReplicationScopes());
+    }
+    Map<String, byte[]> attributes = key.getExtendedAttributes();
+    return new WALKeyImpl(key, new ArrayList<>(key.getClusterIds()), null, scopes,
+      attributes.isEmpty() ? null : new HashMap<>(attributes));
+  }
+}
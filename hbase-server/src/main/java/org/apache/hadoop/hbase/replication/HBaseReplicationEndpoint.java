@@ -37,6 +37,7 @@ import org.apache.hadoop.hbase.client.AsyncRegionServerAdmin;
 import org.apache.hadoop.hbase.client.ClusterConnectionFactory;
 import org.apache.hadoop.hbase.client.ConnectionRegistryFactory;
 import org.apache.hadoop.hbase.security.User;
+import org.apache.hadoop.hbase.util.EnvironmentEdgeManager;
 import org.apache.hadoop.hbase.util.FutureUtils;
 import org.apache.hadoop.hbase.util.ReservoirSample;
 import org.apache.yetus.audience.InterfaceAudience;
@@ -70,6 +71,12 @@ public abstract class HBaseReplicationEndpoint extends BaseReplicationEndpoint
    */
   public static final int DEFAULT_BAD_SINK_THRESHOLD = 3;
 
+  /**
+   * Default time in milliseconds a sink which failed is skipped for by
+   * {@link #getReplicationSink(int)}, for each time it failed since its last success.
+   */
+  public static final long DEFAULT_BAD_SINK_BACKOFF_MS = 1000;
+
   /**
    * Default ratio of the total number of peer cluster region servers to consider replicating to.
    */
@@ -83,6 +90,10 @@ public abstract class HBaseReplicationEndpoint extends BaseReplicationEndpoint
   private int badSinkThreshold;
   // Count of "bad replication sink" reports per peer sink
   private Map<ServerName, Integer> badReportCounts;
+  // Time of the last "bad replication sink" report per peer sink
+  private Map<ServerName, Long> badReportTimes;
+  // Time a sink which failed is skipped for, for each of its bad reports
+  private long badSinkBackoffMs;
 
   private List<ServerName> sinkServers = new ArrayList<>(0);
 
@@ -108,6 +119,9 @@ public abstract class HBaseReplicationEndpoint extends BaseReplicationEndpoint
     this.badSinkThreshold =
       ctx.getConfiguration().getInt("replication.bad.sink.threshold", DEFAULT_BAD_SINK_THRESHOLD);
     this.badReportCounts = Maps.newHashMap();
+    this.badReportTimes = Maps.newHashMap();
+    this.badSinkBackoffMs = ctx.getConfiguration().getLong("replication.bad.sink.backoff.ms",
+      DEFAULT_BAD_SINK_BACKOFF_MS);
   }
 
   private void disconnect() {
@@ -219,6 +233,7 @@ public abstract class HBaseReplicationEndpoint extends BaseReplicationEndpoint
       this.sinkServers = sample.getSamplingResult();
     }
     badReportCounts.clear();
+    badReportTimes.clear();
   }
 
   protected synchronized int getNumSinks() {
@@ -242,6 +257,40 @@ public abstract class HBaseReplicationEndpoint extends BaseReplicationEndpoint
     return new SinkPeer(serverName, connect().getRegionServerAdmin(serverName));
   }
 
+  /**
+   * Get the replication sink of the given shard, so the edits of a shard keep going to the same
+   * sink as long as the list of sinks does not change. A sink which failed since its last success
+   * is skipped in favor of the next healthy one for a while, longer the more times it failed in a
+   * row, so the edits of its shards are not held up by it. It is tried again after that, until it
+   * is reported bad more than replication.bad.sink.threshold times.
+   * @param shard the shard of the edits, usually derived from their region
+   * @return a replication sink to replicate to
+   */
+  protected synchronized SinkPeer getReplicationSink(int shard) throws IOException {
+    if (sinkServers.isEmpty()) {
+      LOG.info("Current list of sinks is out of date or empty, updating");
+      chooseSinks();
+    }
+    if (sinkServers.isEmpty()) {
+      throw new IOException("No replication sinks are available");
+    }
+    long now = EnvironmentEdgeManager.currentTime();
+    int first = Math.floorMod(shard, sinkServers.size());
+    ServerName serverName = sinkServers.get(first);
+    for (int i = 0; i < sinkServers.size(); i++) {
+      ServerName candidate = sinkServers.get((first + i) % sinkServers.size());
+      Integer badReportCount = badReportCounts.get(candidate);
+      if (
+        badReportCount == null
+          || now - badReportTimes.get(candidate) >= badReportCount * badSinkBackoffMs
+      ) {
+        serverName = candidate;
+        break;
+      }
+    }
+    return new SinkPeer(serverName, connect().getRegionServerAdmin(serverName));
+  }
+
   /**
    * Report a {@code SinkPeer} as being bad (i.e. an attempt to replicate to it failed). If a single
    * SinkPeer is reported as bad more than replication.bad.sink.threshold times, it will be removed
@@ -251,6 +300,7 @@ public abstract class HBaseReplicationEndpoint extends BaseReplicationEndpoint
   protected synchronized void reportBadSink(SinkPeer sinkPeer) {
     ServerName serverName = sinkPeer.getServerName();
     int badReportCount = badReportCounts.compute(serverName, (k, v) -> v == null ? 1 : v + 1);
+    badReportTimes.put(serverName, EnvironmentEdgeManager.currentTime());
     if (badReportCount > badSinkThreshold) {
       this.sinkServers.remove(serverName);
       if (sinkServers.isEmpty()) {
@@ -265,6 +315,7 @@ public abstract class HBaseReplicationEndpoint extends BaseReplicationEndpoint
    */
   protected synchronized void reportSinkSuccess(SinkPeer sinkPeer) {
     badReportCounts.remove(sinkPeer.getServerName());
+    badReportTimes.remove(sinkPeer.getServerName());
   }
 
   List<ServerName> getSinkServers() {
@@ -283,7 +334,7 @@ public abstract class HBaseReplicationEndpoint extends BaseReplicationEndpoint
       this.regionServer = regionServer;
     }
 
-    ServerName getServerName() {
+    public ServerName getServerName() {
       return serverName;
     }
 
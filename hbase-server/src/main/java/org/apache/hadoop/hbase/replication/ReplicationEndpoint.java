@@ -22,6 +22,8 @@ import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.hbase.Abortable;
@@ -161,6 +163,8 @@ public interface ReplicationEndpoint extends ReplicationPeerConfigListener {
     int size;
     String walGroupId;
     int timeout;
+    IntConsumer progressListener;
+    Supplier<Runnable> entriesRetainer;
 
     @InterfaceAudience.Private
     public ReplicateContext() {
@@ -200,6 +204,43 @@ public interface ReplicationEndpoint extends ReplicationPeerConfigListener {
     public int getTimeout() {
       return this.timeout;
     }
+
+    @InterfaceAudience.Private
+    public ReplicateContext setProgressListener(IntConsumer progressListener) {
+      this.progressListener = progressListener;
+      return this;
+    }
+
+    /**
+     * Report that the given number of entries, counted from the start of {@link #getEntries()},
+     * have been acknowledged by the peer, while some of the following ones are still to be
+     * replicated. The replication source may then persist its position up to these entries.
+     */
+    public void reportProgress(int acknowledgedEntries) {
+      if (progressListener != null) {
+        progressListener.accept(acknowledgedEntries);
+      }
+    }
+
+    @InterfaceAudience.Private
+    public ReplicateContext setEntriesRetainer(Supplier<Runnable> entriesRetainer) {
+      this.entriesRetainer = entriesRetainer;
+      return this;
+    }
+
+    /**
+     * Retain the entries, which may be held in buffers released once
+     * {@link ReplicationEndpoint#replicate(ReplicateContext)} returns, for an endpoint which may
+     * still be using them after that, e.g. in requests still in flight when it was interrupted.
+     * @return the action releasing the entries, to run once they are not used any more
+     */
+    public Runnable retainEntries() {
+      if (entriesRetainer == null) {
+        return () -> {
+        };
+      }
+      return entriesRetainer.get();
+    }
   }
 
   /**
@@ -63,6 +63,11 @@ public class ReplicationSinkServiceImpl implements ReplicationSinkService {
       sourceBaseNamespaceDirPath, sourceHFileArchiveDirPath);
   }
 
+  @Override
+  public void incrCompressedBytesSaved(long bytesSaved) {
+    this.replicationSink.getSinkMetrics().incrCompressedBytesSaved(bytesSaved);
+  }
+
   @Override
   public void initialize(Server server, FileSystem fs, Path logdir, Path oldLogDir,
     WALFactory walFactory) throws IOException {
@@ -25,23 +25,29 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.ExtendedCellScanner;
 import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.ServerName;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.TableNotFoundException;
 import org.apache.hadoop.hbase.client.Admin;
 import org.apache.hadoop.hbase.client.AsyncRegionServerAdmin;
 import org.apache.hadoop.hbase.client.Connection;
 import org.apache.hadoop.hbase.client.ConnectionFactory;
+import org.apache.hadoop.hbase.io.SizedExtendedCellScanner;
+import org.apache.hadoop.hbase.io.compress.Compression;
 import org.apache.hadoop.hbase.ipc.CallTimeoutException;
 import org.apache.hadoop.hbase.ipc.RpcServer;
 import org.apache.hadoop.hbase.protobuf.ReplicationProtobufUtil;
@@ -53,8 +59,10 @@ import org.apache.hadoop.hbase.util.Bytes;
 import org.apache.hadoop.hbase.util.CommonFSUtils;
 import org.apache.hadoop.hbase.util.EnvironmentEdgeManager;
 import org.apache.hadoop.hbase.util.FutureUtils;
+import org.apache.hadoop.hbase.util.Pair;
 import org.apache.hadoop.hbase.wal.WAL.Entry;
 import org.apache.hadoop.hbase.wal.WALEdit;
+import org.apache.hadoop.hbase.wal.WALKeyImpl;
 import org.apache.hadoop.ipc.RemoteException;
 import org.apache.yetus.audience.InterfaceAudience;
 import org.slf4j.Logger;
@@ -63,6 +71,8 @@ import org.slf4j.LoggerFactory;
 import org.apache.hbase.thirdparty.com.google.common.collect.Iterators;
 import org.apache.hbase.thirdparty.com.google.common.collect.PeekingIterator;
 
+import org.apache.hadoop.hbase.shaded.protobuf.generated.AdminProtos.ReplicateWALEntryRequest;
+
 /**
  * A {@link org.apache.hadoop.hbase.replication.ReplicationEndpoint} implementation for replicating
  * to another HBase cluster. For the slave cluster it selects a random number of peers using a
@@ -84,6 +94,13 @@ public class HBaseInterClusterReplicationEndpoint extends HBaseReplicationEndpoi
   /** Drop edits for CFs that been deleted from the replication source and target */
   public static final String REPLICATION_DROP_ON_DELETED_COLUMN_FAMILY_KEY =
     "hbase.replication.drop.on.deleted.columnfamily";
+  /**
+   * Ship the edits of each region to a fixed sink, one sub-batch per sink, and report the entries
+   * acknowledged so far to the source when some sub-batches have to be retried
+   */
+  public static final String REPLICATION_SHARDED_SHIPPING_KEY =
+    "hbase.replication.source.sharded.shipping";
+  public static final boolean DEFAULT_REPLICATION_SHARDED_SHIPPING = false;
 
   // How long should we sleep for each retry
   private long sleepForRetries;
@@ -104,8 +121,13 @@ public class HBaseInterClusterReplicationEndpoint extends HBaseReplicationEndpoi
   private boolean dropOnDeletedTables;
   private boolean dropOnDeletedColumnFamilies;
   private boolean isSerial = false;
+  private boolean shardedShipping;
   // Initialising as 0 to guarantee at least one logging message
   private long lastSinkFetchTime = 0;
+  // The block compression of the cells shipped compressed, null if not enabled
+  private Compression.Algorithm cellsCompression;
+  // The sinks which said they can decode compressed cells
+  private final Set<ServerName> compressedCellsSinks = ConcurrentHashMap.newKeySet();
 
   @Override
   public void init(Context context) throws IOException {
@@ -125,6 +147,8 @@ public class HBaseInterClusterReplicationEndpoint extends HBaseReplicationEndpoi
     this.replicationRpcLimit =
       (int) (0.95 * conf.getLong(RpcServer.MAX_REQUEST_SIZE, RpcServer.DEFAULT_MAX_REQUEST_SIZE));
     this.dropOnDeletedTables = this.conf.getBoolean(REPLICATION_DROP_ON_DELETED_TABLE_KEY, false);
+    this.shardedShipping =
+      this.conf.getBoolean(REPLICATION_SHARDED_SHIPPING_KEY, DEFAULT_REPLICATION_SHARDED_SHIPPING);
     this.dropOnDeletedColumnFamilies =
       this.conf.getBoolean(REPLICATION_DROP_ON_DELETED_COLUMN_FAMILY_KEY, false);
 
@@ -139,6 +163,7 @@ public class HBaseInterClusterReplicationEndpoint extends HBaseReplicationEndpoi
     baseNamespaceDir = new Path(rootDir, baseNSDir);
     hfileArchiveDir = new Path(rootDir, new Path(HConstants.HFILE_ARCHIVE_DIRECTORY, baseNSDir));
     isSerial = context.getPeerConfig().isSerial();
+    cellsCompression = ReplicationCellCodec.getCompression(conf);
   }
 
   private void decorateConf() {
@@ -188,14 +213,23 @@ public class HBaseInterClusterReplicationEndpoint extends HBaseReplicationEndpoi
     return (int) size;
   }
 
+  private static int getShard(List<Entry> entries) {
+    return Bytes.hashCode(entries.get(0).getKey().getEncodedRegionName());
+  }
+
   private List<List<Entry>> createParallelBatches(final List<Entry> entries) {
     int numSinks = Math.max(getNumSinks(), 1);
-    int n = Math.min(Math.min(this.maxThreads, entries.size() / 100 + 1), numSinks);
+    // with sharded shipping there is one batch per sink, so a slow sink only holds its own batch
+    int n = shardedShipping
+      ? numSinks
+      : Math.min(Math.min(this.maxThreads, entries.size() / 100 + 1), numSinks);
     List<List<Entry>> entryLists =
       Stream.generate(ArrayList<Entry>::new).limit(n).collect(Collectors.toList());
     int[] sizes = new int[n];
     for (Entry e : entries) {
-      int index = Math.abs(Bytes.hashCode(e.getKey().getEncodedRegionName()) % n);
+      int index = shardedShipping
+        ? Math.floorMod(Bytes.hashCode(e.getKey().getEncodedRegionName()), n)
+        : Math.abs(Bytes.hashCode(e.getKey().getEncodedRegionName()) % n);
       int entrySize = getEstimatedEntrySize(e);
       // If this batch has at least one entry and is over sized, move it to the tail of list and
       // initialize the entryLists[index] to be a empty list.
@@ -379,17 +413,25 @@ public class HBaseInterClusterReplicationEndpoint extends HBaseReplicationEndpoi
     throws IOException {
     List<CompletableFuture<Integer>> futures =
       new ArrayList<CompletableFuture<Integer>>(batches.size());
-    for (int i = 0; i < batches.size(); i++) {
-      List<Entry> entries = batches.get(i);
-      if (entries.isEmpty()) {
-        continue;
-      }
-      if (LOG.isTraceEnabled()) {
-        LOG.trace("{} Submitting {} entries of total size {}", logPeerId(), entries.size(),
-          replicateContext.getSize());
+    // the entries may be released once we return, so keep them until all the requests are done, as
+    // we do not wait for the request we were interrupted while waiting for
+    Runnable releaseEntries = replicateContext.retainEntries();
+    try {
+      for (int i = 0; i < batches.size(); i++) {
+        List<Entry> entries = batches.get(i);
+        if (entries.isEmpty()) {
+          continue;
+        }
+        if (LOG.isTraceEnabled()) {
+          LOG.trace("{} Submitting {} entries of total size {}", logPeerId(), entries.size(),
+            replicateContext.getSize());
+        }
+        // RuntimeExceptions encountered here bubble up and are handled in ReplicationSource
+        futures.add(asyncReplicate(entries, i, replicateContext.getTimeout()));
       }
-      // RuntimeExceptions encountered here bubble up and are handled in ReplicationSource
-      futures.add(asyncReplicate(entries, i, replicateContext.getTimeout()));
+    } finally {
+      FutureUtils.addListener(CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])),
+        (r, e) -> releaseEntries.run());
     }
 
     IOException iox = null;
@@ -460,6 +502,9 @@ public class HBaseInterClusterReplicationEndpoint extends HBaseReplicationEndpoi
         parallelReplicate(replicateContext, batches);
         return true;
       } catch (IOException ioe) {
+        if (shardedShipping) {
+          reportProgress(replicateContext, batches);
+        }
         if (ioe instanceof RemoteException) {
           if (dropOnDeletedTables && isTableNotFoundException(ioe)) {
             // Only filter the edits to replicate and don't change the entries in replicateContext
@@ -509,6 +554,32 @@ public class HBaseInterClusterReplicationEndpoint extends HBaseReplicationEndpoi
     return false; // in case we exited before replicating
   }
 
+  /**
+   * Report to the source the entries acknowledged by the peer, which are the ones before the first
+   * entry of the batches still to be replicated. The batches keep the order of the entries. The
+   * entries are matched by their WAL key, as filtering the edits of a batch replaces its entries.
+   */
+  void reportProgress(ReplicateContext replicateContext, List<List<Entry>> batches) {
+    Set<WALKeyImpl> firstPending = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (List<Entry> batch : batches) {
+      if (!batch.isEmpty()) {
+        firstPending.add(batch.get(0).getKey());
+      }
+    }
+    List<Entry> entries = replicateContext.getEntries();
+    int acknowledged = 0;
+    while (
+      acknowledged < entries.size() && !firstPending.contains(entries.get(acknowledged).getKey())
+    ) {
+      acknowledged++;
+    }
+    if (acknowledged > 0) {
+      LOG.debug("{} {} of {} entries acknowledged, retrying the rest", logPeerId(), acknowledged,
+        entries.size());
+      replicateContext.reportProgress(acknowledged);
+    }
+  }
+
   protected boolean isPeerEnabled() {
     return ctx.getReplicationPeer().isPeerEnabled();
   }
@@ -524,7 +595,7 @@ public class HBaseInterClusterReplicationEndpoint extends HBaseReplicationEndpoi
     SinkPeer sinkPeer = null;
     final CompletableFuture<Integer> resultCompletableFuture = new CompletableFuture<Integer>();
     try {
-      sinkPeer = getReplicationSink();
+      sinkPeer = shardedShipping ? getReplicationSink(getShard(entries)) : getReplicationSink();
     } catch (IOException e) {
       this.onReplicateWALEntryException(entriesHashCode, e, sinkPeer);
       resultCompletableFuture.completeExceptionally(e);
@@ -533,21 +604,48 @@ public class HBaseInterClusterReplicationEndpoint extends HBaseReplicationEndpoi
     assert sinkPeer != null;
     AsyncRegionServerAdmin rsAdmin = sinkPeer.getRegionServer();
     final SinkPeer sinkPeerToUse = sinkPeer;
-    FutureUtils.addListener(
-      ReplicationProtobufUtil.replicateWALEntry(rsAdmin, entries.toArray(new Entry[entries.size()]),
-        replicationClusterId, baseNamespaceDir, hfileArchiveDir, timeout),
+    Pair<ReplicateWALEntryRequest, ExtendedCellScanner> p = buildReplicateWALEntryRequest(entries);
+    if (cellsCompression != null && compressedCellsSinks.contains(sinkPeer.getServerName())) {
+      p = compressCells(p, entries);
+    }
+    FutureUtils.addListener(rsAdmin.replicateWALEntry(p.getFirst(), p.getSecond(), timeout),
       (response, exception) -> {
         if (exception != null) {
           onReplicateWALEntryException(entriesHashCode, exception, sinkPeerToUse);
           resultCompletableFuture.completeExceptionally(exception);
           return;
         }
+        if (cellsCompression != null && response.getCompressedCellsSupported()) {
+          compressedCellsSinks.add(sinkPeerToUse.getServerName());
+        }
         reportSinkSuccess(sinkPeerToUse);
         resultCompletableFuture.complete(batchIndex);
       });
     return resultCompletableFuture;
   }
 
+  private Pair<ReplicateWALEntryRequest, ExtendedCellScanner>
+    buildReplicateWALEntryRequest(List<Entry> entries) {
+    return ReplicationProtobufUtil.buildReplicateWALEntryRequest(entries.toArray(new Entry[0]),
+      null, replicationClusterId, baseNamespaceDir, hfileArchiveDir);
+  }
+
+  private Pair<ReplicateWALEntryRequest, ExtendedCellScanner>
+    compressCells(Pair<ReplicateWALEntryRequest, ExtendedCellScanner> p, List<Entry> entries) {
+    long size = ((SizedExtendedCellScanner) p.getSecond()).heapSize();
+    ReplicateWALEntryRequest request;
+    try {
+      request =
+        ReplicationCellCodec.compressCells(conf, p.getFirst(), p.getSecond(), cellsCompression);
+    } catch (IOException e) {
+      LOG.warn("{} Failed to compress cells, shipping them uncompressed", logPeerId(), e);
+      // the cell scanner may have been partially consumed
+      return buildReplicateWALEntryRequest(entries);
+    }
+    metrics.incrCompressedBytesSaved(size - request.getCompressedCells().size());
+    return new Pair<>(request, null);
+  }
+
   private void onReplicateWALEntryException(int entriesHashCode, Throwable exception,
     final SinkPeer sinkPeer) {
     if (LOG.isTraceEnabled()) {
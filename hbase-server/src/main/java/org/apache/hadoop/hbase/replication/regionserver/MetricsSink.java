@@ -79,6 +79,20 @@ public class MetricsSink {
     mss.incrAppliedHFiles(hfileSize);
   }
 
+  /**
+   * Add on the number of bytes saved on the wire by receiving a batch with compressed cells.
+   */
+  public void incrCompressedBytesSaved(long bytesSaved) {
+    mss.incrCompressedBytesSaved(bytesSaved);
+  }
+
+  /**
+   * Record the time it took to apply the edits of a batch to one region.
+   */
+  public void updateRegionApplyTime(long time) {
+    mss.updateRegionApplyTime(time);
+  }
+
   /**
    * Convenience method to update metrics when batch of operations has failed.
    */
@@ -93,6 +107,13 @@ public class MetricsSink {
     return mss.getFailedBatches();
   }
 
+  /**
+   * Get the number of times edits were applied to a region
+   */
+  protected long getRegionApplyCount() {
+    return mss.getRegionApplyCount();
+  }
+
   /**
    * Get the Age of Last Applied Op
    */
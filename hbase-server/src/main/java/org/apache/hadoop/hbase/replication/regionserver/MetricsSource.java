@@ -221,6 +221,15 @@ public class MetricsSource implements BaseSource {
     globalSourceSource.incrShippedBytes(sizeInBytes);
   }
 
+  /**
+   * Add on the number of bytes saved on the wire by shipping a batch with compressed cells.
+   * @param bytesSaved the estimated size of the cells minus the size of the compressed cells
+   */
+  public void incrCompressedBytesSaved(long bytesSaved) {
+    singleSourceSource.incrCompressedBytesSaved(bytesSaved);
+    globalSourceSource.incrCompressedBytesSaved(bytesSaved);
+  }
+
   /**
    * Convenience method to update metrics when batch of operations has failed.
    */
@@ -264,6 +273,59 @@ public class MetricsSource implements BaseSource {
     globalSourceSource.incrHFilesShipped(hfiles);
   }
 
+  /** Increment the number of log edits taken from the tail cache of the WAL being written. */
+  public void incrWALTailCacheHit() {
+    singleSourceSource.incrWALTailCacheHits(1);
+    globalSourceSource.incrWALTailCacheHits(1);
+  }
+
+  /**
+   * Increment the number of log edits read from the file system while the WAL being written has a
+   * tail cache.
+   */
+  public void incrWALTailCacheMiss() {
+    singleSourceSource.incrWALTailCacheMisses(1);
+    globalSourceSource.incrWALTailCacheMisses(1);
+  }
+
+  /** Increment the size of the buffers taken from the pool to hold the edits to ship. */
+  public void incrBufferPoolBytes(long bytes) {
+    singleSourceSource.incrBufferPoolBytes(bytes);
+    globalSourceSource.incrBufferPoolBytes(bytes);
+  }
+
+  /**
+   * Increment the size of the buffers allocated on heap to hold the edits to ship, as the pool was
+   * exhausted.
+   */
+  public void incrBufferHeapBytes(long bytes) {
+    singleSourceSource.incrBufferHeapBytes(bytes);
+    globalSourceSource.incrBufferHeapBytes(bytes);
+  }
+
+  public long getBufferPoolBytes() {
+    return singleSourceSource.getBufferPoolBytes();
+  }
+
+  public long getBufferHeapBytes() {
+    return singleSourceSource.getBufferHeapBytes();
+  }
+
+  public long getWALTailCacheHits() {
+    return singleSourceSource.getWALTailCacheHits();
+  }
+
+  public long getWALTailCacheMisses() {
+    return singleSourceSource.getWALTailCacheMisses();
+  }
+
+  /**
+   * Sets the number of bytes synced to the WAL being written which the source has not read yet.
+   */
+  public void setWALReadLag(long bytes) {
+    singleSourceSource.setWALReadLag(bytes);
+  }
+
   /** increase the byte number read by source from log file */
   public void incrLogReadInBytes(long readInBytes) {
     singleSourceSource.incrLogReadInBytes(readInBytes);
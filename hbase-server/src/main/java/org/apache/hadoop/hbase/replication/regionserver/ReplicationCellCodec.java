@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hbase.replication.regionserver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.DoNotRetryIOException;
+import org.apache.hadoop.hbase.ExtendedCell;
+import org.apache.hadoop.hbase.ExtendedCellScanner;
+import org.apache.hadoop.hbase.PrivateCellUtil;
+import org.apache.hadoop.hbase.codec.Codec;
+import org.apache.hadoop.hbase.io.ByteArrayOutputStream;
+import org.apache.hadoop.hbase.io.SizedExtendedCellScanner;
+import org.apache.hadoop.hbase.io.compress.Compression;
+import org.apache.hadoop.hbase.io.util.LRUDictionary;
+import org.apache.hadoop.hbase.regionserver.wal.CompressionContext;
+import org.apache.hadoop.hbase.regionserver.wal.WALCellCodec;
+import org.apache.hadoop.hbase.util.CompressionTest;
+import org.apache.hadoop.io.compress.Compressor;
+import org.apache.hadoop.io.compress.Decompressor;
+import org.apache.yetus.audience.InterfaceAudience;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.hbase.thirdparty.com.google.protobuf.UnsafeByteOperations;
+
+import org.apache.hadoop.hbase.shaded.protobuf.generated.AdminProtos.ReplicateWALEntryRequest;
+
+/**
+ * Encodes the cells of a replication batch into the {@code compressed_cells} field of a
+ * {@link ReplicateWALEntryRequest}, instead of shipping them in the cell block of the RPC.
+ * <p>
+ * The cells are written with the WAL dictionary compression, with one dictionary for the whole
+ * batch, so the rows, families and qualifiers repeated across the edits of a batch are only sent
+ * once. The result is then compressed with a block compression algorithm, ZSTD by default. A sink
+ * which can decode such a batch says so in its responses, so the source only starts sending them
+ * after a first plain batch, and never to sinks running an older version.
+ */
+@InterfaceAudience.Private
+public final class ReplicationCellCodec {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ReplicationCellCodec.class);
+
+  /** Whether to ship compressed cells to the sinks which support them */
+  public static final String COMPRESS_CELLS_KEY = "hbase.replication.compress.cells";
+  public static final boolean DEFAULT_COMPRESS_CELLS = false;
+
+  /** The block compression algorithm applied on top of the dictionary encoding */
+  public static final String COMPRESS_CELLS_ALGORITHM_KEY =
+    "hbase.replication.compress.cells.algorithm";
+  public static final String DEFAULT_COMPRESS_CELLS_ALGORITHM =
+    Compression.Algorithm.ZSTD.getName();
+
+  private ReplicationCellCodec() {
+  }
+
+  /**
+   * Returns the block compression algorithm to use for compressed cells, or null if they are not
+   * enabled. Falls back to dictionary encoding only if the configured algorithm can not be loaded
+   * here.
+   */
+  public static Compression.Algorithm getCompression(Configuration conf) {
+    if (!conf.getBoolean(COMPRESS_CELLS_KEY, DEFAULT_COMPRESS_CELLS)) {
+      return null;
+    }
+    String name = conf.get(COMPRESS_CELLS_ALGORITHM_KEY, DEFAULT_COMPRESS_CELLS_ALGORITHM);
+    try {
+      Compression.Algorithm algorithm = Compression.getCompressionAlgorithmByName(name);
+      CompressionTest.testCompression(algorithm);
+      return algorithm;
+    } catch (IllegalArgumentException | IOException e) {
+      LOG.warn("Can not use {} to compress replicated cells, only using dictionary encoding", name,
+        e);
+      return Compression.Algorithm.NONE;
+    }
+  }
+
+  private static WALCellCodec createCodec(Configuration conf) throws IOException {
+    try {
+      return new WALCellCodec(conf, new CompressionContext(LRUDictionary.class, false, true));
+    } catch (ReflectiveOperationException | SecurityException e) {
+      throw new IOException("Failed to create the compression context", e);
+    }
+  }
+
+  /**
+   * Returns a copy of the given request with the given cells written to its
+   * {@code compressed_cells} field.
+   */
+  public static ReplicateWALEntryRequest compressCells(Configuration conf,
+    ReplicateWALEntryRequest request, ExtendedCellScanner cells,
+    Compression.Algorithm algorithm) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    Compressor compressor = algorithm.getCompressor();
+    try (OutputStream out = algorithm.createCompressionStream(bytes, compressor, 0)) {
+      Codec.Encoder encoder = createCodec(conf).getEncoder(out);
+      while (cells.advance()) {
+        encoder.write(cells.current());
+      }
+      encoder.flush();
+    } finally {
+      algorithm.returnCompressor(compressor);
+    }
+    return request.toBuilder()
+      .setCompressedCells(UnsafeByteOperations.unsafeWrap(bytes.getBuffer(), 0, bytes.size()))
+      .setCellsCompression(algorithm.getName()).build();
+  }
+
+  /**
+   * Returns the cells of a request carrying {@code compressed_cells}. They are decoded eagerly so
+   * the decompressor can be returned to its pool, and the returned scanner knows their serialized
+   * size, the size they would have had in a cell block.
+   */
+  public static SizedExtendedCellScanner decompressCells(Configuration conf,
+    ReplicateWALEntryRequest request) throws IOException {
+    Compression.Algorithm algorithm;
+    try {
+      algorithm = Compression.getCompressionAlgorithmByName(request.getCellsCompression());
+    } catch (IllegalArgumentException e) {
+      throw new DoNotRetryIOException(
+        "Unknown compression of replicated cells " + request.getCellsCompression(), e);
+    }
+    List<ExtendedCell> cells = new ArrayList<>();
+    long size = 0;
+    Decompressor decompressor = algorithm.getDecompressor();
+    try (InputStream in = algorithm
+      .createDecompressionStream(request.getCompressedCells().newInput(), decompressor, 0)) {
+      Codec.Decoder decoder = createCodec(conf).getDecoder(in);
+      while (decoder.advance()) {
+        ExtendedCell cell = decoder.current();
+        size += PrivateCellUtil.estimatedSerializedSizeOf(cell);
+        cells.add(cell);
+      }
+    } finally {
+      algorithm.returnDecompressor(decompressor);
+    }
+    Iterator<ExtendedCell> iter = cells.iterator();
+    long heapSize = size;
+    return new SizedExtendedCellScanner() {
+      private ExtendedCell current;
+
+      @Override
+      public ExtendedCell current() {
+        return current;
+      }
+
+      @Override
+      public boolean advance() {
+        current = iter.hasNext() ? iter.next() : null;
+        return current != null;
+      }
+
+      @Override
+      public long heapSize() {
+        return heapSize;
+      }
+    };
+  }
+}
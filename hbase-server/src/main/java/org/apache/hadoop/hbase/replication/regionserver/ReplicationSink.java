@@ -28,18 +28,21 @@ import static org.apache.hadoop.hbase.replication.master.ReplicationSinkTrackerT
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
@@ -49,10 +52,12 @@ import org.apache.hadoop.hbase.ExtendedCell;
 import org.apache.hadoop.hbase.ExtendedCellScanner;
 import org.apache.hadoop.hbase.HBaseConfiguration;
 import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.HRegionLocation;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.TableNotFoundException;
 import org.apache.hadoop.hbase.client.AsyncClusterConnection;
 import org.apache.hadoop.hbase.client.AsyncTable;
+import org.apache.hadoop.hbase.client.AsyncTableRegionLocator;
 import org.apache.hadoop.hbase.client.ClusterConnectionFactory;
 import org.apache.hadoop.hbase.client.Delete;
 import org.apache.hadoop.hbase.client.Mutation;
@@ -63,6 +68,7 @@ import org.apache.hadoop.hbase.regionserver.RegionServerCoprocessorHost;
 import org.apache.hadoop.hbase.replication.ReplicationUtils;
 import org.apache.hadoop.hbase.security.UserProvider;
 import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.util.EnvironmentEdgeManager;
 import org.apache.hadoop.hbase.util.FutureUtils;
 import org.apache.hadoop.hbase.util.Pair;
 import org.apache.hadoop.hbase.wal.WALEdit;
@@ -113,6 +119,14 @@ public class ReplicationSink {
    * Row size threshold for multi requests above which a warning is logged
    */
   private final int rowSizeWarnThreshold;
+
+  /**
+   * Number of regions the edits of a table in one replication call are applied to at the same time.
+   * The limit is per call, so a slow peer does not hold back the edits of the others.
+   */
+  public static final String REGION_CONCURRENCY_KEY = "hbase.replication.sink.region.concurrency";
+  public static final int DEFAULT_REGION_CONCURRENCY = 16;
+  private final int regionConcurrency;
   private boolean replicationSinkTrackerEnabled;
 
   private final RegionServerCoprocessorHost rsServerHost;
@@ -128,6 +142,8 @@ public class ReplicationSink {
     this.rsServerHost = rsServerHost;
     rowSizeWarnThreshold =
       conf.getInt(HConstants.BATCH_ROWS_THRESHOLD_NAME, HConstants.BATCH_ROWS_THRESHOLD_DEFAULT);
+    regionConcurrency =
+      Math.max(1, conf.getInt(REGION_CONCURRENCY_KEY, DEFAULT_REGION_CONCURRENCY));
     replicationSinkTrackerEnabled = conf.getBoolean(REPLICATION_SINK_TRACKER_ENABLED_KEY,
       REPLICATION_SINK_TRACKER_ENABLED_DEFAULT);
     decorateConf();
@@ -471,7 +487,57 @@ public class ReplicationSink {
   }
 
   /**
-   * Do the changes and handle the pool
+   * Group the given rows by the region they go to, using the region locations cached by the
+   * connection. The locations of all the distinct rows are looked up at once, and we only wait for
+   * them all to complete. The order of the rows is kept within each region. Returns a single group
+   * with all the rows if the regions can not be located, so the batch reports the failure as
+   * before.
+   */
+  private Map<String, List<Row>> groupByRegion(TableName tableName, List<Row> rows)
+    throws IOException {
+    AsyncTableRegionLocator locator = getConnection().getRegionLocator(tableName);
+    Map<byte[], CompletableFuture<HRegionLocation>> locations =
+      new TreeMap<>(Bytes.BYTES_COMPARATOR);
+    for (Row row : rows) {
+      locations.computeIfAbsent(row.getRow(), locator::getRegionLocation);
+    }
+    try {
+      FutureUtils
+        .get(CompletableFuture.allOf(locations.values().toArray(new CompletableFuture<?>[0])));
+    } catch (IOException e) {
+      LOG.debug("Failed to locate the regions of {}, applying the edits in one batch", tableName,
+        e);
+      return Collections.singletonMap(tableName.getNameAsString(), rows);
+    }
+    Map<String, List<Row>> regionRows = new LinkedHashMap<>();
+    for (Row row : rows) {
+      HRegionLocation loc = locations.get(row.getRow()).join();
+      regionRows.computeIfAbsent(loc.getRegion().getEncodedName(), k -> new ArrayList<>())
+        .add(row);
+    }
+    return regionRows;
+  }
+
+  /**
+   * Apply the given batches to the table one after the other.
+   */
+  private CompletableFuture<Void> applyInOrder(AsyncTable<?> table, List<List<Row>> batches) {
+    long startTime = EnvironmentEdgeManager.currentTime();
+    CompletableFuture<Void> future = CompletableFuture.completedFuture(null);
+    for (List<Row> batchRows : batches) {
+      future = future.thenCompose(r -> table.batchAll(batchRows).thenApply(results -> null));
+    }
+    return future.whenComplete((r, e) -> {
+      if (e == null) {
+        metrics.updateRegionApplyTime(EnvironmentEdgeManager.currentTime() - startTime);
+      }
+    });
+  }
+
+  /**
+   * Do the changes and handle the pool. The rows are applied region by region, with up to
+   * {@link #regionConcurrency} regions in flight at the same time for this call, and the batches
+   * of a region applied in the order of the edits.
    * @param tableName             table to insert into
    * @param allRows               list of actions
    * @param batchRowSizeThreshold rowSize threshold for batch mutation
@@ -482,15 +548,32 @@ public class ReplicationSink {
       return;
     }
     AsyncTable<?> table = getConnection().getTable(tableName);
-    List<Future<?>> futures = new ArrayList<>();
+    Map<String, List<List<Row>>> regionBatches = new LinkedHashMap<>();
     for (List<Row> rows : allRows) {
-      List<List<Row>> batchRows;
-      if (rows.size() > batchRowSizeThreshold) {
-        batchRows = Lists.partition(rows, batchRowSizeThreshold);
-      } else {
-        batchRows = Collections.singletonList(rows);
+      for (Entry<String, List<Row>> entry : groupByRegion(tableName, rows).entrySet()) {
+        List<Row> regionRows = entry.getValue();
+        List<List<Row>> batchRows;
+        if (regionRows.size() > batchRowSizeThreshold) {
+          batchRows = Lists.partition(regionRows, batchRowSizeThreshold);
+        } else {
+          batchRows = Collections.singletonList(regionRows);
+        }
+        regionBatches.computeIfAbsent(entry.getKey(), k -> new ArrayList<>()).addAll(batchRows);
       }
-      futures.addAll(batchRows.stream().map(table::batchAll).collect(Collectors.toList()));
+    }
+    Semaphore regionPermits = new Semaphore(regionConcurrency);
+    List<Future<?>> futures = new ArrayList<>();
+    boolean interrupted = false;
+    for (List<List<Row>> batches : regionBatches.values()) {
+      try {
+        regionPermits.acquire();
+      } catch (InterruptedException e) {
+        interrupted = true;
+        break;
+      }
+      CompletableFuture<Void> future = applyInOrder(table, batches);
+      FutureUtils.addListener(future, (r, e) -> regionPermits.release());
+      futures.add(future);
     }
     // Here we will always wait until all futures are finished, even if there are failures when
     // getting from a future in the middle. This is because this method may be called in a rpc call,
@@ -516,6 +599,15 @@ public class ReplicationSink {
         }
       }
     }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+      InterruptedIOException ie =
+        new InterruptedIOException("Interrupted while replicating edits to " + tableName);
+      if (error != null) {
+        ie.addSuppressed(error);
+      }
+      throw ie;
+    }
     if (error != null) {
       throw error;
     }
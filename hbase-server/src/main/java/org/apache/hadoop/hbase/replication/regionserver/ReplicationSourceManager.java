@@ -52,6 +52,7 @@ import org.apache.hadoop.hbase.Server;
 import org.apache.hadoop.hbase.ServerName;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.RegionInfo;
+import org.apache.hadoop.hbase.io.ByteBuffAllocator;
 import org.apache.hadoop.hbase.replication.ReplicationException;
 import org.apache.hadoop.hbase.replication.ReplicationGroupOffset;
 import org.apache.hadoop.hbase.replication.ReplicationOffsetUtil;
@@ -127,6 +128,14 @@ import org.apache.hbase.thirdparty.com.google.common.util.concurrent.ThreadFacto
 public class ReplicationSourceManager {
 
   private static final Logger LOG = LoggerFactory.getLogger(ReplicationSourceManager.class);
+
+  /**
+   * Whether to copy the edits pending replication into buffers taken from a pool, bounded by the
+   * total buffer quota, instead of holding the cells decoded from the WALs until they are shipped.
+   */
+  public static final String REPLICATION_BUFFER_POOL_ENABLED_KEY =
+    "replication.source.buffer.pool.enabled";
+  public static final boolean DEFAULT_REPLICATION_BUFFER_POOL_ENABLED = false;
   // all the sources that read this RS's logs and every peer only has one replication source
   private final ConcurrentMap<String, ReplicationSourceInterface> sources;
   // List of all the sources we got from died RSs
@@ -183,6 +192,8 @@ public class ReplicationSourceManager {
   private final int maxRetriesMultiplier;
   // Total buffer size on this RegionServer for holding batched edits to be shipped.
   private final long totalBufferLimit;
+  // Pool of the buffers holding the edits to be shipped, null if disabled.
+  private final ByteBuffAllocator bufferAllocator;
   private final MetricsReplicationGlobalSourceSource globalMetrics;
 
   /**
@@ -232,9 +243,30 @@ public class ReplicationSourceManager {
       this.conf.getInt("replication.source.sync.maxretriesmultiplier", 60);
     this.totalBufferLimit = conf.getLong(HConstants.REPLICATION_SOURCE_TOTAL_BUFFER_KEY,
       HConstants.REPLICATION_SOURCE_TOTAL_BUFFER_DFAULT);
+    this.bufferAllocator = createBufferAllocator(conf, totalBufferLimit);
     this.globalMetrics = globalMetrics;
   }
 
+  private static ByteBuffAllocator createBufferAllocator(Configuration conf,
+    long totalBufferLimit) {
+    if (
+      !conf.getBoolean(REPLICATION_BUFFER_POOL_ENABLED_KEY, DEFAULT_REPLICATION_BUFFER_POOL_ENABLED)
+    ) {
+      return null;
+    }
+    // a pool of its own, so replication can not starve the rpc server of buffers, holding at most
+    // the total buffer quota
+    Configuration poolConf = new Configuration(conf);
+    int bufferSize =
+      conf.getInt(ByteBuffAllocator.BUFFER_SIZE_KEY, ByteBuffAllocator.DEFAULT_BUFFER_SIZE);
+    poolConf.setInt(ByteBuffAllocator.MAX_BUFFER_COUNT_KEY,
+      (int) Math.min(Integer.MAX_VALUE, Math.max(1, totalBufferLimit / bufferSize)));
+    ByteBuffAllocator allocator = ByteBuffAllocator.create(poolConf, true);
+    LOG.info("Pooling replication buffers, bufferSize={}, maxBufferCount={}",
+      allocator.getBufferSize(), allocator.getTotalBufferCount());
+    return allocator;
+  }
+
   /**
    * Adds a normal source per registered peer cluster.
    */
@@ -1051,6 +1083,14 @@ public class ReplicationSourceManager {
     return totalBufferLimit;
   }
 
+  /**
+   * Returns the pool of the buffers holding the edits pending replication, or null if the edits
+   * are held in the cells decoded from the WALs.
+   */
+  ByteBuffAllocator getBufferAllocator() {
+    return bufferAllocator;
+  }
+
   /**
    * Get the directory where wals are archived
    * @return the directory where wals are archived
@@ -1139,10 +1179,11 @@ public class ReplicationSourceManager {
 
   /**
    * To release the buffer quota of {@link WALEntryBatch} which acquired by
-   * {@link ReplicationSourceManager#acquireWALEntryBufferQuota}.
+   * {@link ReplicationSourceManager#acquireWALEntryBufferQuota}, along with its pooled buffers.
    * @return the released buffer quota size.
    */
   long releaseWALEntryBatchBufferQuota(WALEntryBatch walEntryBatch) {
+    walEntryBatch.releaseBuffers();
     long usedBufferSize = walEntryBatch.getUsedBufferSize();
     if (usedBufferSize > 0) {
       this.releaseBufferQuota(usedBufferSize);
@@ -116,7 +116,13 @@ public class ReplicationSourceShipper extends Thread {
         if (entryBatch == WALEntryBatch.NO_MORE_DATA) {
           noMoreData();
         } else {
-          shipEdits(entryBatch);
+          try {
+            shipEdits(entryBatch);
+          } finally {
+            // the entries are not used any more, whether they have been shipped or we are quitting,
+            // but by the replication requests still in flight which retained them
+            entryBatch.releaseBuffers();
+          }
         }
       } catch (InterruptedException | ReplicationRuntimeException e) {
         // It is interrupted and needs to quit.
@@ -179,6 +185,8 @@ public class ReplicationSourceShipper extends Thread {
         replicateContext.setEntries(entries).setSize(currentSize);
         replicateContext.setWalGroupId(walGroupId);
         replicateContext.setTimeout(getAdaptiveTimeout(this.shipEditsTimeout, sleepMultiplier));
+        replicateContext.setProgressListener(n -> updateLogPosition(entryBatch, n));
+        replicateContext.setEntriesRetainer(entryBatch::retainBuffers);
 
         long startTimeNs = System.nanoTime();
         // send the edits to the endpoint. Will block until the edits are shipped and acknowledged
@@ -253,6 +261,25 @@ public class ReplicationSourceShipper extends Thread {
     }
   }
 
+  /**
+   * Record the progress made when only the first entries of the batch have been replicated, the
+   * others being retried by the endpoint.
+   */
+  void updateLogPosition(WALEntryBatch batch, int acknowledgedEntries) {
+    if (acknowledgedEntries <= 0 || acknowledgedEntries >= batch.getNbEntries()) {
+      return;
+    }
+    WALEntryBatch head = batch.head(acknowledgedEntries);
+    if (
+      head.getLastWalPath().equals(currentPath) && head.getLastWalPosition() <= currentPosition
+    ) {
+      return;
+    }
+    source.logPositionAndCleanOldLogs(head);
+    currentPath = head.getLastWalPath();
+    currentPosition = head.getLastWalPosition();
+  }
+
   private boolean updateLogPosition(WALEntryBatch batch) {
     boolean updated = false;
     // if end of file is true, then the logPositionAndCleanOldLogs method will remove the file
@@ -18,6 +18,7 @@
 package org.apache.hadoop.hbase.replication.regionserver;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
@@ -26,10 +27,13 @@ import java.util.concurrent.TimeUnit;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hbase.ByteBufferKeyValue;
 import org.apache.hadoop.hbase.Cell;
 import org.apache.hadoop.hbase.CellUtil;
 import org.apache.hadoop.hbase.ExtendedCell;
 import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.io.ByteBuffAllocator;
+import org.apache.hadoop.hbase.nio.ByteBuff;
 import org.apache.hadoop.hbase.replication.WALEntryFilter;
 import org.apache.hadoop.hbase.util.Pair;
 import org.apache.hadoop.hbase.util.Threads;
@@ -216,12 +220,52 @@ class ReplicationSourceWALReader extends Thread {
     batch.addEntry(entry, entrySize);
     updateBatchStats(batch, entry, entrySize);
     boolean totalBufferTooLarge = this.getSourceManager().acquireWALEntryBufferQuota(batch, entry);
+    ByteBuffAllocator bufferAllocator = this.getSourceManager().getBufferAllocator();
+    if (bufferAllocator != null) {
+      packCells(batch, entry, bufferAllocator);
+    }
 
     // Stop if too many entries or too big
     return totalBufferTooLarge || batch.getHeapSize() >= replicationBatchSizeCapacity
       || batch.getNbEntries() >= replicationBatchCountCapacity;
   }
 
+  /**
+   * Copy the cells of the given entry into pooled buffers held by the batch, so the cells decoded
+   * from the WAL can be collected young instead of being held until the batch is shipped. The
+   * buffers are released once the batch is shipped or dropped, see
+   * {@link WALEntryBatch#releaseBuffers()}.
+   */
+  private void packCells(WALEntryBatch batch, Entry entry, ByteBuffAllocator bufferAllocator) {
+    List<ExtendedCell> cells = WALEditInternalHelper.getExtendedCells(entry.getEdit());
+    ArrayList<ExtendedCell> packed = new ArrayList<>(cells.size());
+    for (ExtendedCell cell : cells) {
+      int length = cell.getSerializedSize();
+      if (length > bufferAllocator.getBufferSize()) {
+        // does not fit in a pooled buffer, keep the decoded cell
+        packed.add(cell);
+        continue;
+      }
+      ByteBuff buffer = batch.getLastBuffer();
+      if (buffer == null || buffer.remaining() < length) {
+        buffer = bufferAllocator.allocateOneBuffer();
+        batch.addBuffer(buffer);
+        if (buffer.hasArray()) {
+          // the pool is exhausted
+          source.getSourceMetrics().incrBufferHeapBytes(buffer.capacity());
+        } else {
+          source.getSourceMetrics().incrBufferPoolBytes(buffer.capacity());
+        }
+      }
+      ByteBuffer buf = buffer.nioByteBuffers()[0];
+      int offset = buffer.position();
+      cell.write(buf, offset);
+      buffer.skip(length);
+      packed.add(new ByteBufferKeyValue(buf, offset, length, cell.getSequenceId()));
+    }
+    WALEditInternalHelper.setExtendedCells(entry.getEdit(), packed);
+  }
+
   protected static final boolean switched(WALEntryStream entryStream, Path path) {
     Path newPath = entryStream.getCurrentPath();
     return newPath == null || !path.getName().equals(newPath.getName());
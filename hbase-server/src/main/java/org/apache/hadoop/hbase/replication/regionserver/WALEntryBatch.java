@@ -23,6 +23,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hbase.nio.ByteBuff;
+import org.apache.hadoop.hbase.util.Bytes;
 import org.apache.hadoop.hbase.util.Pair;
 import org.apache.hadoop.hbase.wal.WAL.Entry;
 import org.apache.hadoop.hbase.wal.WALEdit;
@@ -39,6 +41,8 @@ class WALEntryBatch {
   public static final WALEntryBatch NO_MORE_DATA = new WALEntryBatch(0, null);
 
   private List<Pair<Entry, Long>> walEntriesWithSize;
+  // position in WAL of each entry in this batch, just after the entry
+  private List<Long> walEntryPositions;
 
   // last WAL that was read
   private Path lastWalPath;
@@ -57,12 +61,15 @@ class WALEntryBatch {
   // indicate the buffer size used, which is added to
   // ReplicationSourceWALReader.totalBufferUsed
   private long usedBufferSize;
+  // pooled buffers holding the cells of the entries of this batch, the last one being filled
+  private final List<ByteBuff> buffers = new ArrayList<>();
 
   /**
    * @param lastWalPath Path of the WAL the last entry in this batch was read from
    */
   WALEntryBatch(int maxNbEntries, Path lastWalPath) {
     this.walEntriesWithSize = new ArrayList<>(maxNbEntries);
+    this.walEntryPositions = new ArrayList<>(maxNbEntries);
     this.lastWalPath = lastWalPath;
   }
 
@@ -75,6 +82,25 @@ class WALEntryBatch {
 
   public void addEntry(Entry entry, long entrySize) {
     walEntriesWithSize.add(new Pair<>(entry, entrySize));
+    walEntryPositions.add(lastWalPosition);
+  }
+
+  /**
+   * Returns a batch holding the position and the last sequence ids of the first
+   * {@code nbEntries} entries of this batch, to record the progress made when only these entries
+   * have been replicated. The returned batch does not hold the entries themselves.
+   */
+  WALEntryBatch head(int nbEntries) {
+    WALEntryBatch head = new WALEntryBatch(0, lastWalPath);
+    head.setLastWalPosition(walEntryPositions.get(nbEntries - 1));
+    if (!lastSeqIds.isEmpty()) {
+      // serial replication, the last sequence id of each region is the one of its last entry
+      for (int i = 0; i < nbEntries; i++) {
+        WALKey key = walEntriesWithSize.get(i).getFirst().getKey();
+        head.setLastSeqId(Bytes.toString(key.getEncodedRegionName()), key.getSequenceId());
+      }
+    }
+    return head;
   }
 
   /** Returns the WAL Entries. */
@@ -168,6 +194,39 @@ class WALEntryBatch {
     return this.usedBufferSize;
   }
 
+  /** Returns the pooled buffer the cells of the next entries are copied to, or null if none. */
+  ByteBuff getLastBuffer() {
+    return buffers.isEmpty() ? null : buffers.get(buffers.size() - 1);
+  }
+
+  void addBuffer(ByteBuff buffer) {
+    buffers.add(buffer);
+  }
+
+  /**
+   * Retain the pooled buffers holding the cells of the entries of this batch, for the entries to
+   * be used after the batch has been shipped or dropped, e.g. by requests still in flight.
+   * @return the action releasing them, to run once these entries are not used any more
+   */
+  Runnable retainBuffers() {
+    for (ByteBuff buffer : buffers) {
+      buffer.retain();
+    }
+    return this::releaseBuffers;
+  }
+
+  /**
+   * Release the pooled buffers holding the cells of the entries of this batch. Must only be called
+   * once these entries are not used any more, i.e, after they have been shipped or dropped. The
+   * buffers go back to the pool once they have also been released by the holders which retained
+   * them, see {@link #retainBuffers()}.
+   */
+  void releaseBuffers() {
+    for (ByteBuff buffer : buffers) {
+      buffer.release();
+    }
+  }
+
   @Override
   public String toString() {
     return "WALEntryBatch [walEntries=" + walEntriesWithSize + ", lastWalPath=" + lastWalPath
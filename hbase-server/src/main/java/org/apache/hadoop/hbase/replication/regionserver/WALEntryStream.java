@@ -28,6 +28,7 @@ import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hbase.regionserver.wal.AbstractProtobufWALReader;
 import org.apache.hadoop.hbase.regionserver.wal.WALHeaderEOFException;
+import org.apache.hadoop.hbase.regionserver.wal.WALTailCache;
 import org.apache.hadoop.hbase.util.LeaseNotRecoveredException;
 import org.apache.hadoop.hbase.util.Pair;
 import org.apache.hadoop.hbase.wal.AbstractFSWALProvider;
@@ -61,6 +62,9 @@ class WALEntryStream implements Closeable {
   private long currentPositionOfEntry = 0;
   // position after reading current entry
   private long currentPositionOfReader = 0;
+  // whether the current entry has been taken from the tail cache of the WAL, in which case the
+  // reader is still at the end of the last entry it read itself
+  private boolean readerBehind = false;
   private final ReplicationSourceLogQueue logQueue;
   private final String walGroupId;
   private final FileSystem fs;
@@ -205,6 +209,7 @@ class WALEntryStream implements Closeable {
   }
 
   private void resetReader() throws IOException {
+    readerBehind = false;
     if (currentPositionOfEntry > 0) {
       reader.resetTo(currentPositionOfEntry, state.resetCompression());
     } else {
@@ -486,6 +491,42 @@ class WALEntryStream implements Closeable {
       // to carefully review the optimized implementation
       fileLength = walFileLengthProvider.getLogFileSizeIfBeingWritten(currentPath);
     }
+    boolean tailCacheEnabled = false;
+    if (fileLength.isPresent()) {
+      WALTailCache tailCache = walFileLengthProvider.getWALTailCache(currentPath);
+      if (tailCache != null) {
+        tailCacheEnabled = true;
+        Pair<Entry, Long> cached =
+          tailCache.get(currentPath, currentPositionOfEntry, fileLength.getAsLong());
+        if (cached != null) {
+          LOG.trace("reading entry from the tail cache: {} ", cached.getFirst());
+          metrics.incrLogEditsRead();
+          metrics.incrLogReadInBytes(cached.getSecond() - currentPositionOfEntry);
+          metrics.incrWALTailCacheHit();
+          metrics.setWALReadLag(fileLength.getAsLong() - cached.getSecond());
+          currentEntry = cached.getFirst();
+          currentPositionOfReader = cached.getSecond();
+          readerBehind = true;
+          return Pair.newPair(WALTailingReader.State.NORMAL, true);
+        }
+      }
+    }
+    if (readerBehind) {
+      if (fileLength.isPresent() && currentPositionOfEntry >= fileLength.getAsLong()) {
+        // nothing new has been synced, the reader will be reset before the next attempt
+        currentEntry = null;
+        return Pair.newPair(WALTailingReader.State.EOF_AND_RESET, true);
+      }
+      // we fell behind the tail cache, continue reading from the file
+      try {
+        reader.resetTo(currentPositionOfEntry, false);
+      } catch (IOException e) {
+        LOG.warn("Failed to reset reader {} to pos {}", currentPath, currentPositionOfEntry, e);
+        currentEntry = null;
+        return Pair.newPair(WALTailingReader.State.ERROR_AND_RESET, fileLength.isPresent());
+      }
+      readerBehind = false;
+    }
     WALTailingReader.Result readResult = reader.next(fileLength.orElse(-1));
     long readerPos = readResult.getEntryEndPos();
     Entry readEntry = readResult.getEntry();
@@ -496,6 +537,12 @@ class WALEntryStream implements Closeable {
       // record current entry and reader position
       currentEntry = readResult.getEntry();
       this.currentPositionOfReader = readerPos;
+      if (fileLength.isPresent()) {
+        metrics.setWALReadLag(fileLength.getAsLong() - readerPos);
+      }
+      if (tailCacheEnabled) {
+        metrics.incrWALTailCacheMiss();
+      }
     } else {
       LOG.trace("reading entry failed with: {}", readResult.getState());
       // set current entry to null
@@ -514,6 +561,7 @@ class WALEntryStream implements Closeable {
   }
 
   private void closeReader() {
+    readerBehind = false;
     if (reader != null) {
       reader.close();
       reader = null;
@@ -19,6 +19,7 @@ package org.apache.hadoop.hbase.replication.regionserver;
 
 import java.util.OptionalLong;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hbase.regionserver.wal.WALTailCache;
 import org.apache.yetus.audience.InterfaceAudience;
 
 /**
@@ -33,4 +34,12 @@ import org.apache.yetus.audience.InterfaceAudience;
 public interface WALFileLengthProvider {
 
   OptionalLong getLogFileSizeIfBeingWritten(Path path);
+
+  /**
+   * Returns the cache of the entries recently appended to the given WAL file if it is being
+   * written, or null.
+   */
+  default WALTailCache getWALTailCache(Path path) {
+    return null;
+  }
 }
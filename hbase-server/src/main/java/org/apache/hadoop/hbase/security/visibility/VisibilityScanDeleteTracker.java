@@ -217,7 +217,7 @@ public class VisibilityScanDeleteTracker extends ScanDeleteTracker {
           }
         }
       }
-      if (familyVersionStamps.contains(Long.valueOf(timestamp))) {
+      if (familyVersionStamps.contains(timestamp)) {
         if (visibilityTagsDeleteFamilyVersion != null) {
           if (!visibilityTagsDeleteFamilyVersion.isEmpty()) {
             for (int i = 0; i < visibilityTagsDeleteFamilyVersion.size(); i++) {
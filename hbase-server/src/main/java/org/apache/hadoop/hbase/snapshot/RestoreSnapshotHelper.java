@@ -183,17 +183,18 @@ public class RestoreSnapshotHelper {
   private RestoreMetaChanges restoreHdfsRegions(final ThreadPoolExecutor exec) throws IOException {
     LOG.info("starting restore table regions using snapshot=" + snapshotDesc);
 
-    Map<String, SnapshotRegionManifest> regionManifests = snapshotManifest.getRegionManifestsMap();
-    if (regionManifests == null) {
+    // Only the region infos are kept in memory, the region manifests are read as they are restored
+    Map<String, RegionInfo> regionInfos = snapshotManifest.getRegionInfosMap();
+    if (regionInfos.isEmpty()) {
       LOG.warn("Nothing to restore. Snapshot " + snapshotDesc + " looks empty");
       return null;
     }
 
     RestoreMetaChanges metaChanges = new RestoreMetaChanges(tableDesc, parentsMap);
 
-    // Take a copy of the manifest.keySet() since we are going to modify
+    // Take a copy of the regionInfos.keySet() since we are going to modify
     // this instance, by removing the regions already present in the restore dir.
-    Set<String> regionNames = new HashSet<>(regionManifests.keySet());
+    Set<String> regionNames = new HashSet<>(regionInfos.keySet());
 
     List<RegionInfo> tableRegions = getTableRegions();
 
@@ -206,7 +207,7 @@ public class RestoreSnapshotHelper {
         status.setStatus("Restoring mob region...");
         List<RegionInfo> mobRegions = new ArrayList<>(1);
         mobRegions.add(mobRegion);
-        restoreHdfsMobRegions(exec, regionManifests, mobRegions);
+        restoreHdfsMobRegions(exec, mobRegions);
         regionNames.remove(mobRegion.getEncodedName());
         status.setStatus("Finished restoring mob region.");
       }
@@ -215,7 +216,7 @@ public class RestoreSnapshotHelper {
       // add the mob region
       monitor.rethrowException();
       status.setStatus("Cloning mob region...");
-      cloneHdfsMobRegion(regionManifests, mobRegion);
+      cloneHdfsMobRegion(mobRegion);
       regionNames.remove(mobRegion.getEncodedName());
       status.setStatus("Finished cloning mob region.");
     }
@@ -229,8 +230,7 @@ public class RestoreSnapshotHelper {
         if (regionNames.contains(regionName)) {
           LOG.info("region to restore: " + regionName);
           regionNames.remove(regionName);
-          metaChanges.addRegionToRestore(
-            ProtobufUtil.toRegionInfo(regionManifests.get(regionName).getRegionInfo()));
+          metaChanges.addRegionToRestore(regionInfos.get(regionName));
         } else {
           LOG.info("region to remove: " + regionName);
           metaChanges.addRegionToRemove(regionInfo);
@@ -244,8 +244,7 @@ public class RestoreSnapshotHelper {
       monitor.rethrowException();
       for (String regionName : regionNames) {
         LOG.info("region to add: " + regionName);
-        regionsToAdd
-          .add(ProtobufUtil.toRegionInfo(regionManifests.get(regionName).getRegionInfo()));
+        regionsToAdd.add(regionInfos.get(regionName));
       }
     }
 
@@ -254,14 +253,14 @@ public class RestoreSnapshotHelper {
     // regionsMap is constructed in cloneHdfsRegions() and it can be used in restoreHdfsRegions().
     monitor.rethrowException();
     status.setStatus("Cloning regions...");
-    RegionInfo[] clonedRegions = cloneHdfsRegions(exec, regionManifests, regionsToAdd);
+    RegionInfo[] clonedRegions = cloneHdfsRegions(exec, regionsToAdd);
     metaChanges.setNewRegions(clonedRegions);
     status.setStatus("Finished cloning regions.");
 
     // Restore regions using the snapshot data
     monitor.rethrowException();
     status.setStatus("Restoring table regions...");
-    restoreHdfsRegions(exec, regionManifests, metaChanges.getRegionsToRestore());
+    restoreHdfsRegions(exec, metaChanges.getRegionsToRestore());
     status.setStatus("Finished restoring all table regions.");
 
     // Remove regions from the current table
@@ -421,14 +420,13 @@ public class RestoreSnapshotHelper {
   /**
    * Restore specified regions by restoring content to the snapshot state.
    */
-  private void restoreHdfsRegions(final ThreadPoolExecutor exec,
-    final Map<String, SnapshotRegionManifest> regionManifests, final List<RegionInfo> regions)
+  private void restoreHdfsRegions(final ThreadPoolExecutor exec, final List<RegionInfo> regions)
     throws IOException {
     if (regions == null || regions.isEmpty()) return;
     ModifyRegionUtils.editRegions(exec, regions, new ModifyRegionUtils.RegionEditTask() {
       @Override
       public void editRegion(final RegionInfo hri) throws IOException {
-        restoreRegion(hri, regionManifests.get(hri.getEncodedName()));
+        restoreRegion(hri, snapshotManifest.getRegionManifest(hri.getEncodedName()));
       }
     });
   }
@@ -437,13 +435,12 @@ public class RestoreSnapshotHelper {
    * Restore specified mob regions by restoring content to the snapshot state.
    */
   private void restoreHdfsMobRegions(final ThreadPoolExecutor exec,
-    final Map<String, SnapshotRegionManifest> regionManifests, final List<RegionInfo> regions)
-    throws IOException {
+    final List<RegionInfo> regions) throws IOException {
     if (regions == null || regions.isEmpty()) return;
     ModifyRegionUtils.editRegions(exec, regions, new ModifyRegionUtils.RegionEditTask() {
       @Override
       public void editRegion(final RegionInfo hri) throws IOException {
-        restoreMobRegion(hri, regionManifests.get(hri.getEncodedName()));
+        restoreMobRegion(hri, snapshotManifest.getRegionManifest(hri.getEncodedName()));
       }
     });
   }
@@ -599,8 +596,7 @@ public class RestoreSnapshotHelper {
    * hfile.
    */
   private RegionInfo[] cloneHdfsRegions(final ThreadPoolExecutor exec,
-    final Map<String, SnapshotRegionManifest> regionManifests, final List<RegionInfo> regions)
-    throws IOException {
+    final List<RegionInfo> regions) throws IOException {
     if (regions == null || regions.isEmpty()) return null;
 
     final Map<String, RegionInfo> snapshotRegions = new HashMap<>(regions.size());
@@ -630,7 +626,8 @@ public class RestoreSnapshotHelper {
         @Override
         public void fillRegion(final HRegion region) throws IOException {
           RegionInfo snapshotHri = snapshotRegions.get(region.getRegionInfo().getEncodedName());
-          cloneRegion(region, snapshotHri, regionManifests.get(snapshotHri.getEncodedName()));
+          cloneRegion(region, snapshotHri,
+            snapshotManifest.getRegionManifest(snapshotHri.getEncodedName()));
         }
       });
 
@@ -640,12 +637,11 @@ public class RestoreSnapshotHelper {
   /**
    * Clone the mob region. For the region create a new region and create a HFileLink for each hfile.
    */
-  private void cloneHdfsMobRegion(final Map<String, SnapshotRegionManifest> regionManifests,
-    final RegionInfo region) throws IOException {
+  private void cloneHdfsMobRegion(final RegionInfo region) throws IOException {
     // clone region info (change embedded tableName with the new one)
     Path clonedRegionPath = MobUtils.getMobRegionPath(rootDir, tableDesc.getTableName());
     cloneRegion(MobUtils.getMobRegionInfo(tableDesc.getTableName()), clonedRegionPath, region,
-      regionManifests.get(region.getEncodedName()));
+      snapshotManifest.getRegionManifest(region.getEncodedName()));
   }
 
   /**
@@ -894,17 +890,19 @@ public class RestoreSnapshotHelper {
     if (isExpired) {
       throw new SnapshotTTLExpiredException(ProtobufUtil.createSnapshotDesc(snapshotDesc));
     }
-    SnapshotManifest manifest = SnapshotManifest.open(conf, fs, snapshotDir, snapshotDesc);
-
     MonitoredTask status = TaskMonitor.get()
       .createStatus("Restoring  snapshot '" + snapshotName + "' to directory " + restoreDir);
     ForeignExceptionDispatcher monitor = new ForeignExceptionDispatcher();
 
-    // we send createBackRefs=false so that restored hfiles do not create back reference links
-    // in the base hbase root dir.
-    RestoreSnapshotHelper helper = new RestoreSnapshotHelper(conf, fs, manifest,
-      manifest.getTableDescriptor(), restoreDir, monitor, status, false);
-    RestoreMetaChanges metaChanges = helper.restoreHdfsRegions(); // TODO: parallelize.
+    RestoreMetaChanges metaChanges;
+    try (SnapshotManifest manifest =
+      SnapshotManifest.openLazily(conf, fs, snapshotDir, snapshotDesc)) {
+      // we send createBackRefs=false so that restored hfiles do not create back reference links
+      // in the base hbase root dir.
+      RestoreSnapshotHelper helper = new RestoreSnapshotHelper(conf, fs, manifest,
+        manifest.getTableDescriptor(), restoreDir, monitor, status, false);
+      metaChanges = helper.restoreHdfsRegions(); // TODO: parallelize.
+    }
 
     if (LOG.isDebugEnabled()) {
       LOG.debug("Restored table dir:" + restoreDir);
@@ -17,6 +17,7 @@
  */
 package org.apache.hadoop.hbase.snapshot;
 
+import java.io.Closeable;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InterruptedIOException;
@@ -57,11 +58,15 @@ import org.apache.yetus.audience.InterfaceAudience;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.apache.hbase.thirdparty.com.google.common.base.Preconditions;
 import org.apache.hbase.thirdparty.com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.hbase.thirdparty.com.google.protobuf.CodedInputStream;
+import org.apache.hbase.thirdparty.com.google.protobuf.CodedOutputStream;
 import org.apache.hbase.thirdparty.com.google.protobuf.InvalidProtocolBufferException;
+import org.apache.hbase.thirdparty.com.google.protobuf.WireFormat;
 
 import org.apache.hadoop.hbase.shaded.protobuf.ProtobufUtil;
+import org.apache.hadoop.hbase.shaded.protobuf.generated.HBaseProtos.TableSchema;
 import org.apache.hadoop.hbase.shaded.protobuf.generated.SnapshotProtos.SnapshotDataManifest;
 import org.apache.hadoop.hbase.shaded.protobuf.generated.SnapshotProtos.SnapshotDescription;
 import org.apache.hadoop.hbase.shaded.protobuf.generated.SnapshotProtos.SnapshotRegionManifest;
@@ -69,17 +74,28 @@ import org.apache.hadoop.hbase.shaded.protobuf.generated.SnapshotProtos.Snapshot
 /**
  * Utility class to help read/write the Snapshot Manifest. The snapshot format is transparent for
  * the users of this class, once the snapshot is written, it will never be modified. On open() the
- * snapshot will be loaded to the current in-memory format.
+ * snapshot will be loaded to the current in-memory format. A snapshot opened with openLazily()
+ * keeps the data-manifest open once a region manifest is read from it, until it is closed.
  */
 @InterfaceAudience.Private
-public final class SnapshotManifest {
+public final class SnapshotManifest implements Closeable {
   private static final Logger LOG = LoggerFactory.getLogger(SnapshotManifest.class);
 
+  /**
+   * Maximum size of a single region manifest. The data-manifest is read one region manifest at a
+   * time, so its total size is not limited.
+   */
   public static final String SNAPSHOT_MANIFEST_SIZE_LIMIT_CONF_KEY = "snapshot.manifest.size.limit";
 
   public static final String DATA_MANIFEST_NAME = "data.manifest";
 
   private List<SnapshotRegionManifest> regionManifests;
+  // set if opened lazily, the region manifests are then read from the data-manifest
+  private boolean regionManifestsOnDisk;
+  private Map<String, RegionManifestLocation> regionManifestLocations;
+  // the data-manifest, opened by the first getRegionManifest() of a lazily opened snapshot
+  private FSDataInputStream dataManifestIn;
+  private Map<String, SnapshotRegionManifest> regionManifestsMap;
   private SnapshotDescription desc;
   private TableDescriptor htd;
 
@@ -144,7 +160,21 @@ public final class SnapshotManifest {
   public static SnapshotManifest open(final Configuration conf, final FileSystem fs,
     final Path workingDir, final SnapshotDescription desc) throws IOException {
     SnapshotManifest manifest = new SnapshotManifest(conf, fs, workingDir, desc, null, null);
-    manifest.load();
+    manifest.load(false);
+    return manifest;
+  }
+
+  /**
+   * Return a SnapshotManifest instance with only the table descriptor loaded in-memory. The region
+   * manifests of a consolidated snapshot stay on-disk and are streamed by
+   * {@link #visitRegionManifests(RegionManifestVisitor)}, {@link #getRegionInfosMap()} and
+   * {@link #getRegionManifest(String)}, so only a few of them are in memory at any time. The
+   * manifest should be closed once the region manifests are no longer needed.
+   */
+  public static SnapshotManifest openLazily(final Configuration conf, final FileSystem fs,
+    final Path workingDir, final SnapshotDescription desc) throws IOException {
+    SnapshotManifest manifest = new SnapshotManifest(conf, fs, workingDir, desc, null, null);
+    manifest.load(true);
     return manifest;
   }
 
@@ -155,6 +185,13 @@ public final class SnapshotManifest {
     this.htd = htd;
   }
 
+  /**
+   * Callback for the region manifests of a snapshot
+   */
+  public interface RegionManifestVisitor {
+    void visit(final SnapshotRegionManifest manifest) throws IOException;
+  }
+
   interface RegionVisitor<TRegion, TFamily> {
     TRegion regionOpen(final RegionInfo regionInfo) throws IOException;
 
@@ -382,9 +419,10 @@ public final class SnapshotManifest {
   /**
    * Load the information in the SnapshotManifest. Called by SnapshotManifest.open() If the format
    * is v2 and there is no data-manifest, means that we are loading an in-progress snapshot. Since
-   * we support rolling-upgrades, we loook for v1 and v2 regions format.
+   * we support rolling-upgrades, we loook for v1 and v2 regions format. If lazy is set, only the
+   * table descriptor is read from the data-manifest.
    */
-  private void load() throws IOException {
+  private void load(final boolean lazy) throws IOException {
     switch (getSnapshotFormat(desc)) {
       case SnapshotManifestV1.DESCRIPTOR_VERSION: {
         this.htd = FSTableDescriptors.getTableDescriptorFromFs(workingDirFs, workingDir);
@@ -398,10 +436,21 @@ public final class SnapshotManifest {
         break;
       }
       case SnapshotManifestV2.DESCRIPTOR_VERSION: {
-        SnapshotDataManifest dataManifest = readDataManifest();
-        if (dataManifest != null) {
-          htd = ProtobufUtil.toTableDescriptor(dataManifest.getTableSchema());
-          regionManifests = dataManifest.getRegionManifestsList();
+        List<SnapshotRegionManifest> dataRegions = new ArrayList<>();
+        TableSchema tableSchema;
+        try {
+          tableSchema = readDataManifest(
+            lazy ? null : (offset, length, data) -> dataRegions.add(parseRegionManifest(data)));
+        } catch (FileNotFoundException e) {
+          tableSchema = null;
+        }
+        if (tableSchema != null) {
+          htd = ProtobufUtil.toTableDescriptor(tableSchema);
+          if (lazy) {
+            regionManifestsOnDisk = true;
+          } else {
+            regionManifests = dataRegions;
+          }
         } else {
           // Compatibility, load the v1 regions
           // This happens only when the snapshot is in-progress and the cache wants to refresh.
@@ -458,12 +507,113 @@ public final class SnapshotManifest {
   }
 
   /**
-   * Get all the Region Manifest from the snapshot
+   * Get all the Region Manifest from the snapshot. The region manifests of a snapshot opened with
+   * {@link #openLazily} are not in memory, read them with
+   * {@link #visitRegionManifests(RegionManifestVisitor)} instead.
+   * @throws IllegalStateException if the snapshot was opened lazily
    */
   public List<SnapshotRegionManifest> getRegionManifests() {
+    Preconditions.checkState(regionManifests != null || !regionManifestsOnDisk,
+      "The region manifests of snapshot %s were not loaded, it was opened lazily", desc.getName());
     return this.regionManifests;
   }
 
+  /**
+   * Pass each Region Manifest of the snapshot to the visitor. If the snapshot was opened lazily,
+   * the region manifests are streamed from the data-manifest, one at a time.
+   */
+  public void visitRegionManifests(final RegionManifestVisitor visitor) throws IOException {
+    if (regionManifests == null && regionManifestsOnDisk) {
+      readDataManifest((offset, length, data) -> visitor.visit(parseRegionManifest(data)));
+    } else if (regionManifests != null) {
+      for (SnapshotRegionManifest manifest : regionManifests) {
+        visitor.visit(manifest);
+      }
+    }
+  }
+
+  /**
+   * Get the RegionInfo of each region in the snapshot, keyed by encoded region name. If the
+   * snapshot was opened lazily, only the position of each region manifest in the data-manifest is
+   * kept in memory, to be read back by {@link #getRegionManifest(String)}.
+   */
+  public Map<String, RegionInfo> getRegionInfosMap() throws IOException {
+    Map<String, RegionInfo> regionInfos = new HashMap<>();
+    if (regionManifests == null && regionManifestsOnDisk) {
+      for (Map.Entry<String, RegionManifestLocation> entry : getRegionManifestLocations()
+        .entrySet()) {
+        regionInfos.put(entry.getKey(), entry.getValue().regionInfo);
+      }
+    } else if (regionManifests != null) {
+      for (SnapshotRegionManifest manifest : regionManifests) {
+        regionInfos.put(getRegionNameFromManifest(manifest),
+          ProtobufUtil.toRegionInfo(manifest.getRegionInfo()));
+      }
+    }
+    return regionInfos;
+  }
+
+  /**
+   * Get the Region Manifest of the specified region, or null if the region is not in the snapshot.
+   * Can be called concurrently.
+   * @param encodedRegionName the encoded name of the region
+   */
+  public SnapshotRegionManifest getRegionManifest(final String encodedRegionName)
+    throws IOException {
+    if (regionManifests != null || !regionManifestsOnDisk) {
+      return getCachedRegionManifestsMap().get(encodedRegionName);
+    }
+    RegionManifestLocation location = getRegionManifestLocations().get(encodedRegionName);
+    if (location == null) {
+      return null;
+    }
+    byte[] data = new byte[location.length];
+    // positional reads of a shared stream are safe to issue concurrently
+    getDataManifestInput().readFully(location.offset, data);
+    return parseRegionManifest(data);
+  }
+
+  private synchronized FSDataInputStream getDataManifestInput() throws IOException {
+    if (dataManifestIn == null) {
+      dataManifestIn = workingDirFs.open(getDataManifestPath());
+    }
+    return dataManifestIn;
+  }
+
+  /**
+   * Closes the data-manifest if it was kept open to read the region manifests of a lazily opened
+   * snapshot. A later read opens it again.
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    if (dataManifestIn != null) {
+      dataManifestIn.close();
+      dataManifestIn = null;
+    }
+  }
+
+  private synchronized Map<String, SnapshotRegionManifest> getCachedRegionManifestsMap() {
+    if (regionManifestsMap == null) {
+      Map<String, SnapshotRegionManifest> regionsMap = getRegionManifestsMap();
+      regionManifestsMap = regionsMap != null ? regionsMap : new HashMap<>();
+    }
+    return regionManifestsMap;
+  }
+
+  private synchronized Map<String, RegionManifestLocation> getRegionManifestLocations()
+    throws IOException {
+    if (regionManifestLocations == null) {
+      Map<String, RegionManifestLocation> locations = new HashMap<>();
+      readDataManifest((offset, length, data) -> {
+        SnapshotRegionManifest manifest = parseRegionManifest(data);
+        locations.put(getRegionNameFromManifest(manifest), new RegionManifestLocation(
+          ProtobufUtil.toRegionInfo(manifest.getRegionInfo()), offset, length));
+      });
+      regionManifestLocations = locations;
+    }
+    return regionManifestLocations;
+  }
+
   private void setStatusMsg(String msg) {
     if (this.statusTask != null) {
       statusTask.setStatus(msg);
@@ -499,37 +649,51 @@ public final class SnapshotManifest {
 
   /*
    * In case of rolling-upgrade, we try to read all the formats and build the snapshot with the
-   * latest format.
+   * latest format. The region manifests are streamed into the data-manifest as they are read, so
+   * only a bounded number of them is in memory at any time.
    */
   private void convertToV2SingleManifest() throws IOException {
     // Try to load v1 and v2 regions
-    List<SnapshotRegionManifest> v1Regions, v2Regions;
+    List<SnapshotRegionManifest> v1Regions;
+    FileStatus[] v2ManifestFiles;
     ThreadPoolExecutor tpool = createExecutor("SnapshotManifestLoader");
     setStatusMsg("Loading Region manifests for " + this.desc.getName());
     try {
       v1Regions =
         SnapshotManifestV1.loadRegionManifests(conf, tpool, workingDirFs, workingDir, desc, htd);
-      v2Regions = SnapshotManifestV2.loadRegionManifests(conf, tpool, workingDirFs, workingDir,
-        desc, manifestSizeLimit);
-
-      SnapshotDataManifest.Builder dataManifestBuilder = SnapshotDataManifest.newBuilder();
-      dataManifestBuilder.setTableSchema(ProtobufUtil.toTableSchema(htd));
-
-      if (v1Regions != null && v1Regions.size() > 0) {
-        dataManifestBuilder.addAllRegionManifests(v1Regions);
-      }
-      if (v2Regions != null && v2Regions.size() > 0) {
-        dataManifestBuilder.addAllRegionManifests(v2Regions);
-      }
 
       // Write the v2 Data Manifest.
       // Once the data-manifest is written, the snapshot can be considered complete.
       // Currently snapshots are written in a "temporary" directory and later
       // moved to the "complated" snapshot directory.
       setStatusMsg("Writing data manifest for " + this.desc.getName());
-      SnapshotDataManifest dataManifest = dataManifestBuilder.build();
-      writeDataManifest(dataManifest);
-      this.regionManifests = dataManifest.getRegionManifestsList();
+      Path dataManifestPath = getDataManifestPath();
+      try (FSDataOutputStream stream = workingDirFs.create(dataManifestPath)) {
+        // Same encoding as SnapshotDataManifest.writeTo(), one field at a time
+        CodedOutputStream out = CodedOutputStream.newInstance(stream);
+        out.writeMessage(SnapshotDataManifest.TABLE_SCHEMA_FIELD_NUMBER,
+          ProtobufUtil.toTableSchema(htd));
+        if (v1Regions != null) {
+          for (SnapshotRegionManifest regionManifest : v1Regions) {
+            out.writeMessage(SnapshotDataManifest.REGION_MANIFESTS_FIELD_NUMBER, regionManifest);
+          }
+        }
+        v2ManifestFiles = SnapshotManifestV2.visitRegionManifests(tpool, workingDirFs, workingDir,
+          manifestSizeLimit, 2 * tpool.getMaximumPoolSize(),
+          regionManifest -> out.writeMessage(SnapshotDataManifest.REGION_MANIFESTS_FIELD_NUMBER,
+            regionManifest));
+        out.flush();
+      } catch (InvalidProtocolBufferException e) {
+        workingDirFs.delete(dataManifestPath, false);
+        throw new CorruptedSnapshotException("unable to parse region manifest " + e.getMessage(),
+          e);
+      } catch (IOException e) {
+        // do not leave a partial data-manifest, it would make the snapshot look complete
+        workingDirFs.delete(dataManifestPath, false);
+        throw e;
+      }
+      this.regionManifests = null;
+      this.regionManifestsOnDisk = true;
 
       // Remove the region manifests. Everything is now in the data-manifest.
       // The delete operation is "relaxed", unless we get an exception we keep going.
@@ -547,14 +711,12 @@ public final class SnapshotManifest {
           });
         }
       }
-      if (v2Regions != null) {
-        for (SnapshotRegionManifest regionManifest : v2Regions) {
-          ++totalDeletes;
-          completionService.submit(() -> {
-            SnapshotManifestV2.deleteRegionManifest(workingDirFs, workingDir, regionManifest);
-            return null;
-          });
-        }
+      for (FileStatus manifestFile : v2ManifestFiles) {
+        ++totalDeletes;
+        completionService.submit(() -> {
+          workingDirFs.delete(manifestFile.getPath(), true);
+          return null;
+        });
       }
       // Wait for the deletes to finish.
       for (int i = 0; i < totalDeletes; i++) {
@@ -571,31 +733,71 @@ public final class SnapshotManifest {
     }
   }
 
-  /*
-   * Write the SnapshotDataManifest file
+  private Path getDataManifestPath() {
+    return new Path(workingDir, DATA_MANIFEST_NAME);
+  }
+
+  /**
+   * Callback for the serialized region manifests read from the data-manifest
    */
-  private void writeDataManifest(final SnapshotDataManifest manifest) throws IOException {
-    try (
-      FSDataOutputStream stream = workingDirFs.create(new Path(workingDir, DATA_MANIFEST_NAME))) {
-      manifest.writeTo(stream);
-    }
+  private interface DataManifestRegionReader {
+    void read(long offset, int length, byte[] data) throws IOException;
   }
 
   /*
-   * Read the SnapshotDataManifest file
+   * Read the SnapshotDataManifest file as a stream, passing each serialized region manifest to the
+   * reader, with its position in the file. If the reader is null, stops at the first region
+   * manifest. Returns the table schema.
    */
-  private SnapshotDataManifest readDataManifest() throws IOException {
-    try (FSDataInputStream in = workingDirFs.open(new Path(workingDir, DATA_MANIFEST_NAME))) {
+  private TableSchema readDataManifest(final DataManifestRegionReader reader)
+    throws IOException {
+    try (FSDataInputStream in = workingDirFs.open(getDataManifestPath())) {
       CodedInputStream cin = CodedInputStream.newInstance(in);
-      cin.setSizeLimit(manifestSizeLimit);
-      return SnapshotDataManifest.parseFrom(cin);
-    } catch (FileNotFoundException e) {
-      return null;
+      TableSchema tableSchema = null;
+      long position = 0;
+      while (true) {
+        // the size limit applies to the bytes read since the last reset, i.e. to each field
+        position += cin.getTotalBytesRead();
+        cin.resetSizeCounter();
+        cin.setSizeLimit(manifestSizeLimit);
+        int tag = cin.readTag();
+        if (tag == 0) {
+          return tableSchema;
+        }
+        switch (WireFormat.getTagFieldNumber(tag)) {
+          case SnapshotDataManifest.TABLE_SCHEMA_FIELD_NUMBER:
+            tableSchema = TableSchema.parseFrom(cin.readBytes());
+            break;
+          case SnapshotDataManifest.REGION_MANIFESTS_FIELD_NUMBER:
+            if (reader == null && tableSchema != null) {
+              return tableSchema;
+            } else if (reader == null) {
+              cin.skipField(tag);
+              break;
+            }
+            int length = cin.readRawVarint32();
+            long offset = position + cin.getTotalBytesRead();
+            reader.read(offset, length, cin.readRawBytes(length));
+            break;
+          default:
+            cin.skipField(tag);
+            break;
+        }
+      }
     } catch (InvalidProtocolBufferException e) {
       throw new CorruptedSnapshotException("unable to parse data manifest " + e.getMessage(), e);
     }
   }
 
+  private static SnapshotRegionManifest parseRegionManifest(final byte[] data)
+    throws CorruptedSnapshotException {
+    try {
+      return SnapshotRegionManifest.parseFrom(data);
+    } catch (InvalidProtocolBufferException e) {
+      throw new CorruptedSnapshotException("unable to parse region manifest " + e.getMessage(), e);
+    }
+  }
+
   private ThreadPoolExecutor createExecutor(final String name) {
     return createExecutor(conf, name);
   }
@@ -624,4 +826,19 @@ public final class SnapshotManifest {
   private static int getSnapshotFormat(final SnapshotDescription desc) {
     return desc.hasVersion() ? desc.getVersion() : SnapshotManifestV1.DESCRIPTOR_VERSION;
   }
+
+  /**
+   * The RegionInfo and the position in the data-manifest of a region manifest
+   */
+  private static final class RegionManifestLocation {
+    private final RegionInfo regionInfo;
+    private final long offset;
+    private final int length;
+
+    RegionManifestLocation(final RegionInfo regionInfo, final long offset, final int length) {
+      this.regionInfo = regionInfo;
+      this.offset = offset;
+      this.length = length;
+    }
+  }
 }
@@ -136,6 +136,20 @@ public final class SnapshotManifestV2 {
   static List<SnapshotRegionManifest> loadRegionManifests(final Configuration conf,
     final Executor executor, final FileSystem fs, final Path snapshotDir,
     final SnapshotDescription desc, final int manifestSizeLimit) throws IOException {
+    List<SnapshotRegionManifest> regionsManifest = new ArrayList<>();
+    FileStatus[] manifestFiles = visitRegionManifests(executor, fs, snapshotDir,
+      manifestSizeLimit, Integer.MAX_VALUE, regionsManifest::add);
+    return manifestFiles.length > 0 ? regionsManifest : null;
+  }
+
+  /**
+   * Read the region manifests in parallel, passing them to the visitor in the calling thread as
+   * they are read. At most maxReadAhead region manifests are read ahead of the visitor.
+   * @return the region manifest files that were visited
+   */
+  static FileStatus[] visitRegionManifests(final Executor executor, final FileSystem fs,
+    final Path snapshotDir, final int manifestSizeLimit, final int maxReadAhead,
+    final SnapshotManifest.RegionManifestVisitor visitor) throws IOException {
     FileStatus[] manifestFiles = CommonFSUtils.listStatus(fs, snapshotDir, new PathFilter() {
       @Override
       public boolean accept(Path path) {
@@ -143,27 +157,27 @@ public final class SnapshotManifestV2 {
       }
     });
 
-    if (manifestFiles == null || manifestFiles.length == 0) return null;
+    if (manifestFiles == null || manifestFiles.length == 0) return new FileStatus[0];
 
     final ExecutorCompletionService<SnapshotRegionManifest> completionService =
       new ExecutorCompletionService<>(executor);
-    for (final FileStatus st : manifestFiles) {
-      completionService.submit(new Callable<SnapshotRegionManifest>() {
-        @Override
-        public SnapshotRegionManifest call() throws IOException {
-          try (FSDataInputStream stream = fs.open(st.getPath())) {
-            CodedInputStream cin = CodedInputStream.newInstance(stream);
-            cin.setSizeLimit(manifestSizeLimit);
-            return SnapshotRegionManifest.parseFrom(cin);
-          }
-        }
-      });
-    }
-
-    ArrayList<SnapshotRegionManifest> regionsManifest = new ArrayList<>(manifestFiles.length);
+    int submitted = 0;
     try {
       for (int i = 0; i < manifestFiles.length; ++i) {
-        regionsManifest.add(completionService.take().get());
+        while (submitted < manifestFiles.length && submitted - i < maxReadAhead) {
+          final FileStatus st = manifestFiles[submitted++];
+          completionService.submit(new Callable<SnapshotRegionManifest>() {
+            @Override
+            public SnapshotRegionManifest call() throws IOException {
+              try (FSDataInputStream stream = fs.open(st.getPath())) {
+                CodedInputStream cin = CodedInputStream.newInstance(stream);
+                cin.setSizeLimit(manifestSizeLimit);
+                return SnapshotRegionManifest.parseFrom(cin);
+              }
+            }
+          });
+        }
+        visitor.visit(completionService.take().get());
       }
     } catch (InterruptedException e) {
       throw new InterruptedIOException(e.getMessage());
@@ -176,12 +190,7 @@ public final class SnapshotManifestV2 {
         throw new IOException("ExecutionException", e.getCause());
       }
     }
-    return regionsManifest;
-  }
-
-  static void deleteRegionManifest(final FileSystem fs, final Path snapshotDir,
-    final SnapshotRegionManifest manifest) throws IOException {
-    fs.delete(getRegionManifestPath(snapshotDir, manifest), true);
+    return manifestFiles;
   }
 
   private static Path getRegionManifestPath(final Path snapshotDir,
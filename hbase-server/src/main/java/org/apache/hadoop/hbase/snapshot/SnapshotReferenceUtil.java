@@ -21,12 +21,13 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InterruptedIOException;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import org.apache.commons.lang3.mutable.MutableInt;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
@@ -105,16 +106,8 @@ public final class SnapshotReferenceUtil {
   static void visitTableStoreFiles(final Configuration conf, final FileSystem fs,
     final Path snapshotDir, final SnapshotDescription desc, final StoreFileVisitor visitor)
     throws IOException {
-    SnapshotManifest manifest = SnapshotManifest.open(conf, fs, snapshotDir, desc);
-    List<SnapshotRegionManifest> regionManifests = manifest.getRegionManifests();
-    if (regionManifests == null || regionManifests.isEmpty()) {
-      LOG.debug("No manifest files present: " + snapshotDir);
-      return;
-    }
-
-    for (SnapshotRegionManifest regionManifest : regionManifests) {
-      visitRegionStoreFiles(regionManifest, visitor);
-    }
+    SnapshotManifest manifest = SnapshotManifest.openLazily(conf, fs, snapshotDir, desc);
+    manifest.visitRegionManifests(regionManifest -> visitRegionStoreFiles(regionManifest, visitor));
   }
 
   /**
@@ -145,7 +138,7 @@ public final class SnapshotReferenceUtil {
    */
   public static void verifySnapshot(final Configuration conf, final FileSystem fs,
     final Path snapshotDir, final SnapshotDescription snapshotDesc) throws IOException {
-    SnapshotManifest manifest = SnapshotManifest.open(conf, fs, snapshotDir, snapshotDesc);
+    SnapshotManifest manifest = SnapshotManifest.openLazily(conf, fs, snapshotDir, snapshotDesc);
     verifySnapshot(conf, fs, manifest);
   }
 
@@ -183,13 +176,6 @@ public final class SnapshotReferenceUtil {
     final SnapshotManifest manifest, final String desc, final StoreFileVisitor visitor)
     throws IOException {
 
-    final Path snapshotDir = manifest.getSnapshotDir();
-    List<SnapshotRegionManifest> regionManifests = manifest.getRegionManifests();
-    if (regionManifests == null || regionManifests.isEmpty()) {
-      LOG.debug("No manifest files present: " + snapshotDir);
-      return;
-    }
-
     ExecutorService exec = SnapshotManifest.createExecutor(conf, desc);
 
     try {
@@ -204,16 +190,18 @@ public final class SnapshotReferenceUtil {
     throws IOException {
     final SnapshotDescription snapshotDesc = manifest.getSnapshotDescription();
     final Path snapshotDir = manifest.getSnapshotDir();
-
-    List<SnapshotRegionManifest> regionManifests = manifest.getRegionManifests();
-    if (regionManifests == null || regionManifests.isEmpty()) {
-      LOG.debug("No manifest files present: " + snapshotDir);
-      return;
-    }
+    // the region manifests may be streamed from disk, only keep a bounded number of them queued
+    final int maxPending = exec instanceof ThreadPoolExecutor
+      ? 2 * ((ThreadPoolExecutor) exec).getMaximumPoolSize()
+      : Integer.MAX_VALUE;
 
     final ExecutorCompletionService<Void> completionService = new ExecutorCompletionService<>(exec);
-
-    for (final SnapshotRegionManifest regionManifest : regionManifests) {
+    final MutableInt pending = new MutableInt();
+    manifest.visitRegionManifests(regionManifest -> {
+      if (pending.intValue() >= maxPending) {
+        waitForRegion(completionService, snapshotDesc);
+        pending.decrement();
+      }
       completionService.submit(new Callable<Void>() {
         @Override
         public Void call() throws IOException {
@@ -221,11 +209,20 @@ public final class SnapshotReferenceUtil {
           return null;
         }
       });
+      pending.increment();
+    });
+    if (pending.intValue() == 0) {
+      LOG.debug("No manifest files present: " + snapshotDir);
     }
+    for (; pending.intValue() > 0; pending.decrement()) {
+      waitForRegion(completionService, snapshotDesc);
+    }
+  }
+
+  private static void waitForRegion(final ExecutorCompletionService<Void> completionService,
+    final SnapshotDescription snapshotDesc) throws IOException {
     try {
-      for (int i = 0; i < regionManifests.size(); ++i) {
-        completionService.take().get();
-      }
+      completionService.take().get();
     } catch (InterruptedException e) {
       throw new InterruptedIOException(e.getMessage());
     } catch (ExecutionException e) {
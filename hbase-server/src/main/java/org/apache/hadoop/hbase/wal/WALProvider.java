@@ -20,13 +20,16 @@ package org.apache.hadoop.hbase.wal;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.List;
+import java.util.Objects;
 import java.util.OptionalLong;
 import java.util.concurrent.CompletableFuture;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hbase.Abortable;
 import org.apache.hadoop.hbase.client.RegionInfo;
 import org.apache.hadoop.hbase.regionserver.wal.AsyncFSWAL;
 import org.apache.hadoop.hbase.regionserver.wal.WALActionsListener;
+import org.apache.hadoop.hbase.regionserver.wal.WALTailCache;
 import org.apache.hadoop.hbase.replication.regionserver.PeerActionListener;
 import org.apache.hadoop.hbase.replication.regionserver.SyncReplicationPeerInfoProvider;
 import org.apache.hadoop.hbase.replication.regionserver.WALFileLengthProvider;
@@ -127,8 +130,20 @@ public interface WALProvider {
   void addWALActionsListener(WALActionsListener listener);
 
   default WALFileLengthProvider getWALFileLengthProvider() {
-    return path -> getWALs().stream().map(w -> w.getLogFileSizeIfBeingWritten(path))
-      .filter(o -> o.isPresent()).findAny().orElse(OptionalLong.empty());
+    return new WALFileLengthProvider() {
+
+      @Override
+      public OptionalLong getLogFileSizeIfBeingWritten(Path path) {
+        return getWALs().stream().map(w -> w.getLogFileSizeIfBeingWritten(path))
+          .filter(o -> o.isPresent()).findAny().orElse(OptionalLong.empty());
+      }
+
+      @Override
+      public WALTailCache getWALTailCache(Path path) {
+        return getWALs().stream().map(w -> w.getWALTailCache(path)).filter(Objects::nonNull)
+          .findAny().orElse(null);
+      }
+    };
   }
 
   // sync replication related
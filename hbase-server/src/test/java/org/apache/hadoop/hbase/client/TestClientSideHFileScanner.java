@@ -0,0 +1,245 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hbase.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.HBaseClassTestRule;
+import org.apache.hadoop.hbase.HBaseTestingUtil;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.filter.PrefixFilter;
+import org.apache.hadoop.hbase.regionserver.HRegion;
+import org.apache.hadoop.hbase.testclassification.ClientTests;
+import org.apache.hadoop.hbase.testclassification.MediumTests;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.util.EnvironmentEdgeManager;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Compares the rows read by {@link ClientSideHFileScanner} with the ones read by
+ * {@link ClientSideRegionScanner} from the same store files.
+ */
+@Category({ MediumTests.class, ClientTests.class })
+public class TestClientSideHFileScanner {
+
+  @ClassRule
+  public static final HBaseClassTestRule CLASS_RULE =
+    HBaseClassTestRule.forClass(TestClientSideHFileScanner.class);
+
+  private static final HBaseTestingUtil TEST_UTIL = new HBaseTestingUtil();
+  private static final TableName TABLE_NAME = TableName.valueOf("test");
+  // keeps three versions
+  private static final byte[] FAM_VERSIONS = Bytes.toBytes("v");
+  // expires its cells after a few seconds
+  private static final byte[] FAM_TTL = Bytes.toBytes("t");
+  private static final int TTL_SECONDS = 2;
+  private static final byte[] QUALIFIER = Bytes.toBytes("q");
+  private static final byte[] QUALIFIER2 = Bytes.toBytes("r");
+  private static final int NUM_ROWS = 30;
+  // the range delete removes the versions up to this timestamp of rows [20, 26)
+  private static final int RANGE_DELETE_FIRST_ROW = 20;
+  private static final int RANGE_DELETE_STOP_ROW = 26;
+  private static final long RANGE_DELETE_TS = 4;
+
+  private static TableDescriptor htd;
+  private static RegionInfo hri;
+
+  @BeforeClass
+  public static void setUpBeforeClass() throws Exception {
+    TEST_UTIL.getConfiguration().setBoolean(HRegion.RANGE_DELETE_ENABLED_KEY, true);
+    TEST_UTIL.startMiniCluster(1);
+    // no compaction, so each flush leaves a store file of its own
+    TEST_UTIL.getAdmin()
+      .createTable(TableDescriptorBuilder.newBuilder(TABLE_NAME).setCompactionEnabled(false)
+        .setColumnFamily(
+          ColumnFamilyDescriptorBuilder.newBuilder(FAM_VERSIONS).setMaxVersions(3).build())
+        .setColumnFamily(
+          ColumnFamilyDescriptorBuilder.newBuilder(FAM_TTL).setTimeToLive(TTL_SECONDS).build())
+        .build());
+    htd = TEST_UTIL.getAdmin().getDescriptor(TABLE_NAME);
+    hri = TEST_UTIL.getAdmin().getRegions(TABLE_NAME).get(0);
+    long expiringTs;
+    try (Table table = TEST_UTIL.getConnection().getTable(TABLE_NAME)) {
+      // more versions than the family keeps, and cells which expire after the flush
+      expiringTs = EnvironmentEdgeManager.currentTime();
+      for (int i = 0; i < NUM_ROWS; i++) {
+        Put put = new Put(row(i));
+        for (long ts = 1; ts <= 5; ts++) {
+          put.addColumn(FAM_VERSIONS, QUALIFIER, ts, Bytes.toBytes("v" + i + "-" + ts));
+        }
+        put.addColumn(FAM_VERSIONS, QUALIFIER2, 1, Bytes.toBytes("w" + i));
+        if (i % 2 == 0) {
+          put.addColumn(FAM_TTL, QUALIFIER, expiringTs, Bytes.toBytes("t" + i));
+        } else {
+          put.addColumn(FAM_TTL, QUALIFIER, Long.MAX_VALUE - 1, Bytes.toBytes("t" + i));
+        }
+        table.put(put);
+      }
+      TEST_UTIL.flush(TABLE_NAME);
+
+      // deletes of all kinds, masking cells of the first file
+      List<Delete> deletes = new ArrayList<>();
+      for (int i = 0; i < NUM_ROWS; i++) {
+        Delete delete = new Delete(row(i));
+        if (i == 11) {
+          // the whole row
+          deletes.add(delete);
+          continue;
+        }
+        if (i % 3 == 0) {
+          delete.addColumn(FAM_VERSIONS, QUALIFIER, 5);
+        }
+        if (i % 5 == 0) {
+          delete.addColumns(FAM_VERSIONS, QUALIFIER2);
+        }
+        if (i % 7 == 0) {
+          delete.addFamily(FAM_VERSIONS, 3);
+        }
+        if (!delete.isEmpty()) {
+          deletes.add(delete);
+        }
+      }
+      table.delete(deletes);
+      // a range delete, which the second file keeps in its meta block only
+      table.delete(new Delete(row(RANGE_DELETE_FIRST_ROW))
+        .addFamilyRange(FAM_VERSIONS, row(RANGE_DELETE_STOP_ROW), RANGE_DELETE_TS));
+      TEST_UTIL.flush(TABLE_NAME);
+
+      // newer versions, and a put masked by a delete of the same timestamp
+      for (int i = 0; i < NUM_ROWS; i += 4) {
+        table.put(new Put(row(i)).addColumn(FAM_VERSIONS, QUALIFIER, 6, Bytes.toBytes("n" + i))
+          .addColumn(FAM_VERSIONS, QUALIFIER2, 2, Bytes.toBytes("x" + i)));
+      }
+      table.delete(new Delete(row(8)).addColumn(FAM_VERSIONS, QUALIFIER2, 2));
+      TEST_UTIL.flush(TABLE_NAME);
+    }
+    HRegion region = TEST_UTIL.getHBaseCluster().getRegions(TABLE_NAME).get(0);
+    assertEquals(3, region.getStore(FAM_VERSIONS).getStorefilesCount());
+    assertTrue(region.getStore(FAM_TTL).getStorefilesCount() > 0);
+    // let the cells of the ttl family written at expiringTs expire
+    long expireAt = expiringTs + TTL_SECONDS * 1000L;
+    while (EnvironmentEdgeManager.currentTime() <= expireAt) {
+      Thread.sleep(expireAt - EnvironmentEdgeManager.currentTime() + 1);
+    }
+  }
+
+  @AfterClass
+  public static void tearDownAfterClass() throws Exception {
+    TEST_UTIL.shutdownMiniCluster();
+  }
+
+  private static byte[] row(int i) {
+    return Bytes.toBytes(String.format("row%03d", i));
+  }
+
+  private static List<Result> scanAll(AbstractClientScanner scanner) throws IOException {
+    List<Result> results = new ArrayList<>();
+    try {
+      for (Result result; (result = scanner.next()) != null;) {
+        results.add(result);
+      }
+    } finally {
+      scanner.close();
+    }
+    return results;
+  }
+
+  private void assertSameResults(Scan scan) throws Exception {
+    assertTrue(ClientSideHFileScanner.canScanDirectly(htd, scan));
+    Configuration conf = new Configuration(TEST_UTIL.getConfiguration());
+    Path rootDir = TEST_UTIL.getDefaultRootDirPath();
+    FileSystem fs = TEST_UTIL.getTestFileSystem();
+    List<Result> expected =
+      scanAll(new ClientSideRegionScanner(conf, fs, rootDir, htd, hri, new Scan(scan), null));
+    List<Result> actual =
+      scanAll(new ClientSideHFileScanner(conf, fs, rootDir, htd, hri, new Scan(scan), null));
+    assertFalse(expected.isEmpty());
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      Result.compareResults(expected.get(i), actual.get(i));
+    }
+  }
+
+  @Test
+  public void testFullScan() throws Exception {
+    assertSameResults(new Scan());
+  }
+
+  @Test
+  public void testAllVersions() throws Exception {
+    assertSameResults(new Scan().readAllVersions());
+  }
+
+  @Test
+  public void testRowRange() throws Exception {
+    assertSameResults(new Scan().withStartRow(row(5)).withStopRow(row(20), true).readVersions(2));
+  }
+
+  @Test
+  public void testFamiliesAndColumns() throws Exception {
+    assertSameResults(new Scan().addFamily(FAM_TTL));
+    assertSameResults(new Scan().addColumn(FAM_VERSIONS, QUALIFIER2).addFamily(FAM_TTL));
+  }
+
+  @Test
+  public void testTimeRange() throws Exception {
+    assertSameResults(new Scan().setTimeRange(2, 5).readAllVersions());
+  }
+
+  @Test
+  public void testRangeDelete() throws Exception {
+    Scan scan = new Scan().withStartRow(row(RANGE_DELETE_FIRST_ROW + 1)).readAllVersions();
+    assertSameResults(scan);
+    Configuration conf = new Configuration(TEST_UTIL.getConfiguration());
+    List<Result> results = scanAll(new ClientSideHFileScanner(conf, TEST_UTIL.getTestFileSystem(),
+      TEST_UTIL.getDefaultRootDirPath(), htd, hri, scan, null));
+    int deletedRows = 0;
+    for (Result result : results) {
+      if (Bytes.compareTo(result.getRow(), row(RANGE_DELETE_STOP_ROW)) >= 0) {
+        continue;
+      }
+      deletedRows++;
+      for (Cell cell : result.rawCells()) {
+        if (CellUtil.matchingFamily(cell, FAM_VERSIONS)) {
+          assertTrue(cell.getTimestamp() > RANGE_DELETE_TS);
+        }
+      }
+    }
+    assertEquals(RANGE_DELETE_STOP_ROW - RANGE_DELETE_FIRST_ROW - 1, deletedRows);
+  }
+
+  @Test
+  public void testFilterIsNotScannedDirectly() {
+    assertFalse(ClientSideHFileScanner.canScanDirectly(htd,
+      new Scan().setFilter(new PrefixFilter(Bytes.toBytes("row")))));
+  }
+}
@@ -28,6 +28,9 @@ import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -252,4 +255,59 @@ public class TestExecutorService {
       return count == 0;
     });
   }
+
+  @Test
+  public void testPrioritizedExecutor() throws Exception {
+    final Configuration conf = HBaseConfiguration.create();
+    final Server server = mock(Server.class);
+    when(server.getConfiguration()).thenReturn(conf);
+
+    ExecutorService executorService = new ExecutorService("testPrioritizedExecutor");
+    executorService.startExecutorService(executorService.new ExecutorConfig()
+      .setExecutorType(ExecutorType.RS_OPEN_REGION).setCorePoolSize(1).setPrioritized(true));
+
+    CountDownLatch latch = new CountDownLatch(1);
+    CountDownLatch waitForEventToStart = new CountDownLatch(1);
+    executorService.submit(new EventHandler(server, EventType.M_RS_OPEN_REGION) {
+      @Override
+      public void process() throws IOException {
+        waitForEventToStart.countDown();
+        try {
+          latch.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    });
+    assertTrue(waitForEventToStart.await(10, TimeUnit.SECONDS));
+
+    // queued behind the blocked handler, these must run by priority and then in submission order
+    List<String> processed = new ArrayList<>();
+    int[] priorities = { 5, 1, 5, 3, 1 };
+    for (int i = 0; i < priorities.length; i++) {
+      final String name = priorities[i] + "-" + i;
+      final int priority = priorities[i];
+      executorService.submit(new EventHandler(server, EventType.M_RS_OPEN_REGION) {
+        @Override
+        public int getPriority() {
+          return priority;
+        }
+
+        @Override
+        public void process() throws IOException {
+          synchronized (processed) {
+            processed.add(name);
+          }
+        }
+      });
+    }
+    latch.countDown();
+    Waiter.waitFor(conf, 3000, () -> {
+      synchronized (processed) {
+        return processed.size() == priorities.length;
+      }
+    });
+    assertEquals(Arrays.asList("1-1", "1-4", "3-3", "5-0", "5-2"), processed);
+    executorService.shutdown();
+  }
 }
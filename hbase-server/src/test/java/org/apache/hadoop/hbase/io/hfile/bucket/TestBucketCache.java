@@ -64,6 +64,7 @@ import org.apache.hadoop.hbase.io.hfile.BlockType;
 import org.apache.hadoop.hbase.io.hfile.CacheTestUtils;
 import org.apache.hadoop.hbase.io.hfile.CacheTestUtils.HFileBlockPair;
 import org.apache.hadoop.hbase.io.hfile.Cacheable;
+import org.apache.hadoop.hbase.io.hfile.CachedBlock;
 import org.apache.hadoop.hbase.io.hfile.HFileBlock;
 import org.apache.hadoop.hbase.io.hfile.HFileContext;
 import org.apache.hadoop.hbase.io.hfile.HFileContextBuilder;
@@ -269,6 +270,24 @@ public class TestBucketCache {
     waitUntilFlushedToBucket(cache, cacheKey);
   }
 
+  @Test
+  public void testGetCachedBlocksByHfileName() throws Exception {
+    BlockCacheKey[] keys = { new BlockCacheKey("file1", 0L), new BlockCacheKey("file1", 100L),
+      new BlockCacheKey("file2", 0L) };
+    for (BlockCacheKey key : keys) {
+      cacheAndWaitUntilFlushedToBucket(cache, key,
+        new CacheTestUtils.ByteArrayCacheable(new byte[10]), true);
+    }
+    List<CachedBlock> blocks = cache.getCachedBlocksByHfileName("file1").get();
+    assertEquals(2, blocks.size());
+    for (CachedBlock block : blocks) {
+      assertEquals("file1", block.getFilename());
+    }
+    assertEquals(0L, blocks.get(0).getOffset());
+    assertEquals(100L, blocks.get(1).getOffset());
+    assertTrue(cache.getCachedBlocksByHfileName("file3").get().isEmpty());
+  }
+
   @Test
   public void testMemoryLeak() throws Exception {
     final BlockCacheKey cacheKey = new BlockCacheKey("dummy", 1L);
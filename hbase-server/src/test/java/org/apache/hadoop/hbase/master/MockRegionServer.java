@@ -101,6 +101,8 @@ import org.apache.hadoop.hbase.shaded.protobuf.generated.AdminProtos.GetCachedFi
 import org.apache.hadoop.hbase.shaded.protobuf.generated.AdminProtos.GetCachedFilesListResponse;
 import org.apache.hadoop.hbase.shaded.protobuf.generated.AdminProtos.GetOnlineRegionRequest;
 import org.apache.hadoop.hbase.shaded.protobuf.generated.AdminProtos.GetOnlineRegionResponse;
+import org.apache.hadoop.hbase.shaded.protobuf.generated.AdminProtos.GetRegionCachedBlocksRequest;
+import org.apache.hadoop.hbase.shaded.protobuf.generated.AdminProtos.GetRegionCachedBlocksResponse;
 import org.apache.hadoop.hbase.shaded.protobuf.generated.AdminProtos.GetRegionInfoRequest;
 import org.apache.hadoop.hbase.shaded.protobuf.generated.AdminProtos.GetRegionInfoResponse;
 import org.apache.hadoop.hbase.shaded.protobuf.generated.AdminProtos.GetRegionLoadRequest;
@@ -461,6 +463,12 @@ class MockRegionServer implements AdminProtos.AdminService.BlockingInterface,
     return null;
   }
 
+  @Override
+  public GetRegionCachedBlocksResponse getRegionCachedBlocks(RpcController controller,
+    GetRegionCachedBlocksRequest request) throws ServiceException {
+    return null;
+  }
+
   @Override
   public List<HRegion> getRegions() {
     return null;
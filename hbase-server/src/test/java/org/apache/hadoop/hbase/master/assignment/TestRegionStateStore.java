@@ -27,7 +27,12 @@ import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -78,6 +83,7 @@ public class TestRegionStateStore {
 
   @BeforeClass
   public static void beforeClass() throws Exception {
+    UTIL.getConfiguration().setBoolean(RegionStateStore.META_UPDATE_BATCH_ENABLED_KEY, true);
     UTIL.startMiniCluster();
   }
 
@@ -369,6 +375,45 @@ public class TestRegionStateStore {
     assertTrue(mergeParents.contains(regions.get(3)));
   }
 
+  @Test
+  public void testMergeRegionsInMemory() throws IOException {
+    long regionId = EnvironmentEdgeManager.currentTime();
+    TableName tableName = name.getTableName();
+    RegionInfo parentA = RegionInfoBuilder.newBuilder(tableName)
+      .setStartKey(HConstants.EMPTY_START_ROW).setEndKey(Bytes.toBytes("a")).setRegionId(regionId)
+      .build();
+    RegionInfo parentB = RegionInfoBuilder.newBuilder(tableName).setStartKey(Bytes.toBytes("a"))
+      .setEndKey(HConstants.EMPTY_END_ROW).setRegionId(regionId).build();
+    RegionInfo merged = RegionInfoBuilder.newBuilder(tableName).setRegionId(regionId + 1).build();
+
+    final RegionStateStore regionStateStore =
+      UTIL.getHBaseCluster().getMaster().getAssignmentManager().getRegionStateStore();
+    MetaTableAccessor.addRegionsToMeta(UTIL.getConnection(), Lists.newArrayList(parentA, parentB),
+      1);
+    regionStateStore.mergeRegions(merged, new RegionInfo[] { parentA, parentB },
+      ServerName.valueOf("foo", 60010, regionId),
+      TableDescriptorBuilder.newBuilder(tableName).build());
+    assertTrue(regionStateStore.getMergedParentRegionEncodedNames()
+      .containsAll(Arrays.asList(parentA.getEncodedName(), parentB.getEncodedName())));
+
+    // a scan which started before a change can not be used to verify the view
+    long version = regionStateStore.getMergeRegionsVersion();
+    regionStateStore.deleteMergeQualifiers(merged);
+    assertFalse(
+      regionStateStore.getMergedParentRegionEncodedNames().contains(parentA.getEncodedName()));
+    Map<RegionInfo, List<RegionInfo>> inMeta = new HashMap<>();
+    inMeta.put(merged, Arrays.asList(parentA, parentB));
+    assertEquals(-1, regionStateStore.reconcileMergeRegions(inMeta, version));
+
+    // a view which does not match the scan is replaced with it
+    version = regionStateStore.getMergeRegionsVersion();
+    assertTrue(regionStateStore.reconcileMergeRegions(inMeta, version) > 0);
+    assertTrue(regionStateStore.getMergedParentRegionEncodedNames()
+      .containsAll(Arrays.asList(parentA.getEncodedName(), parentB.getEncodedName())));
+    version = regionStateStore.getMergeRegionsVersion();
+    assertEquals(0, regionStateStore.reconcileMergeRegions(inMeta, version));
+  }
+
   @Test
   public void testAddMergeRegions() throws IOException {
     TableName tn = name.getTableName();
@@ -429,4 +474,37 @@ public class TestRegionStateStore {
       }
     }
   }
+
+  @Test
+  public void testBatchedRegionLocationUpdates() throws Exception {
+    TableName tableName = name.getTableName();
+    long regionId = EnvironmentEdgeManager.currentTime();
+    ServerName serverName =
+      ServerName.valueOf("foo", 60010, ThreadLocalRandom.current().nextLong());
+    List<RegionInfo> regionInfos = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      regionInfos.add(RegionInfoBuilder.newBuilder(tableName)
+        .setStartKey(i == 0 ? HConstants.EMPTY_START_ROW : Bytes.toBytes(String.format("%03d", i)))
+        .setEndKey(i == 99 ? HConstants.EMPTY_END_ROW : Bytes.toBytes(String.format("%03d", i + 1)))
+        .setRegionId(regionId).build());
+    }
+    MetaTableAccessor.addRegionsToMeta(UTIL.getConnection(), regionInfos, 1);
+    RegionStateStore regionStateStore =
+      UTIL.getHBaseCluster().getMaster().getAssignmentManager().getRegionStateStore();
+    // update all the regions at once, as the procedures of a bulk assignment would
+    List<CompletableFuture<Void>> futures = new ArrayList<>();
+    for (RegionInfo regionInfo : regionInfos) {
+      RegionStateNode node = new RegionStateNode(regionInfo, new ConcurrentHashMap<>());
+      node.setState(RegionState.State.OPEN);
+      node.setRegionLocation(serverName);
+      node.setOpenSeqNum(1);
+      futures.add(regionStateStore.updateRegionLocation(node));
+    }
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+    for (RegionInfo regionInfo : regionInfos) {
+      Result result = MetaTableAccessor.getRegionResult(UTIL.getConnection(), regionInfo);
+      assertEquals(RegionState.State.OPEN, RegionStateStore.getRegionState(result, regionInfo));
+      assertEquals(serverName, CatalogFamilyFormat.getServerName(result, 0));
+    }
+  }
 }
@@ -18,17 +18,22 @@
 package org.apache.hadoop.hbase.master.normalizer;
 
 import static java.lang.String.format;
+import static org.apache.hadoop.hbase.master.normalizer.RegionNormalizerChore.DEFAULT_NORMALIZER_PERIOD;
 import static org.apache.hadoop.hbase.master.normalizer.RegionNormalizerWorker.CUMULATIVE_SIZE_LIMIT_MB_KEY;
 import static org.apache.hadoop.hbase.master.normalizer.SimpleRegionNormalizer.DEFAULT_MERGE_MIN_REGION_AGE_DAYS;
+import static org.apache.hadoop.hbase.master.normalizer.SimpleRegionNormalizer.LOAD_WEIGHT_KEY;
+import static org.apache.hadoop.hbase.master.normalizer.SimpleRegionNormalizer.MAX_STORE_FILES_PER_SERVER_KEY;
 import static org.apache.hadoop.hbase.master.normalizer.SimpleRegionNormalizer.MERGE_ENABLED_KEY;
 import static org.apache.hadoop.hbase.master.normalizer.SimpleRegionNormalizer.MERGE_MIN_REGION_AGE_DAYS_KEY;
 import static org.apache.hadoop.hbase.master.normalizer.SimpleRegionNormalizer.MERGE_MIN_REGION_COUNT_KEY;
 import static org.apache.hadoop.hbase.master.normalizer.SimpleRegionNormalizer.MERGE_MIN_REGION_SIZE_MB_KEY;
 import static org.apache.hadoop.hbase.master.normalizer.SimpleRegionNormalizer.MERGE_REQUEST_MAX_NUMBER_OF_REGIONS_COUNT_KEY;
 import static org.apache.hadoop.hbase.master.normalizer.SimpleRegionNormalizer.MIN_REGION_COUNT_KEY;
+import static org.apache.hadoop.hbase.master.normalizer.SimpleRegionNormalizer.REQUEST_COUNTS_EXPIRY_PERIODS;
 import static org.apache.hadoop.hbase.master.normalizer.SimpleRegionNormalizer.SPLIT_ENABLED_KEY;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.everyItem;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
@@ -61,16 +66,23 @@ import org.apache.hadoop.hbase.ServerName;
 import org.apache.hadoop.hbase.Size;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.TableNameTestRule;
+import org.apache.hadoop.hbase.client.BalancerDecision;
+import org.apache.hadoop.hbase.client.LogEntry;
 import org.apache.hadoop.hbase.client.RegionInfo;
 import org.apache.hadoop.hbase.client.RegionInfoBuilder;
 import org.apache.hadoop.hbase.client.TableDescriptor;
 import org.apache.hadoop.hbase.client.TableDescriptorBuilder;
 import org.apache.hadoop.hbase.master.MasterServices;
 import org.apache.hadoop.hbase.master.RegionState;
+import org.apache.hadoop.hbase.master.balancer.BaseLoadBalancer;
+import org.apache.hadoop.hbase.namequeues.BalancerDecisionDetails;
+import org.apache.hadoop.hbase.namequeues.NamedQueueRecorder;
+import org.apache.hadoop.hbase.namequeues.request.NamedQueueGetRequest;
 import org.apache.hadoop.hbase.testclassification.MasterTests;
 import org.apache.hadoop.hbase.testclassification.SmallTests;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.apache.hadoop.hbase.util.EnvironmentEdgeManager;
+import org.apache.hadoop.hbase.util.ManualEnvironmentEdge;
 import org.junit.Before;
 import org.junit.ClassRule;
 import org.junit.Rule;
@@ -78,6 +90,9 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.mockito.Mockito;
 
+import org.apache.hadoop.hbase.shaded.protobuf.ProtobufUtil;
+import org.apache.hadoop.hbase.shaded.protobuf.generated.MasterProtos;
+
 /**
  * Tests logic of {@link SimpleRegionNormalizer}.
  */
@@ -666,6 +681,120 @@ public class TestSimpleRegionNormalizer {
     verify(normalizer, times(1)).shuffleNormalizationPlans(anyList());
   }
 
+  @Test
+  public void testLoadAwareNormalization() {
+    conf.setDouble(LOAD_WEIGHT_KEY, 0.5);
+    final TableName tableName = name.getTableName();
+    final List<RegionInfo> regionInfos = createRegionInfos(tableName, 4);
+    final Map<byte[], Integer> regionSizes = createRegionSizesMap(regionInfos, 2, 2, 30, 6);
+    setupMocksForNormalizer(regionSizes, regionInfos);
+    assertEquals(0.5, normalizer.getLoadWeight(), 0);
+
+    ManualEnvironmentEdge edge = new ManualEnvironmentEdge();
+    edge.setValue(EnvironmentEdgeManager.currentTime());
+    EnvironmentEdgeManager.injectEdge(edge);
+    try {
+      // no request rates yet, only the sizes count
+      assertThat(normalizer.computePlansForTable(tableDescriptor),
+        contains(new SplitNormalizationPlan(regionInfos.get(2), 30),
+          new MergeNormalizationPlan.Builder().addTarget(regionInfos.get(0), 2)
+            .addTarget(regionInfos.get(1), 2).build()));
+
+      // the first region gets all the requests, the large third one none
+      edge.incValue(1000);
+      when(getRegionMetrics(regionInfos.get(0)).getWriteRequestCount()).thenReturn(100L);
+      assertThat(normalizer.computePlansForTable(tableDescriptor),
+        contains(new SplitNormalizationPlan(regionInfos.get(0), 2)));
+    } finally {
+      EnvironmentEdgeManager.reset();
+    }
+  }
+
+  @Test
+  public void testRequestCountsOfDroppedTablesExpire() {
+    conf.setDouble(LOAD_WEIGHT_KEY, 0.5);
+    final TableName tableName = name.getTableName();
+    final List<RegionInfo> regionInfos = createRegionInfos(tableName, 4);
+    final Map<byte[], Integer> regionSizes = createRegionSizesMap(regionInfos, 2, 2, 30, 6);
+    setupMocksForNormalizer(regionSizes, regionInfos);
+    final TableName otherTableName = TableName.valueOf(tableName.getNameAsString() + "_other");
+    final TableDescriptor otherTableDescriptor = Mockito.mock(TableDescriptor.class);
+    when(otherTableDescriptor.getTableName()).thenReturn(otherTableName);
+
+    ManualEnvironmentEdge edge = new ManualEnvironmentEdge();
+    edge.setValue(EnvironmentEdgeManager.currentTime());
+    EnvironmentEdgeManager.injectEdge(edge);
+    try {
+      normalizer.computePlansForTable(tableDescriptor);
+      normalizer.computePlansForTable(otherTableDescriptor);
+      assertThat(normalizer.getRequestCountTables(),
+        containsInAnyOrder(tableName, otherTableName));
+
+      // the first table is dropped, only the other one is normalized from now on
+      edge.incValue(REQUEST_COUNTS_EXPIRY_PERIODS * DEFAULT_NORMALIZER_PERIOD + 1);
+      normalizer.computePlansForTable(otherTableDescriptor);
+      assertThat(normalizer.getRequestCountTables(), contains(otherTableName));
+    } finally {
+      EnvironmentEdgeManager.reset();
+    }
+  }
+
+  @Test
+  public void testMaxStoreFilesPerServer() {
+    conf.setInt(MAX_STORE_FILES_PER_SERVER_KEY, 5);
+    final TableName tableName = name.getTableName();
+    final List<RegionInfo> regionInfos = createRegionInfos(tableName, 6);
+    final Map<byte[], Integer> regionSizes = createRegionSizesMap(regionInfos, 30, 30, 1, 1, 1, 1);
+    setupMocksForNormalizer(regionSizes, regionInfos);
+    for (RegionInfo regionInfo : regionInfos) {
+      when(getRegionMetrics(regionInfo).getStoreFileCount()).thenReturn(4);
+    }
+
+    // the second split and the merge would make the server compact too many store files
+    assertThat(normalizer.computePlansForTable(tableDescriptor),
+      contains(new SplitNormalizationPlan(regionInfos.get(0), 30)));
+
+    conf.setInt(MAX_STORE_FILES_PER_SERVER_KEY, 0);
+    normalizer.setConf(conf);
+    assertThat(normalizer.computePlansForTable(tableDescriptor), hasSize(3));
+  }
+
+  @Test
+  public void testNormalizationDecisionsRecorded() {
+    conf.setBoolean(BaseLoadBalancer.BALANCER_DECISION_BUFFER_ENABLED, true);
+    final TableName tableName = name.getTableName();
+    final List<RegionInfo> regionInfos = createRegionInfos(tableName, 4);
+    final Map<byte[], Integer> regionSizes = createRegionSizesMap(regionInfos, 2, 2, 30, 6);
+    setupMocksForNormalizer(regionSizes, regionInfos);
+    assertThat(normalizer.computePlansForTable(tableDescriptor), hasSize(2));
+
+    final NamedQueueGetRequest request = new NamedQueueGetRequest();
+    request.setNamedQueueEvent(BalancerDecisionDetails.BALANCER_DECISION_EVENT);
+    request.setBalancerDecisionsRequest(MasterProtos.BalancerDecisionsRequest.getDefaultInstance());
+    final MasterProtos.BalancerDecisionsResponse response =
+      MasterProtos.BalancerDecisionsResponse.newBuilder().addAllBalancerDecision(
+        NamedQueueRecorder.getInstance(conf).getNamedQueueRecords(request).getBalancerDecisions())
+        .build();
+    final List<String> decisions = new ArrayList<>();
+    for (LogEntry entry : ProtobufUtil.getBalancerDecisionEntries(response)) {
+      for (String plan : ((BalancerDecision) entry).getRegionPlans()) {
+        if (plan.startsWith("table: " + tableName + " ")) {
+          decisions.add(plan);
+        }
+      }
+    }
+    assertThat(decisions, hasSize(2));
+    assertTrue(decisions.get(0), decisions.get(0).contains("SPLIT regions: ["
+      + regionInfos.get(2).getEncodedName() + " (size: 30 MB, normalization size: 30 MB"));
+  }
+
+  private RegionMetrics getRegionMetrics(RegionInfo regionInfo) {
+    ServerName sn =
+      masterServices.getAssignmentManager().getRegionStates().getRegionServerOfRegion(regionInfo);
+    return masterServices.getServerManager().getLoad(sn).getRegionMetrics()
+      .get(regionInfo.getRegionName());
+  }
+
   @SuppressWarnings("MockitoCast")
   private void setupMocksForNormalizer(Map<byte[], Integer> regionSizes,
     List<RegionInfo> regionInfoList) {
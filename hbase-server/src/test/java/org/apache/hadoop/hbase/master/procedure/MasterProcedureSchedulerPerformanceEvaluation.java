@@ -18,6 +18,7 @@
 package org.apache.hadoop.hbase.master.procedure;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicLong;
 import org.apache.commons.lang3.ArrayUtils;
@@ -55,7 +56,9 @@ public class MasterProcedureSchedulerPerformanceEvaluation extends AbstractHBase
     "Total number of operations to schedule. Default: " + DEFAULT_NUM_OPERATIONS);
   public static final int DEFAULT_NUM_THREADS = 10;
   public static final Option NUM_THREADS_OPTION = new Option("threads", true,
-    "Number of procedure executor threads. Default: " + DEFAULT_NUM_THREADS);
+    "Number of procedure executor threads, or a comma separated list of them to run once per "
+      + "value and see how the throughput scales with the threads. Default: "
+      + DEFAULT_NUM_THREADS);
   public static final String DEFAULT_OPS_TYPE = "both";
   public static final Option OPS_TYPE_OPTION = new Option("ops_type", true,
     "Type of operations to run. Value can be table/region/both. In case of 'both', "
@@ -64,7 +67,7 @@ public class MasterProcedureSchedulerPerformanceEvaluation extends AbstractHBase
   private int numTables = DEFAULT_NUM_TABLES;
   private int regionsPerTable = DEFAULT_REGIONS_PER_TABLE;
   private int numOps = DEFAULT_NUM_OPERATIONS;
-  private int numThreads = DEFAULT_NUM_THREADS;
+  private int[] numThreadsList = { DEFAULT_NUM_THREADS };
   private String opsType = DEFAULT_OPS_TYPE;
 
   private MasterProcedureScheduler procedureScheduler;
@@ -186,7 +189,11 @@ public class MasterProcedureSchedulerPerformanceEvaluation extends AbstractHBase
     regionsPerTable =
       getOptionAsInt(cmd, REGIONS_PER_TABLE_OPTION.getOpt(), DEFAULT_REGIONS_PER_TABLE);
     numOps = getOptionAsInt(cmd, NUM_OPERATIONS_OPTION.getOpt(), DEFAULT_NUM_OPERATIONS);
-    numThreads = getOptionAsInt(cmd, NUM_THREADS_OPTION.getOpt(), DEFAULT_NUM_THREADS);
+    String threads = cmd.getOptionValue(NUM_THREADS_OPTION.getOpt());
+    if (threads != null) {
+      numThreadsList = Arrays.stream(threads.split(",")).map(String::trim)
+        .mapToInt(Integer::parseInt).toArray();
+    }
     opsType = cmd.getOptionValue(OPS_TYPE_OPTION.getOpt(), DEFAULT_OPS_TYPE);
   }
 
@@ -256,9 +263,19 @@ public class MasterProcedureSchedulerPerformanceEvaluation extends AbstractHBase
 
   @Override
   protected int doWork() throws Exception {
+    setupOperations();
+    for (int numThreads : numThreadsList) {
+      runWithThreads(numThreads);
+    }
+    return 0;
+  }
+
+  private void runWithThreads(int numThreads) throws Exception {
     procedureScheduler = new MasterProcedureScheduler(pid -> null);
     procedureScheduler.start();
-    setupOperations();
+    procIds.set(0);
+    yield.set(0);
+    completed.set(0);
 
     final Thread[] threads = new Thread[numThreads];
     for (int i = 0; i < numThreads; ++i) {
@@ -297,7 +314,6 @@ public class MasterProcedureSchedulerPerformanceEvaluation extends AbstractHBase
       NUM_OPERATIONS_OPTION.getOpt(), numOps, OPS_TYPE_OPTION.getOpt(), opsType,
       NUM_TABLES_OPTION.getOpt(), numTables, REGIONS_PER_TABLE_OPTION.getOpt(), regionsPerTable,
       NUM_THREADS_OPTION.getOpt(), numThreads, yield.get(), addBackTime, pollTime));
-    return 0;
   }
 
   public static void main(String[] args) throws IOException {
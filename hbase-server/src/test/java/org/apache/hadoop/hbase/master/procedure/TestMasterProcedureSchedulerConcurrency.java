@@ -241,7 +241,8 @@ public class TestMasterProcedureSchedulerConcurrency {
   @Test
   public void testMasterProcedureSchedulerPerformanceEvaluation() throws Exception {
     // Make sure the tool does not get stuck
-    MasterProcedureSchedulerPerformanceEvaluation.main(new String[] { "-num_ops", "1000" });
+    MasterProcedureSchedulerPerformanceEvaluation
+      .main(new String[] { "-num_ops", "1000", "-threads", "1,4" });
   }
 
   public static class TestTableProcSet {
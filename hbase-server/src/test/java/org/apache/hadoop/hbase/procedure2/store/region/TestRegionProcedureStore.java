@@ -149,6 +149,47 @@ public class TestRegionProcedureStore extends RegionProcedureStoreTestBase {
       .get(new Get(Bytes.toBytes(proc3.getProcId())).setCheckExistenceOnly(true)).getExists());
   }
 
+  @Test
+  public void testConcurrentUpdates() throws Exception {
+    int numThreads = 8;
+    int updatesPerProc = 50;
+    RegionProcedureStoreTestProcedure[] procs = new RegionProcedureStoreTestProcedure[numThreads];
+    for (int i = 0; i < numThreads; i++) {
+      procs[i] = new RegionProcedureStoreTestProcedure();
+    }
+    Thread[] threads = new Thread[numThreads];
+    for (int i = 0; i < numThreads; i++) {
+      RegionProcedureStoreTestProcedure proc = procs[i];
+      // finish half of the procedures with their last update
+      boolean finish = i % 2 == 0;
+      threads[i] = new Thread(() -> {
+        store.insert(proc, null);
+        for (int j = 0; j < updatesPerProc; j++) {
+          if (finish && j == updatesPerProc - 1) {
+            proc.finish();
+          }
+          store.update(proc);
+        }
+      });
+    }
+    for (Thread t : threads) {
+      t.start();
+    }
+    for (Thread t : threads) {
+      t.join();
+    }
+    long updates = numThreads * (updatesPerProc + 1);
+    assertEquals(updates, store.getUpdateCount());
+    assertTrue(store.getWriteCount() <= updates);
+    LOG.info("{} procedure updates written with {} writes", updates, store.getWriteCount());
+
+    LoadCounter loader = new LoadCounter();
+    store.load(loader);
+    assertEquals(numThreads, loader.getLoadedCount());
+    assertEquals(numThreads / 2, loader.getCompletedCount());
+    assertEquals(0, loader.getCorruptedCount());
+  }
+
   /**
    * Test for HBASE-23895
    */
@@ -203,4 +203,18 @@ public class MetricsRegionWrapperStub implements MetricsRegionWrapper {
     map.put("info", 0L);
     return map;
   }
+
+  @Override
+  public Map<String, Double> getReadAmplificationScore() {
+    Map<String, Double> map = new HashMap<>();
+    map.put("info", 0.0);
+    return map;
+  }
+
+  @Override
+  public Map<String, Long> getStoreFileSizeByStoragePolicy() {
+    Map<String, Long> map = new HashMap<>();
+    map.put("HOT", 0L);
+    return map;
+  }
 }
@@ -17,19 +17,29 @@
  */
 package org.apache.hadoop.hbase.regionserver;
 
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 import org.apache.hadoop.hbase.HBaseClassTestRule;
 import org.apache.hadoop.hbase.HConstants;
 import org.apache.hadoop.hbase.regionserver.compactions.CompactionConfiguration;
+import org.apache.hadoop.hbase.regionserver.compactions.DateTieredCompactionPolicy;
 import org.apache.hadoop.hbase.regionserver.compactions.ExponentialCompactionWindowFactory;
 import org.apache.hadoop.hbase.testclassification.RegionServerTests;
 import org.apache.hadoop.hbase.testclassification.SmallTests;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.util.EnvironmentEdgeManager;
+import org.apache.hadoop.hbase.util.ManualEnvironmentEdge;
 import org.junit.ClassRule;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import org.apache.hbase.thirdparty.com.google.common.collect.ImmutableList;
+
 @Category({ RegionServerTests.class, SmallTests.class })
 public class TestDateTieredCompactionPolicyHeterogeneousStorage
   extends AbstractTestDateTieredCompactionPolicy {
@@ -184,4 +194,57 @@ public class TestDateTieredCompactionPolicyHeterogeneousStorage
     compactEqualsStoragePolicy(161, sfCreate(minTimestamps, maxTimestamps, sizes), expected, true,
       true);
   }
+
+  private ArrayList<HStoreFile> sfCreate(long[] maxTimestamps, String[] storagePolicies)
+    throws IOException {
+    long[] minTimestamps = new long[maxTimestamps.length];
+    long[] sizes = new long[maxTimestamps.length];
+    for (int i = 0; i < sizes.length; i++) {
+      sizes[i] = 10 + i;
+    }
+    ArrayList<HStoreFile> files = sfCreate(minTimestamps, maxTimestamps, sizes);
+    for (int i = 0; i < storagePolicies.length; i++) {
+      if (storagePolicies[i] != null) {
+        ((MockHStoreFile) files.get(i)).setMetadataValue(HStoreFile.STORAGE_POLICY_KEY,
+          Bytes.toBytes(storagePolicies[i]));
+      }
+    }
+    return files;
+  }
+
+  /**
+   * Test that a file written to the hot window is rewritten with the storage policy of the cold
+   * window once it has aged into it, even though there is nothing to compact.
+   * @throws IOException with error
+   */
+  @Test
+  public void testAgedFileMovesToColderStoragePolicy() throws IOException {
+    long[] maxTimestamps = new long[] { 5, 13 };
+    String[] storagePolicies = new String[] { HOT_WINDOW_SP, HOT_WINDOW_SP };
+    Map<Long, String> expected = new HashMap<>();
+    expected.put(Long.MIN_VALUE, COLD_WINDOW_SP);
+    compactEquals(20, sfCreate(maxTimestamps, storagePolicies), new long[] { 10 },
+      new long[] { Long.MIN_VALUE }, false, true);
+    compactEqualsStoragePolicy(20, sfCreate(maxTimestamps, storagePolicies), expected, false,
+      true);
+  }
+
+  /**
+   * Test that files stay where they are if they are in the storage policy of their tier, were
+   * written without a storage policy, or would only move to a hotter tier.
+   * @throws IOException with error
+   */
+  @Test
+  public void testFilesInTheirStoragePolicyStay() throws IOException {
+    long[] maxTimestamps = new long[] { 5, 13, 19 };
+    String[] storagePolicies = new String[] { null, WARM_WINDOW_SP, WARM_WINDOW_SP };
+    ArrayList<HStoreFile> candidates = sfCreate(maxTimestamps, storagePolicies);
+    ManualEnvironmentEdge timeMachine = new ManualEnvironmentEdge();
+    EnvironmentEdgeManager.injectEdge(timeMachine);
+    timeMachine.setValue(20);
+    DateTieredCompactionPolicy policy =
+      (DateTieredCompactionPolicy) store.storeEngine.getCompactionPolicy();
+    assertFalse(policy.needsCompaction(candidates, ImmutableList.of()));
+    assertTrue(policy.selectMinorCompaction(candidates, false, false).getFiles().isEmpty());
+  }
 }
@@ -547,6 +547,29 @@ public class TestHStore {
     assertEquals(lowestTimeStampFromManager, lowestTimeStampFromFS);
   }
 
+  @Test
+  public void testReadAmplificationScore() throws Exception {
+    ManualEnvironmentEdge edge = new ManualEnvironmentEdge();
+    edge.setValue(EnvironmentEdgeManager.currentTime());
+    EnvironmentEdgeManagerTestHelper.injectEdge(edge);
+    init(name.getMethodName());
+    for (int i = 1; i <= 3; i++) {
+      this.store.add(new KeyValue(row, family, qf1, i, (byte[]) null), null);
+      flush(i);
+    }
+    assertEquals(0, store.getReadAmplificationScore(), 0);
+
+    for (int i = 0; i < 10; i++) {
+      store.getScanner(new Scan(new Get(row)), null, Long.MAX_VALUE).close();
+    }
+    edge.incValue(10000);
+    // every scan read all 3 files, 2 of which a compaction saves, at one scan per second
+    assertEquals(2, store.getReadAmplificationScore(), 0.001);
+
+    store.compact(store.requestCompaction().get(), NoLimitThroughputController.INSTANCE, null);
+    assertEquals(0, store.getReadAmplificationScore(), 0);
+  }
+
   private static long getLowestTimeStampFromFS(FileSystem fs,
     final Collection<HStoreFile> candidates) throws IOException {
     long minTs = Long.MAX_VALUE;
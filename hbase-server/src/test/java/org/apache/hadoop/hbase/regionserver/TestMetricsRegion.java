@@ -17,12 +17,19 @@
  */
 package org.apache.hadoop.hbase.regionserver;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hbase.CompatibilityFactory;
 import org.apache.hadoop.hbase.HBaseClassTestRule;
 import org.apache.hadoop.hbase.test.MetricsAssertHelper;
 import org.apache.hadoop.hbase.testclassification.RegionServerTests;
 import org.apache.hadoop.hbase.testclassification.SmallTests;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.util.EnvironmentEdgeManager;
+import org.apache.hadoop.hbase.util.ManualEnvironmentEdge;
 import org.junit.ClassRule;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -101,4 +108,76 @@ public class TestMetricsRegion {
       + "_metric_maxFlushQueueSize", 6, agg);
     mr.close();
   }
+
+  @Test
+  public void testLatencyPercentiles() {
+    ManualEnvironmentEdge edge = new ManualEnvironmentEdge();
+    edge.setValue(EnvironmentEdgeManager.currentTime());
+    EnvironmentEdgeManager.injectEdge(edge);
+    try {
+      MetricsRegion mr = new MetricsRegion(new MetricsRegionWrapperStub(), new Configuration());
+      for (int i = 0; i < 1000; i++) {
+        mr.updateReadLatency(i < 980 ? 5 : 500);
+      }
+      // nothing is reported until the first window is over
+      assertEquals(0, mr.getReadLatencyP99());
+      edge.incValue(MetricsRegion.DEFAULT_LATENCY_WINDOW_MS);
+      long p99 = mr.getReadLatencyP99();
+      assertTrue("p99=" + p99, p99 > 100 && p99 <= 500);
+      assertEquals(0, mr.getWriteLatencyP99());
+      // the percentiles of the last window are kept until the next one is over
+      mr.updateWriteLatency(10);
+      assertEquals(p99, mr.getReadLatencyP99());
+      edge.incValue(MetricsRegion.DEFAULT_LATENCY_WINDOW_MS);
+      assertEquals(0, mr.getReadLatencyP99());
+      assertTrue(mr.getWriteLatencyP99() > 0);
+      mr.close();
+    } finally {
+      EnvironmentEdgeManager.reset();
+    }
+  }
+
+  @Test
+  public void testGrowthHistory() {
+    ManualEnvironmentEdge edge = new ManualEnvironmentEdge();
+    edge.setValue(EnvironmentEdgeManager.currentTime());
+    EnvironmentEdgeManager.injectEdge(edge);
+    try {
+      MetricsRegion mr = new MetricsRegion(new MetricsRegionWrapperStub(), new Configuration());
+      mr.updateGrowthHistory(1000, 0);
+      assertFalse(mr.hasGrowthHistory());
+      edge.incValue(10000);
+      mr.updateGrowthHistory(2000, 100);
+      assertTrue(mr.hasGrowthHistory());
+      assertEquals(100, mr.getSizeGrowthRate(), 1e-9);
+      assertEquals(10, mr.getWriteRequestRate(), 1e-9);
+      // a short period of no growth only moves the rates a little towards zero
+      edge.incValue(10000);
+      mr.updateGrowthHistory(2000, 100);
+      assertTrue(mr.getSizeGrowthRate() > 90 && mr.getSizeGrowthRate() < 100);
+      // a long one makes them close to zero
+      edge.incValue(10 * MetricsRegion.GROWTH_HISTORY_TIME_CONSTANT_MS);
+      mr.updateGrowthHistory(2000, 100);
+      assertTrue(mr.getSizeGrowthRate() < 0.01);
+      assertTrue(mr.getWriteRequestRate() < 0.01);
+      mr.close();
+    } finally {
+      EnvironmentEdgeManager.reset();
+    }
+  }
+
+  @Test
+  public void testWrittenRowsSample() {
+    MetricsRegion mr = new MetricsRegion(new MetricsRegionWrapperStub(), new Configuration());
+    assertFalse(mr.isSamplingWrittenRows());
+    mr.updateWrittenRow(Bytes.toBytes(0));
+    assertEquals(0, mr.getWrittenRowsSample().size());
+    mr.startSamplingWrittenRows(10, 1);
+    assertTrue(mr.isSamplingWrittenRows());
+    for (int i = 0; i < 100; i++) {
+      mr.updateWrittenRow(Bytes.toBytes(i));
+    }
+    assertEquals(10, mr.getWrittenRowsSample().size());
+    mr.close();
+  }
 }
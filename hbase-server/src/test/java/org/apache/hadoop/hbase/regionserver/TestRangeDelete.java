@@ -0,0 +1,264 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hbase.regionserver;
+
+import static org.apache.hadoop.hbase.regionserver.HStoreFile.RANGE_TOMBSTONE_BLOCK_KEY;
+import static org.apache.hadoop.hbase.regionserver.HStoreFile.RANGE_TOMBSTONE_COUNT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellComparator;
+import org.apache.hadoop.hbase.DoNotRetryIOException;
+import org.apache.hadoop.hbase.ExtendedCell;
+import org.apache.hadoop.hbase.HBaseClassTestRule;
+import org.apache.hadoop.hbase.HBaseTestingUtil;
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.ColumnFamilyDescriptorBuilder;
+import org.apache.hadoop.hbase.client.Delete;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.client.TableDescriptor;
+import org.apache.hadoop.hbase.client.TableDescriptorBuilder;
+import org.apache.hadoop.hbase.testclassification.MediumTests;
+import org.apache.hadoop.hbase.testclassification.RegionServerTests;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.wal.WAL;
+import org.apache.hadoop.io.DataInputBuffer;
+import org.apache.hadoop.io.DataOutputBuffer;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TestName;
+
+/**
+ * Tests deleting a range of rows with a single range tombstone.
+ */
+@Category({ RegionServerTests.class, MediumTests.class })
+public class TestRangeDelete {
+
+  @ClassRule
+  public static final HBaseClassTestRule CLASS_RULE =
+    HBaseClassTestRule.forClass(TestRangeDelete.class);
+
+  private static final HBaseTestingUtil UTIL = new HBaseTestingUtil();
+  private static final byte[] FAMILY = Bytes.toBytes("f");
+  private static final byte[] QUALIFIER = Bytes.toBytes("q");
+  private static final int ROWS = 20;
+
+  @Rule
+  public TestName name = new TestName();
+
+  private HRegion region;
+
+  @BeforeClass
+  public static void setUpBeforeClass() {
+    UTIL.getConfiguration().setBoolean(HRegion.RANGE_DELETE_ENABLED_KEY, true);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    if (region != null) {
+      WAL wal = region.getWAL();
+      region.close();
+      wal.close();
+    }
+  }
+
+  private void createRegion(byte[] endKey) throws IOException {
+    createRegion(endKey, HConstants.REPLICATION_SCOPE_LOCAL);
+  }
+
+  private void createRegion(byte[] endKey, int scope) throws IOException {
+    TableDescriptor htd = TableDescriptorBuilder.newBuilder(TableName.valueOf(name.getMethodName()))
+      .setColumnFamily(ColumnFamilyDescriptorBuilder.newBuilder(FAMILY).setMaxVersions(3)
+        .setScope(scope).build())
+      .build();
+    region = UTIL.createLocalHRegion(htd, null, endKey);
+  }
+
+  private static byte[] row(int i) {
+    return Bytes.toBytes(String.format("row-%02d", i));
+  }
+
+  private void putRows(long ts) throws IOException {
+    for (int i = 0; i < ROWS; i++) {
+      region.put(new Put(row(i)).addColumn(FAMILY, QUALIFIER, ts, Bytes.toBytes(i)));
+    }
+  }
+
+  private List<String> scanRows(Scan scan) throws IOException {
+    List<String> rows = new ArrayList<>();
+    try (RegionScanner scanner = region.getScanner(scan)) {
+      List<Cell> cells = new ArrayList<>();
+      boolean more;
+      do {
+        more = scanner.next(cells);
+        if (!cells.isEmpty()) {
+          rows.add(Bytes.toString(cells.get(0).getRowArray(), cells.get(0).getRowOffset(),
+            cells.get(0).getRowLength()));
+        }
+        cells.clear();
+      } while (more);
+    }
+    return rows;
+  }
+
+  private List<String> expectedRows(int from, int to) {
+    List<String> rows = new ArrayList<>();
+    for (int i = 0; i < ROWS; i++) {
+      if (i < from || i >= to) {
+        rows.add(Bytes.toString(row(i)));
+      }
+    }
+    return rows;
+  }
+
+  private void assertDeleted(int from, int to) throws IOException {
+    assertEquals(expectedRows(from, to), scanRows(new Scan()));
+    assertTrue(region.get(new Get(row(from))).isEmpty());
+    assertTrue(region.get(new Get(row(to - 1))).isEmpty());
+    assertFalse(region.get(new Get(row(to))).isEmpty());
+    // a scan starting in the middle of the deleted range
+    assertEquals(expectedRows(0, to), scanRows(new Scan().withStartRow(row((from + to) / 2))));
+    List<String> reversed = expectedRows(from, to);
+    Collections.reverse(reversed);
+    assertEquals(reversed, scanRows(new Scan().setReversed(true)));
+  }
+
+  @Test
+  public void testRangeDelete() throws IOException {
+    createRegion(null);
+    putRows(1);
+    region.flush(true);
+    region.delete(new Delete(row(5)).addFamilyRange(FAMILY, row(15)));
+    assertDeleted(5, 15);
+    // the range tombstone is in a file of its own, which the row bloom filter of a get would skip
+    region.flush(true);
+    assertDeleted(5, 15);
+    HStore store = region.getStore(FAMILY);
+    assertEquals(1, store.getStorefiles().stream()
+      .filter(f -> f.getReader().getRangeTombstoneCnt() > 0).count());
+    region.compact(true);
+    assertDeleted(5, 15);
+    // the covered cells and the tombstone itself are gone
+    assertEquals(1, store.getStorefilesCount());
+    HStoreFile file = store.getStorefiles().iterator().next();
+    assertEquals(ROWS - 10, file.getReader().getEntries());
+    assertEquals(0, file.getReader().getRangeTombstoneCnt());
+    // files without range tombstones do not carry the count or the meta block
+    assertNull(file.getReader().getHFileReader().getHFileInfo().get(RANGE_TOMBSTONE_COUNT));
+    assertNull(file.getReader().getHFileReader().getMetaBlock(RANGE_TOMBSTONE_BLOCK_KEY, false));
+  }
+
+  @Test
+  public void testNewerVersionsSurvive() throws IOException {
+    createRegion(null);
+    putRows(100);
+    region.delete(new Delete(row(0)).addFamilyRange(FAMILY, row(ROWS), 150));
+    region.put(new Put(row(3)).addColumn(FAMILY, QUALIFIER, 200, Bytes.toBytes(-1)));
+    region.put(new Put(row(4)).addColumn(FAMILY, QUALIFIER, 120, Bytes.toBytes(-1)));
+    region.flush(true);
+    List<String> expected = new ArrayList<>();
+    expected.add(Bytes.toString(row(3)));
+    assertEquals(expected, scanRows(new Scan()));
+    // the same with a time range which excludes the tombstone itself
+    assertEquals(expected, scanRows(new Scan().setTimeRange(160, 300)));
+    assertTrue(region.get(new Get(row(4))).isEmpty());
+  }
+
+  @Test
+  public void testInvalidRangeDelete() throws IOException {
+    createRegion(row(10));
+    assertThrows(IllegalArgumentException.class,
+      () -> new Delete(row(5)).addFamilyRange(FAMILY, row(5)));
+    // the range must not cross the end of the region
+    assertThrows(DoNotRetryIOException.class,
+      () -> region.delete(new Delete(row(5)).addFamilyRange(FAMILY, row(11))));
+    region.delete(new Delete(row(5)).addFamilyRange(FAMILY, row(10)));
+  }
+
+  @Test
+  public void testRangeDeleteDisabled() throws IOException {
+    UTIL.getConfiguration().setBoolean(HRegion.RANGE_DELETE_ENABLED_KEY, false);
+    try {
+      createRegion(null);
+    } finally {
+      UTIL.getConfiguration().setBoolean(HRegion.RANGE_DELETE_ENABLED_KEY, true);
+    }
+    assertThrows(DoNotRetryIOException.class,
+      () -> region.delete(new Delete(row(5)).addFamilyRange(FAMILY, row(10))));
+  }
+
+  @Test
+  public void testReplicatedFamily() throws IOException {
+    // the peer clusters may not support range deletes
+    createRegion(null, HConstants.REPLICATION_SCOPE_GLOBAL);
+    assertThrows(DoNotRetryIOException.class,
+      () -> region.delete(new Delete(row(5)).addFamilyRange(FAMILY, row(10))));
+  }
+
+  private static KeyValue rangeTombstone(int from, int to, long ts, long seqId) {
+    KeyValue kv = new KeyValue(row(from), FAMILY, null, ts, KeyValue.Type.DeleteRange, row(to));
+    kv.setSequenceId(seqId);
+    return kv;
+  }
+
+  @Test
+  public void testRangeTombstoneBlock() throws IOException {
+    List<ExtendedCell> tombstones =
+      Arrays.asList(rangeTombstone(1, 5, 100, 7), rangeTombstone(3, 12, 200, 9));
+    DataOutputBuffer out = new DataOutputBuffer();
+    new RangeTombstoneBlock(tombstones).write(out);
+    DataInputBuffer in = new DataInputBuffer();
+    in.reset(out.getData(), out.getLength());
+    RangeTombstoneBlock read = new RangeTombstoneBlock();
+    read.readFields(in);
+    assertEquals(tombstones.size(), read.getTombstones().size());
+    for (int i = 0; i < tombstones.size(); i++) {
+      ExtendedCell expected = tombstones.get(i);
+      ExtendedCell actual = read.getTombstones().get(i);
+      assertEquals(0, CellComparator.getInstance().compare(expected, actual));
+      assertEquals(expected.getSequenceId(), actual.getSequenceId());
+      assertTrue(Bytes.equals(expected.getValueArray(), expected.getValueOffset(),
+        expected.getValueLength(), actual.getValueArray(), actual.getValueOffset(),
+        actual.getValueLength()));
+    }
+
+    // only range tombstones are accepted
+    KeyValue put = new KeyValue(row(1), FAMILY, QUALIFIER, 100, KeyValue.Type.Put, row(2));
+    out.reset();
+    new RangeTombstoneBlock(Collections.singletonList(put)).write(out);
+    in.reset(out.getData(), out.getLength());
+    assertThrows(IOException.class, () -> new RangeTombstoneBlock().readFields(in));
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hbase.regionserver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.hadoop.hbase.HBaseClassTestRule;
+import org.apache.hadoop.hbase.HBaseTestingUtil;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.RegionInfo;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.io.hfile.BlockCache;
+import org.apache.hadoop.hbase.io.hfile.BlockCacheKey;
+import org.apache.hadoop.hbase.master.assignment.AssignmentManager;
+import org.apache.hadoop.hbase.testclassification.MediumTests;
+import org.apache.hadoop.hbase.testclassification.RegionServerTests;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Tests that moving a region with warm transfer enabled prefetches the blocks cached on the source
+ * server into the block cache of the destination server.
+ */
+@Category({ RegionServerTests.class, MediumTests.class })
+public class TestRegionCacheWarmer {
+
+  @ClassRule
+  public static final HBaseClassTestRule CLASS_RULE =
+    HBaseClassTestRule.forClass(TestRegionCacheWarmer.class);
+
+  private static final HBaseTestingUtil UTIL = new HBaseTestingUtil();
+  private static final TableName TABLE_NAME = TableName.valueOf("test");
+  private static final byte[] FAMILY = Bytes.toBytes("f");
+  private static final byte[] QUALIFIER = Bytes.toBytes("q");
+
+  @BeforeClass
+  public static void setUp() throws Exception {
+    UTIL.getConfiguration().setBoolean(AssignmentManager.WARM_TRANSFER_ENABLED, true);
+    UTIL.startMiniCluster(2);
+  }
+
+  @AfterClass
+  public static void tearDown() throws Exception {
+    UTIL.shutdownMiniCluster();
+  }
+
+  private static BlockCache getBlockCache(HRegionServer rs) {
+    return rs.getBlockCache().get();
+  }
+
+  @Test
+  public void testWarmTransfer() throws Exception {
+    Table table = UTIL.createTable(TABLE_NAME, FAMILY);
+    byte[] value = new byte[1024];
+    for (int i = 0; i < 1000; i++) {
+      table.put(new Put(Bytes.toBytes(String.format("row-%04d", i))).addColumn(FAMILY, QUALIFIER,
+        value));
+    }
+    UTIL.flush(TABLE_NAME);
+    // read the rows so their blocks are in the block cache of the source server
+    try (ResultScanner scanner = table.getScanner(new Scan())) {
+      int count = 0;
+      for (Result r; (r = scanner.next()) != null;) {
+        count++;
+      }
+      assertEquals(1000, count);
+    }
+
+    HRegionServer source = UTIL.getRSForFirstRegionInTable(TABLE_NAME);
+    HRegionServer target = UTIL.getOtherRegionServer(source);
+    HRegion region = source.getRegions(TABLE_NAME).get(0);
+    RegionInfo regionInfo = region.getRegionInfo();
+    List<BlockCacheKey> blocks =
+      RegionCacheWarmer.getCachedBlocks(region, getBlockCache(source), Long.MAX_VALUE);
+    assertTrue(blocks.size() > 1);
+    assertTrue(
+      RegionCacheWarmer.getCachedBlocks(region, getBlockCache(target), Long.MAX_VALUE).isEmpty());
+    // the size limit keeps the hottest blocks
+    assertEquals(blocks.subList(0, 1),
+      RegionCacheWarmer.getCachedBlocks(region, getBlockCache(source), 1024 * 1024 / 10));
+
+    UTIL.getAdmin().move(regionInfo.getEncodedNameAsBytes(), target.getServerName());
+    UTIL.waitUntilNoRegionsInTransition();
+    HRegion moved = target.getRegion(regionInfo.getEncodedName());
+    assertFalse(moved == null);
+    // no read has been served by the target yet, so all these come from the warm transfer, which
+    // prefetches in the background
+    UTIL.waitFor(30000, () -> {
+      Set<BlockCacheKey> warmed = new HashSet<>(
+        RegionCacheWarmer.getCachedBlocks(moved, getBlockCache(target), Long.MAX_VALUE));
+      return warmed.containsAll(blocks);
+    });
+    table.close();
+  }
+}
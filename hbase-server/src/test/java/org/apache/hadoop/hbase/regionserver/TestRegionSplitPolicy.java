@@ -23,6 +23,7 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
@@ -279,6 +280,67 @@ public class TestRegionSplitPolicy {
     assertTrue(policy.shouldSplit());
   }
 
+  @Test
+  public void testPredictiveSplitPolicy() throws IOException {
+    TableDescriptor td = TableDescriptorBuilder.newBuilder(TABLENAME).setMaxFileSize(1024L)
+      .setMemStoreFlushSize(1024L).build();
+    doReturn(td).when(mockRegion).getTableDescriptor();
+    conf.set(HConstants.HBASE_REGION_SPLIT_POLICY_KEY, PredictiveSplitPolicy.class.getName());
+    conf.setLong("hbase.predictive.policy.minAge", 0L);
+    conf.setLong("hbase.predictive.policy.horizon", 1000000L);
+    conf.setDouble("hbase.predictive.policy.maxWriteRate", 100);
+
+    RegionServerServices rss = mock(RegionServerServices.class);
+    final List<HRegion> regions = new ArrayList<>();
+    regions.add(mockRegion);
+    doReturn(regions).when(rss).getRegions(TABLENAME);
+    when(mockRegion.getRegionServerServices()).thenReturn(rss);
+    MetricsRegion metricsRegion = mock(MetricsRegion.class);
+    when(mockRegion.getMetrics()).thenReturn(metricsRegion);
+    // sampled writes skewed to the tail of the key space
+    List<byte[]> writtenRows = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      writtenRows.add(Bytes.toBytes(i < 20 ? "a" + i : "x" + i));
+    }
+    when(metricsRegion.getWrittenRowsSample()).thenAnswer(i -> new ArrayList<>(writtenRows));
+
+    HStore mockStore = mock(HStore.class);
+    doReturn(100L).when(mockStore).getSize();
+    doReturn(true).when(mockStore).canSplit();
+    doReturn(Optional.of(Bytes.toBytes("b"))).when(mockStore).getSplitPoint();
+    stores.add(mockStore);
+
+    PredictiveSplitPolicy policy =
+      (PredictiveSplitPolicy) RegionSplitPolicy.create(mockRegion, conf);
+    verify(metricsRegion).startSamplingWrittenRows(
+      PredictiveSplitPolicy.DEFAULT_SAMPLE_SIZE, PredictiveSplitPolicy.DEFAULT_SAMPLE_INTERVAL);
+    // no history yet
+    assertFalse(policy.shouldSplit());
+    when(metricsRegion.hasGrowthHistory()).thenReturn(true);
+    assertFalse(policy.shouldSplit());
+    // forecast to grow to 100 + 2 * 1000 bytes
+    when(metricsRegion.getSizeGrowthRate()).thenReturn(2.0);
+    assertTrue(policy.shouldSplit());
+    when(metricsRegion.getSizeGrowthRate()).thenReturn(-2.0);
+    assertFalse(policy.shouldSplit());
+    when(metricsRegion.getWriteRequestRate()).thenReturn(200.0);
+    assertTrue(policy.shouldSplit());
+    // can not split with references, whatever the forecast
+    doReturn(false).when(mockStore).canSplit();
+    assertFalse(policy.shouldSplit());
+    doReturn(true).when(mockStore).canSplit();
+
+    // the median of the written rows rather than the midkey of the store
+    assertEquals("x50", Bytes.toString(policy.getSplitPoint()));
+    // not enough written rows in the region
+    writtenRows.subList(PredictiveSplitPolicy.MIN_SAMPLED_ROWS, writtenRows.size()).clear();
+    writtenRows.set(0, HConstants.EMPTY_START_ROW);
+    assertEquals("b", Bytes.toString(policy.getSplitPoint()));
+    // no split point at all when the store can not be split
+    doReturn(Optional.empty()).when(mockStore).getSplitPoint();
+    assertNull(policy.getSplitPoint());
+  }
+
   private void assertWithinJitter(long maxSplitSize, long sizeToCheck) {
     assertTrue("Size greater than lower bound of jitter",
       (long) (maxSplitSize * 0.75) <= sizeToCheck);
@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hbase.regionserver.compactions;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.HBaseClassTestRule;
+import org.apache.hadoop.hbase.HBaseTestingUtil;
+import org.apache.hadoop.hbase.KeyValueUtil;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.ColumnFamilyDescriptorBuilder;
+import org.apache.hadoop.hbase.client.Delete;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.TableDescriptor;
+import org.apache.hadoop.hbase.client.TableDescriptorBuilder;
+import org.apache.hadoop.hbase.io.encoding.DataBlockEncoding;
+import org.apache.hadoop.hbase.io.hfile.CacheConfig;
+import org.apache.hadoop.hbase.io.hfile.HFile;
+import org.apache.hadoop.hbase.io.hfile.HFileScanner;
+import org.apache.hadoop.hbase.regionserver.HRegion;
+import org.apache.hadoop.hbase.regionserver.HStore;
+import org.apache.hadoop.hbase.regionserver.HStoreFile;
+import org.apache.hadoop.hbase.regionserver.throttle.NoLimitThroughputController;
+import org.apache.hadoop.hbase.testclassification.MediumTests;
+import org.apache.hadoop.hbase.testclassification.RegionServerTests;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.wal.WAL;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TestName;
+
+/**
+ * Tests compactions that copy the data blocks of the compacted files as they are.
+ */
+@Category({ RegionServerTests.class, MediumTests.class })
+public class TestBlockCopyCompaction {
+
+  @ClassRule
+  public static final HBaseClassTestRule CLASS_RULE =
+    HBaseClassTestRule.forClass(TestBlockCopyCompaction.class);
+
+  private static final HBaseTestingUtil UTIL = new HBaseTestingUtil();
+  private static final byte[] FAMILY = Bytes.toBytes("f");
+  private static final byte[] QUALIFIER = Bytes.toBytes("q");
+  private static final int ROWS_PER_FILE = 200;
+
+  @Rule
+  public TestName name = new TestName();
+
+  private HRegion region;
+
+  @BeforeClass
+  public static void setUpBeforeClass() {
+    Configuration conf = UTIL.getConfiguration();
+    conf.setBoolean(Compactor.BLOCK_COPY_ENABLED_KEY, true);
+    // Keep the flushed files around so that the tests can pick what to compact.
+    conf.setInt("hbase.hstore.compactionThreshold", 100);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    if (region != null) {
+      WAL wal = region.getWAL();
+      region.close();
+      wal.close();
+    }
+  }
+
+  private HStore createStore(DataBlockEncoding encoding) throws IOException {
+    TableDescriptor htd = TableDescriptorBuilder.newBuilder(TableName.valueOf(name.getMethodName()))
+      .setColumnFamily(ColumnFamilyDescriptorBuilder.newBuilder(FAMILY).setBlocksize(1024)
+        .setMaxVersions(3).setDataBlockEncoding(encoding).build())
+      .build();
+    region = UTIL.createLocalHRegion(htd, null, null);
+    return region.getStore(FAMILY);
+  }
+
+  private void flushRows(String prefix, long ts) throws IOException {
+    for (int i = 0; i < ROWS_PER_FILE; i++) {
+      region.put(new Put(Bytes.toBytes(String.format("%s-%04d", prefix, i))).addColumn(FAMILY,
+        QUALIFIER, ts, Bytes.toBytes("value-" + prefix + "-" + i)));
+    }
+    region.flush(true);
+  }
+
+  private DefaultCompactor getCompactor(HStore store) {
+    return (DefaultCompactor) store.getStoreEngine().getCompactor();
+  }
+
+  private List<Cell> readCells(Path path) throws IOException {
+    FileSystem fs = region.getFilesystem();
+    Configuration conf = UTIL.getConfiguration();
+    List<Cell> cells = new ArrayList<>();
+    try (HFile.Reader reader = HFile.createReader(fs, path, CacheConfig.DISABLED, true, conf);
+      HFileScanner scanner = reader.getScanner(conf, false, false)) {
+      if (scanner.seekTo()) {
+        do {
+          cells.add(KeyValueUtil.copyToNewKeyValue(scanner.getCell()));
+        } while (scanner.next());
+      }
+    }
+    return cells;
+  }
+
+  private int getDataBlockCount(Path path) throws IOException {
+    try (HFile.Reader reader = HFile.createReader(region.getFilesystem(), path,
+      CacheConfig.DISABLED, true, UTIL.getConfiguration())) {
+      return reader.getTrailer().getDataIndexCount();
+    }
+  }
+
+  private void assertCopied(HStore store) throws IOException {
+    List<HStoreFile> files = new ArrayList<>(store.getStorefiles());
+    List<Cell> expected = new ArrayList<>();
+    int blocks = 0;
+    files.sort((f1, f2) -> store.getComparator().compare(f1.getFirstKey().get(),
+      f2.getFirstKey().get()));
+    for (HStoreFile file : files) {
+      expected.addAll(readCells(file.getPath()));
+      blocks += getDataBlockCount(file.getPath());
+    }
+    List<Path> newFiles = getCompactor(store).compactByCopyingBlocks(
+      new CompactionRequestImpl(files), NoLimitThroughputController.INSTANCE);
+    assertNotNull(newFiles);
+    assertEquals(1, newFiles.size());
+    List<Cell> actual = readCells(newFiles.get(0));
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      Cell e = expected.get(i);
+      Cell a = actual.get(i);
+      assertTrue(a + " != " + e, CellUtil.equals(e, a) && CellUtil.matchingValue(e, a));
+    }
+    assertEquals(blocks, getDataBlockCount(newFiles.get(0)));
+  }
+
+  private void assertNotCopied(HStore store) throws IOException {
+    Path tmpDir = store.getRegionFileSystem().getTempDir();
+    FileSystem fs = region.getFilesystem();
+    assertNull(getCompactor(store).compactByCopyingBlocks(
+      new CompactionRequestImpl(store.getStorefiles()), NoLimitThroughputController.INSTANCE));
+    assertFalse(fs.exists(tmpDir) && fs.listFiles(tmpDir, true).hasNext());
+  }
+
+  @Test
+  public void testDisjointFiles() throws IOException {
+    HStore store = createStore(DataBlockEncoding.NONE);
+    flushRows("c", 1);
+    flushRows("a", 2);
+    flushRows("b", 3);
+    assertCopied(store);
+  }
+
+  @Test
+  public void testDisjointEncodedFiles() throws IOException {
+    HStore store = createStore(DataBlockEncoding.FAST_DIFF);
+    flushRows("b", 1);
+    flushRows("a", 2);
+    flushRows("c", 3);
+    assertCopied(store);
+  }
+
+  @Test
+  public void testOverlappingFiles() throws IOException {
+    HStore store = createStore(DataBlockEncoding.NONE);
+    flushRows("a", 1);
+    flushRows("b", 2);
+    flushRows("a", 3);
+    assertNotCopied(store);
+  }
+
+  @Test
+  public void testDeleteMarker() throws IOException {
+    HStore store = createStore(DataBlockEncoding.NONE);
+    flushRows("a", 1);
+    region.delete(new Delete(Bytes.toBytes("b-0000")));
+    flushRows("b", 2);
+    assertNotCopied(store);
+  }
+
+  @Test
+  public void testCellTtl() throws IOException {
+    HStore store = createStore(DataBlockEncoding.NONE);
+    // not expired yet, but they may be before the compacted file is compacted again. Both files
+    // hold tags, so that their blocks could be copied into the same file otherwise.
+    for (String prefix : new String[] { "a", "b" }) {
+      region.put(new Put(Bytes.toBytes(prefix + "-0000"))
+        .addColumn(FAMILY, QUALIFIER, Bytes.toBytes("ttl")).setTTL(3600 * 1000L));
+      flushRows(prefix, 1);
+    }
+    assertNotCopied(store);
+  }
+
+  @Test
+  public void testDisabled() throws IOException {
+    Configuration conf = new Configuration(UTIL.getConfiguration());
+    conf.setBoolean(Compactor.BLOCK_COPY_ENABLED_KEY, false);
+    HStore store = createStore(DataBlockEncoding.NONE);
+    flushRows("a", 1);
+    flushRows("b", 2);
+    assertNull(new DefaultCompactor(conf, store).compactByCopyingBlocks(
+      new CompactionRequestImpl(store.getStorefiles()), NoLimitThroughputController.INSTANCE));
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hbase.regionserver.handler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.hadoop.hbase.HBaseClassTestRule;
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.RegionInfo;
+import org.apache.hadoop.hbase.client.RegionInfoBuilder;
+import org.apache.hadoop.hbase.client.TableDescriptor;
+import org.apache.hadoop.hbase.client.TableDescriptorBuilder;
+import org.apache.hadoop.hbase.executor.EventType;
+import org.apache.hadoop.hbase.testclassification.RegionServerTests;
+import org.apache.hadoop.hbase.testclassification.SmallTests;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category({ RegionServerTests.class, SmallTests.class })
+public class TestAssignRegionHandler {
+
+  @ClassRule
+  public static final HBaseClassTestRule CLASS_RULE =
+    HBaseClassTestRule.forClass(TestAssignRegionHandler.class);
+
+  private static final TableName TABLE_NAME = TableName.valueOf("test");
+
+  private static AssignRegionHandler createHandler(TableDescriptor tableDesc,
+    long readRequestCount) {
+    RegionInfo regionInfo = RegionInfoBuilder.newBuilder(TABLE_NAME).build();
+    return new AssignRegionHandler(null, regionInfo, 1, tableDesc, -1, -1, readRequestCount,
+      EventType.M_RS_OPEN_REGION);
+  }
+
+  private static TableDescriptor tableWithPriority(int priority) {
+    return TableDescriptorBuilder.newBuilder(TABLE_NAME).setPriority(priority).build();
+  }
+
+  @Test
+  public void testTablePriorityFirst() {
+    AssignRegionHandler high = createHandler(tableWithPriority(HConstants.HIGH_QOS), 0);
+    AssignRegionHandler normalBusy =
+      createHandler(tableWithPriority(HConstants.NORMAL_QOS), Long.MAX_VALUE);
+    assertTrue(high.getPriority() < normalBusy.getPriority());
+    assertTrue(high.compareTo(normalBusy) < 0);
+  }
+
+  @Test
+  public void testBusierRegionFirst() {
+    TableDescriptor tableDesc = tableWithPriority(HConstants.NORMAL_QOS);
+    AssignRegionHandler unknown = createHandler(tableDesc, -1);
+    AssignRegionHandler idle = createHandler(tableDesc, 0);
+    AssignRegionHandler busy = createHandler(tableDesc, 1_000);
+    AssignRegionHandler busier = createHandler(tableDesc, 1_000_000);
+    // only the order of magnitude of the reads counts
+    AssignRegionHandler alsoBusy = createHandler(tableDesc, 1_001);
+    assertEquals(unknown.getPriority(), idle.getPriority());
+    assertEquals(busy.getPriority(), alsoBusy.getPriority());
+
+    List<AssignRegionHandler> handlers =
+      new ArrayList<>(Arrays.asList(unknown, idle, busy, busier, alsoBusy));
+    Collections.shuffle(handlers);
+    Collections.sort(handlers);
+    // handlers of the same priority keep their submission order
+    assertEquals(Arrays.asList(busier, busy, alsoBusy, unknown, idle), handlers);
+  }
+
+  @Test
+  public void testNoTableDescriptor() {
+    assertEquals(createHandler(tableWithPriority(HConstants.NORMAL_QOS), 10).getPriority(),
+      createHandler(null, 10).getPriority());
+  }
+
+  @Test
+  public void testOutOfRangeTablePriority() {
+    AssignRegionHandler highest = createHandler(tableWithPriority(Integer.MAX_VALUE), 0);
+    AssignRegionHandler high = createHandler(tableWithPriority(HConstants.HIGH_QOS), 0);
+    // the priorities do not overflow
+    assertTrue(highest.getPriority() > 0);
+    assertTrue(highest.getPriority() < high.getPriority());
+    assertEquals(createHandler(tableWithPriority(HConstants.NORMAL_QOS), 100).getPriority(),
+      createHandler(tableWithPriority(-1), 100).getPriority());
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hbase.regionserver.querymatcher;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.hadoop.hbase.CellComparatorImpl;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.ExtendedCell;
+import org.apache.hadoop.hbase.HBaseClassTestRule;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.testclassification.RegionServerTests;
+import org.apache.hadoop.hbase.testclassification.SmallTests;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category({ RegionServerTests.class, SmallTests.class })
+public class TestRangeTombstoneTracker {
+
+  @ClassRule
+  public static final HBaseClassTestRule CLASS_RULE =
+    HBaseClassTestRule.forClass(TestRangeTombstoneTracker.class);
+
+  private static final byte[] FAMILY = Bytes.toBytes("f");
+  private static final byte[] QUALIFIER = Bytes.toBytes("q");
+
+  private static KeyValue tombstone(String start, String stop, long ts, long seqId) {
+    KeyValue kv = new KeyValue(Bytes.toBytes(start), FAMILY, null, ts, KeyValue.Type.DeleteRange,
+      Bytes.toBytes(stop));
+    kv.setSequenceId(seqId);
+    return kv;
+  }
+
+  private static KeyValue put(String row, long ts, long seqId) {
+    KeyValue kv = new KeyValue(Bytes.toBytes(row), FAMILY, QUALIFIER, ts, KeyValue.Type.Put);
+    kv.setSequenceId(seqId);
+    return kv;
+  }
+
+  @Test
+  public void testBounds() {
+    RangeTombstoneTracker tracker = new RangeTombstoneTracker(CellComparatorImpl.COMPARATOR, false);
+    assertTrue(tracker.isEmpty());
+    tracker.add(tombstone("b", "d", 10, 1));
+    assertNull(tracker.getCoveringTombstone(put("a", 5, 0)));
+    assertEquals("b", startRow(tracker.getCoveringTombstone(put("b", 5, 0))));
+    assertEquals("b", startRow(tracker.getCoveringTombstone(put("cz", 10, 0))));
+    assertNull(tracker.getCoveringTombstone(put("c", 11, 0)));
+    assertNull(tracker.getCoveringTombstone(put("d", 5, 0)));
+  }
+
+  @Test
+  public void testNestedAndOutOfOrder() {
+    RangeTombstoneTracker tracker = new RangeTombstoneTracker(CellComparatorImpl.COMPARATOR, false);
+    // a long range with an old timestamp, added after a short one with a newer timestamp
+    tracker.add(tombstone("m", "n", 100, 1));
+    tracker.add(tombstone("a", "z", 10, 1));
+    tracker.add(tombstone("c", "d", 50, 1));
+    assertEquals("m", startRow(tracker.getCoveringTombstone(put("m1", 90, 0))));
+    // the short range starting at c does not cover x, but the long one still does
+    assertEquals("a", startRow(tracker.getCoveringTombstone(put("x", 10, 0))));
+    assertNull(tracker.getCoveringTombstone(put("x", 50, 0)));
+    assertEquals("c", startRow(tracker.getCoveringTombstone(put("c", 50, 0))));
+    assertNull(tracker.getCoveringTombstone(put("z", 1, 0)));
+  }
+
+  @Test
+  public void testMvccSensitive() {
+    RangeTombstoneTracker tracker = new RangeTombstoneTracker(CellComparatorImpl.COMPARATOR, true);
+    tracker.add(tombstone("a", "c", 10, 5));
+    assertEquals("a", startRow(tracker.getCoveringTombstone(put("b", 10, 4))));
+    // written after the tombstone
+    assertNull(tracker.getCoveringTombstone(put("b", 10, 6)));
+  }
+
+  private static String startRow(ExtendedCell tombstone) {
+    return Bytes.toString(CellUtil.cloneRow(tombstone));
+  }
+}
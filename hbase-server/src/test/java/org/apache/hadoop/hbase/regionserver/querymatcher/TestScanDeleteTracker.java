@@ -187,4 +187,46 @@ public class TestScanDeleteTracker {
     DeleteResult ret = sdt.isDeleted(kv);
     assertEquals(DeleteResult.NOT_DELETED, ret);
   }
+
+  @Test
+  public void testDeletedByManyDeleteFamilyVersions() {
+    byte[] row = Bytes.toBytes("row");
+    byte[] family = Bytes.toBytes("f");
+    // the markers of a row come in descending timestamp order, with duplicates from other files
+    for (long ts = 100000; ts > 0; ts -= 2) {
+      sdt.add(new KeyValue(row, family, null, ts, KeyValue.Type.DeleteFamilyVersion));
+      sdt.add(new KeyValue(row, family, null, ts, KeyValue.Type.DeleteFamilyVersion));
+    }
+    byte[] qualifier = Bytes.toBytes("qualifier");
+    for (long ts = 100001; ts > 0; ts--) {
+      DeleteResult ret = sdt.isDeleted(new KeyValue(row, family, qualifier, ts, KeyValue.Type.Put));
+      assertEquals(ts % 2 == 0 ? DeleteResult.FAMILY_VERSION_DELETED : DeleteResult.NOT_DELETED,
+        ret);
+    }
+    sdt.reset();
+    assertTrue(sdt.isEmpty());
+    assertEquals(DeleteResult.NOT_DELETED,
+      sdt.isDeleted(new KeyValue(row, family, qualifier, 100000, KeyValue.Type.Put)));
+  }
+
+  @Test
+  public void testTimestampSetOutOfOrder() {
+    TimestampSet set = new TimestampSet();
+    long[] timestamps = new long[] { 5, 9, 1, 5, 7, 3, 9, Long.MAX_VALUE, 0 };
+    for (long ts : timestamps) {
+      set.add(ts);
+    }
+    assertEquals(7, set.size());
+    for (long ts : timestamps) {
+      assertTrue(set.contains(ts));
+    }
+    assertFalse(set.contains(2));
+    assertFalse(set.contains(8));
+    assertFalse(set.contains(Long.MIN_VALUE));
+    set.add(2);
+    assertTrue(set.contains(2));
+    set.clear();
+    assertTrue(set.isEmpty());
+    assertFalse(set.contains(5));
+  }
 }
@@ -18,11 +18,13 @@
 package org.apache.hadoop.hbase.replication;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import org.apache.hadoop.conf.Configuration;
@@ -34,6 +36,8 @@ import org.apache.hadoop.hbase.client.AsyncRegionServerAdmin;
 import org.apache.hadoop.hbase.replication.HBaseReplicationEndpoint.SinkPeer;
 import org.apache.hadoop.hbase.testclassification.ReplicationTests;
 import org.apache.hadoop.hbase.testclassification.SmallTests;
+import org.apache.hadoop.hbase.util.EnvironmentEdgeManager;
+import org.apache.hadoop.hbase.util.ManualEnvironmentEdge;
 import org.junit.Before;
 import org.junit.ClassRule;
 import org.junit.Test;
@@ -185,6 +189,62 @@ public class TestHBaseReplicationEndpoint {
     assertEquals(expected, endpoint.getNumSinks());
   }
 
+  /**
+   * A shard keeps going to the same sink, and to the next one while its own sink backs off after a
+   * failure.
+   */
+  @Test
+  public void testGetReplicationSinkOfShard() throws IOException {
+    List<ServerName> serverNames = Lists.newArrayList();
+    int totalServers = 10;
+    for (int i = 0; i < totalServers; i++) {
+      serverNames.add(mock(ServerName.class));
+    }
+    ((DummyHBaseReplicationEndpoint) endpoint).setRegionServers(serverNames);
+    endpoint.chooseSinks();
+    List<ServerName> sinks = new ArrayList<>(endpoint.getSinkServers());
+    assertTrue(sinks.size() > 2);
+    long backoff = HBaseReplicationEndpoint.DEFAULT_BAD_SINK_BACKOFF_MS;
+    ManualEnvironmentEdge edge = new ManualEnvironmentEdge();
+    edge.setValue(EnvironmentEdgeManager.currentTime());
+    EnvironmentEdgeManager.injectEdge(edge);
+    try {
+      SinkPeer sinkPeer = endpoint.getReplicationSink(1);
+      assertEquals(sinks.get(1), sinkPeer.getServerName());
+      assertEquals(sinks.get(1), endpoint.getReplicationSink(1 + sinks.size()).getServerName());
+
+      // skipped for a while after a failure, then tried again
+      endpoint.reportBadSink(sinkPeer);
+      assertEquals(sinks.get(2), endpoint.getReplicationSink(1).getServerName());
+      edge.incValue(backoff - 1);
+      assertEquals(sinks.get(2), endpoint.getReplicationSink(1).getServerName());
+      edge.incValue(1);
+      assertEquals(sinks.get(1), endpoint.getReplicationSink(1).getServerName());
+
+      // skipped for longer after a second failure in a row
+      endpoint.reportBadSink(sinkPeer);
+      edge.incValue(backoff);
+      assertEquals(sinks.get(2), endpoint.getReplicationSink(1).getServerName());
+      edge.incValue(backoff);
+      assertEquals(sinks.get(1), endpoint.getReplicationSink(1).getServerName());
+
+      // a success resets the backoff
+      endpoint.reportSinkSuccess(sinkPeer);
+      endpoint.reportBadSink(sinkPeer);
+      edge.incValue(backoff);
+      assertEquals(sinks.get(1), endpoint.getReplicationSink(1).getServerName());
+
+      // with all the sinks backing off a shard keeps to its own sink
+      for (ServerName sink : sinks) {
+        endpoint.reportBadSink(new SinkPeer(sink, mock(AsyncRegionServerAdmin.class)));
+      }
+      assertEquals(sinks.size(), endpoint.getNumSinks());
+      assertEquals(sinks.get(1), endpoint.getReplicationSink(1).getServerName());
+    } finally {
+      EnvironmentEdgeManager.reset();
+    }
+  }
+
   private static class DummyHBaseReplicationEndpoint extends HBaseReplicationEndpoint {
 
     List<ServerName> regionServers;
@@ -206,7 +266,7 @@ public class TestHBaseReplicationEndpoint {
     @Override
     public AsyncClusterConnection createConnection(URI clusterURI, Configuration conf)
       throws IOException {
-      return null;
+      return mock(AsyncClusterConnection.class);
     }
   }
 }
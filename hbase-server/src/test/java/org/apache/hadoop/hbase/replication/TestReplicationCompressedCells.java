@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hbase.replication;
+
+import static org.junit.Assert.assertTrue;
+
+import org.apache.hadoop.hbase.CompatibilitySingletonFactory;
+import org.apache.hadoop.hbase.HBaseClassTestRule;
+import org.apache.hadoop.hbase.replication.regionserver.MetricsReplicationSinkSource;
+import org.apache.hadoop.hbase.replication.regionserver.MetricsReplicationSourceFactory;
+import org.apache.hadoop.hbase.replication.regionserver.ReplicationCellCodec;
+import org.apache.hadoop.hbase.testclassification.LargeTests;
+import org.apache.hadoop.hbase.testclassification.ReplicationTests;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Replicates with the cells of the batches shipped compressed, see {@link ReplicationCellCodec}.
+ */
+@Category({ ReplicationTests.class, LargeTests.class })
+public class TestReplicationCompressedCells extends TestReplicationBase {
+
+  @ClassRule
+  public static final HBaseClassTestRule CLASS_RULE =
+    HBaseClassTestRule.forClass(TestReplicationCompressedCells.class);
+
+  @BeforeClass
+  public static void setUpBeforeClass() throws Exception {
+    CONF1.setBoolean(ReplicationCellCodec.COMPRESS_CELLS_KEY, true);
+    CONF1.set(ReplicationCellCodec.COMPRESS_CELLS_ALGORITHM_KEY, "gz");
+    TestReplicationBase.setUpBeforeClass();
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    cleanUp();
+  }
+
+  @Test
+  public void testReplicateCompressedCells() throws Exception {
+    MetricsReplicationSinkSource sinkMetrics =
+      CompatibilitySingletonFactory.getInstance(MetricsReplicationSourceFactory.class).getSink();
+    // the first batch to the sink is sent plain, it says it supports compressed cells in its
+    // response
+    runSimplePutDeleteTest();
+    runSmallBatchTest();
+    assertTrue(sinkMetrics.getCompressedBytesSaved() > 0);
+  }
+}
@@ -34,6 +34,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
 import java.util.OptionalLong;
@@ -51,6 +52,7 @@ import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.FSDataOutputStream;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hbase.ByteBufferKeyValue;
 import org.apache.hadoop.hbase.Cell;
 import org.apache.hadoop.hbase.HConstants;
 import org.apache.hadoop.hbase.KeyValue;
@@ -58,6 +60,7 @@ import org.apache.hadoop.hbase.Server;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.Waiter;
 import org.apache.hadoop.hbase.Waiter.ExplainingPredicate;
+import org.apache.hadoop.hbase.io.ByteBuffAllocator;
 import org.apache.hadoop.hbase.regionserver.wal.AbstractFSWAL;
 import org.apache.hadoop.hbase.regionserver.wal.AbstractProtobufWALReader;
 import org.apache.hadoop.hbase.regionserver.wal.WALCellCodec;
@@ -377,6 +380,36 @@ public abstract class TestBasicWALEntryStream extends WALEntryStreamTestBase {
     assertEquals("foo", getRow(entryBatch.getWalEntries().get(0)));
   }
 
+  @Test
+  public void testReplicationSourceWALReaderWithBufferPool() throws Exception {
+    appendToLog("foo");
+    appendToLog("bar");
+    Configuration conf = new Configuration(CONF);
+    conf.setBoolean(ReplicationSourceManager.REPLICATION_BUFFER_POOL_ENABLED_KEY, true);
+    ReplicationSource source = mockReplicationSource(false, conf);
+    when(source.isPeerEnabled()).thenReturn(true);
+    ReplicationSourceManager manager = source.getSourceManager();
+    ReplicationSourceWALReader reader = new ReplicationSourceWALReader(fs, conf, logQueue, 0,
+      getDummyFilter(), source, fakeWalGroupId);
+    reader.start();
+    ByteBuffAllocator allocator = manager.getBufferAllocator();
+    assertNotNull(allocator);
+    WALEntryBatch entryBatch = reader.take();
+    assertEquals(2, entryBatch.getNbEntries());
+    List<WAL.Entry> entries = entryBatch.getWalEntries();
+    assertEquals("foo", getRow(entries.get(0)));
+    assertEquals("bar", getRow(entries.get(1)));
+    for (WAL.Entry entry : entries) {
+      // the cells have been copied into a pooled direct buffer
+      assertTrue(entry.getEdit().getCells().get(0) instanceof ByteBufferKeyValue);
+    }
+    assertEquals(1, allocator.getUsedBufferCount());
+    assertEquals(0, allocator.getFreeBufferCount());
+    manager.releaseWALEntryBatchBufferQuota(entryBatch);
+    assertEquals(1, allocator.getFreeBufferCount());
+    reader.setReaderRunning(false);
+  }
+
   @Test
   public void testReplicationSourceWALReaderWithFailingFilter() throws Exception {
     appendEntriesToLogAndSync(3);
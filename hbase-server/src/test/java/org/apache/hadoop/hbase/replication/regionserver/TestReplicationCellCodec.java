@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hbase.replication.regionserver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.ArrayBackedTag;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.ExtendedCell;
+import org.apache.hadoop.hbase.HBaseClassTestRule;
+import org.apache.hadoop.hbase.HBaseConfiguration;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.PrivateCellUtil;
+import org.apache.hadoop.hbase.Tag;
+import org.apache.hadoop.hbase.io.SizedExtendedCellScanner;
+import org.apache.hadoop.hbase.io.compress.Compression;
+import org.apache.hadoop.hbase.testclassification.ReplicationTests;
+import org.apache.hadoop.hbase.testclassification.SmallTests;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.hadoop.hbase.shaded.protobuf.generated.AdminProtos.ReplicateWALEntryRequest;
+
+@Category({ ReplicationTests.class, SmallTests.class })
+public class TestReplicationCellCodec {
+
+  @ClassRule
+  public static final HBaseClassTestRule CLASS_RULE =
+    HBaseClassTestRule.forClass(TestReplicationCellCodec.class);
+
+  private static final byte[] FAMILY = Bytes.toBytes("family");
+
+  private final Configuration conf = HBaseConfiguration.create();
+
+  private static List<ExtendedCell> createCells() {
+    List<ExtendedCell> cells = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      byte[] row = Bytes.toBytes(String.format("some-long-row-key-%04d", i / 10));
+      byte[] qualifier = Bytes.toBytes("qualifier-" + i % 10);
+      List<Tag> tags = new ArrayList<>();
+      if (i % 3 == 0) {
+        tags.add(new ArrayBackedTag((byte) 1, Bytes.toBytes("tag")));
+      }
+      cells.add(new KeyValue(row, FAMILY, qualifier, i, KeyValue.Type.Put, Bytes.toBytes(i % 7),
+        tags));
+    }
+    return cells;
+  }
+
+  private static long getSerializedSize(List<ExtendedCell> cells) {
+    return cells.stream().mapToLong(PrivateCellUtil::estimatedSerializedSizeOf).sum();
+  }
+
+  private void testRoundTrip(Compression.Algorithm algorithm) throws IOException {
+    List<ExtendedCell> cells = createCells();
+    ReplicateWALEntryRequest request =
+      ReplicationCellCodec.compressCells(conf, ReplicateWALEntryRequest.getDefaultInstance(),
+        PrivateCellUtil.createExtendedCellScanner(cells.iterator()), algorithm);
+    assertEquals(algorithm.getName(), request.getCellsCompression());
+    // the rows, families and qualifiers are only written once
+    assertTrue(request.getCompressedCells().size() < getSerializedSize(cells) / 2);
+
+    SizedExtendedCellScanner decoded = ReplicationCellCodec.decompressCells(conf, request);
+    assertEquals(getSerializedSize(cells), decoded.heapSize());
+    for (ExtendedCell cell : cells) {
+      assertTrue(decoded.advance());
+      assertTrue(PrivateCellUtil.equals(cell, decoded.current()));
+      assertTrue(CellUtil.matchingValue(cell, decoded.current()));
+      assertEquals(cell.getTagsLength(), decoded.current().getTagsLength());
+    }
+    assertFalse(decoded.advance());
+  }
+
+  @Test
+  public void testDictionaryOnly() throws IOException {
+    testRoundTrip(Compression.Algorithm.NONE);
+  }
+
+  @Test
+  public void testGzip() throws IOException {
+    testRoundTrip(Compression.Algorithm.GZ);
+  }
+
+  @Test
+  public void testGetCompression() {
+    assertNull(ReplicationCellCodec.getCompression(conf));
+    conf.setBoolean(ReplicationCellCodec.COMPRESS_CELLS_KEY, true);
+    conf.set(ReplicationCellCodec.COMPRESS_CELLS_ALGORITHM_KEY, "gz");
+    assertEquals(Compression.Algorithm.GZ, ReplicationCellCodec.getCompression(conf));
+    // fall back to the dictionary encoding only
+    conf.set(ReplicationCellCodec.COMPRESS_CELLS_ALGORITHM_KEY, "unknown");
+    assertEquals(Compression.Algorithm.NONE, ReplicationCellCodec.getCompression(conf));
+  }
+}
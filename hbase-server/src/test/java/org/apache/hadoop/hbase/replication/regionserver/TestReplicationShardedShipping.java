@@ -0,0 +1,269 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hbase.replication.regionserver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hbase.HBaseClassTestRule;
+import org.apache.hadoop.hbase.HBaseConfiguration;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.replication.ReplicationEndpoint.Context;
+import org.apache.hadoop.hbase.replication.ReplicationEndpoint.ReplicateContext;
+import org.apache.hadoop.hbase.replication.ReplicationPeer;
+import org.apache.hadoop.hbase.replication.ReplicationPeerConfig;
+import org.apache.hadoop.hbase.replication.TestReplicationBase;
+import org.apache.hadoop.hbase.testclassification.LargeTests;
+import org.apache.hadoop.hbase.testclassification.ReplicationTests;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.util.EnvironmentEdgeManager;
+import org.apache.hadoop.hbase.util.FutureUtils;
+import org.apache.hadoop.hbase.wal.WAL.Entry;
+import org.apache.hadoop.hbase.wal.WALEdit;
+import org.apache.hadoop.hbase.wal.WALKeyImpl;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Replicates with sharded shipping, the edits of each region going to a fixed sink.
+ */
+@Category({ ReplicationTests.class, LargeTests.class })
+public class TestReplicationShardedShipping extends TestReplicationBase {
+
+  @ClassRule
+  public static final HBaseClassTestRule CLASS_RULE =
+    HBaseClassTestRule.forClass(TestReplicationShardedShipping.class);
+
+  @BeforeClass
+  public static void setUpBeforeClass() throws Exception {
+    CONF1.setBoolean(HBaseInterClusterReplicationEndpoint.REPLICATION_SHARDED_SHIPPING_KEY, true);
+    TestReplicationBase.setUpBeforeClass();
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    cleanUp();
+  }
+
+  @Test
+  public void testReplicateSharded() throws Exception {
+    runSimplePutDeleteTest();
+    runSmallBatchTest();
+  }
+
+  private static Entry createEntry(String region, long seqId) {
+    WALKeyImpl key = new WALKeyImpl(Bytes.toBytes(region), TableName.valueOf("test"), seqId,
+      EnvironmentEdgeManager.currentTime(), null);
+    return new Entry(key, new WALEdit());
+  }
+
+  @Test
+  public void testBatchHead() {
+    WALEntryBatch batch = new WALEntryBatch(3, new Path("wal.1"));
+    batch.setLastWalPosition(100);
+    batch.addEntry(createEntry("a", 1), 10);
+    batch.setLastWalPosition(200);
+    batch.addEntry(createEntry("b", 2), 10);
+    batch.setLastWalPosition(300);
+    batch.addEntry(createEntry("a", 3), 10);
+    WALEntryBatch head = batch.head(2);
+    assertEquals(new Path("wal.1"), head.getLastWalPath());
+    assertEquals(200, head.getLastWalPosition());
+    assertTrue(head.getLastSeqIds().isEmpty());
+
+    // with serial replication the head only carries the sequence ids of its own entries
+    batch.setLastSeqId("a", 3);
+    batch.setLastSeqId("b", 2);
+    head = batch.head(2);
+    assertEquals(1L, head.getLastSeqIds().get("a").longValue());
+    assertEquals(2L, head.getLastSeqIds().get("b").longValue());
+  }
+
+  @Test
+  public void testUpdateLogPositionOfHead() {
+    ReplicationSource source = mock(ReplicationSource.class);
+    ReplicationSourceShipper shipper =
+      new ReplicationSourceShipper(HBaseConfiguration.create(), "wal", source, null);
+    WALEntryBatch batch = new WALEntryBatch(3, new Path("wal.1"));
+    batch.setLastWalPosition(100);
+    batch.addEntry(createEntry("a", 1), 10);
+    batch.setLastWalPosition(200);
+    batch.addEntry(createEntry("b", 2), 10);
+    batch.setLastWalPosition(300);
+    batch.addEntry(createEntry("a", 3), 10);
+
+    // nothing acknowledged, or the whole batch which is recorded once shipped
+    shipper.updateLogPosition(batch, 0);
+    shipper.updateLogPosition(batch, 3);
+    verify(source, never()).logPositionAndCleanOldLogs(any());
+
+    shipper.updateLogPosition(batch, 2);
+    ArgumentCaptor<WALEntryBatch> captor = ArgumentCaptor.forClass(WALEntryBatch.class);
+    verify(source).logPositionAndCleanOldLogs(captor.capture());
+    assertEquals(200, captor.getValue().getLastWalPosition());
+
+    // a position already recorded is not recorded again
+    shipper.updateLogPosition(batch, 1);
+    shipper.updateLogPosition(batch, 2);
+    verify(source).logPositionAndCleanOldLogs(any());
+  }
+
+  /**
+   * Fails the first replication of the batches holding an entry of the given region.
+   */
+  private static final class FailingEndpoint extends HBaseInterClusterReplicationEndpoint {
+
+    private final byte[] failingRegion;
+    private final List<Entry> replicated = new ArrayList<>();
+    private boolean failed;
+
+    FailingEndpoint(byte[] failingRegion) {
+      this.failingRegion = failingRegion;
+    }
+
+    @Override
+    protected CompletableFuture<Integer> asyncReplicate(List<Entry> entries, int batchIndex,
+      int timeout) {
+      if (
+        !failed && entries.stream()
+          .anyMatch(e -> Bytes.equals(failingRegion, e.getKey().getEncodedRegionName()))
+      ) {
+        failed = true;
+        return FutureUtils.failedFuture(new IOException("Injected failure"));
+      }
+      replicated.addAll(entries);
+      return CompletableFuture.completedFuture(batchIndex);
+    }
+
+    @Override
+    public synchronized int getNumSinks() {
+      return 3;
+    }
+  }
+
+  private static FailingEndpoint startEndpoint(byte[] failingRegion, boolean serial)
+    throws IOException {
+    Configuration conf = HBaseConfiguration.create();
+    conf.setBoolean(HBaseInterClusterReplicationEndpoint.REPLICATION_SHARDED_SHIPPING_KEY, true);
+    conf.setLong("replication.source.sleepforretries", 1);
+    ReplicationPeer replicationPeer = mock(ReplicationPeer.class);
+    ReplicationPeerConfig peerConfig = mock(ReplicationPeerConfig.class);
+    when(replicationPeer.isPeerEnabled()).thenReturn(true);
+    when(replicationPeer.getPeerConfig()).thenReturn(peerConfig);
+    when(peerConfig.isSerial()).thenReturn(serial);
+    when(peerConfig.getClusterKey()).thenReturn("hbase+zk://localhost:2181");
+    FailingEndpoint endpoint = new FailingEndpoint(failingRegion);
+    endpoint.init(
+      new Context(null, conf, conf, null, null, null, replicationPeer, null, null, null));
+    endpoint.start();
+    endpoint.awaitRunning();
+    return endpoint;
+  }
+
+  /**
+   * Returns the name of a region whose entries do not go to the same sink as the ones of region x.
+   */
+  private static String getRegionOfOtherSink() {
+    int shard = Math.floorMod(Bytes.hashCode(Bytes.toBytes("x")), 3);
+    for (char c = 'a';; c++) {
+      String region = String.valueOf(c);
+      if (Math.floorMod(Bytes.hashCode(Bytes.toBytes(region)), 3) != shard) {
+        return region;
+      }
+    }
+  }
+
+  private void testPartialFailure(boolean serial) throws IOException {
+    String y = getRegionOfOtherSink();
+    List<Entry> entries = Arrays.asList(createEntry("x", 1), createEntry("x", 2),
+      createEntry(y, 3), createEntry("x", 4), createEntry(y, 5));
+    List<Integer> progress = new ArrayList<>();
+
+    // the entries before the first one of the failed sink are acknowledged
+    FailingEndpoint endpoint = startEndpoint(Bytes.toBytes(y), serial);
+    try {
+      assertTrue(endpoint.replicate(
+        new ReplicateContext().setEntries(entries).setProgressListener(progress::add)));
+      assertEquals(Collections.singletonList(2), progress);
+      // only the entries of the failed sink are retried
+      assertEquals(Arrays.asList(entries.get(0), entries.get(1), entries.get(3), entries.get(2),
+        entries.get(4)), endpoint.replicated);
+    } finally {
+      endpoint.stop();
+    }
+
+    // none are when the sink of the first entry failed
+    progress.clear();
+    endpoint = startEndpoint(Bytes.toBytes("x"), serial);
+    try {
+      assertTrue(endpoint.replicate(
+        new ReplicateContext().setEntries(entries).setProgressListener(progress::add)));
+      assertTrue(progress.isEmpty());
+      assertEquals(entries.size(), endpoint.replicated.size());
+    } finally {
+      endpoint.stop();
+    }
+  }
+
+  @Test
+  public void testPartialFailure() throws IOException {
+    testPartialFailure(false);
+  }
+
+  @Test
+  public void testPartialFailureSerial() throws IOException {
+    testPartialFailure(true);
+  }
+
+  @Test
+  public void testReportProgressOfFilteredEntries() throws IOException {
+    FailingEndpoint endpoint = startEndpoint(Bytes.toBytes("x"), false);
+    try {
+      Entry x = createEntry("x", 1);
+      Entry y = createEntry("y", 2);
+      List<Integer> progress = new ArrayList<>();
+      ReplicateContext context = new ReplicateContext().setEntries(Arrays.asList(x, y))
+        .setProgressListener(progress::add);
+      // filtering the edits of a batch replaces its entries by ones of the same keys
+      List<List<Entry>> batches = new ArrayList<>();
+      batches.add(Collections.emptyList());
+      batches.add(Collections.singletonList(new Entry(y.getKey(), new WALEdit())));
+      endpoint.reportProgress(context, batches);
+      assertEquals(Collections.singletonList(1), progress);
+    } finally {
+      endpoint.stop();
+    }
+  }
+}
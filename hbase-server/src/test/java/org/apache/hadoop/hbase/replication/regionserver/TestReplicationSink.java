@@ -17,7 +17,9 @@
  */
 package org.apache.hadoop.hbase.replication.regionserver;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -35,6 +37,7 @@ import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.FileUtil;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hbase.CellUtil;
 import org.apache.hadoop.hbase.ExtendedCell;
 import org.apache.hadoop.hbase.HBaseClassTestRule;
 import org.apache.hadoop.hbase.HBaseTestingUtil;
@@ -309,6 +312,77 @@ public class TestReplicationSink {
     assertEquals(0, res.size());
   }
 
+  /**
+   * Put, delete and put again rows spread over several regions in one batch, the edits of each row
+   * must be applied in order even though the regions are applied in parallel. The last puts write
+   * the same cells with the same timestamps as the ones before them, so only win if applied last.
+   */
+  @Test
+  public void testMultiRegionPutDelete() throws Exception {
+    TableName tableName = TableName.valueOf("multiRegionTable");
+    byte[][] splitKeys = { Bytes.toBytes(25), Bytes.toBytes(50), Bytes.toBytes(75) };
+    byte[] lastValue = Bytes.toBytes("last");
+    try (Table table = TEST_UTIL.createTable(tableName, FAM_NAME2, splitKeys)) {
+      List<WALEntry> entries = new ArrayList<>();
+      List<ExtendedCell> cells = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        entries.add(createEntry(tableName, i, KeyValue.Type.Put, cells));
+      }
+      for (int i = 0; i < 100; i += 2) {
+        entries.add(createEntry(tableName, i, KeyValue.Type.DeleteFamily, cells));
+      }
+      List<ExtendedCell> overwritten = new ArrayList<>();
+      for (int i = 0; i < 100; i += 4) {
+        entries.add(createEntry(tableName, i, KeyValue.Type.Put, cells));
+        overwritten.add(cells.get(cells.size() - 1));
+      }
+      for (ExtendedCell cell : overwritten) {
+        cells.add(new KeyValue(CellUtil.cloneRow(cell), FAM_NAME2, FAM_NAME2, cell.getTimestamp(),
+          KeyValue.Type.Put, lastValue));
+        entries.add(createWALEntryBuilder(tableName).build());
+      }
+      SINK.replicateEntries(entries, PrivateCellUtil.createExtendedCellScanner(cells.iterator()),
+        replicationClusterId, baseNamespaceDir, hfileArchiveDir);
+      int totalRows = 0;
+      try (ResultScanner scanner = table.getScanner(new Scan())) {
+        for (Result res : scanner) {
+          int row = Bytes.toInt(res.getRow());
+          assertTrue(row % 2 != 0 || row % 4 == 0);
+          byte[] expected = row % 4 == 0 ? lastValue : Bytes.toBytes(row);
+          assertArrayEquals(expected, res.getValue(FAM_NAME2, FAM_NAME2));
+          totalRows++;
+        }
+      }
+      assertEquals(75, totalRows);
+    } finally {
+      TEST_UTIL.deleteTable(tableName);
+    }
+  }
+
+  /**
+   * The time taken to apply the edits is recorded once for each region of the batch.
+   */
+  @Test
+  public void testRegionApplyTimeMetric() throws Exception {
+    TableName tableName = TableName.valueOf("regionApplyTimeTable");
+    byte[][] splitKeys = { Bytes.toBytes(25), Bytes.toBytes(50), Bytes.toBytes(75) };
+    try (Table table = TEST_UTIL.createTable(tableName, FAM_NAME2, splitKeys)) {
+      List<WALEntry> entries = new ArrayList<>();
+      List<ExtendedCell> cells = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        entries.add(createEntry(tableName, i, KeyValue.Type.Put, cells));
+      }
+      long applies = SINK.getSinkMetrics().getRegionApplyCount();
+      SINK.replicateEntries(entries, PrivateCellUtil.createExtendedCellScanner(cells.iterator()),
+        replicationClusterId, baseNamespaceDir, hfileArchiveDir);
+      // the metric is shared by all the sinks of the process, but only this one applies edits
+      assertEquals(applies + splitKeys.length + 1, SINK.getSinkMetrics().getRegionApplyCount());
+      assertEquals(100, TEST_UTIL.countRows(table));
+    } finally {
+      TEST_UTIL.deleteTable(tableName);
+    }
+  }
+
   @Test
   public void testRethrowRetriesExhaustedException() throws Exception {
     TableName notExistTable = TableName.valueOf("notExistTable");
@@ -488,8 +562,6 @@ public class TestReplicationSink {
 
   private WALEntry createEntry(TableName table, int row, KeyValue.Type type,
     List<ExtendedCell> cells) {
-    byte[] fam = table.equals(TABLE_NAME1) ? FAM_NAME1 : FAM_NAME2;
-    byte[] rowBytes = Bytes.toBytes(row);
     // Just make sure we don't get the same ts for two consecutive rows with
     // same key
     try {
@@ -497,7 +569,13 @@ public class TestReplicationSink {
     } catch (InterruptedException e) {
       LOG.info("Was interrupted while sleep, meh", e);
     }
-    final long now = EnvironmentEdgeManager.currentTime();
+    return createEntry(table, row, type, cells, EnvironmentEdgeManager.currentTime());
+  }
+
+  private WALEntry createEntry(TableName table, int row, KeyValue.Type type,
+    List<ExtendedCell> cells, long now) {
+    byte[] fam = table.equals(TABLE_NAME1) ? FAM_NAME1 : FAM_NAME2;
+    byte[] rowBytes = Bytes.toBytes(row);
     KeyValue kv = null;
     if (type.getCode() == KeyValue.Type.Put.getCode()) {
       kv = new KeyValue(rowBytes, fam, fam, now, KeyValue.Type.Put, Bytes.toBytes(row));
@@ -23,16 +23,21 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.OptionalLong;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
@@ -51,6 +56,8 @@ import org.apache.hadoop.hbase.SingleProcessHBaseCluster;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.Waiter;
 import org.apache.hadoop.hbase.client.Admin;
+import org.apache.hadoop.hbase.io.ByteBuffAllocator;
+import org.apache.hadoop.hbase.nio.ByteBuff;
 import org.apache.hadoop.hbase.regionserver.HRegionServer;
 import org.apache.hadoop.hbase.regionserver.RegionServerServices;
 import org.apache.hadoop.hbase.replication.ReplicationEndpoint;
@@ -316,6 +323,54 @@ public class TestReplicationSource {
     assertEquals(0, source.getSourceManager().getTotalBufferUsed());
   }
 
+  /**
+   * The pooled buffers of a batch are kept until the replication requests in flight when the
+   * shipper was interrupted are done.
+   */
+  @Test
+  public void testInterruptedShipperKeepsBuffersInFlight() throws Exception {
+    Configuration testConf = HBaseConfiguration.create();
+    testConf.setLong("replication.source.sleepforretries", 1);
+    ReplicationPeer mockPeer = mock(ReplicationPeer.class);
+    ReplicationPeerConfig peerConfig = mock(ReplicationPeerConfig.class);
+    when(mockPeer.isPeerEnabled()).thenReturn(true);
+    when(mockPeer.getPeerConfig()).thenReturn(peerConfig);
+    when(peerConfig.getClusterKey()).thenReturn("hbase+zk://localhost:2181");
+    InFlightReplicationEndpoint endpoint = new InFlightReplicationEndpoint();
+    endpoint.init(new ReplicationEndpoint.Context(null, testConf, testConf, null, null, null,
+      mockPeer, null, null, null));
+    endpoint.start();
+    endpoint.awaitRunning();
+
+    AtomicBoolean sourceActive = new AtomicBoolean(true);
+    ReplicationSource source = mock(ReplicationSource.class);
+    when(source.isSourceActive()).thenAnswer(invocation -> sourceActive.get());
+    when(source.isPeerEnabled()).thenReturn(true);
+    when(source.getReplicationEndpoint()).thenReturn(endpoint);
+    when(source.getSourceMetrics()).thenReturn(mock(MetricsSource.class));
+    WALEntryBatch batch = new WALEntryBatch(1, logDir);
+    WALKeyImpl key = new WALKeyImpl(Bytes.toBytes("region"), TableName.valueOf("test"), 1,
+      EnvironmentEdgeManager.currentTime(), null);
+    batch.addEntry(new WAL.Entry(key, new WALEdit()), 10);
+    ByteBuff buffer = ByteBuffAllocator.HEAP.allocateOneBuffer();
+    batch.addBuffer(buffer);
+    ReplicationSourceWALReader reader = mock(ReplicationSourceWALReader.class);
+    when(reader.poll(anyLong())).thenReturn(batch).thenReturn(null);
+
+    ReplicationSourceShipper shipper =
+      new ReplicationSourceShipper(testConf, "wal", source, reader);
+    shipper.start();
+    endpoint.replicating.await();
+    // terminate the source while the request is in flight
+    sourceActive.set(false);
+    endpoint.stop();
+    shipper.interrupt();
+    shipper.join();
+    assertEquals(1, buffer.refCnt());
+    endpoint.response.complete(0);
+    assertEquals(0, buffer.refCnt());
+  }
+
   /**
    * Tests that recovered queues are preserved on a regionserver shutdown. See HBASE-18192
    */
@@ -450,6 +505,27 @@ public class TestReplicationSource {
     }
   }
 
+  /**
+   * Endpoint whose replication requests stay in flight until their response is completed.
+   */
+  public static class InFlightReplicationEndpoint extends HBaseInterClusterReplicationEndpoint {
+
+    private final CountDownLatch replicating = new CountDownLatch(1);
+    private final CompletableFuture<Integer> response = new CompletableFuture<>();
+
+    @Override
+    protected CompletableFuture<Integer> asyncReplicate(List<WAL.Entry> entries, int batchIndex,
+      int timeout) {
+      replicating.countDown();
+      return response;
+    }
+
+    @Override
+    public synchronized int getNumSinks() {
+      return 1;
+    }
+  }
+
   /**
    * Deadend Endpoint. Does nothing.
    */
@@ -19,6 +19,9 @@ package org.apache.hadoop.hbase.replication.regionserver;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.net.SocketAddress;
@@ -36,16 +39,19 @@ import org.apache.hadoop.hbase.ExtendedCellScanner;
 import org.apache.hadoop.hbase.HBaseClassTestRule;
 import org.apache.hadoop.hbase.HBaseConfiguration;
 import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.HRegionLocation;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.AdvancedScanResultConsumer;
 import org.apache.hadoop.hbase.client.AsyncClusterConnection;
 import org.apache.hadoop.hbase.client.AsyncConnection;
 import org.apache.hadoop.hbase.client.AsyncTable;
+import org.apache.hadoop.hbase.client.AsyncTableRegionLocator;
 import org.apache.hadoop.hbase.client.ClusterConnectionFactory;
 import org.apache.hadoop.hbase.client.ConnectionRegistry;
 import org.apache.hadoop.hbase.client.DoNothingConnectionRegistry;
 import org.apache.hadoop.hbase.client.DummyAsyncClusterConnection;
 import org.apache.hadoop.hbase.client.DummyAsyncTable;
+import org.apache.hadoop.hbase.client.RegionInfoBuilder;
 import org.apache.hadoop.hbase.client.Row;
 import org.apache.hadoop.hbase.security.User;
 import org.apache.hadoop.hbase.testclassification.ReplicationTests;
@@ -210,6 +216,16 @@ public class TestWALEntrySinkFilter {
       };
     }
 
+    @Override
+    public AsyncTableRegionLocator getRegionLocator(TableName tableName) {
+      AsyncTableRegionLocator locator = mock(AsyncTableRegionLocator.class);
+      HRegionLocation loc =
+        new HRegionLocation(RegionInfoBuilder.newBuilder(tableName).build(), null);
+      when(locator.getRegionLocation(any(byte[].class)))
+        .thenReturn(CompletableFuture.completedFuture(loc));
+      return locator;
+    }
+
     @Override
     public Configuration getConfiguration() {
       return conf;
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hbase.replication.regionserver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.HBaseClassTestRule;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.regionserver.wal.WALTailCache;
+import org.apache.hadoop.hbase.replication.regionserver.WALEntryStream.HasNext;
+import org.apache.hadoop.hbase.testclassification.MediumTests;
+import org.apache.hadoop.hbase.testclassification.ReplicationTests;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.util.EnvironmentEdgeManager;
+import org.apache.hadoop.hbase.wal.WAL;
+import org.apache.hadoop.hbase.wal.WALEdit;
+import org.apache.hadoop.hbase.wal.WALEditInternalHelper;
+import org.apache.hadoop.hbase.wal.WALKeyImpl;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Tests reading the WAL being written through its {@link WALTailCache}.
+ */
+@Category({ ReplicationTests.class, MediumTests.class })
+public class TestWALEntryStreamTailCache extends WALEntryStreamTestBase {
+
+  @ClassRule
+  public static final HBaseClassTestRule CLASS_RULE =
+    HBaseClassTestRule.forClass(TestWALEntryStreamTailCache.class);
+
+  private static final long TAIL_CACHE_SIZE = 64 * 1024;
+
+  @BeforeClass
+  public static void setUpBeforeClass() throws Exception {
+    TEST_UTIL.getConfiguration().setLong(WALTailCache.WAL_TAIL_CACHE_SIZE_KEY, TAIL_CACHE_SIZE);
+    startCluster();
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    initWAL();
+  }
+
+  private void appendToLog(String row, int cells) throws IOException {
+    WALEdit edit = new WALEdit();
+    for (int i = 0; i < cells; i++) {
+      WALEditInternalHelper.addExtendedCell(edit, new KeyValue(Bytes.toBytes(row), family,
+        Bytes.toBytes(i), EnvironmentEdgeManager.currentTime(), qualifier));
+    }
+    long txid = log.appendData(info, new WALKeyImpl(info.getEncodedNameAsBytes(), tableName,
+      EnvironmentEdgeManager.currentTime(), mvcc, scopes), edit);
+    log.sync(txid);
+  }
+
+  private static String getRow(WAL.Entry entry) {
+    Cell cell = entry.getEdit().getCells().get(0);
+    return Bytes.toString(cell.getRowArray(), cell.getRowOffset(), cell.getRowLength());
+  }
+
+  private static WAL.Entry next(WALEntryStream entryStream) {
+    assertEquals(HasNext.YES, entryStream.hasNext());
+    return entryStream.next();
+  }
+
+  @Test
+  public void testReadFromTailCache() throws Exception {
+    MetricsSource metrics = new MetricsSource(tn.getMethodName());
+    List<Long> positions = new ArrayList<>();
+    try (WALEntryStream entryStream =
+      new WALEntryStream(logQueue, fs, CONF, 0, log, metrics, fakeWalGroupId)) {
+      appendToLog("1", 1);
+      // the stream starts before the first entry, so it reads it from the file
+      assertEquals("1", getRow(next(entryStream)));
+      positions.add(entryStream.getPosition());
+      appendToLog("2", 1);
+      assertEquals("2", getRow(next(entryStream)));
+      positions.add(entryStream.getPosition());
+      // an entry larger than the cache evicts everything, including itself
+      appendToLog("3", 2000);
+      appendToLog("4", 1);
+      WAL.Entry entry = next(entryStream);
+      assertEquals("3", getRow(entry));
+      assertEquals(2000, entry.getEdit().size());
+      positions.add(entryStream.getPosition());
+      assertEquals("4", getRow(next(entryStream)));
+      positions.add(entryStream.getPosition());
+      assertEquals(HasNext.RETRY, entryStream.hasNext());
+    }
+    assertEquals(2, metrics.getWALTailCacheHits());
+    assertEquals(2, metrics.getWALTailCacheMisses());
+
+    // the positions are the same as when reading everything from the file
+    MetricsSource fileMetrics = new MetricsSource(tn.getMethodName() + "-file");
+    try (WALEntryStream entryStream = new WALEntryStream(logQueue, fs, CONF, 0,
+      log::getLogFileSizeIfBeingWritten, fileMetrics, fakeWalGroupId)) {
+      for (long position : positions) {
+        next(entryStream);
+        assertEquals(position, entryStream.getPosition());
+      }
+    }
+    assertEquals(0, fileMetrics.getWALTailCacheHits());
+  }
+
+  @Test
+  public void testCachedEntriesAreCopies() throws Exception {
+    appendToLog("1", 1);
+    appendToLog("2", 1);
+    appendToLog("3", 1);
+    long position;
+    try (WALEntryStream entryStream =
+      new WALEntryStream(logQueue, fs, CONF, 0, log, new MetricsSource("1"), fakeWalGroupId)) {
+      next(entryStream);
+      position = entryStream.getPosition();
+    }
+    Path path = logQueue.getQueue(fakeWalGroupId).peek();
+    WALTailCache tailCache = log.getWALTailCache(path);
+    long limit = log.getLogFileSizeIfBeingWritten(path).getAsLong();
+    WAL.Entry first = tailCache.get(path, position, limit).getFirst();
+    WAL.Entry second = tailCache.get(path, position, limit).getFirst();
+    assertEquals("2", getRow(first));
+    assertNotSame(first.getEdit(), second.getEdit());
+    assertNotSame(first.getKey(), second.getKey());
+  }
+}
@@ -17,9 +17,15 @@
  */
 package org.apache.hadoop.hbase.snapshot;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.fail;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FSDataOutputStream;
 import org.apache.hadoop.fs.FileSystem;
@@ -95,21 +101,66 @@ public class TestSnapshotManifest {
 
     Path p = createDataManifest();
     try {
-      SnapshotManifest.open(conf, fs, snapshotDir, snapshotDesc);
-      fail("fail to test snapshot manifest because message size is too small.");
-    } catch (CorruptedSnapshotException cse) {
+      // the size limit applies to each region manifest, not to the whole data manifest
+      SnapshotManifest manifest = SnapshotManifest.open(conf, fs, snapshotDir, snapshotDesc);
+      assertEquals(TEST_NUM_REGIONS, manifest.getRegionManifests().size());
       try {
-        conf.setInt(SnapshotManifest.SNAPSHOT_MANIFEST_SIZE_LIMIT_CONF_KEY, 128 * 1024 * 1024);
+        conf.setInt(SnapshotManifest.SNAPSHOT_MANIFEST_SIZE_LIMIT_CONF_KEY, 1024);
         SnapshotManifest.open(conf, fs, snapshotDir, snapshotDesc);
-        LOG.info("open snapshot manifest succeed.");
-      } catch (CorruptedSnapshotException cse2) {
-        fail("fail to take snapshot because Manifest proto-message too large.");
+        fail("fail to test snapshot manifest because region message size is too small.");
+      } catch (CorruptedSnapshotException cse) {
+        LOG.info("region manifest larger than the size limit", cse);
       }
     } finally {
       fs.delete(p, false);
     }
   }
 
+  @Test
+  public void testOpenLazily() throws IOException {
+    SnapshotTestingUtils.SnapshotMock snapshotMock =
+      new SnapshotTestingUtils.SnapshotMock(conf, fs, rootDir);
+    SnapshotTestingUtils.SnapshotMock.SnapshotBuilder lazyBuilder =
+      snapshotMock.createSnapshotV2("lazySnapshot", "testOpenLazily", 6);
+    for (int i = 0; i < 3; i++) {
+      lazyBuilder.addRegionV1();
+      lazyBuilder.addRegionV2();
+    }
+    Path lazySnapshotDir = lazyBuilder.commit();
+    SnapshotDescription desc = lazyBuilder.getSnapshotDescription();
+    // the region manifests are all in the data manifest after consolidation
+    assertEquals(0, fs.listStatus(lazySnapshotDir,
+      path -> path.getName().startsWith(SnapshotManifestV2.SNAPSHOT_MANIFEST_PREFIX)).length);
+
+    SnapshotManifest manifest = SnapshotManifest.open(conf, fs, lazySnapshotDir, desc);
+    SnapshotManifest lazyManifest = SnapshotManifest.openLazily(conf, fs, lazySnapshotDir, desc);
+    assertEquals(manifest.getTableDescriptor(), lazyManifest.getTableDescriptor());
+    List<SnapshotRegionManifest> regionManifests = new ArrayList<>();
+    lazyManifest.visitRegionManifests(regionManifests::add);
+    assertEquals(6, regionManifests.size());
+    assertEquals(manifest.getRegionManifests(), regionManifests);
+
+    Map<String, RegionInfo> regionInfos = lazyManifest.getRegionInfosMap();
+    assertEquals(6, regionInfos.size());
+    for (Map.Entry<String, SnapshotRegionManifest> entry : manifest.getRegionManifestsMap()
+      .entrySet()) {
+      assertEquals(ProtobufUtil.toRegionInfo(entry.getValue().getRegionInfo()),
+        regionInfos.get(entry.getKey()));
+      assertEquals(entry.getValue(), lazyManifest.getRegionManifest(entry.getKey()));
+      assertEquals(entry.getValue(), manifest.getRegionManifest(entry.getKey()));
+    }
+    assertNull(lazyManifest.getRegionManifest("unknown"));
+    // the region manifests are never loaded in memory behind the caller's back
+    assertThrows(IllegalStateException.class, lazyManifest::getRegionManifests);
+    // reads after close open the data manifest again
+    lazyManifest.close();
+    for (Map.Entry<String, SnapshotRegionManifest> entry : manifest.getRegionManifestsMap()
+      .entrySet()) {
+      assertEquals(entry.getValue(), lazyManifest.getRegionManifest(entry.getKey()));
+    }
+    lazyManifest.close();
+  }
+
   @Test
   public void testReadSnapshotRegionManifest() throws IOException {
 